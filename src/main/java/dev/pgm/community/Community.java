@@ -3,6 +3,7 @@ package dev.pgm.community;
 import dev.pgm.community.commands.graph.CommunityCommandGraph;
 import dev.pgm.community.database.DatabaseConnection;
 import dev.pgm.community.events.CommunityEvent;
+import dev.pgm.community.feature.FeatureCaches;
 import dev.pgm.community.feature.FeatureManager;
 import dev.pgm.community.utils.PGMUtils;
 import fr.minuskube.inv.InventoryManager;
@@ -24,6 +25,12 @@ public class Community extends JavaPlugin {
   // Feature Manager
   private FeatureManager features;
 
+  // Shared feature caches
+  private FeatureCaches caches;
+
+  // Thread pools for async work
+  private CommunityExecutors executors;
+
   private InventoryManager inventory;
 
   private Random random;
@@ -40,12 +47,15 @@ public class Community extends JavaPlugin {
 
     this.setupConfig();
     this.setupDatabase();
+    this.setupExecutors();
     this.setupFeatures();
   }
 
   @Override
   public void onDisable() {
     features.disable();
+    database.close();
+    executors.shutdown();
   }
 
   public void reload() {
@@ -64,6 +74,13 @@ public class Community extends JavaPlugin {
     this.database = new DatabaseConnection(this);
   }
 
+  private void setupExecutors() {
+    // One I/O thread per database connection, continuations never wait on the pool
+    int ioThreads = Math.max(2, database.getConfig().getMaxDatabaseConnections());
+    int cpuThreads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+    this.executors = new CommunityExecutors(this, ioThreads, cpuThreads);
+  }
+
   private void setupCommands() {
     try {
       new CommunityCommandGraph(this);
@@ -81,9 +98,16 @@ public class Community extends JavaPlugin {
     getServer().getPluginManager().registerEvents(listener, this);
   }
 
+  private void setupCaches() {
+    this.caches = new FeatureCaches();
+    this.registerListener(caches);
+  }
+
   private void setupFeatures() {
     this.setupInventory();
+    this.setupCaches();
     this.features = new FeatureManager(getConfig(), getLogger(), database, inventory);
+    this.database.migrate(this);
     this.setupCommands();
   }
 
@@ -96,10 +120,22 @@ public class Community extends JavaPlugin {
     return config.getServerId();
   }
 
+  public DatabaseConnection getDatabase() {
+    return database;
+  }
+
   public FeatureManager getFeatures() {
     return features;
   }
 
+  public FeatureCaches getCaches() {
+    return caches;
+  }
+
+  public CommunityExecutors getExecutors() {
+    return executors;
+  }
+
   public InventoryManager getInventory() {
     return inventory;
   }
@@ -1,13 +1,22 @@
 package dev.pgm.community;
 
+import static tc.oc.pgm.util.text.TextParser.parseDuration;
+
 import dev.pgm.community.utils.NetworkUtils;
+import java.time.Duration;
 import org.bukkit.configuration.Configuration;
+import org.bukkit.configuration.ConfigurationSection;
 
 public class CommunityConfig {
 
+  private static final Duration DEFAULT_CACHE_EXPIRY = Duration.ofMinutes(30);
+
   private String serverDisplayName;
   private String serverId;
 
+  private Duration cacheExpiry;
+  private ConfigurationSection cacheWeights;
+
   public CommunityConfig(Configuration config) {
     reload(config);
   }
@@ -15,6 +24,12 @@ public class CommunityConfig {
   public void reload(Configuration config) {
     this.serverDisplayName = config.getString("general.server-name", "");
     this.serverId = config.getString("general.server-id", "");
+
+    this.cacheExpiry = parseDuration(config.getString("caches.expire-after-access", "30m"));
+    if (cacheExpiry == null || cacheExpiry.isNegative() || cacheExpiry.isZero()) {
+      cacheExpiry = DEFAULT_CACHE_EXPIRY;
+    }
+    this.cacheWeights = config.getConfigurationSection("caches.max-weight");
   }
 
   public String getServerDisplayName() {
@@ -24,4 +39,24 @@ public class CommunityConfig {
   public String getServerId() {
     return NetworkUtils.getServerVar(serverId);
   }
+
+  /**
+   * Get how long cached entries are kept after their last access
+   *
+   * @return cache expiry duration
+   */
+  public Duration getCacheExpiry() {
+    return cacheExpiry;
+  }
+
+  /**
+   * Get the maximum weight of a named cache, roughly the number of rows it may hold
+   *
+   * @param cache Name of the cache
+   * @param def Weight used when not configured
+   * @return maximum cache weight
+   */
+  public long getCacheMaxWeight(String cache, long def) {
+    return cacheWeights != null ? cacheWeights.getLong(cache, def) : def;
+  }
 }
@@ -0,0 +1,195 @@
+package dev.pgm.community;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import org.bukkit.Bukkit;
+
+/**
+ * CommunityExecutors - Thread pools owned by Community, used for every async continuation
+ *
+ * <p>Keeps Community work off the common pool shared with PGM and other plugins. The I/O pool runs
+ * database and web continuations, the CPU pool runs formatting and command callbacks, and {@link
+ * #sync()} hops back to the main thread.
+ *
+ * <p>Both pools have a fixed number of threads and a bounded queue. Once the queue is full, the
+ * submitting thread runs the task itself, which slows producers down instead of queueing without
+ * end. Tasks must never block on a future completed by the same pool, chain it with {@code
+ * thenCompose} instead.
+ */
+public class CommunityExecutors {
+
+  private static final int QUEUE_CAPACITY = 4096;
+
+  private final Pool io;
+  private final Pool cpu;
+  private final Executor sync;
+
+  public CommunityExecutors(Community plugin, int ioThreads, int cpuThreads) {
+    this.io = new Pool(plugin, "I/O", ioThreads);
+    this.cpu = new Pool(plugin, "CPU", cpuThreads);
+    this.sync =
+        task -> {
+          if (Bukkit.isPrimaryThread()) {
+            task.run();
+          } else {
+            Bukkit.getScheduler().runTask(plugin, task);
+          }
+        };
+  }
+
+  /** Executor for database and network continuations */
+  public Executor io() {
+    return io;
+  }
+
+  /** Executor for formatting and other short non-blocking work */
+  public Executor cpu() {
+    return cpu;
+  }
+
+  /** Executor which runs tasks on the main server thread, directly if already on it */
+  public Executor sync() {
+    return sync;
+  }
+
+  public List<Pool> getPools() {
+    return ImmutableList.of(io, cpu);
+  }
+
+  /** Waits briefly for running tasks to finish, call after queued database writes are flushed */
+  public void shutdown() {
+    for (Pool pool : getPools()) {
+      pool.pool.shutdown();
+    }
+    for (Pool pool : getPools()) {
+      try {
+        pool.pool.awaitTermination(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /** A monitored pool of a fixed number of threads */
+  public static class Pool implements Executor {
+
+    private final String name;
+    private final int size;
+    private final ThreadPoolExecutor pool;
+
+    private final AtomicLong completed;
+    private final AtomicLong overflows;
+    private final AtomicLong totalWaitNanos;
+    private final AtomicLong totalRunNanos;
+    private volatile long maxWaitNanos;
+
+    private Pool(Community plugin, String name, int threads) {
+      this.name = name;
+      this.size = Math.max(1, threads);
+      this.completed = new AtomicLong();
+      this.overflows = new AtomicLong();
+      this.totalWaitNanos = new AtomicLong();
+      this.totalRunNanos = new AtomicLong();
+
+      AtomicInteger index = new AtomicInteger();
+      this.pool =
+          new ThreadPoolExecutor(
+              size,
+              size,
+              0L,
+              TimeUnit.MILLISECONDS,
+              new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+              runnable -> {
+                Thread thread =
+                    new Thread(runnable, "Community " + name + " - " + index.getAndIncrement());
+                thread.setDaemon(true);
+                thread.setUncaughtExceptionHandler(
+                    (failed, error) ->
+                        plugin
+                            .getLogger()
+                            .log(Level.SEVERE, "Uncaught error in " + failed.getName(), error));
+                return thread;
+              },
+              (task, executor) -> {
+                if (executor.isShutdown()) {
+                  throw new RejectedExecutionException(name + " pool is shut down");
+                }
+                // Backpressure, the submitter runs the task while the queue is full
+                overflows.incrementAndGet();
+                task.run();
+              });
+    }
+
+    @Override
+    public void execute(Runnable task) {
+      final long queued = System.nanoTime();
+      pool.execute(
+          () -> {
+            final long started = System.nanoTime();
+            try {
+              task.run();
+            } finally {
+              long wait = started - queued;
+              totalWaitNanos.addAndGet(wait);
+              totalRunNanos.addAndGet(System.nanoTime() - started);
+              if (wait > maxWaitNanos) maxWaitNanos = wait;
+              completed.incrementAndGet();
+            }
+          });
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public int getParallelism() {
+      return size;
+    }
+
+    /** @return Threads currently alive, never more than {@link #getParallelism()} */
+    public int getThreadCount() {
+      return pool.getPoolSize();
+    }
+
+    public int getActiveCount() {
+      return pool.getActiveCount();
+    }
+
+    /** @return Tasks waiting to be run */
+    public long getQueueDepth() {
+      return pool.getQueue().size();
+    }
+
+    /** @return Tasks run by the submitting thread as the queue was full */
+    public long getOverflowCount() {
+      return overflows.get();
+    }
+
+    public long getCompletedCount() {
+      return completed.get();
+    }
+
+    /** @return Average time tasks spent queued before running */
+    public double getAverageWaitMillis() {
+      long count = completed.get();
+      return count == 0 ? 0 : totalWaitNanos.get() / (double) count / 1_000_000;
+    }
+
+    public long getMaxWaitMillis() {
+      return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos);
+    }
+
+    public double getAverageRunMillis() {
+      long count = completed.get();
+      return count == 0 ? 0 : totalRunNanos.get() / (double) count / 1_000_000;
+    }
+  }
+}
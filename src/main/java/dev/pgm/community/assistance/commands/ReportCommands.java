@@ -5,6 +5,7 @@ import static net.kyori.adventure.text.Component.text;
 import static net.kyori.adventure.text.Component.translatable;
 import static tc.oc.pgm.util.text.TextException.exception;
 
+import com.google.common.collect.Sets;
 import dev.pgm.community.Community;
 import dev.pgm.community.CommunityCommand;
 import dev.pgm.community.CommunityPermissions;
@@ -16,16 +17,17 @@ import dev.pgm.community.users.feature.UsersFeature;
 import dev.pgm.community.utils.CommandAudience;
 import dev.pgm.community.utils.PaginatedComponentResults;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.event.HoverEvent;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextDecoration;
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import tc.oc.pgm.lib.cloud.commandframework.annotations.Argument;
 import tc.oc.pgm.lib.cloud.commandframework.annotations.CommandDescription;
@@ -35,7 +37,6 @@ import tc.oc.pgm.lib.cloud.commandframework.annotations.Flag;
 import tc.oc.pgm.lib.cloud.commandframework.annotations.specifier.Greedy;
 import tc.oc.pgm.lib.cloud.commandframework.annotations.specifier.Range;
 import tc.oc.pgm.util.named.NameStyle;
-import tc.oc.pgm.util.player.PlayerComponent;
 import tc.oc.pgm.util.text.TemporalComponent;
 import tc.oc.pgm.util.text.TextFormatter;
 
@@ -98,7 +99,8 @@ public class ReportCommands extends CommunityCommand {
                   return;
                 }
                 sendReportHistory(audience, reports, page);
-              });
+              },
+              Community.get().getExecutors().cpu());
       return;
     }
 
@@ -125,11 +127,39 @@ public class ReportCommands extends CommunityCommand {
 
     Component formattedHeader =
         TextFormatter.horizontalLineHeading(audience.getSender(), header, NamedTextColor.DARK_GRAY);
+    List<Report> sorted = reportData.stream().sorted().collect(Collectors.toList());
+
+    // Render the names on this page together, instead of waiting on each while formatting
+    Set<UUID> pageIds = Sets.newHashSet();
+    for (Report report :
+        sorted.subList(
+            Math.min(sorted.size(), (page - 1) * perPage),
+            Math.min(sorted.size(), page * perPage))) {
+      pageIds.add(report.getSenderId());
+      pageIds.add(report.getTargetId());
+    }
+
+    final int currentPage = page;
+    usernames
+        .renderUsernames(pageIds, NameStyle.FANCY)
+        .thenAcceptAsync(
+            names ->
+                sendReportHistory(audience, formattedHeader, perPage, sorted, names, currentPage),
+            Community.get().getExecutors().cpu());
+  }
+
+  private void sendReportHistory(
+      CommandAudience audience,
+      Component formattedHeader,
+      int perPage,
+      List<Report> sorted,
+      Map<UUID, Component> names,
+      int page) {
     new PaginatedComponentResults<Report>(formattedHeader, perPage) {
       @Override
       public Component format(Report data, int index) {
-        Component reporterName = getReportFormatName(data.getSenderId()).join();
-        Component reportedName = getReportFormatName(data.getTargetId()).join();
+        Component reporterName = names.get(data.getSenderId());
+        Component reportedName = names.get(data.getTargetId());
 
         Component serverName =
             text("Server ", NamedTextColor.GRAY)
@@ -162,17 +192,7 @@ public class ReportCommands extends CommunityCommand {
       public Component formatEmpty() {
         return text("No reports found", NamedTextColor.RED);
       }
-    }.display(
-        audience.getAudience(), reportData.stream().sorted().collect(Collectors.toList()), page);
-  }
-
-  private CompletableFuture<Component> getReportFormatName(UUID id) {
-    return usernames
-        .getStoredUsername(id)
-        .thenApplyAsync(
-            name -> {
-              return PlayerComponent.player(Bukkit.getPlayer(id), name, NameStyle.FANCY);
-            });
+    }.display(audience.getAudience(), sorted, page);
   }
 
   private void checkEnabled() {
@@ -6,6 +6,7 @@ import static net.kyori.adventure.text.Component.translatable;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import dev.pgm.community.Community;
 import dev.pgm.community.CommunityPermissions;
 import dev.pgm.community.assistance.AssistanceRequest;
 import dev.pgm.community.assistance.AssistanceRequest.RequestType;
@@ -234,7 +235,8 @@ public abstract class AssistanceFeatureBase extends FeatureBase implements Assis
               Component senderName = sender.join();
               Component targetName = target.join();
               broadcastRequest(server, senderName, targetName, reason, report);
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 
   private void broadcastRequest(
@@ -51,11 +51,11 @@ public class SQLAssistanceFeature extends AssistanceFeatureBase {
       // CONVERT TO UUID if username
       return users
           .getStoredId(target)
-          .thenApplyAsync(
+          .thenCompose(
               uuid ->
                   uuid.isPresent()
-                      ? service.queryList(uuid.get().toString()).join()
-                      : Lists.newArrayList());
+                      ? service.queryList(uuid.get().toString())
+                      : CompletableFuture.<List<Report>>completedFuture(Lists.newArrayList()));
     }
 
     return service.queryList(target);
@@ -1,12 +1,20 @@
 package dev.pgm.community.assistance.services;
 
+import dev.pgm.community.database.UUIDCodec;
+
 public interface AssistanceQuery {
 
   static final String TABLE_NAME = "reports";
   static final String TABLE_FIELDS =
-      "(id VARCHAR(36) PRIMARY KEY, "
-          + "sender VARCHAR(36), "
-          + "reported VARCHAR(36), "
+      "(id "
+          + UUIDCodec.columnType()
+          + " PRIMARY KEY, "
+          + "sender "
+          + UUIDCodec.columnType()
+          + ", "
+          + "reported "
+          + UUIDCodec.columnType()
+          + ", "
           + "reason VARCHAR(255), "
           + "time LONG, "
           + "server VARCHAR(255))";
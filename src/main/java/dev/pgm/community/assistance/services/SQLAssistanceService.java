@@ -8,6 +8,7 @@ import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Lists;
 import dev.pgm.community.Community;
 import dev.pgm.community.assistance.Report;
+import dev.pgm.community.database.UUIDCodec;
 import dev.pgm.community.feature.SQLFeatureBase;
 import java.time.Instant;
 import java.util.List;
@@ -40,9 +41,9 @@ public class SQLAssistanceService extends SQLFeatureBase<Report, String>
 
     DB.executeUpdateAsync(
         INSERT_REPORT_QUERY,
-        report.getId().toString(),
-        report.getSenderId().toString(),
-        report.getTargetId().toString(),
+        UUIDCodec.encode(report.getId()),
+        UUIDCodec.encode(report.getSenderId()),
+        UUIDCodec.encode(report.getTargetId()),
         report.getReason(),
         report.getTime().toEpochMilli(),
         Community.get().getServerConfig().getServerId());
@@ -56,22 +57,20 @@ public class SQLAssistanceService extends SQLFeatureBase<Report, String>
     if (reports.isLoaded()) {
       return CompletableFuture.completedFuture(reports.getReports());
     } else {
-      return DB.getResultsAsync(SELECT_REPORT_QUERY, target)
+      return DB.getResultsAsync(SELECT_REPORT_QUERY, UUIDCodec.encode(targetId))
           .thenApplyAsync(
               results -> {
                 if (results != null) {
                   for (DbRow row : results) {
-                    String id = row.getString("id");
-                    String sender = row.getString("sender");
                     String reason = row.getString("reason");
                     long time = Long.parseLong(row.getString("time"));
                     reports
                         .getReports()
                         .add(
                             new Report(
-                                UUID.fromString(id),
+                                UUIDCodec.decode(row, "id"),
                                 targetId,
-                                UUID.fromString(sender),
+                                UUIDCodec.decode(row, "sender"),
                                 reason,
                                 Instant.ofEpochMilli(time),
                                 Community.get().getServerConfig().getServerId()));
@@ -79,7 +78,8 @@ public class SQLAssistanceService extends SQLFeatureBase<Report, String>
                 }
                 reports.setLoaded(true);
                 return reports.getReports();
-              });
+              },
+              Community.get().getExecutors().io());
     }
   }
 
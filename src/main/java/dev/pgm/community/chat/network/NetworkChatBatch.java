@@ -0,0 +1,23 @@
+package dev.pgm.community.chat.network;
+
+import java.util.List;
+
+/** NetworkChatBatch - Chat messages relayed by one server within the same tick */
+public class NetworkChatBatch {
+
+  private final String server;
+  private final List<NetworkChatMessage> messages;
+
+  public NetworkChatBatch(String server, List<NetworkChatMessage> messages) {
+    this.server = server;
+    this.messages = messages;
+  }
+
+  public String getServer() {
+    return server;
+  }
+
+  public List<NetworkChatMessage> getMessages() {
+    return messages;
+  }
+}
@@ -1,13 +1,93 @@
 package dev.pgm.community.chat.network;
 
 import dev.pgm.community.feature.config.FeatureConfigImpl;
+import java.util.EnumMap;
+import java.util.Map;
 import org.bukkit.configuration.Configuration;
+import tc.oc.pgm.util.channels.Channel;
 
 public class NetworkChatConfig extends FeatureConfigImpl {
 
   private static final String KEY = "network.chat";
+  private static final String CHANNELS = KEY + ".channels";
+
+  private Map<Channel, ChannelSettings> channels;
 
   public NetworkChatConfig(Configuration config) {
     super(KEY, config);
   }
+
+  /** @return Whether messages of the channel are relayed to other servers */
+  public boolean isRelayed(Channel channel) {
+    return channels.containsKey(channel);
+  }
+
+  /** @return Rate limits of the channel, null if not relayed */
+  public ChannelSettings getSettings(Channel channel) {
+    return channels.get(channel);
+  }
+
+  @Override
+  public void reload(Configuration config) {
+    super.reload(config);
+    this.channels = new EnumMap<>(Channel.class);
+    // Team chat is not relayed, as teams only exist within a match
+    load(config, Channel.ADMIN, "admin", true, 20, 40, 40, 80);
+    load(config, Channel.GLOBAL, "global", false, 5, 20, 20, 60);
+  }
+
+  private void load(
+      Configuration config,
+      Channel channel,
+      String name,
+      boolean enabled,
+      double rate,
+      int burst,
+      double totalRate,
+      int totalBurst) {
+    String key = CHANNELS + "." + name;
+    if (!config.getBoolean(key + ".enabled", enabled)) return;
+    channels.put(
+        channel,
+        new ChannelSettings(
+            Math.max(0.1, config.getDouble(key + ".rate", rate)),
+            Math.max(1, config.getInt(key + ".burst", burst)),
+            Math.max(0.1, config.getDouble(key + ".total-rate", totalRate)),
+            Math.max(1, config.getInt(key + ".total-burst", totalBurst))));
+  }
+
+  /** Rate limits of a relayed channel, per sender and for the whole server */
+  public static class ChannelSettings {
+    private final double rate;
+    private final int burst;
+    private final double totalRate;
+    private final int totalBurst;
+
+    public ChannelSettings(double rate, int burst, double totalRate, int totalBurst) {
+      this.rate = rate;
+      this.burst = burst;
+      this.totalRate = totalRate;
+      this.totalBurst = totalBurst;
+    }
+
+    /** @return Messages relayed per second once the burst is used up */
+    public double getRate() {
+      return rate;
+    }
+
+    /** @return Messages which can be relayed at once */
+    public int getBurst() {
+      return burst;
+    }
+
+    /** @return Messages relayed per second from all senders, once the total burst is used up */
+    public double getTotalRate() {
+      return totalRate;
+    }
+
+    /** @return Messages which can be relayed at once from all senders */
+    public int getTotalBurst() {
+      return totalBurst;
+    }
+  }
 }
@@ -3,7 +3,10 @@ package dev.pgm.community.chat.network;
 import static dev.pgm.community.utils.NetworkUtils.getServer;
 import static net.kyori.adventure.text.Component.text;
 
+import com.google.common.collect.Lists;
+import dev.pgm.community.Community;
 import dev.pgm.community.CommunityPermissions;
+import dev.pgm.community.chat.network.NetworkChatConfig.ChannelSettings;
 import dev.pgm.community.feature.FeatureBase;
 import dev.pgm.community.network.feature.NetworkFeature;
 import dev.pgm.community.network.subs.types.ChatSubscriber;
@@ -11,47 +14,204 @@ import dev.pgm.community.network.updates.types.ChatUpdate;
 import dev.pgm.community.utils.BroadcastUtils;
 import dev.pgm.community.utils.PGMUtils;
 import dev.pgm.community.utils.Sounds;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
+import org.apache.commons.lang.StringUtils;
 import org.bukkit.configuration.Configuration;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitTask;
 import tc.oc.pgm.util.channels.Channel;
 import tc.oc.pgm.util.event.ChannelMessageEvent;
 
+/**
+ * NetworkChatFeature - Relays admin and global chat to the other servers of the network
+ *
+ * <p>Each sender is rate limited per channel by a token bucket, and so is each channel as a whole,
+ * so many senders at once can not flood the network either. Messages over either limit are still
+ * shown on this server but not relayed. Messages are sent once a tick as a single batch, and
+ * received messages are shown from the main thread, at most {@link #MAX_DELIVERIES} per tick. Past
+ * {@link #MAX_INBOUND} waiting messages, the oldest are dropped.
+ */
 public class NetworkChatFeature extends FeatureBase {
 
+  private static final int MAX_DELIVERIES = 100;
+  private static final int MAX_INBOUND = 1000;
+
+  // Bucket of messages sent from the console
+  private static final UUID CONSOLE = new UUID(0, 0);
+
   private NetworkFeature network;
 
+  private final Map<UUID, Map<Channel, TokenBucket>> buckets;
+  private final Map<Channel, TokenBucket> channelBuckets;
+  private final Queue<NetworkChatMessage> outbound;
+  private final Queue<NetworkChatMessage> inbound;
+  private final AtomicInteger inboundSize;
+
+  private final AtomicLong relayed;
+  private final AtomicLong limited;
+  private final AtomicLong delivered;
+  private final AtomicLong dropped;
+
+  private BukkitTask task;
+
   public NetworkChatFeature(Configuration config, Logger logger, NetworkFeature network) {
     super(new NetworkChatConfig(config), logger, "Network Chat (PGM)");
     this.network = network;
+    this.buckets = new ConcurrentHashMap<>();
+    this.channelBuckets = new ConcurrentHashMap<>();
+    this.outbound = new ConcurrentLinkedQueue<>();
+    this.inbound = new ConcurrentLinkedQueue<>();
+    this.inboundSize = new AtomicInteger();
+    this.relayed = new AtomicLong();
+    this.limited = new AtomicLong();
+    this.delivered = new AtomicLong();
+    this.dropped = new AtomicLong();
 
     if (getConfig().isEnabled() && PGMUtils.isPGMEnabled() && network.isEnabled()) {
       enable();
       network.registerSubscriber(new ChatSubscriber(this, network.getNetworkId(), logger));
+      this.task =
+          Community.get()
+              .getServer()
+              .getScheduler()
+              .runTaskTimer(Community.get(), this::tick, 1L, 1L);
+    }
+  }
+
+  public NetworkChatConfig getChatConfig() {
+    return (NetworkChatConfig) getConfig();
+  }
+
+  @Override
+  public void disable() {
+    super.disable();
+    if (task != null) {
+      task.cancel();
+      task = null;
     }
+    flush(); // Messages sent in the last tick
   }
 
-  @EventHandler
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
   public void onMatchPlayerChat(ChannelMessageEvent event) {
-    if (event.getChannel() == Channel.ADMIN) {
-      network.sendUpdate(new ChatUpdate(new NetworkChatMessage(event, getServer())));
-    } // TODO: maybe more cross server message types?
+    ChannelSettings settings = getChatConfig().getSettings(event.getChannel());
+    if (settings == null) return;
+
+    UUID sender = event.getSender() != null ? event.getSender().getUniqueId() : CONSOLE;
+    TokenBucket bucket =
+        buckets
+            .computeIfAbsent(sender, id -> new ConcurrentHashMap<>())
+            .computeIfAbsent(event.getChannel(), channel -> new TokenBucket());
+    // Sender first, so a sender over their own limit does not use up the channel's
+    TokenBucket channelBucket =
+        channelBuckets.computeIfAbsent(event.getChannel(), channel -> new TokenBucket());
+    if (!bucket.tryAcquire(settings.getRate(), settings.getBurst())
+        || !channelBucket.tryAcquire(settings.getTotalRate(), settings.getTotalBurst())) {
+      limited.incrementAndGet();
+      return;
+    }
+    outbound.add(new NetworkChatMessage(event, getServer()));
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onQuit(PlayerQuitEvent event) {
+    buckets.remove(event.getPlayer().getUniqueId());
+  }
+
+  public void recieveUpdate(NetworkChatBatch batch) {
+    for (NetworkChatMessage message : batch.getMessages()) {
+      if (getChatConfig().isRelayed(message.getChannel())) {
+        inbound.add(message);
+        inboundSize.incrementAndGet();
+      }
+    }
+
+    // Shed the oldest, a flood from other servers can not grow the queue without end
+    while (inboundSize.get() > MAX_INBOUND && inbound.poll() != null) {
+      inboundSize.decrementAndGet();
+      dropped.incrementAndGet();
+    }
+  }
+
+  /** @return Messages relayed to other servers */
+  public long getRelayedCount() {
+    return relayed.get();
+  }
+
+  /** @return Messages not relayed as their sender or channel was over its rate limit */
+  public long getLimitedCount() {
+    return limited.get();
+  }
+
+  /** @return Messages from other servers shown on this one */
+  public long getDeliveredCount() {
+    return delivered.get();
+  }
+
+  /** @return Messages from other servers dropped as too many were waiting */
+  public long getDroppedCount() {
+    return dropped.get();
+  }
+
+  private void tick() {
+    flush();
+
+    for (int i = 0; i < MAX_DELIVERIES; i++) {
+      NetworkChatMessage message = inbound.poll();
+      if (message == null) break;
+      inboundSize.decrementAndGet();
+      deliver(message);
+      delivered.incrementAndGet();
+    }
+  }
+
+  private void flush() {
+    if (outbound.isEmpty()) return;
+
+    List<NetworkChatMessage> batch = Lists.newArrayList();
+    NetworkChatMessage message;
+    while ((message = outbound.poll()) != null) {
+      batch.add(message);
+    }
+    network.sendUpdate(new ChatUpdate(new NetworkChatBatch(getServer(), batch)));
+    relayed.addAndGet(batch.size());
   }
 
-  public void recieveUpdate(NetworkChatMessage message) {
-    if (message.getChannel() == Channel.ADMIN) {
-      Component formatted = formatMessage(message.getSender(), message.getMessage());
-      BroadcastUtils.sendAdminChatMessage(
-          formatted,
-          message.getServer(),
-          Sounds.ADMIN_CHAT,
-          CommunityPermissions.CROSS_NETWORK_CHAT);
+  private void deliver(NetworkChatMessage message) {
+    switch (message.getChannel()) {
+      case ADMIN:
+        BroadcastUtils.sendAdminChatMessage(
+            message.getComponent(),
+            message.getServer(),
+            Sounds.ADMIN_CHAT,
+            CommunityPermissions.CROSS_NETWORK_CHAT);
+        break;
+      case GLOBAL:
+        BroadcastUtils.sendGlobalMessage(formatGlobal(message.getServer(), message.getComponent()));
+        break;
+      default:
+        break;
     }
   }
 
-  private Component formatMessage(Component sender, Component message) {
-    return text().append(sender).append(text(": ", NamedTextColor.WHITE)).append(message).build();
+  private Component formatGlobal(String server, Component message) {
+    return text()
+        .append(text("[", NamedTextColor.WHITE))
+        .append(text(StringUtils.capitalize(server.toLowerCase()), NamedTextColor.GREEN))
+        .append(text("] ", NamedTextColor.WHITE))
+        .append(message)
+        .build();
   }
 }
@@ -4,33 +4,56 @@ import static net.kyori.adventure.text.Component.text;
 import static tc.oc.pgm.util.player.PlayerComponent.player;
 
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 import tc.oc.pgm.util.channels.Channel;
 import tc.oc.pgm.util.event.ChannelMessageEvent;
 import tc.oc.pgm.util.named.NameStyle;
 import tc.oc.pgm.util.text.TextTranslations;
 
+/**
+ * NetworkChatMessage - A chat message relayed to other servers
+ *
+ * <p>The sender name and message are formatted and serialized once by the sending server, and
+ * deserialized once by each receiving server no matter how many players view it.
+ */
 public class NetworkChatMessage {
 
-  private String message;
-  private String sender;
-  private String server;
-  private Channel channel;
+  private final String json;
+  private final String server;
+  private final Channel channel;
+
+  private volatile Component component;
 
   public NetworkChatMessage(ChannelMessageEvent event, String server) {
-    this.message = TextTranslations.toMinecraftGson(text(event.getMessage()), null);
-    this.sender =
-        TextTranslations.toMinecraftGson(player(event.getSender(), NameStyle.FANCY), null);
-    this.channel = event.getChannel();
+    this(
+        TextTranslations.toMinecraftGson(
+            text()
+                .append(player(event.getSender(), NameStyle.FANCY))
+                .append(text(": ", NamedTextColor.WHITE))
+                .append(text(event.getMessage()))
+                .build(),
+            null),
+        server,
+        event.getChannel());
+  }
+
+  public NetworkChatMessage(String json, String server, Channel channel) {
+    this.json = json;
     this.server = server;
+    this.channel = channel;
   }
 
-  public Component getMessage() {
-    return GsonComponentSerializer.colorDownsamplingGson().deserialize(message);
+  /** @return The formatted sender and message, deserialized on first use */
+  public Component getComponent() {
+    if (component == null) {
+      component = GsonComponentSerializer.colorDownsamplingGson().deserialize(json);
+    }
+    return component;
   }
 
-  public Component getSender() {
-    return GsonComponentSerializer.colorDownsamplingGson().deserialize(sender);
+  public String getJson() {
+    return json;
   }
 
   public String getServer() {
@@ -0,0 +1,38 @@
+package dev.pgm.community.chat.network;
+
+/**
+ * TokenBucket - Allows bursts of up to a number of events, refilled at a steady rate
+ *
+ * <p>The rate and size are passed on each call, so a config reload applies right away.
+ */
+public class TokenBucket {
+
+  private double tokens;
+  private long refilledAt;
+
+  public TokenBucket() {
+    this.tokens = -1; // Filled on first use
+    this.refilledAt = System.nanoTime();
+  }
+
+  /**
+   * Takes a token if one is left
+   *
+   * @param rate Tokens added per second
+   * @param size Most tokens the bucket holds
+   * @return Whether a token was taken
+   */
+  public synchronized boolean tryAcquire(double rate, int size) {
+    final long now = System.nanoTime();
+    if (tokens < 0) {
+      tokens = size;
+    } else {
+      tokens = Math.min(size, tokens + (now - refilledAt) / 1_000_000_000d * rate);
+    }
+    refilledAt = now;
+
+    if (tokens < 1) return false;
+    tokens--;
+    return true;
+  }
+}
@@ -4,13 +4,28 @@ import static net.kyori.adventure.text.Component.text;
 
 import dev.pgm.community.Community;
 import dev.pgm.community.CommunityCommand;
+import dev.pgm.community.CommunityExecutors;
 import dev.pgm.community.CommunityPermissions;
 import dev.pgm.community.assistance.feature.AssistanceFeature;
+import dev.pgm.community.chat.network.NetworkChatFeature;
+import dev.pgm.community.database.WriteBehindQueue;
 import dev.pgm.community.feature.Feature;
+import dev.pgm.community.feature.FeatureCache;
 import dev.pgm.community.moderation.feature.ModerationFeature;
+import dev.pgm.community.network.NetworkConfig;
+import dev.pgm.community.network.cache.SharedCache;
+import dev.pgm.community.network.local.LoopbackHarness;
+import dev.pgm.community.network.local.LoopbackHarness.Scenario;
+import dev.pgm.community.network.metrics.ChannelMetrics;
+import dev.pgm.community.network.metrics.Histogram;
+import dev.pgm.community.network.metrics.NetworkMetrics;
 import dev.pgm.community.users.feature.UsersFeature;
 import dev.pgm.community.utils.CommandAudience;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import net.kyori.adventure.text.format.NamedTextColor;
+import tc.oc.pgm.lib.cloud.commandframework.annotations.Argument;
 import tc.oc.pgm.lib.cloud.commandframework.annotations.CommandDescription;
 import tc.oc.pgm.lib.cloud.commandframework.annotations.CommandMethod;
 import tc.oc.pgm.lib.cloud.commandframework.annotations.CommandPermission;
@@ -18,6 +33,9 @@ import tc.oc.pgm.util.text.TextFormatter;
 
 public class CommunityPluginCommand extends CommunityCommand {
 
+  private static final int MAX_LOOPBACK_SERVERS = 32;
+  private static final int MAX_LOOPBACK_UPDATES = 100000;
+
   private final ModerationFeature moderation;
   private final UsersFeature users;
   private final AssistanceFeature reports;
@@ -50,6 +68,227 @@ public class CommunityPluginCommand extends CommunityCommand {
     sendTotalCount(reports, "Total Reports", audience);
   }
 
+  @CommandMethod("community caches")
+  @CommandDescription("View cache stats")
+  @CommandPermission(CommunityPermissions.RELOAD)
+  public void caches(CommandAudience audience) {
+    audience.sendMessage(
+        TextFormatter.horizontalLineHeading(
+            audience.getSender(),
+            text("Community Cache Stats", NamedTextColor.YELLOW),
+            NamedTextColor.DARK_RED));
+    for (FeatureCache<?, ?> cache : Community.get().getCaches().getCaches()) {
+      audience.sendMessage(
+          text()
+              .append(text(cache.getName(), NamedTextColor.GOLD))
+              .append(text(": ", NamedTextColor.GRAY))
+              .append(text(cache.size(), NamedTextColor.GREEN))
+              .append(text(" entries, ", NamedTextColor.GRAY))
+              .append(text(cache.getHitCount(), NamedTextColor.GREEN))
+              .append(text(" hits, ", NamedTextColor.GRAY))
+              .append(text(cache.getMissCount(), NamedTextColor.RED))
+              .append(text(" misses, ", NamedTextColor.GRAY))
+              .append(text(cache.getEvictionCount(), NamedTextColor.YELLOW))
+              .append(text(" evictions, ", NamedTextColor.GRAY))
+              .append(text(cache.getPinnedCount(), NamedTextColor.AQUA))
+              .append(text(" pinned", NamedTextColor.GRAY))
+              .build());
+    }
+    for (SharedCache<?> cache :
+        Community.get().getFeatures().getNetwork().getSharedCaches().getCaches()) {
+      if (!cache.isEnabled()) continue;
+      audience.sendMessage(
+          text()
+              .append(text("shared " + cache.getName(), NamedTextColor.GOLD))
+              .append(text(": ", NamedTextColor.GRAY))
+              .append(text(cache.getHitCount(), NamedTextColor.GREEN))
+              .append(text(" hits, ", NamedTextColor.GRAY))
+              .append(text(cache.getMissCount(), NamedTextColor.RED))
+              .append(text(" misses, ", NamedTextColor.GRAY))
+              .append(text(cache.getWriteCount(), NamedTextColor.YELLOW))
+              .append(text(" writes, ", NamedTextColor.GRAY))
+              .append(text(cache.getErrorCount(), NamedTextColor.RED))
+              .append(text(" errors", NamedTextColor.GRAY))
+              .build());
+    }
+  }
+
+  @CommandMethod("community writes")
+  @CommandDescription("View write-behind queue stats")
+  @CommandPermission(CommunityPermissions.RELOAD)
+  public void writes(CommandAudience audience) {
+    WriteBehindQueue queue = Community.get().getDatabase().getWriteQueue();
+    audience.sendMessage(
+        TextFormatter.horizontalLineHeading(
+            audience.getSender(),
+            text("Community Write Queue", NamedTextColor.YELLOW),
+            NamedTextColor.DARK_RED));
+    sendStat(audience, "Queued", queue.getQueueSize());
+    sendStat(audience, "Written", queue.getWrittenCount());
+    sendStat(audience, "Flushes", queue.getFlushCount());
+    sendStat(
+        audience,
+        "Flush time",
+        String.format(
+            "%.1fms avg, %dms last, %dms max",
+            queue.getAverageFlushMillis(), queue.getLastFlushMillis(), queue.getMaxFlushMillis()));
+    sendStat(audience, "Overflowed", queue.getOverflowCount());
+    sendStat(audience, "Dropped", queue.getDroppedCount());
+    sendStat(audience, "Failed", queue.getFailedCount());
+  }
+
+  @CommandMethod("community executors")
+  @CommandDescription("View thread pool stats")
+  @CommandPermission(CommunityPermissions.RELOAD)
+  public void executors(CommandAudience audience) {
+    audience.sendMessage(
+        TextFormatter.horizontalLineHeading(
+            audience.getSender(),
+            text("Community Executors", NamedTextColor.YELLOW),
+            NamedTextColor.DARK_RED));
+    for (CommunityExecutors.Pool pool : Community.get().getExecutors().getPools()) {
+      sendStat(
+          audience,
+          pool.getName() + " threads",
+          String.format(
+              "%d/%d alive, %d active",
+              pool.getThreadCount(), pool.getParallelism(), pool.getActiveCount()));
+      sendStat(
+          audience,
+          pool.getName() + " tasks",
+          String.format(
+              "%d queued, %d completed, %d run by caller",
+              pool.getQueueDepth(), pool.getCompletedCount(), pool.getOverflowCount()));
+      sendStat(
+          audience,
+          pool.getName() + " latency",
+          String.format(
+              "%.1fms avg wait, %dms max wait, %.1fms avg run",
+              pool.getAverageWaitMillis(), pool.getMaxWaitMillis(), pool.getAverageRunMillis()));
+    }
+  }
+
+  @CommandMethod("community network loopback <scenario> [servers] [updates]")
+  @CommandDescription("Load test network updates between servers in this JVM")
+  @CommandPermission(CommunityPermissions.RELOAD)
+  public void loopback(
+      CommandAudience audience,
+      @Argument("scenario") Scenario scenario,
+      @Argument(value = "servers", defaultValue = "4") int servers,
+      @Argument(value = "updates", defaultValue = "1000") int updates) {
+    NetworkConfig config = new NetworkConfig(Community.get().getConfig());
+    LoopbackHarness harness =
+        new LoopbackHarness(
+            Community.get().getLogger(),
+            config.getLocalLatency(),
+            config.getLocalJitter(),
+            config.getLocalLoss());
+    final int serverCount = Math.max(2, Math.min(MAX_LOOPBACK_SERVERS, servers));
+    final int updateCount = Math.max(1, Math.min(MAX_LOOPBACK_UPDATES, updates));
+
+    audience.sendWarning(
+        text("Running " + scenario + " across " + serverCount + " loopback servers..."));
+    CompletableFuture.supplyAsync(
+            () -> {
+              try {
+                return harness.run(scenario, serverCount, updateCount);
+              } catch (InterruptedException e) {
+                throw new CompletionException(e);
+              }
+            },
+            Community.get().getExecutors().io())
+        .thenAcceptAsync(
+            result -> {
+              audience.sendMessage(
+                  TextFormatter.horizontalLineHeading(
+                      audience.getSender(),
+                      text("Loopback " + result.getScenario(), NamedTextColor.YELLOW),
+                      NamedTextColor.DARK_RED));
+              sendStat(
+                  audience,
+                  "Delivered",
+                  String.format("%d of %d", result.getDelivered(), result.getExpected()));
+              sendStat(audience, "Lost", result.getLost());
+              sendStat(audience, "Reordered", result.getReordered());
+              sendStat(
+                  audience,
+                  "Throughput",
+                  String.format(
+                      "%.0f/s over %dms", result.getThroughput(), result.getElapsedMillis()));
+              sendStat(
+                  audience,
+                  "Latency",
+                  String.format(
+                      "%.1fms avg, %dms max",
+                      result.getAverageLatencyMillis(), result.getMaxLatencyMillis()));
+            },
+            Community.get().getExecutors().cpu());
+  }
+
+  @CommandMethod("community metrics network")
+  @CommandDescription("View network update rates and timings")
+  @CommandPermission(CommunityPermissions.RELOAD)
+  public void networkMetrics(CommandAudience audience) {
+    NetworkMetrics metrics = Community.get().getFeatures().getNetwork().getMetrics();
+    audience.sendMessage(
+        TextFormatter.horizontalLineHeading(
+            audience.getSender(),
+            text("Community Network Metrics", NamedTextColor.YELLOW),
+            NamedTextColor.DARK_RED));
+    for (ChannelMetrics channel : metrics.getChannels().values()) {
+      sendStat(
+          audience,
+          channel.getChannel(),
+          String.format(
+              "%d sent (%.1f/s, %dB), %d received (%.1f/s, %dB), %d malformed",
+              channel.getPublished().getTotal(),
+              channel.getPublished().getRate(),
+              channel.getPublishedBytes(),
+              channel.getReceived().getTotal(),
+              channel.getReceived().getRate(),
+              channel.getReceivedBytes(),
+              channel.getMalformedCount()));
+      sendStat(audience, "  decode", formatTimings(channel.getDecode()));
+      sendStat(audience, "  latency", formatTimings(channel.getLatency()));
+      for (Map.Entry<String, Histogram> handler : channel.getHandlers().entrySet()) {
+        sendStat(audience, "  " + handler.getKey(), formatTimings(handler.getValue()));
+      }
+    }
+    for (Map.Entry<String, Histogram> origin : metrics.getOrigins().entrySet()) {
+      sendStat(audience, "from " + origin.getKey(), formatTimings(origin.getValue()));
+    }
+
+    NetworkChatFeature chat = Community.get().getFeatures().getNetworkChat();
+    if (chat.isEnabled()) {
+      sendStat(
+          audience,
+          "Chat",
+          String.format(
+              "%d relayed, %d rate limited, %d received, %d dropped",
+              chat.getRelayedCount(),
+              chat.getLimitedCount(),
+              chat.getDeliveredCount(),
+              chat.getDroppedCount()));
+    }
+  }
+
+  private String formatTimings(Histogram histogram) {
+    return String.format(
+        "%.2fms avg, %.2fms p99, %.2fms max",
+        histogram.getAverageMillis(),
+        histogram.getPercentileMillis(0.99),
+        histogram.getMaxMillis());
+  }
+
+  private void sendStat(CommandAudience audience, String name, Object value) {
+    audience.sendMessage(
+        text()
+            .append(text(name, NamedTextColor.GOLD))
+            .append(text(": ", NamedTextColor.GRAY))
+            .append(text(value.toString(), NamedTextColor.GREEN))
+            .build());
+  }
+
   private void sendTotalCount(Feature feature, String countName, CommandAudience audience) {
     feature
         .count()
@@ -60,6 +299,7 @@ public class CommunityPluginCommand extends CommunityCommand {
                         .append(text(countName, NamedTextColor.GOLD))
                         .append(text(": ", NamedTextColor.GRAY))
                         .append(text(total, NamedTextColor.GREEN))
-                        .build()));
+                        .build()),
+            Community.get().getExecutors().cpu());
   }
 }
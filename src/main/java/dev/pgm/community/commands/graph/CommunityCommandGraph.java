@@ -17,6 +17,7 @@ import dev.pgm.community.commands.SudoCommand;
 import dev.pgm.community.commands.injectors.CommandAudienceProvider;
 import dev.pgm.community.commands.player.TargetPlayer;
 import dev.pgm.community.commands.providers.GameModeParser;
+import dev.pgm.community.commands.providers.MapSearchParser;
 import dev.pgm.community.commands.providers.TargetPlayerParser;
 import dev.pgm.community.freeze.FreezeCommand;
 import dev.pgm.community.friends.commands.FriendshipCommand;
@@ -49,7 +50,6 @@ import tc.oc.pgm.api.player.MatchPlayer;
 import tc.oc.pgm.command.injectors.MatchPlayerProvider;
 import tc.oc.pgm.command.injectors.MatchProvider;
 import tc.oc.pgm.command.injectors.PlayerProvider;
-import tc.oc.pgm.command.parsers.MapInfoParser;
 import tc.oc.pgm.command.parsers.PartyParser;
 import tc.oc.pgm.command.parsers.PlayerParser;
 import tc.oc.pgm.command.util.CommandGraph;
@@ -97,7 +97,7 @@ public class CommunityCommandGraph extends CommandGraph<Community> {
 
   @Override
   protected void setupParsers() {
-    registerParser(MapInfo.class, MapInfoParser::new);
+    registerParser(MapInfo.class, new MapSearchParser());
     registerParser(MapPartyType.class, new EnumParser<>(MapPartyType.class));
     registerParser(TargetPlayer.class, new TargetPlayerParser());
     registerParser(Player.class, new PlayerParser());
@@ -0,0 +1,56 @@
+package dev.pgm.community.commands.providers;
+
+import static tc.oc.pgm.command.util.ParserConstants.CURRENT;
+import static tc.oc.pgm.lib.cloud.commandframework.arguments.parser.ArgumentParseResult.failure;
+import static tc.oc.pgm.lib.cloud.commandframework.arguments.parser.ArgumentParseResult.success;
+import static tc.oc.pgm.util.text.TextException.exception;
+
+import dev.pgm.community.utils.MapSearchIndex;
+import dev.pgm.community.utils.PGMUtils;
+import java.util.List;
+import java.util.Queue;
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+import tc.oc.pgm.api.map.MapInfo;
+import tc.oc.pgm.lib.cloud.commandframework.arguments.parser.ArgumentParseResult;
+import tc.oc.pgm.lib.cloud.commandframework.arguments.parser.ArgumentParser;
+import tc.oc.pgm.lib.cloud.commandframework.context.CommandContext;
+import tc.oc.pgm.lib.cloud.commandframework.exceptions.parsing.NoInputProvidedException;
+
+/**
+ * Parses the rest of the input as a map name, using {@link MapSearchIndex} for both parsing and
+ * suggestions. Also accepts {@link tc.oc.pgm.command.util.ParserConstants#CURRENT} for the map
+ * being played.
+ */
+public final class MapSearchParser implements ArgumentParser<CommandSender, MapInfo> {
+
+  private static final int MAX_SUGGESTIONS = 50;
+
+  @Override
+  public @NotNull ArgumentParseResult<@NotNull MapInfo> parse(
+      @NotNull CommandContext<@NotNull CommandSender> context,
+      @NotNull Queue<@NotNull String> inputQueue) {
+    if (inputQueue.isEmpty()) {
+      return failure(new NoInputProvidedException(MapSearchParser.class, context));
+    }
+
+    // Map arguments are always greedy, names may have spaces
+    final String input = String.join(" ", inputQueue);
+    MapInfo map =
+        input.equals(CURRENT) ? PGMUtils.getCurrentMap() : MapSearchIndex.get().find(input);
+    if (map == null) {
+      return failure(
+          exception(ChatColor.AQUA + input + ChatColor.RED + " is not a valid map name"));
+    }
+
+    inputQueue.clear();
+    return success(map);
+  }
+
+  @Override
+  public @NotNull List<@NotNull String> suggestions(
+      @NotNull CommandContext<CommandSender> context, @NotNull String input) {
+    return MapSearchIndex.get().complete(input, MAX_SUGGESTIONS);
+  }
+}
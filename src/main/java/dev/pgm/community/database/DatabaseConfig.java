@@ -1,5 +1,6 @@
 package dev.pgm.community.database;
 
+import java.time.Duration;
 import org.bukkit.configuration.Configuration;
 
 public class DatabaseConfig {
@@ -11,6 +12,12 @@ public class DatabaseConfig {
   private String databaseName;
   private String timezone;
   private int maxConnections;
+  private boolean binaryUuids;
+
+  private boolean writeBehindEnabled;
+  private Duration writeBehindInterval;
+  private int writeBehindMaxQueue;
+  private int writeBehindMaxBatch;
 
   public DatabaseConfig(Configuration config) {
     reload(config);
@@ -24,6 +31,13 @@ public class DatabaseConfig {
     this.databaseName = config.getString("database.databaseName");
     this.timezone = config.getString("database.timezone");
     this.maxConnections = config.getInt("database.max-connections");
+    this.binaryUuids = config.getBoolean("database.binary-uuids", false);
+    this.writeBehindEnabled = config.getBoolean("database.write-behind.enabled", true);
+    this.writeBehindInterval =
+        Duration.ofMillis(
+            Math.max(10, config.getLong("database.write-behind.flush-interval", 250)));
+    this.writeBehindMaxQueue = Math.max(1, config.getInt("database.write-behind.max-queue", 10000));
+    this.writeBehindMaxBatch = Math.max(1, config.getInt("database.write-behind.max-batch", 500));
   }
 
   public boolean isEnabled() {
@@ -53,4 +67,24 @@ public class DatabaseConfig {
   public int getMaxDatabaseConnections() {
     return maxConnections;
   }
+
+  public boolean isBinaryUuids() {
+    return binaryUuids;
+  }
+
+  public boolean isWriteBehindEnabled() {
+    return writeBehindEnabled;
+  }
+
+  public Duration getWriteBehindInterval() {
+    return writeBehindInterval;
+  }
+
+  public int getWriteBehindMaxQueue() {
+    return writeBehindMaxQueue;
+  }
+
+  public int getWriteBehindMaxBatch() {
+    return writeBehindMaxBatch;
+  }
 }
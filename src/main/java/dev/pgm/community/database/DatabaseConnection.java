@@ -10,12 +10,16 @@ import java.util.Map;
 public class DatabaseConnection {
 
   private DatabaseConfig config;
+  private SchemaMigrator migrator;
+  private WriteBehindQueue writeQueue;
 
   public DatabaseConnection(Community plugin) {
     this.config = new DatabaseConfig(plugin.getConfig());
+    this.migrator = new SchemaMigrator(plugin.getLogger(), Migrations.all(config.isBinaryUuids()));
 
     Map<String, Object> extraOptions = Maps.newHashMap();
     extraOptions.put("serverTimezone", config.getTimezone());
+    extraOptions.put("rewriteBatchedStatements", true); // Send queued batches as multi-row writes
 
     DatabaseOptions options =
         DatabaseOptions.builder()
@@ -37,5 +41,53 @@ public class DatabaseConnection {
 
     // Setup the main global DB
     BukkitDB.createHikariDatabase(plugin, poolOptions);
+    this.writeQueue = new WriteBehindQueue(plugin.getLogger(), config);
+
+    // Ids stay text until the binary migration is recorded, whatever the config says
+    migrator.loadApplied();
+    updateUUIDCodec();
+  }
+
+  /**
+   * Applies pending schema migrations on the I/O pool, once features have created their tables, so
+   * the schema lock and table rewrites never hold up the main thread
+   *
+   * @param plugin Plugin whose executors run the migration
+   */
+  public void migrate(Community plugin) {
+    plugin
+        .getExecutors()
+        .io()
+        .execute(
+            () -> {
+              migrator.migrate();
+              updateUUIDCodec();
+            });
+  }
+
+  private void updateUUIDCodec() {
+    UUIDCodec.setBinary(config.isBinaryUuids() && isMigrated(Migrations.BINARY_UUIDS));
+  }
+
+  public DatabaseConfig getConfig() {
+    return config;
+  }
+
+  public WriteBehindQueue getWriteQueue() {
+    return writeQueue;
+  }
+
+  /** Flushes queued writes, call before the database is closed */
+  public void close() {
+    writeQueue.close();
+  }
+
+  public int getSchemaVersion() {
+    return migrator.getVersion();
+  }
+
+  /** @return Whether a schema migration has been applied, see {@link Migrations} */
+  public boolean isMigrated(int version) {
+    return migrator.isApplied(version);
   }
 }
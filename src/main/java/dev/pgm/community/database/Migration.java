@@ -0,0 +1,59 @@
+package dev.pgm.community.database;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/** Migration - A numbered set of schema changes, applied once per database in version order */
+public class Migration {
+
+  private final int version;
+  private final String description;
+  private final List<MigrationStep> steps;
+
+  public Migration(int version, String description, MigrationStep... steps) {
+    checkArgument(version > 0, "Migration versions start at 1");
+    this.version = version;
+    this.description = checkNotNull(description);
+    this.steps = ImmutableList.copyOf(steps);
+  }
+
+  public int getVersion() {
+    return version;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  /** @return The tables which must exist before this migration can be applied */
+  public Set<String> getTables() {
+    return steps.stream()
+        .filter(MigrationStep::requiresTable)
+        .map(MigrationStep::getTable)
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Applies every step which is still pending
+   *
+   * @param connection Connection to apply the steps on
+   * @return The number of steps applied
+   */
+  public int apply(Connection connection) throws SQLException {
+    int applied = 0;
+    for (MigrationStep step : steps) {
+      if (step.isPending(connection)) {
+        step.apply(connection);
+        applied++;
+      }
+    }
+    return applied;
+  }
+}
@@ -0,0 +1,211 @@
+package dev.pgm.community.database;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+
+/**
+ * MigrationStep - A single idempotent change to the schema of one table
+ *
+ * <p>Each step checks the current schema first, so re-running an already applied step is a no-op.
+ */
+public abstract class MigrationStep {
+
+  private final String table;
+
+  protected MigrationStep(String table) {
+    this.table = checkNotNull(table);
+  }
+
+  public String getTable() {
+    return table;
+  }
+
+  /** Whether the table must exist to apply this step, otherwise the step is skipped if missing */
+  public boolean requiresTable() {
+    return true;
+  }
+
+  /** Whether the schema still differs from what this step expects */
+  public abstract boolean isPending(Connection connection) throws SQLException;
+
+  public abstract void apply(Connection connection) throws SQLException;
+
+  /**
+   * Creates a secondary index on the given columns
+   *
+   * @param table Table name
+   * @param name Index name, unique per table
+   * @param columns Indexed columns, in order
+   */
+  public static MigrationStep index(String table, String name, String... columns) {
+    return new Index(table, name, columns);
+  }
+
+  /**
+   * Changes the collation of a text column, e.g to allow case-insensitive indexed lookups
+   *
+   * @param table Table name
+   * @param column Column name
+   * @param type Column type, such as VARCHAR(16)
+   * @param collation Target collation, the charset is taken from its prefix
+   */
+  public static MigrationStep collate(String table, String column, String type, String collation) {
+    return new Collation(table, column, type, collation);
+  }
+
+  /**
+   * Converts a text id column to BINARY(16) in place, keeping its indexes. Values which are not
+   * UUIDs, like the console issuer, become null.
+   *
+   * @param table Table name
+   * @param column Column name
+   * @param primary Whether the column is the primary key
+   */
+  public static MigrationStep binaryUuid(String table, String column, boolean primary) {
+    return new BinaryUuid(table, column, primary);
+  }
+
+  static boolean exists(Connection connection, String query, String... params) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(query)) {
+      for (int i = 0; i < params.length; i++) {
+        statement.setString(i + 1, params[i]);
+      }
+      try (ResultSet result = statement.executeQuery()) {
+        return result.next();
+      }
+    }
+  }
+
+  static void execute(Connection connection, String query) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(query);
+    }
+  }
+
+  private static class Index extends MigrationStep {
+
+    private final String name;
+    private final String[] columns;
+
+    private Index(String table, String name, String... columns) {
+      super(table);
+      checkArgument(columns.length > 0, "An index requires at least one column");
+      this.name = checkNotNull(name);
+      this.columns = columns;
+    }
+
+    @Override
+    public boolean isPending(Connection connection) throws SQLException {
+      return !exists(
+          connection,
+          "SELECT 1 FROM information_schema.statistics WHERE table_schema = DATABASE()"
+              + " AND table_name = ? AND index_name = ? LIMIT 1",
+          getTable(),
+          name);
+    }
+
+    @Override
+    public void apply(Connection connection) throws SQLException {
+      execute(
+          connection,
+          String.format(
+              "CREATE INDEX %s ON %s (%s)", name, getTable(), String.join(", ", columns)));
+    }
+  }
+
+  private static class Collation extends MigrationStep {
+
+    private final String column;
+    private final String type;
+    private final String collation;
+
+    private Collation(String table, String column, String type, String collation) {
+      super(table);
+      checkArgument(collation.indexOf('_') > 0, "Collation must start with its charset");
+      this.column = checkNotNull(column);
+      this.type = checkNotNull(type);
+      this.collation = collation;
+    }
+
+    @Override
+    public boolean isPending(Connection connection) throws SQLException {
+      try (PreparedStatement statement =
+          connection.prepareStatement(
+              "SELECT collation_name FROM information_schema.columns WHERE table_schema ="
+                  + " DATABASE() AND table_name = ? AND column_name = ?")) {
+        statement.setString(1, getTable());
+        statement.setString(2, column);
+        try (ResultSet result = statement.executeQuery()) {
+          return result.next() && !Objects.equals(collation, result.getString(1));
+        }
+      }
+    }
+
+    @Override
+    public void apply(Connection connection) throws SQLException {
+      String charset = collation.substring(0, collation.indexOf('_'));
+      execute(
+          connection,
+          String.format(
+              "ALTER TABLE %s MODIFY %s %s CHARACTER SET %s COLLATE %s",
+              getTable(), column, type, charset, collation));
+    }
+  }
+
+  private static class BinaryUuid extends MigrationStep {
+
+    private final String column;
+    private final String nullability;
+
+    private BinaryUuid(String table, String column, boolean primary) {
+      super(table);
+      this.column = checkNotNull(column);
+      this.nullability = primary ? " NOT NULL" : "";
+    }
+
+    @Override
+    public boolean requiresTable() {
+      // Missing tables are created with binary ids by their features
+      return false;
+    }
+
+    @Override
+    public boolean isPending(Connection connection) throws SQLException {
+      try (PreparedStatement statement =
+          connection.prepareStatement(
+              "SELECT data_type FROM information_schema.columns WHERE table_schema = DATABASE()"
+                  + " AND table_name = ? AND column_name = ?")) {
+        statement.setString(1, getTable());
+        statement.setString(2, column);
+        try (ResultSet result = statement.executeQuery()) {
+          return result.next() && !"binary".equalsIgnoreCase(result.getString(1));
+        }
+      }
+    }
+
+    @Override
+    public void apply(Connection connection) throws SQLException {
+      // Each statement is safe to repeat, so an interrupted conversion resumes on the next start
+      execute(
+          connection,
+          String.format(
+              "ALTER TABLE %s MODIFY %s VARBINARY(36)%s", getTable(), column, nullability));
+      execute(
+          connection,
+          String.format(
+              "UPDATE %1$s SET %2$s = IF(LENGTH(%2$s) = 36, UNHEX(REPLACE(%2$s, '-', '')), NULL)"
+                  + " WHERE LENGTH(%2$s) <> 16",
+              getTable(), column));
+      execute(
+          connection,
+          String.format("ALTER TABLE %s MODIFY %s BINARY(16)%s", getTable(), column, nullability));
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package dev.pgm.community.database;
+
+import static dev.pgm.community.database.MigrationStep.binaryUuid;
+import static dev.pgm.community.database.MigrationStep.collate;
+import static dev.pgm.community.database.MigrationStep.index;
+
+import com.google.common.collect.ImmutableList;
+import dev.pgm.community.assistance.services.AssistanceQuery;
+import dev.pgm.community.friends.services.FriendshipQuery;
+import dev.pgm.community.moderation.services.ModerationQuery;
+import dev.pgm.community.nick.services.NickQuery;
+import dev.pgm.community.requests.services.RequestQuery;
+import dev.pgm.community.sessions.services.SessionDataQuery;
+import dev.pgm.community.users.services.AddressQuery;
+import dev.pgm.community.users.services.UserQuery;
+import java.util.List;
+
+/**
+ * All schema migrations of the Community tables, never edit or renumber an existing one
+ *
+ * <p>A migration waiting on a missing table does not hold back later ones, so each migration must
+ * not depend on another.
+ */
+public final class Migrations {
+
+  /** Usernames and nicknames compare case-insensitively, until then queries must use LOWER() */
+  public static final int CASE_INSENSITIVE_NAMES = 2;
+
+  /** Id columns are BINARY(16), until then ids must be encoded as text */
+  public static final int BINARY_UUIDS = 3;
+
+  private static final String CASE_INSENSITIVE = "utf8mb4_general_ci";
+
+  private Migrations() {}
+
+  /**
+   * Gets the migrations to apply
+   *
+   * @param binaryIds Whether ids are stored as BINARY(16), this can not be undone
+   */
+  public static List<Migration> all(boolean binaryIds) {
+    ImmutableList.Builder<Migration> migrations = ImmutableList.builder();
+    migrations.add(
+        new Migration(
+            1,
+            "Index player lookups",
+            index(ModerationQuery.TABLE_NAME, "idx_punishments_punished", "punished", "active"),
+            index(ModerationQuery.TABLE_NAME, "idx_punishments_active", "active", "type"),
+            index(ModerationQuery.TABLE_NAME, "idx_punishments_time", "time"),
+            index(AddressQuery.IP_USER_TABLE_NAME, "idx_ip_history_user", "user_id"),
+            index(AddressQuery.IP_USER_TABLE_NAME, "idx_ip_history_ip", "ip_id"),
+            index(AddressQuery.IP_TABLE_NAME, "idx_addresses_address", "address"),
+            index(AddressQuery.IP_TABLE_NAME, "idx_addresses_ip", "ip_id"),
+            index(SessionDataQuery.TABLE_NAME, "idx_sessions_player", "player", "end_time"),
+            index(SessionDataQuery.TABLE_NAME, "idx_sessions_server", "server", "end_time"),
+            index(FriendshipQuery.TABLE_NAME, "idx_friendships_requester", "requester"),
+            index(FriendshipQuery.TABLE_NAME, "idx_friendships_requested", "requested"),
+            index(AssistanceQuery.TABLE_NAME, "idx_reports_reported", "reported")),
+        new Migration(
+            CASE_INSENSITIVE_NAMES,
+            "Case-insensitive usernames and nicknames",
+            collate(UserQuery.TABLE_NAME, "name", "VARCHAR(16)", CASE_INSENSITIVE),
+            index(UserQuery.TABLE_NAME, "idx_users_name", "name"),
+            collate(NickQuery.TABLE_NAME, "nickname", "VARCHAR(16)", CASE_INSENSITIVE),
+            index(NickQuery.TABLE_NAME, "idx_nicknames_nickname", "nickname")));
+
+    if (binaryIds) {
+      migrations.add(
+          new Migration(
+              BINARY_UUIDS,
+              "Binary UUID columns",
+              binaryUuid(ModerationQuery.TABLE_NAME, "id", true),
+              binaryUuid(ModerationQuery.TABLE_NAME, "punished", false),
+              binaryUuid(ModerationQuery.TABLE_NAME, "issuer", false),
+              binaryUuid(ModerationQuery.TABLE_NAME, "updated_by", false),
+              binaryUuid(SessionDataQuery.TABLE_NAME, "id", true),
+              binaryUuid(SessionDataQuery.TABLE_NAME, "player", false),
+              binaryUuid(AddressQuery.IP_USER_TABLE_NAME, AddressQuery.USER_ID_FIELD, false),
+              binaryUuid(AddressQuery.IP_USER_TABLE_NAME, AddressQuery.IP_ID_FIELD, false),
+              binaryUuid(AddressQuery.IP_TABLE_NAME, AddressQuery.IP_ID_FIELD, false),
+              binaryUuid(AddressQuery.LATEST_IP_TABLE_NAME, AddressQuery.USER_ID_FIELD, true),
+              binaryUuid(UserQuery.TABLE_NAME, "id", true),
+              binaryUuid(FriendshipQuery.TABLE_NAME, "id", true),
+              binaryUuid(FriendshipQuery.TABLE_NAME, "requester", false),
+              binaryUuid(FriendshipQuery.TABLE_NAME, "requested", false),
+              binaryUuid(AssistanceQuery.TABLE_NAME, "id", true),
+              binaryUuid(AssistanceQuery.TABLE_NAME, "sender", false),
+              binaryUuid(AssistanceQuery.TABLE_NAME, "reported", false),
+              binaryUuid(NickQuery.TABLE_NAME, "playerId", true),
+              binaryUuid(RequestQuery.TABLE_NAME, "id", true)));
+    }
+
+    return migrations.build();
+  }
+}
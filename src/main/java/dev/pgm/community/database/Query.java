@@ -1,7 +1,10 @@
 package dev.pgm.community.database;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.Collections;
+
 public class Query {
 
   public static String createTable(String tableName, String fields) {
@@ -15,4 +18,15 @@ public class Query {
     checkNotNull(tableName);
     return String.format("SELECT count(*) from %s", tableName);
   }
+
+  /**
+   * Creates a parenthesized list of parameter placeholders for an IN clause
+   *
+   * @param count number of parameters, must be at least 1
+   * @return a list such as (?, ?, ?)
+   */
+  public static String placeholders(int count) {
+    checkArgument(count > 0, "At least one placeholder is required");
+    return "(" + String.join(", ", Collections.nCopies(count, "?")) + ")";
+  }
 }
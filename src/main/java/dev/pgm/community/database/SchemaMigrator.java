@@ -0,0 +1,180 @@
+package dev.pgm.community.database;
+
+import co.aikar.idb.DB;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * SchemaMigrator - Applies pending {@link Migration}s and records them in a version table
+ *
+ * <p>A named database lock is held while migrating, so servers sharing one database never apply the
+ * same migration twice. Others wait for the lock and then find nothing left to do.
+ */
+public class SchemaMigrator {
+
+  private static final String VERSION_TABLE = "schema_migrations";
+  private static final String VERSION_TABLE_FIELDS =
+      "(version INT PRIMARY KEY, description VARCHAR(255), applied_at BIGINT)";
+
+  private static final String LOCK_NAME = "community_schema";
+  private static final int LOCK_TIMEOUT_SECONDS = 300;
+
+  private final Logger logger;
+  private final List<Migration> migrations;
+
+  private final Set<Integer> applied;
+  private volatile int version;
+
+  public SchemaMigrator(Logger logger, List<Migration> migrations) {
+    this.logger = logger;
+    this.migrations =
+        ImmutableList.copyOf(
+            migrations.stream()
+                .sorted(Comparator.comparingInt(Migration::getVersion))
+                .collect(Collectors.toList()));
+    this.applied = Sets.newConcurrentHashSet();
+    this.version = 0;
+  }
+
+  /** @return The highest migration version known to be applied, 0 until migrated */
+  public int getVersion() {
+    return version;
+  }
+
+  /** @return Whether a migration is known to be applied, false until migrated */
+  public boolean isApplied(int version) {
+    return applied.contains(version);
+  }
+
+  /**
+   * Reads the migrations already recorded, without taking the lock or changing anything. Cheap
+   * enough for startup, so queries know the schema before {@link #migrate()} has run.
+   */
+  public void loadApplied() {
+    try (Connection connection = DB.getGlobalDatabase().getConnection()) {
+      if (!getMissingTables(connection, ImmutableSet.of(VERSION_TABLE)).isEmpty()) return;
+      applied.addAll(getAppliedVersions(connection));
+      for (Migration migration : migrations) {
+        if (applied.contains(migration.getVersion())) {
+          version = Math.max(version, migration.getVersion());
+        }
+      }
+    } catch (SQLException e) {
+      logger.log(Level.WARNING, "Could not read applied schema migrations", e);
+    }
+  }
+
+  /** Applies all pending migrations, blocking until done. Never call from the main thread. */
+  public void migrate() {
+    try (Connection connection = DB.getGlobalDatabase().getConnection()) {
+      if (!lock(connection)) {
+        logger.warning("Timed out waiting for the schema lock, migrations will retry next start");
+        return;
+      }
+
+      try {
+        MigrationStep.execute(connection, Query.createTable(VERSION_TABLE, VERSION_TABLE_FIELDS));
+        applied.addAll(getAppliedVersions(connection));
+
+        for (Migration migration : migrations) {
+          if (applied.contains(migration.getVersion())) {
+            version = migration.getVersion();
+            continue;
+          }
+
+          // Tables are created by their features, retry on the next run if one is missing
+          Set<String> missing = getMissingTables(connection, migration.getTables());
+          if (!missing.isEmpty()) {
+            logger.warning(
+                String.format(
+                    "Deferring schema migration %d (%s), missing tables %s",
+                    migration.getVersion(), migration.getDescription(), missing));
+            continue;
+          }
+
+          int steps = migration.apply(connection);
+          record(connection, migration);
+          applied.add(migration.getVersion());
+          version = migration.getVersion();
+          logger.info(
+              String.format(
+                  "Applied schema migration %d (%s) in %d steps",
+                  migration.getVersion(), migration.getDescription(), steps));
+        }
+      } finally {
+        unlock(connection);
+      }
+    } catch (SQLException e) {
+      logger.log(Level.SEVERE, "Failed to migrate the database schema", e);
+    }
+  }
+
+  private boolean lock(Connection connection) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+      statement.setString(1, LOCK_NAME);
+      statement.setInt(2, LOCK_TIMEOUT_SECONDS);
+      try (ResultSet result = statement.executeQuery()) {
+        return result.next() && result.getInt(1) == 1;
+      }
+    }
+  }
+
+  private void unlock(Connection connection) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+      statement.setString(1, LOCK_NAME);
+      statement.executeQuery().close();
+    }
+  }
+
+  private Set<Integer> getAppliedVersions(Connection connection) throws SQLException {
+    Set<Integer> versions = Sets.newHashSet();
+    try (PreparedStatement statement =
+            connection.prepareStatement("SELECT version FROM " + VERSION_TABLE);
+        ResultSet result = statement.executeQuery()) {
+      while (result.next()) {
+        versions.add(result.getInt(1));
+      }
+    }
+    return versions;
+  }
+
+  private Set<String> getMissingTables(Connection connection, Set<String> tables)
+      throws SQLException {
+    Set<String> missing = Sets.newTreeSet();
+    for (String table : tables) {
+      if (!MigrationStep.exists(
+          connection,
+          "SELECT 1 FROM information_schema.tables WHERE table_schema = DATABASE()"
+              + " AND table_name = ? LIMIT 1",
+          table)) {
+        missing.add(table);
+      }
+    }
+    return missing;
+  }
+
+  private void record(Connection connection, Migration migration) throws SQLException {
+    try (PreparedStatement statement =
+        connection.prepareStatement(
+            "INSERT INTO "
+                + VERSION_TABLE
+                + " (version, description, applied_at) VALUES (?,?,?)")) {
+      statement.setInt(1, migration.getVersion());
+      statement.setString(2, migration.getDescription());
+      statement.setLong(3, Instant.now().toEpochMilli());
+      statement.executeUpdate();
+    }
+  }
+}
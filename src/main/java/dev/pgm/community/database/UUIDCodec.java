@@ -0,0 +1,79 @@
+package dev.pgm.community.database;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import co.aikar.idb.DbRow;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import javax.annotation.Nullable;
+
+/**
+ * UUIDCodec - Converts player and row ids to and from their stored form
+ *
+ * <p>Ids are stored as VARCHAR(36) text by default, or as BINARY(16) once binary storage is enabled
+ * and its migration recorded. Decoding accepts either form, so rows read during a migration are
+ * always understood.
+ */
+public final class UUIDCodec {
+
+  private static final int BYTES = 16;
+
+  private static volatile boolean binary = false;
+
+  private UUIDCodec() {}
+
+  static void setBinary(boolean enabled) {
+    binary = enabled;
+  }
+
+  public static boolean isBinary() {
+    return binary;
+  }
+
+  /** @return The SQL type of id columns in newly created tables */
+  public static String columnType() {
+    return binary ? "BINARY(16)" : "VARCHAR(36)";
+  }
+
+  /**
+   * Encodes an id as a query parameter
+   *
+   * @param id UUID to encode
+   * @return A byte[] in binary mode, otherwise the UUID string
+   */
+  public static Object encode(UUID id) {
+    return binary ? toBytes(id) : id.toString();
+  }
+
+  /**
+   * Decodes an id column of a row
+   *
+   * @param row Result row
+   * @param column Column name
+   * @return The decoded UUID or null if the column is null
+   */
+  @Nullable
+  public static UUID decode(DbRow row, String column) {
+    return decode(row.get(column));
+  }
+
+  @Nullable
+  public static UUID decode(@Nullable Object value) {
+    if (value == null) return null;
+    if (value instanceof byte[]) return fromBytes((byte[]) value);
+    return UUID.fromString(value.toString());
+  }
+
+  public static byte[] toBytes(UUID id) {
+    return ByteBuffer.allocate(BYTES)
+        .putLong(id.getMostSignificantBits())
+        .putLong(id.getLeastSignificantBits())
+        .array();
+  }
+
+  public static UUID fromBytes(byte[] bytes) {
+    checkArgument(bytes.length == BYTES, "Expected %s bytes, got %s", BYTES, bytes.length);
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    return new UUID(buffer.getLong(), buffer.getLong());
+  }
+}
@@ -0,0 +1,314 @@
+package dev.pgm.community.database;
+
+import co.aikar.idb.DB;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.bukkit.Bukkit;
+
+/**
+ * WriteBehindQueue - Coalesces frequent small updates into JDBC batches
+ *
+ * <p>Queued writes are flushed on a short interval, one transaction per table. Writes to the same
+ * table keep their order, consecutive writes with the same query share a batch. Writes are never
+ * executed around the queue, so a later write can not land before an earlier one. The queue holds
+ * at most its limit: once full, callers off the main thread wait a flush interval for room and then
+ * flush it themselves, while writes from the main thread are dropped and fail, since it must never
+ * wait on the database. When disabled, every write is flushed right away on the writer thread, once
+ * closed on the caller.
+ */
+public class WriteBehindQueue {
+
+  private final Logger logger;
+  private final boolean enabled;
+  private final int maxBatch;
+  private final long offerTimeout;
+
+  private final BlockingQueue<Write> queue;
+  private final ScheduledExecutorService executor;
+  private final AtomicBoolean flushRequested;
+  private final AtomicBoolean dropLogged;
+  private volatile boolean closed;
+
+  private final AtomicLong flushes;
+  private final AtomicLong written;
+  private final AtomicLong overflows;
+  private final AtomicLong dropped;
+  private final AtomicLong failures;
+  private final AtomicLong totalFlushNanos;
+  private volatile long lastFlushNanos;
+  private volatile long maxFlushNanos;
+
+  public WriteBehindQueue(Logger logger, DatabaseConfig config) {
+    this.logger = logger;
+    this.enabled = config.isWriteBehindEnabled();
+    this.maxBatch = config.getWriteBehindMaxBatch();
+    this.offerTimeout = config.getWriteBehindInterval().toMillis();
+    this.queue = new LinkedBlockingQueue<>(config.getWriteBehindMaxQueue());
+    this.flushRequested = new AtomicBoolean();
+    this.dropLogged = new AtomicBoolean();
+    this.closed = false;
+
+    this.flushes = new AtomicLong();
+    this.written = new AtomicLong();
+    this.overflows = new AtomicLong();
+    this.dropped = new AtomicLong();
+    this.failures = new AtomicLong();
+    this.totalFlushNanos = new AtomicLong();
+
+    this.executor =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "Community Write-Behind");
+              thread.setDaemon(true);
+              return thread;
+            });
+
+    if (enabled) {
+      executor.scheduleWithFixedDelay(
+          this::flush, offerTimeout, offerTimeout, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Queues an update to be written with the next flush
+   *
+   * @param table Table the query writes to, writes are ordered per table
+   * @param query Update query
+   * @param params Query parameters
+   * @return A future completed once the write is saved, or exceptionally if it failed or was
+   *     dropped
+   */
+  public CompletableFuture<Void> enqueue(String table, String query, Object... params) {
+    Write write = new Write(table, query, params);
+    if (!offer(write)) {
+      dropped.incrementAndGet();
+      if (dropLogged.compareAndSet(false, true)) {
+        logger.warning(
+            "Write queue is full, dropping writes from the main thread until it flushes");
+      }
+      write.done.completeExceptionally(new RejectedExecutionException("Write queue is full"));
+      return write.done;
+    }
+
+    if (closed) {
+      flush(); // Behind the writes left by close
+      return write.done;
+    }
+
+    // Flush early once a full batch is waiting
+    if (!enabled || queue.size() >= maxBatch) {
+      requestFlush();
+    }
+    return write.done;
+  }
+
+  /** Stops the flush interval and writes everything left in the queue, blocking until done */
+  public void close() {
+    closed = true;
+    executor.shutdown();
+    try {
+      executor.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    flush();
+
+    // Only left if the final flush was interrupted, never leave their futures waiting
+    List<Write> left = new ArrayList<>();
+    queue.drainTo(left);
+    if (!left.isEmpty()) {
+      fail(left, new IllegalStateException("Write queue closed before the write was saved"));
+    }
+  }
+
+  public int getQueueSize() {
+    return queue.size();
+  }
+
+  public long getFlushCount() {
+    return flushes.get();
+  }
+
+  public long getWrittenCount() {
+    return written.get();
+  }
+
+  public long getOverflowCount() {
+    return overflows.get();
+  }
+
+  public long getDroppedCount() {
+    return dropped.get();
+  }
+
+  public long getFailedCount() {
+    return failures.get();
+  }
+
+  public long getLastFlushMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(lastFlushNanos);
+  }
+
+  public long getMaxFlushMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(maxFlushNanos);
+  }
+
+  public double getAverageFlushMillis() {
+    long count = flushes.get();
+    return count == 0 ? 0 : totalFlushNanos.get() / (double) count / 1_000_000;
+  }
+
+  // Backpressure, waits for room off the main thread and only gives up on the main thread
+  private boolean offer(Write write) {
+    if (queue.offer(write)) return true;
+    overflows.incrementAndGet();
+
+    if (!closed) {
+      requestFlush();
+      if (Bukkit.isPrimaryThread()) return false;
+      try {
+        if (queue.offer(write, offerTimeout, TimeUnit.MILLISECONDS)) return true;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+
+    flush(); // The writer thread is behind or gone, make room on this thread
+    return queue.offer(write);
+  }
+
+  private void requestFlush() {
+    if (!flushRequested.compareAndSet(false, true)) return;
+    try {
+      executor.execute(
+          () -> {
+            flushRequested.set(false);
+            flush();
+          });
+    } catch (RejectedExecutionException e) {
+      flushRequested.set(false); // Closing, close flushes it
+    }
+  }
+
+  private synchronized void flush() {
+    List<Write> writes = new ArrayList<>();
+    queue.drainTo(writes);
+    dropLogged.set(false);
+    if (writes.isEmpty()) return;
+
+    final long start = System.nanoTime();
+    Map<String, List<Write>> tables = new LinkedHashMap<>();
+    for (Write write : writes) {
+      tables.computeIfAbsent(write.table, table -> new ArrayList<>()).add(write);
+    }
+
+    try (Connection connection = DB.getGlobalDatabase().getConnection()) {
+      for (List<Write> tableWrites : tables.values()) {
+        write(connection, tableWrites);
+      }
+    } catch (SQLException | RuntimeException e) {
+      logger.log(Level.SEVERE, "Failed to flush " + writes.size() + " queued writes", e);
+      fail(writes, e);
+    }
+
+    long elapsed = System.nanoTime() - start;
+    flushes.incrementAndGet();
+    totalFlushNanos.addAndGet(elapsed);
+    lastFlushNanos = elapsed;
+    maxFlushNanos = Math.max(maxFlushNanos, elapsed);
+  }
+
+  private void write(Connection connection, List<Write> writes) throws SQLException {
+    boolean autoCommit = connection.getAutoCommit();
+    connection.setAutoCommit(false);
+    try {
+      int index = 0;
+      while (index < writes.size()) {
+        String query = writes.get(index).query;
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+          while (index < writes.size() && writes.get(index).query.equals(query)) {
+            writes.get(index).bind(statement);
+            statement.addBatch();
+            index++;
+          }
+          statement.executeBatch();
+        }
+      }
+      connection.commit();
+      written.addAndGet(writes.size());
+      writes.forEach(write -> write.done.complete(null));
+    } catch (SQLException e) {
+      connection.rollback();
+      logger.log(
+          Level.WARNING,
+          "Batched write failed, retrying " + writes.size() + " writes one by one",
+          e);
+      connection.setAutoCommit(true);
+      writeEach(connection, writes);
+    } finally {
+      connection.setAutoCommit(autoCommit);
+    }
+  }
+
+  // Isolates a bad write so the rest of the batch is still saved
+  private void writeEach(Connection connection, List<Write> writes) {
+    for (Write write : writes) {
+      try (PreparedStatement statement = connection.prepareStatement(write.query)) {
+        write.bind(statement);
+        statement.executeUpdate();
+        written.incrementAndGet();
+        write.done.complete(null);
+      } catch (SQLException e) {
+        failures.incrementAndGet();
+        logger.log(Level.SEVERE, "Failed to write queued update: " + write.query, e);
+        write.done.completeExceptionally(e);
+      }
+    }
+  }
+
+  // Fails the writes not saved yet, so callers skip what depends on them
+  private void fail(List<Write> writes, Throwable cause) {
+    for (Write write : writes) {
+      if (write.done.completeExceptionally(cause)) {
+        failures.incrementAndGet();
+      }
+    }
+  }
+
+  private static class Write {
+    private final String table;
+    private final String query;
+    private final Object[] params;
+    private final CompletableFuture<Void> done;
+
+    private Write(String table, String query, Object[] params) {
+      this.table = table;
+      this.query = query;
+      this.params = params;
+      this.done = new CompletableFuture<>();
+    }
+
+    private void bind(PreparedStatement statement) throws SQLException {
+      for (int i = 0; i < params.length; i++) {
+        statement.setObject(i + 1, params[i]);
+      }
+    }
+  }
+}
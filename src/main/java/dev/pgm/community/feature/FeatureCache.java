@@ -0,0 +1,221 @@
+package dev.pgm.community.feature;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalNotification;
+import dev.pgm.community.Community;
+import dev.pgm.community.CommunityConfig;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+
+/**
+ * FeatureCache - A bounded, expiring cache shared by the SQL services
+ *
+ * <p>Entries are weighed and expire after access, but an entry owned by an online player is never
+ * lost to eviction. It is pinned until the player quits, then returned to the bounded cache.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public class FeatureCache<K, V> {
+
+  private final String name;
+  private final @Nullable Function<K, UUID> owner;
+  private final FeatureCaches caches;
+
+  private final LoadingCache<K, V> cache;
+  private final Map<K, V> pinned;
+
+  private final AtomicLong pinnedHits;
+  private final AtomicLong pins;
+
+  private FeatureCache(Builder<K, V> builder, Function<K, V> loader) {
+    this.name = builder.name;
+    this.owner = builder.owner;
+    this.caches = Community.get().getCaches();
+    this.pinned = new ConcurrentHashMap<>();
+    this.pinnedHits = new AtomicLong();
+    this.pins = new AtomicLong();
+
+    CommunityConfig config = Community.get().getServerConfig();
+    final ToIntFunction<V> weigher = builder.weigher;
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(config.getCacheMaxWeight(name, builder.maximumWeight))
+            .<K, V>weigher((key, value) -> Math.max(1, weigher.applyAsInt(value)))
+            .expireAfterAccess(config.getCacheExpiry().getSeconds(), TimeUnit.SECONDS)
+            .<K, V>removalListener(this::onRemoval)
+            .recordStats()
+            .build(CacheLoader.from(loader::apply));
+
+    caches.register(this);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /** Gets the cached value, loading a new one if absent */
+  public V getUnchecked(K key) {
+    V value = pinned.get(key);
+    if (value != null) {
+      pinnedHits.incrementAndGet();
+      return value;
+    }
+    return cache.getUnchecked(key);
+  }
+
+  @Nullable
+  public V getIfPresent(K key) {
+    V value = pinned.get(key);
+    if (value != null) {
+      pinnedHits.incrementAndGet();
+      return value;
+    }
+    return cache.getIfPresent(key);
+  }
+
+  /** Stores a value, replacing any cached or pinned one */
+  public void put(K key, V value) {
+    pinned.remove(key);
+    cache.put(key, value);
+  }
+
+  /**
+   * Stores a loaded value again to re-weigh it, unless it is no longer the cached value
+   *
+   * @param key Key the value was loaded for
+   * @param value The value as it was loaded
+   * @return false if the value was invalidated or replaced while it loaded
+   */
+  public boolean replace(K key, V value) {
+    if (pinned.get(key) == value) return true; // Pinned values are not weighed
+    return cache.asMap().replace(key, value, value);
+  }
+
+  public void invalidate(K key) {
+    pinned.remove(key);
+    cache.invalidate(key);
+  }
+
+  public void invalidateAll() {
+    pinned.clear();
+    cache.invalidateAll();
+  }
+
+  public Stream<V> values() {
+    return Stream.concat(pinned.values().stream(), cache.asMap().values().stream());
+  }
+
+  public long size() {
+    return cache.size() + pinned.size();
+  }
+
+  public long getHitCount() {
+    return cache.stats().hitCount() + pinnedHits.get();
+  }
+
+  public long getMissCount() {
+    return cache.stats().missCount();
+  }
+
+  /** The number of entries removed due to size or expiry, excluding pinned entries */
+  public long getEvictionCount() {
+    CacheStats stats = cache.stats();
+    return stats.evictionCount() - pins.get();
+  }
+
+  public long getPinnedCount() {
+    return pinned.size();
+  }
+
+  /** Returns entries owned by a player who has gone offline to the bounded cache */
+  void unpin(UUID playerId) {
+    if (owner == null || pinned.isEmpty()) return;
+    pinned
+        .entrySet()
+        .removeIf(
+            entry -> {
+              if (!playerId.equals(owner.apply(entry.getKey()))) return false;
+              cache.put(entry.getKey(), entry.getValue());
+              return true;
+            });
+  }
+
+  private void onRemoval(RemovalNotification<K, V> notification) {
+    if (owner == null || !notification.wasEvicted()) return;
+    K key = notification.getKey();
+    V value = notification.getValue();
+    if (key == null || value == null) return;
+
+    if (caches.isOnline(owner.apply(key)) && pinned.putIfAbsent(key, value) == null) {
+      pins.incrementAndGet();
+    }
+  }
+
+  /**
+   * Creates a builder for a cache keyed by player
+   *
+   * @param name Name of the cache, used for config and stats
+   */
+  public static <V> Builder<UUID, V> players(String name) {
+    return new Builder<UUID, V>(name).owner(Function.identity());
+  }
+
+  /**
+   * Creates a builder for a cache with custom keys, entries are not pinned unless an owner is set
+   *
+   * @param name Name of the cache, used for config and stats
+   */
+  public static <K, V> Builder<K, V> builder(String name) {
+    return new Builder<>(name);
+  }
+
+  public static class Builder<K, V> {
+
+    private static final long DEFAULT_MAX_WEIGHT = 10000;
+
+    private final String name;
+    private long maximumWeight;
+    private ToIntFunction<V> weigher;
+    private @Nullable Function<K, UUID> owner;
+
+    private Builder(String name) {
+      this.name = checkNotNull(name);
+      this.maximumWeight = DEFAULT_MAX_WEIGHT;
+      this.weigher = value -> 1;
+    }
+
+    /** Default maximum weight, used when not defined in the config */
+    public Builder<K, V> maximumWeight(long maximumWeight) {
+      this.maximumWeight = maximumWeight;
+      return this;
+    }
+
+    public Builder<K, V> weigher(ToIntFunction<V> weigher) {
+      this.weigher = checkNotNull(weigher);
+      return this;
+    }
+
+    /** Maps a key to the player who owns it, entries of online players are never evicted */
+    public Builder<K, V> owner(Function<K, UUID> owner) {
+      this.owner = owner;
+      return this;
+    }
+
+    public FeatureCache<K, V> build(Function<K, V> loader) {
+      return new FeatureCache<>(this, checkNotNull(loader));
+    }
+  }
+}
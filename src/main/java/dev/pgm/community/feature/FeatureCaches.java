@@ -0,0 +1,84 @@
+package dev.pgm.community.feature;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Keeps track of every {@link FeatureCache} and which players are online to pin their entries
+ *
+ * <p>Players count as online from pre-login, where their data is loaded, so entries are not evicted
+ * before they join. They are dropped again if the login is denied.
+ */
+public class FeatureCaches implements Listener {
+
+  private final List<FeatureCache<?, ?>> caches;
+  private final Set<UUID> online;
+
+  public FeatureCaches() {
+    this.caches = new CopyOnWriteArrayList<>();
+    this.online = Sets.newConcurrentHashSet();
+
+    for (Player player : Bukkit.getOnlinePlayers()) {
+      online.add(player.getUniqueId());
+    }
+  }
+
+  void register(FeatureCache<?, ?> cache) {
+    caches.add(cache);
+  }
+
+  public List<FeatureCache<?, ?>> getCaches() {
+    return ImmutableList.copyOf(caches);
+  }
+
+  public boolean isOnline(UUID playerId) {
+    return playerId != null && online.contains(playerId);
+  }
+
+  @EventHandler(priority = EventPriority.LOWEST)
+  public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+    online.add(event.getUniqueId());
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onPreLoginResult(AsyncPlayerPreLoginEvent event) {
+    if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+      release(event.getUniqueId());
+    }
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onLogin(PlayerLoginEvent event) {
+    if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+      release(event.getPlayer().getUniqueId());
+    }
+  }
+
+  @EventHandler(priority = EventPriority.LOWEST)
+  public void onJoin(PlayerJoinEvent event) {
+    online.add(event.getPlayer().getUniqueId());
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onQuit(PlayerQuitEvent event) {
+    release(event.getPlayer().getUniqueId());
+  }
+
+  private void release(UUID playerId) {
+    online.remove(playerId);
+    caches.forEach(cache -> cache.unpin(playerId));
+  }
+}
@@ -15,7 +15,9 @@ import dev.pgm.community.moderation.feature.ModerationFeature;
 import dev.pgm.community.moderation.feature.types.SQLModerationFeature;
 import dev.pgm.community.motd.MotdFeature;
 import dev.pgm.community.mutations.feature.MutationFeature;
+import dev.pgm.community.network.NetworkConfig;
 import dev.pgm.community.network.feature.NetworkFeature;
+import dev.pgm.community.network.types.LocalNetworkFeature;
 import dev.pgm.community.network.types.RedisNetworkFeature;
 import dev.pgm.community.nick.feature.NickFeature;
 import dev.pgm.community.nick.feature.types.SQLNickFeature;
@@ -61,16 +63,19 @@ public class FeatureManager {
       DatabaseConnection database,
       InventoryManager inventory) {
     // Networking
-    this.network = new RedisNetworkFeature(config, logger);
+    this.network =
+        NetworkConfig.isLocal(config)
+            ? new LocalNetworkFeature(config, logger)
+            : new RedisNetworkFeature(config, logger);
 
     // DB Features
-    this.users = new SQLUsersFeature(config, logger);
-    this.sessions = new SQLSessionFeature(users, logger);
+    this.users = new SQLUsersFeature(config, logger, network);
+    this.sessions = new SQLSessionFeature(users, network, logger);
     this.reports = new SQLAssistanceFeature(config, logger, users, network, inventory);
     this.moderation = new SQLModerationFeature(config, logger, users, network);
-    this.friends = new SQLFriendshipFeature(config, logger, users);
-    this.nick = new SQLNickFeature(config, logger, users);
-    this.requests = new SQLRequestFeature(config, logger, users);
+    this.friends = new SQLFriendshipFeature(config, logger, users, network);
+    this.nick = new SQLNickFeature(config, logger, users, network);
+    this.requests = new SQLRequestFeature(config, logger, users, network);
 
     // TODO: 1. Add support for non-persist database (e.g NoDBUsersFeature)
     // TODO: 2. Support non-sql databases?
@@ -88,6 +93,9 @@ public class FeatureManager {
     this.chatNetwork = new NetworkChatFeature(config, logger, network);
     this.mob = new MobFeature(config, logger);
     this.party = new MapPartyFeature(config, logger);
+
+    // Every subscriber is registered, catch up on what was missed while offline
+    network.replay();
   }
 
   public AssistanceFeature getReports() {
@@ -142,6 +150,10 @@ public class FeatureManager {
     return broadcast;
   }
 
+  public NetworkFeature getNetwork() {
+    return network;
+  }
+
   public NetworkChatFeature getNetworkChat() {
     return chatNetwork;
   }
@@ -197,5 +209,7 @@ public class FeatureManager {
     if (getNetworkChat().isEnabled()) getNetworkChat().disable();
     if (getRequests().isEnabled()) getRequests().disable();
     if (getMobs().isEnabled()) getMobs().disable();
+    // Last, so updates sent by the features above are still published
+    if (getNetwork().isEnabled()) getNetwork().disable();
   }
 }
@@ -1,5 +1,6 @@
 package dev.pgm.community.friends.commands;
 
+import static net.kyori.adventure.text.Component.empty;
 import static net.kyori.adventure.text.Component.space;
 import static net.kyori.adventure.text.Component.text;
 import static net.kyori.adventure.text.Component.translatable;
@@ -9,6 +10,7 @@ import static tc.oc.pgm.util.text.TemporalComponent.relativePastApproximate;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import dev.pgm.community.Community;
 import dev.pgm.community.CommunityCommand;
@@ -18,7 +20,6 @@ import dev.pgm.community.friends.Friendship;
 import dev.pgm.community.friends.feature.FriendshipFeature;
 import dev.pgm.community.nick.feature.NickFeature;
 import dev.pgm.community.sessions.Session;
-import dev.pgm.community.users.UserProfile;
 import dev.pgm.community.users.feature.UsersFeature;
 import dev.pgm.community.utils.BroadcastUtils;
 import dev.pgm.community.utils.CommandAudience;
@@ -29,11 +30,14 @@ import java.time.Instant;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.event.HoverEvent;
@@ -74,7 +78,8 @@ public class FriendshipCommand extends CommunityCommand {
         .thenAcceptAsync(
             frs -> {
               sendFriendList(sender, frs, page);
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 
   @CommandMethod("requests [page]")
@@ -89,7 +94,8 @@ public class FriendshipCommand extends CommunityCommand {
         .thenAcceptAsync(
             requests -> {
               sendRequestsList(sender, requests, page);
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 
   @CommandMethod("add <player>")
@@ -143,18 +149,22 @@ public class FriendshipCommand extends CommunityCommand {
                                                 .color(NamedTextColor.GREEN));
                                         break;
                                       case EXISTING:
-                                        if (friends
+                                        friends
                                             .areFriends(
                                                 sender.getPlayer().getUniqueId(), storedId.get())
-                                            .join()) {
-                                          sender.sendWarning(
-                                              text("You are already friends with ").append(name));
-                                        } else {
-                                          sender.sendWarning(
-                                              text("You have already sent a friend request to ")
-                                                  .append(name)
-                                                  .color(NamedTextColor.GRAY));
-                                        }
+                                            .thenAccept(
+                                                areFriends -> {
+                                                  if (areFriends) {
+                                                    sender.sendWarning(
+                                                        text("You are already friends with ")
+                                                            .append(name));
+                                                  } else {
+                                                    sender.sendWarning(
+                                                        text("You have already sent a friend request to ")
+                                                            .append(name)
+                                                            .color(NamedTextColor.GRAY));
+                                                  }
+                                                });
                                         break;
                                       case PENDING:
                                         sender.sendMessage(
@@ -169,12 +179,15 @@ public class FriendshipCommand extends CommunityCommand {
                                                 .color(NamedTextColor.GRAY));
                                         break;
                                     }
-                                  });
-                        });
+                                  },
+                                  Community.get().getExecutors().cpu());
+                        },
+                        Community.get().getExecutors().cpu());
               } else {
                 sender.sendWarning(formatNotFoundComponent(target.getIdentifier()));
               }
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 
   @CommandMethod("remove <player>")
@@ -213,12 +226,15 @@ public class FriendshipCommand extends CommunityCommand {
                                       sender.sendWarning(
                                           text("You are not friends with ").append(name));
                                     }
-                                  });
-                        });
+                                  },
+                                  Community.get().getExecutors().cpu());
+                        },
+                        Community.get().getExecutors().cpu());
               } else {
                 sender.sendWarning(formatNotFoundComponent(target.getIdentifier()));
               }
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 
   @CommandMethod("accept <username>")
@@ -230,56 +246,61 @@ public class FriendshipCommand extends CommunityCommand {
         .thenAcceptAsync(
             storedId -> {
               if (storedId.isPresent()) {
-                List<Friendship> requests =
-                    friends.getIncomingRequests(sender.getPlayer().getUniqueId()).join();
-                if (requests.isEmpty()) {
-                  sender.sendWarning(text("You have no pending friend requests"));
-                  return;
-                }
-
-                Optional<Friendship> pending =
-                    requests.stream()
-                        .filter(fr -> fr.getRequesterId().equals(storedId.get()))
-                        .findAny();
-
-                users
-                    .renderUsername(storedId, NameStyle.FANCY)
+                friends
+                    .getIncomingRequests(sender.getPlayer().getUniqueId())
                     .thenAcceptAsync(
-                        name -> {
-                          if (pending.isPresent()) {
-                            friends.acceptFriendship(pending.get());
-                            sender.sendMessage(
-                                text("You accepted ")
-                                    .append(name)
-                                    .append(text("'s friend request!"))
-                                    .color(NamedTextColor.GREEN));
-
-                            // Notify online requester
-                            Player onlineFriend = Bukkit.getPlayer(storedId.get());
-                            if (onlineFriend != null
-                                && !VisibilityUtils.isDisguised(sender.getPlayer())) {
-                              Audience.get(onlineFriend)
-                                  .sendMessage(
-                                      text()
-                                          .append(sender.getStyledName())
-                                          .append(
-                                              text(
-                                                  " has accepted your friend request!",
-                                                  NamedTextColor.GREEN)));
-                            }
-
-                          } else {
-                            sender.sendWarning(
-                                text("You don't have a pending friend request from ")
-                                    .append(name)
-                                    .color(NamedTextColor.GRAY));
+                        requests -> {
+                          if (requests.isEmpty()) {
+                            sender.sendWarning(text("You have no pending friend requests"));
+                            return;
                           }
-                        });
 
+                          Optional<Friendship> pending =
+                              requests.stream()
+                                  .filter(fr -> fr.getRequesterId().equals(storedId.get()))
+                                  .findAny();
+
+                          users
+                              .renderUsername(storedId, NameStyle.FANCY)
+                              .thenAcceptAsync(
+                                  name -> {
+                                    if (pending.isPresent()) {
+                                      friends.acceptFriendship(pending.get());
+                                      sender.sendMessage(
+                                          text("You accepted ")
+                                              .append(name)
+                                              .append(text("'s friend request!"))
+                                              .color(NamedTextColor.GREEN));
+
+                                      // Notify online requester
+                                      Player onlineFriend = Bukkit.getPlayer(storedId.get());
+                                      if (onlineFriend != null
+                                          && !VisibilityUtils.isDisguised(sender.getPlayer())) {
+                                        Audience.get(onlineFriend)
+                                            .sendMessage(
+                                                text()
+                                                    .append(sender.getStyledName())
+                                                    .append(
+                                                        text(
+                                                            " has accepted your friend request!",
+                                                            NamedTextColor.GREEN)));
+                                      }
+
+                                    } else {
+                                      sender.sendWarning(
+                                          text("You don't have a pending friend request from ")
+                                              .append(name)
+                                              .color(NamedTextColor.GRAY));
+                                    }
+                                  },
+                                  Community.get().getExecutors().cpu());
+                        },
+                        Community.get().getExecutors().cpu());
               } else {
                 sender.sendWarning(formatNotFoundComponent(target));
               }
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 
   @CommandMethod("reject <player>")
@@ -290,40 +311,46 @@ public class FriendshipCommand extends CommunityCommand {
         .thenAcceptAsync(
             storedId -> {
               if (storedId.isPresent()) {
-                List<Friendship> requests =
-                    friends.getIncomingRequests(sender.getPlayer().getUniqueId()).join();
-                if (requests.isEmpty()) {
-                  sender.sendWarning(text("You have no pending friend requests"));
-                  return;
-                }
-
-                Optional<Friendship> pending =
-                    requests.stream()
-                        .filter(fr -> fr.getRequesterId().equals(storedId.get()))
-                        .findAny();
-                users
-                    .renderUsername(storedId, NameStyle.FANCY)
+                friends
+                    .getIncomingRequests(sender.getPlayer().getUniqueId())
                     .thenAcceptAsync(
-                        name -> {
-                          if (pending.isPresent()) {
-                            friends.rejectFriendship(pending.get());
-                            sender.sendMessage(
-                                text("You have rejected ")
-                                    .append(name)
-                                    .append(text("'s friend request"))
-                                    .color(NamedTextColor.GRAY));
+                        requests -> {
+                          if (requests.isEmpty()) {
+                            sender.sendWarning(text("You have no pending friend requests"));
                             return;
-                          } else {
-                            sender.sendWarning(
-                                text("You don't have a pending friend request from ")
-                                    .append(name)
-                                    .color(NamedTextColor.GRAY));
                           }
-                        });
+
+                          Optional<Friendship> pending =
+                              requests.stream()
+                                  .filter(fr -> fr.getRequesterId().equals(storedId.get()))
+                                  .findAny();
+                          users
+                              .renderUsername(storedId, NameStyle.FANCY)
+                              .thenAcceptAsync(
+                                  name -> {
+                                    if (pending.isPresent()) {
+                                      friends.rejectFriendship(pending.get());
+                                      sender.sendMessage(
+                                          text("You have rejected ")
+                                              .append(name)
+                                              .append(text("'s friend request"))
+                                              .color(NamedTextColor.GRAY));
+                                      return;
+                                    } else {
+                                      sender.sendWarning(
+                                          text("You don't have a pending friend request from ")
+                                              .append(name)
+                                              .color(NamedTextColor.GRAY));
+                                    }
+                                  },
+                                  Community.get().getExecutors().cpu());
+                        },
+                        Community.get().getExecutors().cpu());
               } else {
                 sender.sendWarning(formatNotFoundComponent(target.getIdentifier()));
               }
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 
   private void sendRequestsList(CommandAudience audience, List<Friendship> requests, int page) {
@@ -356,40 +383,77 @@ public class FriendshipCommand extends CommunityCommand {
     Component formattedHeader =
         TextFormatter.horizontalLineHeading(
             audience.getSender(), header, NamedTextColor.DARK_GREEN);
-    new PaginatedComponentResults<Friendship>(formattedHeader, perPage) {
-
-      @Override
-      public Component format(Friendship data, int index) {
-        // [Name] > [ time since requested ] [buttons to accept/reject]
-        Component name =
-            users
-                .renderUsername(
-                    data.getOtherPlayer(audience.getPlayer().getUniqueId()), NameStyle.FANCY)
-                .join();
-
-        return text()
-            .append(name)
-            .append(space())
-            .append(BroadcastUtils.RIGHT_DIV.color(NamedTextColor.GOLD))
-            .append(text(" Sent "))
-            .append(relativePastApproximate(data.getRequestDate()).color(NamedTextColor.DARK_AQUA))
-            .append(space())
-            .append(FriendshipFeature.createAcceptButton(data.getRequesterId().toString()))
-            .append(space())
-            .append(FriendshipFeature.createRejectButton(data.getRequesterId().toString()))
-            .color(NamedTextColor.GRAY)
-            .build();
-      }
-
-      @Override
-      public Component formatEmpty() {
-        // TODO: Translate
-        return text("You have no pending friend requests", NamedTextColor.RED);
-      }
-    }.display(audience.getAudience(), requests, page);
+    final int currentPage = page;
+    users
+        .renderUsernames(getPageIds(audience, requests, perPage, page), NameStyle.FANCY)
+        .thenAcceptAsync(
+            names ->
+                new PaginatedComponentResults<Friendship>(formattedHeader, perPage) {
+
+                  @Override
+                  public Component format(Friendship data, int index) {
+                    // [Name] > [ time since requested ] [buttons to accept/reject]
+                    Component name =
+                        names.get(data.getOtherPlayer(audience.getPlayer().getUniqueId()));
+
+                    return text()
+                        .append(name)
+                        .append(space())
+                        .append(BroadcastUtils.RIGHT_DIV.color(NamedTextColor.GOLD))
+                        .append(text(" Sent "))
+                        .append(
+                            relativePastApproximate(data.getRequestDate())
+                                .color(NamedTextColor.DARK_AQUA))
+                        .append(space())
+                        .append(
+                            FriendshipFeature.createAcceptButton(data.getRequesterId().toString()))
+                        .append(space())
+                        .append(
+                            FriendshipFeature.createRejectButton(data.getRequesterId().toString()))
+                        .color(NamedTextColor.GRAY)
+                        .build();
+                  }
+
+                  @Override
+                  public Component formatEmpty() {
+                    // TODO: Translate
+                    return text("You have no pending friend requests", NamedTextColor.RED);
+                  }
+                }.display(audience.getAudience(), requests, currentPage),
+            Community.get().getExecutors().cpu());
   }
 
   private void sendFriendList(CommandAudience audience, List<Friendship> friends, int page) {
+    UUID viewerId = audience.getPlayer().getUniqueId();
+    boolean isStaff = audience.getSender().hasPermission(CommunityPermissions.STAFF);
+
+    // Load every session first, so sorting and the page never wait on a lookup
+    Map<UUID, CompletableFuture<Session>> sessions = Maps.newHashMap();
+    for (Friendship friendship : friends) {
+      UUID friendId = friendship.getOtherPlayer(viewerId);
+      sessions.put(
+          friendId,
+          users
+              .getStoredProfile(friendId)
+              .thenCompose(
+                  profile ->
+                      profile == null
+                          ? CompletableFuture.<Session>completedFuture(null)
+                          : profile.getLatestSession(!isStaff)));
+    }
+
+    CompletableFuture.allOf(sessions.values().toArray(new CompletableFuture[0]))
+        .thenAcceptAsync(
+            x -> {
+              Map<UUID, Session> latest = Maps.newHashMap();
+              sessions.forEach((id, session) -> latest.put(id, session.join()));
+              sendFriendList(audience, friends, latest, page);
+            },
+            Community.get().getExecutors().cpu());
+  }
+
+  private void sendFriendList(
+      CommandAudience audience, List<Friendship> friends, Map<UUID, Session> sessions, int page) {
     Collections.sort(
         friends,
         new Comparator<Friendship>() {
@@ -398,12 +462,8 @@ public class FriendshipCommand extends CommunityCommand {
             UUID f1 = o1.getOtherPlayer(audience.getPlayer().getUniqueId());
             UUID f2 = o2.getOtherPlayer(audience.getPlayer().getUniqueId());
 
-            UserProfile friend1 = users.getStoredProfile(f1).join();
-            UserProfile friend2 = users.getStoredProfile(f2).join();
-
-            boolean isStaff = audience.getSender().hasPermission(CommunityPermissions.STAFF);
-            Session session1 = friend1.getLatestSession(!isStaff).join();
-            Session session2 = friend2.getLatestSession(!isStaff).join();
+            Session session1 = sessions.get(f1);
+            Session session2 = sessions.get(f2);
 
             Player online1 = Bukkit.getPlayer(f1);
             Player online2 = Bukkit.getPlayer(f2);
@@ -418,6 +478,11 @@ public class FriendshipCommand extends CommunityCommand {
               return 1;
             }
 
+            // Friends without a stored profile go last
+            if (session1 == null || session2 == null) {
+              return Boolean.compare(session1 == null, session2 == null);
+            }
+
             return -session1.getLatestUpdateDate().compareTo(session2.getLatestUpdateDate());
           }
         });
@@ -446,73 +511,81 @@ public class FriendshipCommand extends CommunityCommand {
     Component formattedHeader =
         TextFormatter.horizontalLineHeading(
             audience.getSender(), header, NamedTextColor.DARK_GREEN);
-    new PaginatedComponentResults<Friendship>(formattedHeader, perPage) {
-
-      @Override
-      public Component format(Friendship data, int index) {
-        Component name =
-            users
-                .renderUsername(
-                    data.getOtherPlayer(audience.getPlayer().getUniqueId()), NameStyle.FANCY)
-                .join();
-
-        TextComponent.Builder builder =
-            text()
-                .append(name)
-                .append(space())
-                .append(BroadcastUtils.RIGHT_DIV.color(NamedTextColor.GOLD))
-                .append(
-                    renderOnlineStatus(
-                            data.getOtherPlayer(audience.getPlayer().getUniqueId()), audience)
-                        .join());
-
-        if (data.getLastUpdated() != null) {
-          Component hover =
-              text("Friends for ", NamedTextColor.GRAY)
-                  .append(
-                      duration(Duration.between(data.getLastUpdated(), Instant.now()))
-                          .color(NamedTextColor.AQUA));
-          builder.hoverEvent(HoverEvent.showText(hover));
-        }
-
-        return builder.build();
-      }
-
-      @Override
-      public Component formatEmpty() {
-        // TODO: Translate
-        return text("You have no friends yet... :(", NamedTextColor.RED);
-      }
-    }.display(audience.getAudience(), friends, page);
+    final int currentPage = page;
+    users
+        .renderUsernames(getPageIds(audience, friends, perPage, page), NameStyle.FANCY)
+        .thenAcceptAsync(
+            names ->
+                new PaginatedComponentResults<Friendship>(formattedHeader, perPage) {
+
+                  @Override
+                  public Component format(Friendship data, int index) {
+                    Component name =
+                        names.get(data.getOtherPlayer(audience.getPlayer().getUniqueId()));
+
+                    TextComponent.Builder builder =
+                        text()
+                            .append(name)
+                            .append(space())
+                            .append(BroadcastUtils.RIGHT_DIV.color(NamedTextColor.GOLD))
+                            .append(
+                                formatOnlineStatus(
+                                    sessions.get(
+                                        data.getOtherPlayer(audience.getPlayer().getUniqueId())),
+                                    audience));
+
+                    if (data.getLastUpdated() != null) {
+                      Component hover =
+                          text("Friends for ", NamedTextColor.GRAY)
+                              .append(
+                                  duration(Duration.between(data.getLastUpdated(), Instant.now()))
+                                      .color(NamedTextColor.AQUA));
+                      builder.hoverEvent(HoverEvent.showText(hover));
+                    }
+
+                    return builder.build();
+                  }
+
+                  @Override
+                  public Component formatEmpty() {
+                    // TODO: Translate
+                    return text("You have no friends yet... :(", NamedTextColor.RED);
+                  }
+                }.display(audience.getAudience(), friends, currentPage),
+            Community.get().getExecutors().cpu());
+  }
+  /** Gets the other player of each friendship shown on a page, so their names render together */
+  private List<UUID> getPageIds(
+      CommandAudience audience, List<Friendship> friendships, int perPage, int page) {
+    UUID viewerId = audience.getPlayer().getUniqueId();
+    return friendships
+        .subList(
+            Math.min(friendships.size(), (page - 1) * perPage),
+            Math.min(friendships.size(), page * perPage))
+        .stream()
+        .map(friendship -> friendship.getOtherPlayer(viewerId))
+        .collect(Collectors.toList());
   }
 
-  private CompletableFuture<Component> renderOnlineStatus(UUID playerId, CommandAudience viewer) {
+  private Component formatOnlineStatus(@Nullable Session session, CommandAudience viewer) {
+    if (session == null) return empty();
     boolean staff = viewer.getSender().hasPermission(CommunityPermissions.STAFF);
-    CompletableFuture<Component> future = new CompletableFuture<Component>();
-    users.findUserWithSession(
-        playerId,
-        !staff,
-        (profile, session) -> {
-          boolean online = !session.hasEnded();
-          boolean vanished = session.isDisguised();
-          boolean visible = online && (!vanished || staff);
-
-          Component status =
-              (visible
-                      ? duration(Duration.between(session.getLatestUpdateDate(), Instant.now()))
-                      : relativePastApproximate(session.getLatestUpdateDate()))
-                  .color(visible ? NamedTextColor.GREEN : NamedTextColor.DARK_GREEN);
-          future.complete(
-              text(visible ? " Online for " : " Last seen ")
-                  .append(status)
-                  .append(text(session.isOnThisServer() ? "" : " on "))
-                  .append(
-                      text(session.isOnThisServer() ? "" : session.getServerName())
-                          .color(online ? NamedTextColor.GREEN : NamedTextColor.DARK_GREEN))
-                  .color(NamedTextColor.GRAY));
-        });
-
-    return future;
+    boolean online = !session.hasEnded();
+    boolean vanished = session.isDisguised();
+    boolean visible = online && (!vanished || staff);
+
+    Component status =
+        (visible
+                ? duration(Duration.between(session.getLatestUpdateDate(), Instant.now()))
+                : relativePastApproximate(session.getLatestUpdateDate()))
+            .color(visible ? NamedTextColor.GREEN : NamedTextColor.DARK_GREEN);
+    return text(visible ? " Online for " : " Last seen ")
+        .append(status)
+        .append(text(session.isOnThisServer() ? "" : " on "))
+        .append(
+            text(session.isOnThisServer() ? "" : session.getServerName())
+                .color(online ? NamedTextColor.GREEN : NamedTextColor.DARK_GREEN))
+        .color(NamedTextColor.GRAY);
   }
 
   private boolean canSee(Player player, CommandAudience viewer) {
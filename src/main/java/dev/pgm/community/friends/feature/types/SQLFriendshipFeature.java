@@ -3,12 +3,14 @@ package dev.pgm.community.friends.feature.types;
 import static net.kyori.adventure.text.Component.space;
 import static net.kyori.adventure.text.Component.text;
 
+import dev.pgm.community.Community;
 import dev.pgm.community.friends.FriendRequestStatus;
 import dev.pgm.community.friends.Friendship;
 import dev.pgm.community.friends.Friendship.FriendshipStatus;
 import dev.pgm.community.friends.feature.FriendshipFeature;
 import dev.pgm.community.friends.feature.FriendshipFeatureBase;
 import dev.pgm.community.friends.services.SQLFriendshipService;
+import dev.pgm.community.network.feature.NetworkFeature;
 import dev.pgm.community.users.feature.UsersFeature;
 import java.util.List;
 import java.util.Optional;
@@ -32,9 +34,10 @@ public class SQLFriendshipFeature extends FriendshipFeatureBase {
   private final SQLFriendshipService service;
   private final UsersFeature users;
 
-  public SQLFriendshipFeature(Configuration config, Logger logger, UsersFeature users) {
+  public SQLFriendshipFeature(
+      Configuration config, Logger logger, UsersFeature users, NetworkFeature network) {
     super(config, logger, "Friends (SQL)");
-    this.service = new SQLFriendshipService();
+    this.service = new SQLFriendshipService(network.getInvalidations());
     this.users = users;
   }
 
@@ -46,7 +49,8 @@ public class SQLFriendshipFeature extends FriendshipFeatureBase {
             q ->
                 q.stream()
                     .filter(fr -> fr.getStatus() == FriendshipStatus.ACCEPTED)
-                    .collect(Collectors.toList()));
+                    .collect(Collectors.toList()),
+            Community.get().getExecutors().cpu());
   }
 
   @Override
@@ -60,57 +64,70 @@ public class SQLFriendshipFeature extends FriendshipFeatureBase {
                         fr ->
                             fr.getRequestedId().equals(playerId)
                                 && fr.getStatus() == FriendshipStatus.PENDING)
-                    .collect(Collectors.toList()));
+                    .collect(Collectors.toList()),
+            Community.get().getExecutors().cpu());
   }
 
   @Override
   public CompletableFuture<FriendRequestStatus> addFriend(UUID sender, UUID target) {
     return hasRequested(sender, target)
-        .thenApplyAsync(
+        .thenComposeAsync(
             requested -> {
               if (requested.isPresent()) {
                 Friendship pending = requested.get();
                 // If target has already requested you, just accept the friendship
                 if (pending.getRequesterId().equals(target)) {
                   acceptFriendship(pending);
-                  return FriendRequestStatus.ACCEPTED_EXISTING;
+                  return CompletableFuture.completedFuture(FriendRequestStatus.ACCEPTED_EXISTING);
                 }
 
-                return FriendRequestStatus.EXISTING; // Already requested
-              }
-
-              // Can't add an existing friend ;)
-              if (areFriends(sender, target).join()) {
-                return FriendRequestStatus.EXISTING;
+                // Already requested
+                return CompletableFuture.completedFuture(FriendRequestStatus.EXISTING);
               }
 
-              Friendship request = new Friendship(sender, target);
-              service.save(request);
-
-              if (Bukkit.getPlayer(target) != null) {
-                Player targetPlayer = Bukkit.getPlayer(target);
-
-                Component senderName =
-                    users.renderUsername(Optional.of(sender), NameStyle.FANCY).join();
-                Component accept = FriendshipFeature.createAcceptButton(sender.toString());
-                Component reject = FriendshipFeature.createRejectButton(sender.toString());
-
-                Component requestMsg =
-                    text()
-                        .append(senderName)
-                        .append(text(" has requested to be your friend. "))
-                        .append(accept)
-                        .append(space())
-                        .append(reject)
-                        .color(NamedTextColor.GOLD)
-                        .build();
-
-                Audience.get(targetPlayer).sendMessage(requestMsg);
-                // TODO: play sound too?
-              }
+              return areFriends(sender, target)
+                  .thenCompose(
+                      friends -> {
+                        // Can't add an existing friend ;)
+                        if (friends) {
+                          return CompletableFuture.completedFuture(FriendRequestStatus.EXISTING);
+                        }
+
+                        Friendship request = new Friendship(sender, target);
+                        service.save(request);
+                        return notifyRequest(sender, target)
+                            .thenApply(x -> FriendRequestStatus.PENDING);
+                      });
+            },
+            Community.get().getExecutors().cpu());
+  }
 
-              return FriendRequestStatus.PENDING;
-            });
+  private CompletableFuture<Void> notifyRequest(UUID sender, UUID target) {
+    if (Bukkit.getPlayer(target) == null) return CompletableFuture.completedFuture(null);
+    return users
+        .renderUsername(Optional.of(sender), NameStyle.FANCY)
+        .thenAcceptAsync(
+            senderName -> {
+              Player targetPlayer = Bukkit.getPlayer(target);
+              if (targetPlayer == null) return;
+
+              Component accept = FriendshipFeature.createAcceptButton(sender.toString());
+              Component reject = FriendshipFeature.createRejectButton(sender.toString());
+
+              Component requestMsg =
+                  text()
+                      .append(senderName)
+                      .append(text(" has requested to be your friend. "))
+                      .append(accept)
+                      .append(space())
+                      .append(reject)
+                      .color(NamedTextColor.GOLD)
+                      .build();
+
+              Audience.get(targetPlayer).sendMessage(requestMsg);
+              // TODO: play sound too?
+            },
+            Community.get().getExecutors().cpu());
   }
 
   @Override
@@ -123,7 +140,8 @@ public class SQLFriendshipFeature extends FriendshipFeatureBase {
                     .anyMatch(
                         fr ->
                             fr.areInvolved(sender, target)
-                                && fr.getStatus() == FriendshipStatus.ACCEPTED));
+                                && fr.getStatus() == FriendshipStatus.ACCEPTED),
+            Community.get().getExecutors().cpu());
   }
 
   @Override
@@ -137,7 +155,8 @@ public class SQLFriendshipFeature extends FriendshipFeatureBase {
                         fr ->
                             fr.areInvolved(sender, target)
                                 && fr.getStatus() == FriendshipStatus.PENDING)
-                    .findAny());
+                    .findAny(),
+            Community.get().getExecutors().cpu());
   }
 
   @Override
@@ -153,7 +172,8 @@ public class SQLFriendshipFeature extends FriendshipFeatureBase {
               if (!requests.isEmpty()) {
                 sendFriendRequestLoginMessage(event.getPlayer(), requests.size());
               }
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 
   @Override
@@ -189,7 +209,8 @@ public class SQLFriendshipFeature extends FriendshipFeatureBase {
                 integration.setFriends(playerId, friendIds);
                 integration.callUpdateEvents(playerId, friendIds);
               }
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 
   public CompletableFuture<Integer> count() {
@@ -1,12 +1,20 @@
 package dev.pgm.community.friends.services;
 
+import dev.pgm.community.database.UUIDCodec;
+
 public interface FriendshipQuery {
 
   static final String TABLE_NAME = "friendships";
   static final String TABLE_FIELDS =
-      "(id VARCHAR(36) PRIMARY KEY, "
-          + "requester VARCHAR(36), "
-          + "requested VARCHAR(36), "
+      "(id "
+          + UUIDCodec.columnType()
+          + " PRIMARY KEY, "
+          + "requester "
+          + UUIDCodec.columnType()
+          + ", "
+          + "requested "
+          + UUIDCodec.columnType()
+          + ", "
           + "status VARCHAR(8), "
           + "requestDate LONG, "
           + "updateDate LONG)";
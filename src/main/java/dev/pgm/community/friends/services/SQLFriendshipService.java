@@ -2,13 +2,14 @@ package dev.pgm.community.friends.services;
 
 import co.aikar.idb.DB;
 import co.aikar.idb.DbRow;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Sets;
+import dev.pgm.community.Community;
+import dev.pgm.community.database.UUIDCodec;
+import dev.pgm.community.feature.FeatureCache;
 import dev.pgm.community.feature.SQLFeatureBase;
 import dev.pgm.community.friends.Friendship;
 import dev.pgm.community.friends.Friendship.FriendshipStatus;
+import dev.pgm.community.network.cache.InvalidationBus;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
@@ -19,19 +20,20 @@ import java.util.concurrent.CompletableFuture;
 public class SQLFriendshipService extends SQLFeatureBase<Friendship, String>
     implements FriendshipQuery {
 
-  private LoadingCache<UUID, PlayerFriendships> friendshipCache;
+  private static final String INVALIDATION_TYPE = "friendships";
 
-  public SQLFriendshipService() {
+  private FeatureCache<UUID, PlayerFriendships> friendshipCache;
+  private final InvalidationBus invalidations;
+
+  public SQLFriendshipService(InvalidationBus invalidations) {
     super(TABLE_NAME, TABLE_FIELDS);
+    this.invalidations = invalidations;
     this.friendshipCache =
-        CacheBuilder.newBuilder()
-            .build(
-                new CacheLoader<UUID, PlayerFriendships>() {
-                  @Override
-                  public PlayerFriendships load(UUID key) throws Exception {
-                    return new PlayerFriendships(key);
-                  }
-                });
+        FeatureCache.<PlayerFriendships>players("friendships")
+            .maximumWeight(20000)
+            .weigher(friendships -> 1 + friendships.getFriendships().size())
+            .build(PlayerFriendships::new);
+    invalidations.subscribe(INVALIDATION_TYPE, friendshipCache::invalidate);
   }
 
   @Override
@@ -48,13 +50,14 @@ public class SQLFriendshipService extends SQLFeatureBase<Friendship, String>
     }
 
     DB.executeUpdateAsync(
-        INSERT_FRIENDSHIP_QUERY,
-        friendship.getFriendshipId().toString(),
-        friendship.getRequesterId().toString(),
-        friendship.getRequestedId().toString(),
-        friendship.getStatus().toString().toUpperCase(),
-        friendship.getRequestDate().toEpochMilli(),
-        friendship.getLastUpdated().toEpochMilli());
+            INSERT_FRIENDSHIP_QUERY,
+            UUIDCodec.encode(friendship.getFriendshipId()),
+            UUIDCodec.encode(friendship.getRequesterId()),
+            UUIDCodec.encode(friendship.getRequestedId()),
+            friendship.getStatus().toString().toUpperCase(),
+            friendship.getRequestDate().toEpochMilli(),
+            friendship.getLastUpdated().toEpochMilli())
+        .thenRun(() -> publishChange(friendship));
   }
 
   public void updateFriendshipStatus(Friendship friendship, boolean accept) {
@@ -81,10 +84,17 @@ public class SQLFriendshipService extends SQLFeatureBase<Friendship, String>
     }
 
     DB.executeUpdateAsync(
-        UPDATE_FRIENDSHIP_QUERY,
-        friendship.getStatus().toString().toUpperCase(),
-        friendship.getLastUpdated().toEpochMilli(),
-        friendship.getFriendshipId().toString());
+            UPDATE_FRIENDSHIP_QUERY,
+            friendship.getStatus().toString().toUpperCase(),
+            friendship.getLastUpdated().toEpochMilli(),
+            UUIDCodec.encode(friendship.getFriendshipId()))
+        .thenRun(() -> publishChange(friendship));
+  }
+
+  // Both players may have the friendship cached on other servers
+  private void publishChange(Friendship friendship) {
+    invalidations.publish(INVALIDATION_TYPE, friendship.getRequesterId());
+    invalidations.publish(INVALIDATION_TYPE, friendship.getRequestedId());
   }
 
   @Override // TODO: Query list where TARGET == requester or requested, add methods
@@ -96,14 +106,12 @@ public class SQLFriendshipService extends SQLFeatureBase<Friendship, String>
     if (playerFriendships.isLoaded()) {
       return CompletableFuture.completedFuture(new ArrayList<>(playerFriendships.getFriendships()));
     } else {
-      return DB.getResultsAsync(SELECT_FRIENDSHIPS_QUERY, playerId.toString(), playerId.toString())
+      final Object encodedId = UUIDCodec.encode(playerId);
+      return DB.getResultsAsync(SELECT_FRIENDSHIPS_QUERY, encodedId, encodedId)
           .thenApplyAsync(
               results -> {
                 if (results != null) {
                   for (DbRow row : results) {
-                    String id = row.getString("id");
-                    String requester = row.getString("requester");
-                    String requested = row.getString("requested");
                     String status = row.getString("status");
                     long requestDate = Long.parseLong(row.getString("requestDate"));
                     long updateDate = Long.parseLong(row.getString("updateDate"));
@@ -115,17 +123,20 @@ public class SQLFriendshipService extends SQLFeatureBase<Friendship, String>
                         .getFriendships()
                         .add(
                             new Friendship(
-                                UUID.fromString(id),
-                                UUID.fromString(requester),
-                                UUID.fromString(requested),
+                                UUIDCodec.decode(row, "id"),
+                                UUIDCodec.decode(row, "requester"),
+                                UUIDCodec.decode(row, "requested"),
                                 FriendshipStatus.valueOf(status.toUpperCase()),
                                 requestInstant,
                                 updateInstant));
                   }
                 }
                 playerFriendships.setLoaded(true);
+                // Re-weigh loaded friendships, unless invalidated since the load began
+                friendshipCache.replace(playerId, playerFriendships);
                 return new ArrayList<>(playerFriendships.getFriendships());
-              });
+              },
+              Community.get().getExecutors().io());
     }
   }
 
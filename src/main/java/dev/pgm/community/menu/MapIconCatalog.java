@@ -0,0 +1,319 @@
+package dev.pgm.community.menu;
+
+import static tc.oc.pgm.util.bukkit.BukkitUtils.colorize;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Range;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.ItemStack;
+import tc.oc.pgm.api.PGM;
+import tc.oc.pgm.api.map.MapInfo;
+import tc.oc.pgm.api.map.MapTag;
+import tc.oc.pgm.api.map.Phase;
+import tc.oc.pgm.util.inventory.ItemBuilder;
+
+/**
+ * MapIconCatalog - Menu icons of every map, built once per map library load and shared by menus
+ *
+ * <p>Maps are sorted by name and numbered, filters by tag, phase or size are bitsets over those
+ * numbers, so menus combine them with a few word operations and only touch the icons of the page
+ * they show. The library is checked for changes at most every {@link #CHECK_INTERVAL_MS}. Icons are
+ * shared between viewers and must not be modified. Must be used from the main thread.
+ */
+public class MapIconCatalog {
+
+  private static final long CHECK_INTERVAL_MS = 5000;
+
+  private static MapIconCatalog catalog;
+  private static int fingerprint;
+  private static long lastCheck;
+
+  /** @return The catalog of the current map library, rebuilt if maps were reloaded */
+  public static MapIconCatalog get() {
+    long now = System.currentTimeMillis();
+    if (catalog == null || now - lastCheck > CHECK_INTERVAL_MS) {
+      lastCheck = now;
+      List<MapInfo> maps = Lists.newArrayList(PGM.get().getMapLibrary().getMaps());
+      int current = fingerprint(maps);
+      if (catalog == null || current != fingerprint) {
+        catalog = new MapIconCatalog(maps);
+        fingerprint = current;
+      }
+    }
+    return catalog;
+  }
+
+  // Reloaded maps are new instances, so identities tell a reload apart
+  private static int fingerprint(List<MapInfo> maps) {
+    int hash = maps.size();
+    for (MapInfo map : maps) {
+      hash = hash * 31 + System.identityHashCode(map);
+    }
+    return hash;
+  }
+
+  private final List<MapIcon> icons;
+  private final Map<MapInfo, MapIcon> byMap;
+  private final Map<MapTag, BitSet> byTag;
+  private final Map<Phase, BitSet> byPhase;
+  private final List<MapTag> tags;
+
+  // Map numbers sorted by max players, for size range lookups
+  private final int[] bySize;
+
+  private MapIconCatalog(List<MapInfo> maps) {
+    List<MapInfo> sorted = Lists.newArrayList(maps);
+    sorted.sort(Comparator.comparing(MapInfo::getName, String.CASE_INSENSITIVE_ORDER));
+
+    ImmutableList.Builder<MapIcon> icons = ImmutableList.builder();
+    this.byMap = Maps.newHashMap();
+    this.byTag = Maps.newHashMap();
+    this.byPhase = new EnumMap<>(Phase.class);
+    for (int i = 0; i < sorted.size(); i++) {
+      MapIcon icon = new MapIcon(i, sorted.get(i));
+      icons.add(icon);
+      byMap.put(icon.getMap(), icon);
+      for (MapTag tag : icon.getMap().getTags()) {
+        byTag.computeIfAbsent(tag, t -> new BitSet()).set(i);
+      }
+      byPhase.computeIfAbsent(icon.getMap().getPhase(), p -> new BitSet()).set(i);
+    }
+    this.icons = icons.build();
+
+    this.tags =
+        byTag.keySet().stream()
+            .sorted(Comparator.comparing(MapTag::getId))
+            .collect(Collectors.toList());
+    this.bySize =
+        this.icons.stream()
+            .sorted(Comparator.comparingInt(MapIcon::getMaxPlayers))
+            .mapToInt(MapIcon::getIndex)
+            .toArray();
+  }
+
+  public int size() {
+    return icons.size();
+  }
+
+  /** @return The map numbered index, in name order */
+  public MapInfo getMap(int index) {
+    return icons.get(index).getMap();
+  }
+
+  /** @return Every tag used by at least one map */
+  public List<MapTag> getTags() {
+    return tags;
+  }
+
+  /** @return The number of a map, or -1 if not in this catalog */
+  public int indexOf(MapInfo map) {
+    MapIcon icon = byMap.get(map);
+    return icon == null ? -1 : icon.getIndex();
+  }
+
+  /** @return A new filter with every map */
+  public BitSet all() {
+    BitSet filter = new BitSet(icons.size());
+    filter.set(0, icons.size());
+    return filter;
+  }
+
+  /** @return A new filter with the given maps, ignoring maps not in this catalog */
+  public BitSet of(Collection<MapInfo> maps) {
+    BitSet filter = new BitSet(icons.size());
+    for (MapInfo map : maps) {
+      MapIcon icon = byMap.get(map);
+      if (icon != null) {
+        filter.set(icon.getIndex());
+      }
+    }
+    return filter;
+  }
+
+  /** @return A new filter with the maps tagged with a tag */
+  public BitSet withTag(MapTag tag) {
+    BitSet filter = byTag.get(tag);
+    return filter == null ? new BitSet() : (BitSet) filter.clone();
+  }
+
+  /** @return A new filter with the maps in a phase */
+  public BitSet inPhase(Phase phase) {
+    BitSet filter = byPhase.get(phase);
+    return filter == null ? new BitSet() : (BitSet) filter.clone();
+  }
+
+  /** @return A new filter with the maps whose max players is within a range */
+  public BitSet withSize(Range<Integer> players) {
+    BitSet filter = new BitSet(icons.size());
+    for (int index : bySize) {
+      int max = icons.get(index).getMaxPlayers();
+      if (players.contains(max)) {
+        filter.set(index);
+      } else if (players.hasUpperBound() && max > players.upperEndpoint()) {
+        break;
+      }
+    }
+    return filter;
+  }
+
+  /**
+   * Visits the icons of a page of filtered maps, in name order
+   *
+   * @param filter The maps to show
+   * @param page The page, starting at 0
+   * @param perPage The number of maps on each page
+   * @param action Called with each icon on the page
+   */
+  public void forEachOnPage(BitSet filter, int page, int perPage, Consumer<MapIcon> action) {
+    int skip = page * perPage;
+    int shown = 0;
+    for (int i = filter.nextSetBit(0); i >= 0 && shown < perPage; i = filter.nextSetBit(i + 1)) {
+      if (skip > 0) {
+        skip--;
+        continue;
+      }
+      action.accept(icons.get(i));
+      shown++;
+    }
+  }
+
+  /** @return The maps of a filter, in name order */
+  public List<MapInfo> getMaps(BitSet filter) {
+    List<MapInfo> maps = Lists.newArrayListWithCapacity(filter.cardinality());
+    for (int i = filter.nextSetBit(0); i >= 0; i = filter.nextSetBit(i + 1)) {
+      maps.add(icons.get(i).getMap());
+    }
+    return maps;
+  }
+
+  public static Material getTagMaterial(MapTag mapTag) {
+    switch (mapTag.getId()) {
+      case "2teams":
+        return Material.LEATHER;
+      case "ffa":
+        return Material.DIAMOND_SWORD;
+      case "border":
+        return Material.IRON_BARDING;
+      case "wool":
+        return Material.WOOL;
+      case "controlpoint":
+        return Material.BEACON;
+      case "flag":
+        return Material.BANNER;
+      case "classes":
+        return Material.FISHING_ROD;
+      case "deathmatch":
+        return Material.STONE_SWORD;
+      case "monument":
+        return Material.DIAMOND_PICKAXE;
+      case "4teams":
+        return Material.TRAP_DOOR;
+      case "timelimit":
+        return Material.WATCH;
+      case "autotnt":
+        return Material.TNT;
+      case "core":
+        return Material.OBSIDIAN;
+      case "blitz":
+        return Material.EGG;
+      case "scorebox":
+        return Material.WEB;
+      case "6teams":
+        return Material.BED;
+      case "rage":
+        return Material.BOW;
+      case "3teams":
+        return Material.WORKBENCH;
+      case "terrain":
+        return Material.GRASS;
+      case "8teams":
+        return Material.INK_SACK;
+      default:
+        return Material.MAP;
+    }
+  }
+
+  /** MapIcon - The precomputed icon of a single map */
+  public static class MapIcon {
+
+    private final int index;
+    private final MapInfo map;
+    private final Material material;
+    private final int maxPlayers;
+    private final String name;
+    private final String players;
+    private final String tags;
+
+    // Footer and glow -> icon, menus only use a couple of variants
+    private final Map<String, ItemStack> variants;
+
+    private MapIcon(int index, MapInfo map) {
+      this.index = index;
+      this.map = map;
+      this.material =
+          map.getTags().stream()
+              .filter(MapTag::isGamemode)
+              .findAny()
+              .map(MapIconCatalog::getTagMaterial)
+              .orElse(Material.MAP);
+      this.maxPlayers = map.getMaxPlayers().stream().reduce(0, Integer::sum);
+      this.name = colorize("&6" + map.getName());
+      this.players = colorize("&7Max Players: &e" + maxPlayers);
+      this.tags =
+          colorize(
+              "&7Tags: "
+                  + map.getTags().stream()
+                      .map(tag -> "&3" + tag.getId())
+                      .collect(Collectors.joining("&7, ")));
+      this.variants = Maps.newHashMapWithExpectedSize(2);
+    }
+
+    public int getIndex() {
+      return index;
+    }
+
+    public MapInfo getMap() {
+      return map;
+    }
+
+    public int getMaxPlayers() {
+      return maxPlayers;
+    }
+
+    /**
+     * Gets the icon with a menu specific last line, built on first use
+     *
+     * @param footer The last lore line, with & color codes
+     * @param glow Whether the icon is enchanted
+     * @return The shared icon
+     */
+    public ItemStack getItem(String footer, boolean glow) {
+      return variants.computeIfAbsent(
+          (glow ? "+" : "-") + footer,
+          key -> {
+            ItemBuilder builder =
+                new ItemBuilder()
+                    .material(material)
+                    .name(name)
+                    .lore(players, tags, colorize(footer))
+                    .flags(ItemFlag.values());
+            if (glow) {
+              builder.enchant(Enchantment.LUCK, 1);
+            }
+            return builder.build();
+          });
+    }
+  }
+}
@@ -1,23 +1,17 @@
 package dev.pgm.community.menu;
 
-import static net.kyori.adventure.text.Component.text;
 import static tc.oc.pgm.util.bukkit.BukkitUtils.colorize;
 
-import com.google.common.collect.Lists;
-import com.google.common.collect.Sets;
 import dev.pgm.community.Community;
+import dev.pgm.community.menu.MapIconCatalog.MapIcon;
 import fr.minuskube.inv.ClickableItem;
 import fr.minuskube.inv.SmartInventory;
 import fr.minuskube.inv.content.InventoryContents;
 import fr.minuskube.inv.content.InventoryProvider;
-import fr.minuskube.inv.content.Pagination;
 import fr.minuskube.inv.content.SlotIterator;
-import java.util.Collection;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Set;
 import java.util.stream.Collectors;
-import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.DyeColor;
 import org.bukkit.Material;
 import org.bukkit.enchantments.Enchantment;
@@ -27,16 +21,17 @@ import org.bukkit.inventory.ItemStack;
 import tc.oc.pgm.api.map.MapInfo;
 import tc.oc.pgm.api.map.MapTag;
 import tc.oc.pgm.util.inventory.ItemBuilder;
-import tc.oc.pgm.util.text.TextFormatter;
 import tc.oc.pgm.util.text.TextTranslations;
 
 public abstract class MapSelectionMenu implements InventoryProvider, PageableInventory {
 
   private static final int ROWS = 6;
+  private static final int MAPS_PER_PAGE = 36;
 
   private String title;
   private Player viewer;
-  private List<MapInfo> maps;
+  private MapIconCatalog catalog;
+  private BitSet maps;
   private List<MapTag> tags;
 
   private int filterIndex = 0;
@@ -45,15 +40,13 @@ public abstract class MapSelectionMenu implements InventoryProvider, PageableInv
 
   public MapSelectionMenu(String title, List<MapInfo> maps, Player viewer) {
     this.title = title;
-    this.maps = maps;
     this.viewer = viewer;
-    this.tags = Lists.newArrayList();
-
-    Set<MapTag> tags = Sets.newHashSet();
-    for (MapInfo map : maps) {
-      tags.addAll(map.getTags());
-    }
-    this.tags.addAll(tags);
+    this.catalog = MapIconCatalog.get();
+    this.maps = catalog.of(maps);
+    this.tags =
+        catalog.getTags().stream()
+            .filter(tag -> catalog.withTag(tag).intersects(this.maps))
+            .collect(Collectors.toList());
   }
 
   public SmartInventory getInventory(SmartInventory parent) {
@@ -92,7 +85,7 @@ public abstract class MapSelectionMenu implements InventoryProvider, PageableInv
 
   public abstract ClickableItem getBorderItem();
 
-  public abstract ClickableItem getMapIcon(MapInfo map);
+  public abstract ClickableItem getMapIcon(MapIcon icon);
 
   private void render(Player player, InventoryContents contents) {
     contents.fillRow(0, getBorderItem());
@@ -101,27 +94,27 @@ public abstract class MapSelectionMenu implements InventoryProvider, PageableInv
     contents.set(0, 2, getAllIcon());
     contents.set(0, 4, getFilterIcon());
 
-    List<ClickableItem> mapItems = getFilteredMapItems();
+    BitSet filtered = getFilteredMaps();
+    int total = filtered.cardinality();
+    int page = contents.pagination().getPage();
 
-    Pagination page = contents.pagination();
-    page.setItems(mapItems.toArray(new ClickableItem[mapItems.size()]));
-    page.setItemsPerPage(36);
-
-    page.addToIterator(contents.newIterator(SlotIterator.Type.HORIZONTAL, 1, 0));
+    SlotIterator slots = contents.newIterator(SlotIterator.Type.HORIZONTAL, 1, 0);
+    catalog.forEachOnPage(
+        filtered, page, MAPS_PER_PAGE, icon -> slots.set(getMapIcon(icon)).next());
 
     // No results
-    if (mapItems.isEmpty()) {
+    if (total == 0) {
       contents.set(2, 4, getNoMapsIcon());
     }
 
     // Previous
-    if (!page.isFirst()) {
-      contents.set(5, 1, getPrevPageItem(player, page.getPage() - 1));
+    if (page > 0) {
+      contents.set(5, 1, getPrevPageItem(player, page - 1));
     }
 
     // Next
-    if (!page.isLast()) {
-      contents.set(5, 7, getNextPageItem(player, page.getPage() + 1));
+    if ((page + 1) * MAPS_PER_PAGE < total) {
+      contents.set(5, 7, getNextPageItem(player, page + 1));
     }
 
     // Return to party menu
@@ -132,28 +125,12 @@ public abstract class MapSelectionMenu implements InventoryProvider, PageableInv
     return viewer;
   }
 
-  public Material getMapMaterial(MapInfo map) {
-    return map.getTags().isEmpty()
-            || !map.getTags().stream().filter(tag -> tag.isGamemode()).findAny().isPresent()
-        ? Material.MAP
-        : getMapTagMaterial(map.getTags().stream().filter(tag -> tag.isGamemode()).findAny().get());
-  }
-
-  private List<ClickableItem> getMapItems(List<MapInfo> maps) {
-    return maps.stream().map(this::getMapIcon).collect(Collectors.toList());
-  }
-
-  private List<ClickableItem> getFilteredMapItems() {
-    return getMapItems(
-        maps.stream()
-            .filter(
-                map -> {
-                  if (viewAll) return true;
-
-                  Collection<MapTag> tags = map.getTags();
-                  return tags != null && tags.contains(getFilterTag());
-                })
-            .collect(Collectors.toList()));
+  private BitSet getFilteredMaps() {
+    BitSet filtered = (BitSet) maps.clone();
+    if (!viewAll) {
+      filtered.and(catalog.withTag(getFilterTag()));
+    }
+    return filtered;
   }
 
   private ClickableItem getNoMapsIcon() {
@@ -194,12 +171,15 @@ public abstract class MapSelectionMenu implements InventoryProvider, PageableInv
 
     return ClickableItem.of(
         new ItemBuilder()
-            .material(getMapTagMaterial(getFilterTag()))
+            .material(MapIconCatalog.getTagMaterial(getFilterTag()))
             .name(TextTranslations.translateLegacy(getFilterTag().getName(), getViewer()))
             .lore(
                 colorize("&7Filter: &b" + (filterIndex + 1) + " &7/&3 " + tags.size()),
                 colorize(
-                    "&7Total Maps: &a" + getFilteredMapItems().size() + " &7/&2 " + maps.size()))
+                    "&7Total Maps: &a"
+                        + getFilteredMaps().cardinality()
+                        + " &7/&2 "
+                        + maps.cardinality()))
             .enchant(Enchantment.LUCK, 1)
             .flags(ItemFlag.values())
             .build(),
@@ -225,61 +205,6 @@ public abstract class MapSelectionMenu implements InventoryProvider, PageableInv
         });
   }
 
-  protected Component renderMapTags(MapInfo map) {
-    return TextFormatter.list(
-        map.getTags().stream()
-            .map(tag -> text(tag.getId(), NamedTextColor.DARK_AQUA))
-            .collect(Collectors.toList()),
-        NamedTextColor.GRAY);
-  }
-
-  private Material getMapTagMaterial(MapTag mapTag) {
-    switch (mapTag.getId()) {
-      case "2teams":
-        return Material.LEATHER;
-      case "ffa":
-        return Material.DIAMOND_SWORD;
-      case "border":
-        return Material.IRON_BARDING;
-      case "wool":
-        return Material.WOOL;
-      case "controlpoint":
-        return Material.BEACON;
-      case "flag":
-        return Material.BANNER;
-      case "classes":
-        return Material.FISHING_ROD;
-      case "deathmatch":
-        return Material.STONE_SWORD;
-      case "monument":
-        return Material.DIAMOND_PICKAXE;
-      case "4teams":
-        return Material.TRAP_DOOR;
-      case "timelimit":
-        return Material.WATCH;
-      case "autotnt":
-        return Material.TNT;
-      case "core":
-        return Material.OBSIDIAN;
-      case "blitz":
-        return Material.EGG;
-      case "scorebox":
-        return Material.WEB;
-      case "6teams":
-        return Material.BED;
-      case "rage":
-        return Material.BOW;
-      case "3teams":
-        return Material.WORKBENCH;
-      case "terrain":
-        return Material.GRASS;
-      case "8teams":
-        return Material.INK_SACK;
-      default:
-        return Material.MAP;
-    }
-  }
-
   private MapTag getFilterTag() {
     return tags.get(filterIndex);
   }
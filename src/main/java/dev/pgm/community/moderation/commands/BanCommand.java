@@ -9,7 +9,6 @@ import dev.pgm.community.moderation.punishments.PunishmentType;
 import dev.pgm.community.users.feature.UsersFeature;
 import dev.pgm.community.utils.CommandAudience;
 import java.time.Duration;
-import org.bukkit.Bukkit;
 import tc.oc.pgm.lib.cloud.commandframework.annotations.Argument;
 import tc.oc.pgm.lib.cloud.commandframework.annotations.CommandDescription;
 import tc.oc.pgm.lib.cloud.commandframework.annotations.CommandMethod;
@@ -108,9 +107,10 @@ public class BanCommand extends CommunityCommand {
         .thenAccept(
             profile -> {
               if (profile != null) {
-                Bukkit.getScheduler()
-                    .runTask(
-                        Community.get(),
+                Community.get()
+                    .getExecutors()
+                    .sync()
+                    .execute(
                         () -> {
                           // Due to async username lookup, must run task sync to avoid async kick
                           moderation.punish(
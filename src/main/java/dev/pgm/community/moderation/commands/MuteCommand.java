@@ -121,7 +121,8 @@ public class MuteCommand extends CommunityCommand {
                                                                 NamedTextColor.GREEN));
                                                   }
                                                 }
-                                              });
+                                              },
+                                              Community.get().getExecutors().cpu());
                                     } else {
                                       audience.sendWarning(
                                           text()
@@ -129,8 +130,10 @@ public class MuteCommand extends CommunityCommand {
                                               .append(text(" is not muted", NamedTextColor.GRAY))
                                               .build());
                                     }
-                                  });
-                        });
+                                  },
+                                  Community.get().getExecutors().cpu());
+                        },
+                        Community.get().getExecutors().cpu());
               }
             });
   }
@@ -26,14 +26,20 @@ import dev.pgm.community.utils.Sounds;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.TranslatableComponent;
 import net.kyori.adventure.text.event.HoverEvent;
 import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import tc.oc.pgm.lib.cloud.commandframework.annotations.Argument;
 import tc.oc.pgm.lib.cloud.commandframework.annotations.CommandDescription;
@@ -69,7 +75,8 @@ public class PunishmentCommand extends CommunityCommand {
         .thenAcceptAsync(
             punishments -> {
               sendPunishmentHistory(audience, null, punishments, page);
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 
   @CommandMethod("repeatpunishment|rp <target>")
@@ -104,7 +111,8 @@ public class PunishmentCommand extends CommunityCommand {
                             Component lastPunishMsg =
                                 text("Last punishment: ", NamedTextColor.GRAY).append(lpm);
                             audience.sendMessage(lastPunishMsg);
-                          });
+                          },
+                          Community.get().getExecutors().cpu());
                 }
               } else {
                 audience.sendMessage(
@@ -143,13 +151,15 @@ public class PunishmentCommand extends CommunityCommand {
                                 CommunityPermissions.UNBAN);
                           }
                           // TODO: translate
-                        });
+                        },
+                        Community.get().getExecutors().cpu());
               } else {
                 audience.sendWarning(
                     text(target.getIdentifier(), NamedTextColor.AQUA)
                         .append(text(" has no active bans", NamedTextColor.GRAY)));
               }
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 
   @CommandMethod("record|infractions|mypunishments [page]")
@@ -173,7 +183,8 @@ public class PunishmentCommand extends CommunityCommand {
         .query(target.getIdentifier())
         .thenAcceptAsync(
             punishments ->
-                sendPunishmentHistory(audience, target.getIdentifier(), punishments, page));
+                sendPunishmentHistory(audience, target.getIdentifier(), punishments, page),
+            Community.get().getExecutors().cpu());
   }
 
   public void sendPunishmentHistory(
@@ -192,8 +203,9 @@ public class PunishmentCommand extends CommunityCommand {
             text(Integer.toString(pages), NamedTextColor.RED));
 
     Component targetName = empty();
+    UUID targetID = null;
     if (target != null) {
-      UUID targetID = (!NameUtils.isMinecraftName(target) ? UUID.fromString(target) : null);
+      targetID = (!NameUtils.isMinecraftName(target) ? UUID.fromString(target) : null);
       if (targetID != null) {
         targetName = PlayerComponent.player(targetID, NameStyle.FANCY);
       } else {
@@ -210,6 +222,39 @@ public class PunishmentCommand extends CommunityCommand {
 
     Component formattedHeader =
         TextFormatter.horizontalLineHeading(audience.getSender(), header, NamedTextColor.DARK_GRAY);
+
+    List<Punishment> sorted = punishmentData.stream().sorted().collect(Collectors.toList());
+
+    // Look up every name shown on this page together
+    Set<UUID> ids = new HashSet<>();
+    if (targetID != null) ids.add(targetID);
+    for (Punishment data :
+        sorted.subList(
+            Math.min(sorted.size(), (page - 1) * perPage),
+            Math.min(sorted.size(), page * perPage))) {
+      ids.add(data.getTargetId());
+      data.getIssuerId().ifPresent(ids::add);
+      data.getLastUpdatedBy().ifPresent(ids::add);
+    }
+
+    final int currentPage = page;
+    usernames
+        .getStoredUsernames(ids)
+        .thenAcceptAsync(
+            names ->
+                sendPunishmentPage(
+                    audience, target, formattedHeader, perPage, sorted, currentPage, names),
+            Community.get().getExecutors().cpu());
+  }
+
+  private void sendPunishmentPage(
+      CommandAudience audience,
+      @Nullable String target,
+      Component formattedHeader,
+      int perPage,
+      List<Punishment> punishments,
+      int page,
+      Map<UUID, String> names) {
     new PaginatedComponentResults<Punishment>(formattedHeader, perPage) {
       @Override
       public Component format(Punishment data, int index) {
@@ -234,8 +279,8 @@ public class PunishmentCommand extends CommunityCommand {
 
         builder.append(
             data.formatBroadcast(
-                usernames.renderUsername(data.getIssuerId(), NameStyle.FANCY).join(),
-                usernames.renderUsername(Optional.of(data.getTargetId()), NameStyle.FANCY).join()));
+                renderName(names, data.getIssuerId(), NameStyle.FANCY),
+                renderName(names, Optional.of(data.getTargetId()), NameStyle.FANCY)));
 
         TextComponent.Builder hover = text();
         hover
@@ -269,7 +314,7 @@ public class PunishmentCommand extends CommunityCommand {
           hover
               .append(newline())
               .append(text("Infraction lifted by ", NamedTextColor.GRAY)) // TODO: translate
-              .append(usernames.renderUsername(data.getLastUpdatedBy(), NameStyle.FANCY).join())
+              .append(renderName(names, data.getLastUpdatedBy(), NameStyle.FANCY))
               .append(space())
               .append(
                   TemporalComponent.relativePastApproximate(data.getLastUpdated())
@@ -299,7 +344,7 @@ public class PunishmentCommand extends CommunityCommand {
           try {
             UUID uuid = UUID.fromString(target);
             Component targetName =
-                usernames.renderUsername(uuid, NameStyle.PLAIN).join().color(NamedTextColor.AQUA);
+                renderName(names, Optional.of(uuid), NameStyle.PLAIN).color(NamedTextColor.AQUA);
             return noneFound.args(targetName);
           } catch (IllegalArgumentException e) {
             // No-op
@@ -308,9 +353,13 @@ public class PunishmentCommand extends CommunityCommand {
         }
         return text("There have been no recent punishments", NamedTextColor.RED);
       }
-    }.display(
-        audience.getAudience(),
-        punishmentData.stream().sorted().collect(Collectors.toList()),
-        page);
+    }.display(audience.getAudience(), punishments, page);
+  }
+
+  private static Component renderName(
+      Map<UUID, String> names, Optional<UUID> playerId, NameStyle style) {
+    if (!playerId.isPresent()) return PlayerComponent.CONSOLE;
+    return PlayerComponent.player(
+        Bukkit.getPlayer(playerId.get()), names.get(playerId.get()), style);
   }
 }
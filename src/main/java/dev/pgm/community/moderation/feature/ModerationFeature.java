@@ -8,7 +8,9 @@ import dev.pgm.community.moderation.punishments.types.MutePunishment;
 import dev.pgm.community.moderation.tools.ModerationTools;
 import dev.pgm.community.utils.CommandAudience;
 import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -68,6 +70,14 @@ public interface ModerationFeature extends Feature {
    */
   CompletableFuture<Boolean> isBanned(String target);
 
+  /**
+   * Gets the alternate accounts of many players which are currently banned
+   *
+   * @param playerIds Player UUIDs
+   * @return A map of each player with banned alts to the ids of those alts
+   */
+  CompletableFuture<Map<UUID, Set<UUID>>> getBannedAlts(Collection<UUID> playerIds);
+
   /**
    * Gets active mute for the provided UUID, if any
    *
@@ -123,5 +133,8 @@ public interface ModerationFeature extends Feature {
 
   void recieveRefresh(UUID playerId);
 
+  // Applies a punishment issued while this server was offline, without announcing it
+  void replayUpdate(NetworkPunishment punishment);
+
   ModerationTools getTools();
 }
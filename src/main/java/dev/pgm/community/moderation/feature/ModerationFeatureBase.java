@@ -18,6 +18,7 @@ import dev.pgm.community.moderation.punishments.types.MutePunishment;
 import dev.pgm.community.moderation.tools.ModerationTools;
 import dev.pgm.community.network.feature.NetworkFeature;
 import dev.pgm.community.network.subs.types.PunishmentSubscriber;
+import dev.pgm.community.network.subs.types.RefreshPunishmentSubscriber;
 import dev.pgm.community.network.updates.types.PunishmentUpdate;
 import dev.pgm.community.network.updates.types.RefreshPunishmentUpdate;
 import dev.pgm.community.users.feature.UsersFeature;
@@ -106,6 +107,8 @@ public abstract class ModerationFeatureBase extends FeatureBase implements Moder
 
       // Register punishment subscriber
       network.registerSubscriber(new PunishmentSubscriber(this, network.getNetworkId(), logger));
+      network.registerSubscriber(
+          new RefreshPunishmentSubscriber(this, network.getNetworkId(), logger));
     }
   }
 
@@ -178,14 +181,18 @@ public abstract class ModerationFeatureBase extends FeatureBase implements Moder
   public void recieveUpdate(NetworkPunishment punishment) {
     recieveRefresh(punishment.getPunishment().getTargetId());
     broadcastPunishment(punishment.getPunishment(), true, punishment.getServer(), null);
-    // Extra step due to gson limitation (maybe look into type tokens)
-    Punishment typedPunishment = Punishment.of(punishment.getPunishment());
+    Punishment typedPunishment = punishment.getPunishment();
     Community.get()
         .getServer()
         .getScheduler()
         .scheduleSyncDelayedTask(Community.get(), () -> typedPunishment.punish(true));
   }
 
+  @Override
+  public void replayUpdate(NetworkPunishment punishment) {
+    recieveRefresh(punishment.getPunishment().getTargetId());
+  }
+
   @Override
   public void sendRefresh(UUID playerId) {
     network.sendUpdate(new RefreshPunishmentUpdate(playerId));
@@ -228,7 +235,9 @@ public abstract class ModerationFeatureBase extends FeatureBase implements Moder
       case NAME_BAN:
         users
             .getKnownIPs(punishment.getTargetId())
-            .thenAcceptAsync(ips -> banEvasionCache.put(punishment.getTargetId(), ips));
+            .thenAcceptAsync(
+                ips -> banEvasionCache.put(punishment.getTargetId(), ips),
+                Community.get().getExecutors().cpu());
         break;
       case MUTE: // Cache mute for easy lookup for sign/chat events
         addMute(punishment.getTargetId(), MutePunishment.class.cast(punishment));
@@ -268,7 +277,8 @@ public abstract class ModerationFeatureBase extends FeatureBase implements Moder
                       Sounds.BAN_EVASION,
                       CommunityPermissions.UNBAN);
                 }
-              });
+              },
+              Community.get().getExecutors().cpu());
     }
   }
 
@@ -389,6 +399,7 @@ public abstract class ModerationFeatureBase extends FeatureBase implements Moder
                 }
                 viewer.sendMessage(broadcast);
               }
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 }
@@ -1,25 +1,36 @@
 package dev.pgm.community.moderation.feature.types;
 
+import static tc.oc.pgm.util.player.PlayerComponent.player;
+
 import com.google.common.collect.Lists;
 import dev.pgm.community.Community;
 import dev.pgm.community.moderation.ModerationConfig;
 import dev.pgm.community.moderation.feature.ModerationFeatureBase;
+import dev.pgm.community.moderation.punishments.NetworkPunishment;
 import dev.pgm.community.moderation.punishments.Punishment;
 import dev.pgm.community.moderation.punishments.PunishmentType;
 import dev.pgm.community.moderation.punishments.types.MutePunishment;
+import dev.pgm.community.moderation.services.ActivePunishmentIndex;
+import dev.pgm.community.moderation.services.ActivePunishmentSnapshot;
 import dev.pgm.community.moderation.services.SQLModerationService;
+import dev.pgm.community.network.codecs.types.PunishmentListCodec;
 import dev.pgm.community.network.feature.NetworkFeature;
 import dev.pgm.community.users.feature.UsersFeature;
 import dev.pgm.community.utils.NameUtils;
+import java.io.File;
 import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.logging.Logger;
+import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.configuration.Configuration;
@@ -27,6 +38,7 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.AsyncPlayerPreLoginEvent.Result;
 import tc.oc.pgm.util.named.NameStyle;
+import tc.oc.pgm.util.player.PlayerComponent;
 
 public class SQLModerationFeature extends ModerationFeatureBase {
 
@@ -35,7 +47,27 @@ public class SQLModerationFeature extends ModerationFeatureBase {
   public SQLModerationFeature(
       Configuration config, Logger logger, UsersFeature usernames, NetworkFeature network) {
     super(new ModerationConfig(config), logger, "Punishments (SQL)", usernames, network);
-    this.service = new SQLModerationService(getModerationConfig());
+    this.service =
+        new SQLModerationService(
+            getModerationConfig(),
+            network.getSharedCaches().create("punishments", new PunishmentListCodec()));
+
+    // Restore the active index from the last run if the stream replay covers the time since
+    ActivePunishmentSnapshot snapshot =
+        new ActivePunishmentSnapshot(
+            new File(Community.get().getDataFolder(), "active-punishments.dat"), logger);
+    network
+        .getReplayResult()
+        .thenAcceptAsync(
+            offset -> service.loadActiveIndex(offset != null ? snapshot.load(offset) : null),
+            Community.get().getExecutors().io());
+    network.onCheckpoint(
+        offset -> {
+          ActivePunishmentIndex index = service.getActiveIndex();
+          if (index.isLoaded()) {
+            snapshot.save(offset, index.getActive());
+          }
+        });
   }
 
   @Override
@@ -52,11 +84,13 @@ public class SQLModerationFeature extends ModerationFeatureBase {
                     if (banned) {
                       service
                           .pardon(punishment.getTargetId(), punishment.getIssuerId())
-                          .thenAcceptAsync(x -> service.save(punishment));
+                          .thenAcceptAsync(
+                              x -> service.save(punishment), Community.get().getExecutors().cpu());
                     } else {
                       service.save(punishment);
                     }
-                  });
+                  },
+                  Community.get().getExecutors().cpu());
           break;
         case MUTE:
           isMuted(punishment.getTargetId())
@@ -65,11 +99,13 @@ public class SQLModerationFeature extends ModerationFeatureBase {
                     if (mute.isPresent()) {
                       service
                           .unmute(punishment.getTargetId(), punishment.getIssuerId())
-                          .thenAcceptAsync(x -> service.save(punishment));
+                          .thenAcceptAsync(
+                              x -> service.save(punishment), Community.get().getExecutors().cpu());
                     } else {
                       service.save(punishment);
                     }
-                  });
+                  },
+                  Community.get().getExecutors().cpu());
           break;
         default:
           service.save(punishment);
@@ -84,11 +120,11 @@ public class SQLModerationFeature extends ModerationFeatureBase {
       // CONVERT TO UUID if username
       return getUsers()
           .getStoredId(target)
-          .thenApplyAsync(
+          .thenCompose(
               uuid ->
                   uuid != null && uuid.isPresent()
-                      ? service.queryList(uuid.get().toString()).join()
-                      : Lists.newArrayList());
+                      ? service.queryList(uuid.get().toString())
+                      : CompletableFuture.<List<Punishment>>completedFuture(Lists.newArrayList()));
     }
     return service.queryList(target);
   }
@@ -99,16 +135,20 @@ public class SQLModerationFeature extends ModerationFeatureBase {
         NameUtils.isMinecraftName(target)
             ? getUsers().getStoredId(target)
             : CompletableFuture.completedFuture(Optional.of(UUID.fromString(target)));
-    return playerId.thenApplyAsync(
+    return playerId.thenCompose(
         uuid -> {
-          if (uuid.isPresent()) {
-            if (service.pardon(uuid.get(), issuer).join()) {
-              sendRefresh(uuid.get());
-              removeCachedBan(uuid.get());
-              return true;
-            }
-          }
-          return false;
+          if (!uuid.isPresent()) return CompletableFuture.completedFuture(false);
+          return service
+              .pardon(uuid.get(), issuer)
+              .thenApplyAsync(
+                  success -> {
+                    if (success) {
+                      sendRefresh(uuid.get());
+                      removeCachedBan(uuid.get());
+                    }
+                    return success;
+                  },
+                  Community.get().getExecutors().cpu());
         });
   }
 
@@ -117,14 +157,37 @@ public class SQLModerationFeature extends ModerationFeatureBase {
     if (NameUtils.isMinecraftName(target)) {
       return getUsers()
           .getStoredId(target)
-          .thenApplyAsync(
-              uuid -> uuid.isPresent() ? service.isBanned(uuid.get().toString()).join() : false);
+          .thenCompose(
+              uuid ->
+                  uuid.isPresent()
+                      ? service.isBanned(uuid.get().toString())
+                      : CompletableFuture.completedFuture(false));
     }
     return service.isBanned(target);
   }
 
+  @Override
+  public CompletableFuture<Map<UUID, Set<UUID>>> getBannedAlts(Collection<UUID> playerIds) {
+    return service.getBannedAlts(playerIds);
+  }
+
   @Override
   public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+    ActivePunishmentIndex index = service.getActiveIndex();
+    if (index.isLoaded()) {
+      // Fast path, no database access unless the player is actually banned
+      Punishment ban = index.getBan(event.getUniqueId());
+      if (ban != null) {
+        preventLogin(event, ban);
+      }
+
+      MutePunishment mute = index.getMute(event.getUniqueId());
+      if (mute != null) {
+        addMute(event.getUniqueId(), mute);
+      }
+      return;
+    }
+
     List<Punishment> punishments;
     try {
       punishments =
@@ -134,25 +197,7 @@ public class SQLModerationFeature extends ModerationFeatureBase {
 
       Optional<Punishment> ban = hasActiveBan(punishments);
       if (ban.isPresent()) {
-        Punishment punishment = ban.get();
-        event.setKickMessage(
-            punishment.formatPunishmentScreen(
-                getModerationConfig(),
-                getUsers().renderUsername(punishment.getIssuerId(), NameStyle.FANCY).join(),
-                false));
-        event.setLoginResult(Result.KICK_BANNED);
-
-        if (punishment.getType() == PunishmentType.NAME_BAN) {
-          String bannedName = punishment.getReason();
-          if (!event.getName().equalsIgnoreCase(bannedName)) {
-            pardon(punishment.getTargetId().toString(), Optional.empty());
-            event.setLoginResult(Result.ALLOWED);
-            logger.info(
-                String.format(
-                    "Name change detected for (%s) | %s -> %s | Account unbanned",
-                    punishment.getTargetId().toString(), punishment.getReason(), event.getName()));
-          }
-        }
+        preventLogin(event, ban.get());
       }
 
       Optional<MutePunishment> mute = hasActiveMute(punishments);
@@ -174,47 +219,83 @@ public class SQLModerationFeature extends ModerationFeatureBase {
     }
   }
 
+  private void preventLogin(AsyncPlayerPreLoginEvent event, Punishment punishment) {
+    event.setKickMessage(
+        punishment.formatPunishmentScreen(getModerationConfig(), renderIssuer(punishment), false));
+    event.setLoginResult(Result.KICK_BANNED);
+
+    if (punishment.getType() == PunishmentType.NAME_BAN) {
+      String bannedName = punishment.getReason();
+      if (!event.getName().equalsIgnoreCase(bannedName)) {
+        pardon(punishment.getTargetId().toString(), Optional.empty());
+        event.setLoginResult(Result.ALLOWED);
+        logger.info(
+            String.format(
+                "Name change detected for (%s) | %s -> %s | Account unbanned",
+                punishment.getTargetId().toString(), punishment.getReason(), event.getName()));
+      }
+    }
+  }
+
+  // The pre-login thread must decide before returning, so never wait past the login timeout
+  private Component renderIssuer(Punishment punishment) {
+    Optional<UUID> issuer = punishment.getIssuerId();
+    try {
+      return getUsers()
+          .renderUsername(issuer, NameStyle.FANCY)
+          .get(getModerationConfig().getLoginTimeout(), TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException | TimeoutException e) {
+      // Fall back to the cached name below
+    }
+    if (!issuer.isPresent()) return PlayerComponent.CONSOLE;
+    return player(
+        Bukkit.getPlayer(issuer.get()), getUsers().getUsername(issuer.get()), NameStyle.FANCY);
+  }
+
   private void scheduleDelayedCheck(UUID playerId) {
     Community.get()
         .getServer()
         .getScheduler()
         .scheduleSyncDelayedTask(
             Community.get(),
-            new Runnable() {
-              @Override
-              public void run() {
-                Player player = Bukkit.getPlayer(playerId);
-                if (player != null) {
-                  service
-                      .queryList(playerId.toString())
-                      .thenAcceptAsync(
-                          punishments -> {
-                            Optional<Punishment> ban = hasActiveBan(punishments);
-                            if (ban.isPresent()) {
-                              Punishment punishment = ban.get();
-
-                              player.kickPlayer(
-                                  punishment.formatPunishmentScreen(
-                                      getModerationConfig(),
-                                      getUsers()
-                                          .renderUsername(punishment.getIssuerId(), NameStyle.FANCY)
-                                          .join(),
-                                      false));
-                            }
-
-                            Optional<MutePunishment> mute = hasActiveMute(punishments);
-                            if (mute.isPresent()) {
-                              addMute(playerId, mute.get());
-                            }
-
-                            logger.info(
-                                "[Delayed]: "
-                                    + punishments.size()
-                                    + " Punishments have been fetched for "
-                                    + playerId.toString());
-                          });
-                }
-              }
+            () -> {
+              if (Bukkit.getPlayer(playerId) == null) return;
+              service
+                  .queryList(playerId.toString())
+                  .thenCompose(
+                      punishments -> {
+                        Optional<Punishment> ban = hasActiveBan(punishments);
+                        CompletableFuture<Component> issuer =
+                            ban.isPresent()
+                                ? getUsers()
+                                    .renderUsername(ban.get().getIssuerId(), NameStyle.FANCY)
+                                : CompletableFuture.completedFuture(null);
+                        // Kicks and mutes belong on the main thread
+                        return issuer.thenAcceptAsync(
+                            issuerName -> {
+                              Player player = Bukkit.getPlayer(playerId);
+                              if (ban.isPresent() && player != null) {
+                                player.kickPlayer(
+                                    ban.get()
+                                        .formatPunishmentScreen(
+                                            getModerationConfig(), issuerName, false));
+                              }
+
+                              Optional<MutePunishment> mute = hasActiveMute(punishments);
+                              if (mute.isPresent()) {
+                                addMute(playerId, mute.get());
+                              }
+
+                              logger.info(
+                                  "[Delayed]: "
+                                      + punishments.size()
+                                      + " Punishments have been fetched for "
+                                      + playerId.toString());
+                            },
+                            Community.get().getExecutors().sync());
+                      });
             });
   }
 
@@ -255,7 +336,8 @@ public class SQLModerationFeature extends ModerationFeatureBase {
                 sendRefresh(id); // Successful unmute will update other servers
               }
               return success;
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 
   @Override
@@ -268,9 +350,23 @@ public class SQLModerationFeature extends ModerationFeatureBase {
     return service.count();
   }
 
+  @Override
+  public void recieveUpdate(NetworkPunishment punishment) {
+    super.recieveUpdate(punishment);
+    // Index directly, as the issuing server may not have written the row yet
+    service.getActiveIndex().add(punishment.getPunishment());
+  }
+
+  @Override
+  public void replayUpdate(NetworkPunishment punishment) {
+    service.invalidate(punishment.getPunishment().getTargetId());
+    service.getActiveIndex().add(punishment.getPunishment());
+  }
+
   @Override
   public void recieveRefresh(UUID playerId) {
     service.invalidate(playerId);
+    service.refreshActive(playerId);
     removeCachedBan(playerId);
     removeMute(playerId);
   }
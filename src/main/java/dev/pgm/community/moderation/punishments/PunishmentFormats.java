@@ -4,6 +4,7 @@ import static net.kyori.adventure.text.Component.empty;
 import static net.kyori.adventure.text.Component.text;
 import static net.kyori.adventure.text.Component.translatable;
 
+import dev.pgm.community.Community;
 import dev.pgm.community.users.feature.UsersFeature;
 import dev.pgm.community.utils.Sounds;
 import java.util.Optional;
@@ -37,7 +38,8 @@ public class PunishmentFormats {
             x -> {
               Component msg = punishment.formatBroadcast(issuer.join(), target.join());
               broadcast.complete(msg);
-            });
+            },
+            Community.get().getExecutors().cpu());
     return broadcast;
   }
 
@@ -0,0 +1,198 @@
+package dev.pgm.community.moderation.services;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import dev.pgm.community.moderation.punishments.Punishment;
+import dev.pgm.community.moderation.punishments.PunishmentType;
+import dev.pgm.community.moderation.punishments.types.MutePunishment;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+
+/**
+ * ActivePunishmentIndex - An in-memory index of active login-preventing and mute punishments
+ *
+ * <p>Warmed once at startup, from the snapshot saved by the last run when the update stream covers
+ * the time since, otherwise with a single bulk query. It is then kept current by local punishments,
+ * pardons and network refreshes. Allows pre-login checks to skip loading a player's full history.
+ */
+public class ActivePunishmentIndex {
+
+  private final String service;
+
+  private final Map<UUID, Entry<Punishment>> bans;
+  private final Map<UUID, Entry<MutePunishment>> mutes;
+
+  // Players changed while the initial bulk load was in flight, their rows are not overwritten
+  private final Set<UUID> touched;
+
+  private volatile boolean loaded;
+
+  public ActivePunishmentIndex(String service) {
+    this.service = service;
+    this.bans = new ConcurrentHashMap<>();
+    this.mutes = new ConcurrentHashMap<>();
+    this.touched = Sets.newConcurrentHashSet();
+    this.loaded = false;
+  }
+
+  /**
+   * Whether the initial bulk load has completed. Until then, lookups are not authoritative.
+   *
+   * @return true if the index can be trusted
+   */
+  public boolean isLoaded() {
+    return loaded;
+  }
+
+  /**
+   * Gets the active login-preventing punishment for the given player
+   *
+   * @param playerId Player UUID
+   * @return The active ban or null if none
+   */
+  @Nullable
+  public Punishment getBan(UUID playerId) {
+    Entry<Punishment> ban = bans.get(playerId);
+    if (ban == null) return null;
+    if (!ban.punishment.isActive()) {
+      bans.remove(playerId, ban);
+      return null;
+    }
+    return ban.punishment;
+  }
+
+  /**
+   * Gets the active mute for the given player
+   *
+   * @param playerId Player UUID
+   * @return The active mute or null if none
+   */
+  @Nullable
+  public MutePunishment getMute(UUID playerId) {
+    Entry<MutePunishment> mute = mutes.get(playerId);
+    if (mute == null) return null;
+    if (!mute.punishment.isActive()) {
+      mutes.remove(playerId, mute);
+      return null;
+    }
+    return mute.punishment;
+  }
+
+  public void add(Punishment punishment) {
+    if (!isIndexed(punishment)) return;
+    markTouched(punishment.getTargetId());
+    put(punishment);
+  }
+
+  public void removeBan(UUID playerId) {
+    markTouched(playerId);
+    bans.remove(playerId);
+  }
+
+  public void removeMute(UUID playerId) {
+    markTouched(playerId);
+    mutes.remove(playerId);
+  }
+
+  /**
+   * Replaces the indexed state of a single player with freshly queried active punishments
+   *
+   * @param playerId Player UUID
+   * @param active Active punishments as stored in the database
+   * @param since When the query was issued, entries indexed after this are kept
+   */
+  public void refresh(UUID playerId, Collection<Punishment> active, Instant since) {
+    markTouched(playerId);
+    final long sinceMillis = since.toEpochMilli();
+    bans.computeIfPresent(playerId, (id, ban) -> ban.indexedAt >= sinceMillis ? ban : null);
+    mutes.computeIfPresent(playerId, (id, mute) -> mute.indexedAt >= sinceMillis ? mute : null);
+    active.stream().filter(this::isIndexed).forEach(this::putIfNewer);
+  }
+
+  /**
+   * Completes the initial bulk load of the index
+   *
+   * @param active All active punishments for this service
+   */
+  public void load(Collection<Punishment> active) {
+    for (Punishment punishment : active) {
+      if (isIndexed(punishment) && !touched.contains(punishment.getTargetId())) {
+        putIfNewer(punishment);
+      }
+    }
+    loaded = true;
+    touched.clear();
+  }
+
+  /** @return Every indexed punishment which is still active */
+  public List<Punishment> getActive() {
+    List<Punishment> active = Lists.newArrayListWithCapacity(bans.size() + mutes.size());
+    bans.values().stream()
+        .map(ban -> ban.punishment)
+        .filter(Punishment::isActive)
+        .forEach(active::add);
+    mutes.values().stream()
+        .map(mute -> mute.punishment)
+        .filter(Punishment::isActive)
+        .forEach(active::add);
+    return active;
+  }
+
+  public int getBanCount() {
+    return bans.size();
+  }
+
+  public int getMuteCount() {
+    return mutes.size();
+  }
+
+  private boolean isIndexed(Punishment punishment) {
+    return punishment.isActive()
+        && (punishment.getType().isLoginPrevented() || punishment.getType() == PunishmentType.MUTE)
+        && punishment.getService() != null
+        && punishment.getService().equalsIgnoreCase(service);
+  }
+
+  private void markTouched(UUID playerId) {
+    if (!loaded) {
+      touched.add(playerId);
+    }
+  }
+
+  private void put(Punishment punishment) {
+    if (punishment.getType() == PunishmentType.MUTE) {
+      mutes.put(punishment.getTargetId(), new Entry<>((MutePunishment) punishment));
+    } else {
+      bans.put(punishment.getTargetId(), new Entry<>(punishment));
+    }
+  }
+
+  private void putIfNewer(Punishment punishment) {
+    if (punishment.getType() == PunishmentType.MUTE) {
+      mutes.merge(
+          punishment.getTargetId(), new Entry<>((MutePunishment) punishment), Entry::newest);
+    } else {
+      bans.merge(punishment.getTargetId(), new Entry<>(punishment), Entry::newest);
+    }
+  }
+
+  private static class Entry<T extends Punishment> {
+    private final T punishment;
+    private final long indexedAt;
+
+    public Entry(T punishment) {
+      this.punishment = punishment;
+      this.indexedAt = System.currentTimeMillis();
+    }
+
+    private static <T extends Punishment> Entry<T> newest(Entry<T> current, Entry<T> next) {
+      return next.punishment.compareTo(current.punishment) < 0 ? next : current;
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package dev.pgm.community.moderation.services;
+
+import com.google.common.collect.Lists;
+import dev.pgm.community.moderation.punishments.Punishment;
+import dev.pgm.community.network.codecs.types.PunishmentCodec;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * ActivePunishmentSnapshot - The {@link ActivePunishmentIndex} kept on disk, with the update stream
+ * offset it is current up to
+ *
+ * <p>Saved each time the stream position is, so the next start can restore the index and replay
+ * only what came after, instead of querying every active punishment.
+ */
+public class ActivePunishmentSnapshot {
+
+  private final File file;
+  private final Logger logger;
+
+  public ActivePunishmentSnapshot(File file, Logger logger) {
+    this.file = file;
+    this.logger = logger;
+  }
+
+  /**
+   * Reads the saved punishments
+   *
+   * @param offset The stream offset replay started after
+   * @return The active punishments, or null if none were saved at that offset
+   */
+  @Nullable
+  public List<Punishment> load(String offset) {
+    if (!file.exists()) return null;
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      if (!offset.equals(in.readUTF())) return null; // Saved before or after a crash
+
+      int size = in.readInt();
+      List<Punishment> active = Lists.newArrayListWithCapacity(Math.max(0, size));
+      for (int i = 0; i < size; i++) {
+        active.add(PunishmentCodec.readPunishment(in));
+      }
+      return active;
+    } catch (IOException | RuntimeException e) {
+      logger.log(Level.WARNING, "Could not read active punishments from " + file, e);
+      return null;
+    }
+  }
+
+  /**
+   * Saves the active punishments, replacing the file atomically
+   *
+   * @param offset The stream offset every update up to has been applied
+   * @param active The active punishments
+   */
+  public synchronized void save(String offset, Collection<Punishment> active) {
+    try {
+      file.getParentFile().mkdirs();
+      File temp = new File(file.getPath() + ".tmp");
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+        out.writeUTF(offset);
+        out.writeInt(active.size());
+        for (Punishment punishment : active) {
+          PunishmentCodec.writePunishment(out, punishment);
+        }
+      }
+      Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Could not save active punishments to " + file, e);
+    }
+  }
+}
@@ -1,10 +1,21 @@
 package dev.pgm.community.moderation.services;
 
+import dev.pgm.community.database.UUIDCodec;
+import dev.pgm.community.users.services.AddressQuery;
+
 public interface ModerationQuery {
 
   static final String TABLE_NAME = "punishments";
   static final String TABLE_FIELDS =
-      "(id VARCHAR(36) PRIMARY KEY, punished VARCHAR(36), issuer VARCHAR(36), reason VARCHAR(255), type VARCHAR(8), time LONG, expires LONG, active BOOL, last_updated LONG, updated_by VARCHAR(36), service VARCHAR(255))";
+      "(id "
+          + UUIDCodec.columnType()
+          + " PRIMARY KEY, punished "
+          + UUIDCodec.columnType()
+          + ", issuer "
+          + UUIDCodec.columnType()
+          + ", reason VARCHAR(255), type VARCHAR(8), time LONG, expires LONG, active BOOL, last_updated LONG, updated_by "
+          + UUIDCodec.columnType()
+          + ", service VARCHAR(255))";
 
   static final String INSERT_PUNISHMENT_QUERY =
       "INSERT INTO "
@@ -21,6 +32,26 @@ public interface ModerationQuery {
           + TABLE_NAME
           + " SET active = ?, last_updated = ?, updated_by = ? WHERE active = ? AND punished = ? ";
 
+  static final String SELECT_ACTIVE_QUERY =
+      "SELECT * from " + TABLE_NAME + " WHERE active = ? AND service = ? AND type IN (?, ?, ?, ?)";
+
+  static final String SELECT_PLAYER_ACTIVE_QUERY =
+      "SELECT * from " + TABLE_NAME + " WHERE punished = ? AND active = ?";
+
+  // Alts of the given players with an active login-preventing punishment, found through shared
+  // ip-ids. Permanent punishments are stored with expires equal to time.
+  // Completed with Query.placeholders for the number of players
+  static final String SELECT_BANNED_ALTS_QUERY =
+      "SELECT DISTINCT player.user_id AS player_id, alt.user_id AS alt_id FROM "
+          + AddressQuery.IP_USER_TABLE_NAME
+          + " player JOIN "
+          + AddressQuery.IP_USER_TABLE_NAME
+          + " alt ON alt.ip_id = player.ip_id AND alt.user_id <> player.user_id JOIN "
+          + TABLE_NAME
+          + " p ON p.punished = alt.user_id"
+          + " WHERE p.active = ? AND p.type IN (?, ?, ?) AND (p.expires = p.time OR p.expires > ?)"
+          + " AND player.user_id IN ";
+
   static final String SELECT_RECENT_QUERY =
       "SELECT * from " + TABLE_NAME + " WHERE time > ? LIMIT ?";
 }
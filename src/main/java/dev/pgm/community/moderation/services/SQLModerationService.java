@@ -2,21 +2,29 @@ package dev.pgm.community.moderation.services;
 
 import co.aikar.idb.DB;
 import co.aikar.idb.DbRow;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import dev.pgm.community.Community;
+import dev.pgm.community.database.Query;
+import dev.pgm.community.database.UUIDCodec;
+import dev.pgm.community.feature.FeatureCache;
 import dev.pgm.community.feature.SQLFeatureBase;
 import dev.pgm.community.moderation.ModerationConfig;
 import dev.pgm.community.moderation.punishments.Punishment;
 import dev.pgm.community.moderation.punishments.PunishmentType;
 import dev.pgm.community.moderation.punishments.types.ExpirablePunishment;
+import dev.pgm.community.network.cache.SharedCache;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nullable;
 
 public class SQLModerationService extends SQLFeatureBase<Punishment, String>
     implements ModerationQuery {
@@ -26,22 +34,88 @@ public class SQLModerationService extends SQLFeatureBase<Punishment, String>
 
   private static final int RECENT_LIMIT = 50;
 
-  private LoadingCache<UUID, PlayerPunishments> punishmentCache;
+  private FeatureCache<UUID, PlayerPunishments> punishmentCache;
+
+  private final ActivePunishmentIndex activeIndex;
 
   private final ModerationConfig config;
 
-  public SQLModerationService(ModerationConfig config) {
+  private final SharedCache<List<Punishment>> shared;
+
+  public SQLModerationService(ModerationConfig config, SharedCache<List<Punishment>> shared) {
     super(TABLE_NAME, TABLE_FIELDS);
     this.config = config;
+    this.shared = shared;
     this.punishmentCache =
-        CacheBuilder.newBuilder()
-            .build(
-                new CacheLoader<UUID, PlayerPunishments>() {
-                  @Override
-                  public PlayerPunishments load(UUID key) throws Exception {
-                    return new PlayerPunishments(key);
-                  }
-                });
+        FeatureCache.<PlayerPunishments>players("punishments")
+            .maximumWeight(20000)
+            .weigher(punishments -> 1 + punishments.getPunishments().size())
+            .build(PlayerPunishments::new);
+    this.activeIndex = new ActivePunishmentIndex(config.getService());
+    shared.onInvalidate(this::invalidate); // Changed on another server
+  }
+
+  public ActivePunishmentIndex getActiveIndex() {
+    return activeIndex;
+  }
+
+  /**
+   * Warms the {@link ActivePunishmentIndex}, call once missed network updates have been replayed
+   *
+   * @param restored Active punishments saved by the last run, or null to query them all at once
+   */
+  public void loadActiveIndex(@Nullable Collection<Punishment> restored) {
+    if (restored != null) {
+      activeIndex.load(restored);
+      return;
+    }
+
+    DB.getResultsAsync(
+            SELECT_ACTIVE_QUERY,
+            true,
+            config.getService(),
+            PunishmentType.BAN.toString(),
+            PunishmentType.TEMP_BAN.toString(),
+            PunishmentType.NAME_BAN.toString(),
+            PunishmentType.MUTE.toString())
+        .thenAcceptAsync(
+            results -> {
+              List<Punishment> active = Lists.newArrayList();
+              if (results != null) {
+                for (DbRow row : results) {
+                  active.add(parsePunishment(row));
+                }
+              }
+              activeIndex.load(active);
+            },
+            Community.get().getExecutors().io())
+        .exceptionally(
+            error -> {
+              // Index stays unloaded, pre-login checks will fall back to history queries
+              error.printStackTrace();
+              return null;
+            });
+  }
+
+  /**
+   * Reloads the indexed active punishments of a single player
+   *
+   * @param playerId Player UUID
+   */
+  public CompletableFuture<Void> refreshActive(UUID playerId) {
+    final Instant since = Instant.now();
+    return DB.getResultsAsync(SELECT_PLAYER_ACTIVE_QUERY, UUIDCodec.encode(playerId), true)
+        .thenAcceptAsync(
+            results -> {
+              List<Punishment> active = Lists.newArrayList();
+              if (results != null) {
+                for (DbRow row : results) {
+                  active.add(parsePunishment(row));
+                }
+              }
+              activeIndex.refresh(playerId, active, since);
+            },
+            Community.get().getExecutors().io());
   }
 
   @Override
@@ -49,12 +123,16 @@ public class SQLModerationService extends SQLFeatureBase<Punishment, String>
     PlayerPunishments punishments = punishmentCache.getUnchecked(punishment.getTargetId());
     if (punishments.isLoaded()) {
       punishments.getPunishments().add(punishment);
+      shared.update(punishment.getTargetId(), Lists.newArrayList(punishments.getPunishments()));
+    } else {
+      shared.invalidate(punishment.getTargetId());
     }
+    activeIndex.add(punishment);
 
     DB.executeUpdateAsync(
         INSERT_PUNISHMENT_QUERY,
-        UUID.randomUUID().toString(),
-        punishment.getTargetId().toString(),
+        UUIDCodec.encode(UUID.randomUUID()),
+        UUIDCodec.encode(punishment.getTargetId()),
         convertIssuer(punishment.getIssuerId()),
         punishment.getReason(),
         punishment.getType().toString(),
@@ -73,50 +151,43 @@ public class SQLModerationService extends SQLFeatureBase<Punishment, String>
 
     if (punishments.isLoaded()) {
       return CompletableFuture.completedFuture(punishments.getPunishments());
-    } else {
-      return DB.getResultsAsync(SELECT_PUNISHMENTS_QUERY, playerId.toString())
-          .thenApplyAsync(
-              results -> {
-                if (results != null && !results.isEmpty()) {
-                  for (DbRow row : results) {
-                    String id = row.getString("id");
-                    String issuer = row.getString("issuer");
-                    String reason = row.getString("reason");
-                    String type = row.getString("type");
-                    long time = Long.parseLong(row.getString("time"));
-                    long expires = Long.parseLong(row.getString("expires"));
-                    Instant timeIssued = Instant.ofEpochMilli(time);
-                    Duration length =
-                        Duration.between(Instant.ofEpochMilli(time), Instant.ofEpochMilli(expires));
-                    boolean active = row.get("active");
-                    long lastUpdateTime = Long.parseLong(row.getString("last_updated"));
-                    Instant lastUpdate = Instant.ofEpochMilli(lastUpdateTime);
-                    String lastUpdateBy = row.getString("updated_by");
-                    String service = row.getString("service");
-
-                    punishments
-                        .getPunishments()
-                        .add(
-                            Punishment.of(
-                                UUID.fromString(id),
-                                playerId,
-                                parseIssuer(issuer),
-                                reason,
-                                timeIssued,
-                                length,
-                                PunishmentType.valueOf(type.toUpperCase()),
-                                active,
-                                lastUpdate,
-                                parseIssuer(lastUpdateBy),
-                                service));
-                  }
-                }
+    }
 
+    // Another server may have loaded the history already
+    return shared
+        .get(playerId)
+        .thenCompose(
+            history -> {
+              if (history != null) {
+                punishments.getPunishments().addAll(history);
                 punishments.setLoaded(true);
+                punishmentCache.replace(playerId, punishments); // Re-weigh loaded history
+                return CompletableFuture.completedFuture(punishments.getPunishments());
+              }
+              return loadPunishments(punishments);
+            });
+  }
 
-                return punishments.getPunishments();
-              });
-    }
+  private CompletableFuture<List<Punishment>> loadPunishments(PlayerPunishments punishments) {
+    final UUID playerId = punishments.getPlayerId();
+    return DB.getResultsAsync(SELECT_PUNISHMENTS_QUERY, UUIDCodec.encode(playerId))
+        .thenApplyAsync(
+            results -> {
+              if (results != null && !results.isEmpty()) {
+                for (DbRow row : results) {
+                  punishments.getPunishments().add(parsePunishment(row));
+                }
+              }
+
+              punishments.setLoaded(true);
+              // Re-weigh loaded history, unless invalidated since the load began
+              if (punishmentCache.replace(playerId, punishments)) {
+                shared.fill(playerId, Lists.newArrayList(punishments.getPunishments()));
+              }
+
+              return punishments.getPunishments();
+            },
+            Community.get().getExecutors().io());
   }
 
   @Override // TODO: fetch single punishment
@@ -139,36 +210,72 @@ public class SQLModerationService extends SQLFeatureBase<Punishment, String>
     return expires;
   }
 
-  private boolean isConsole(String data) {
-    return data.equalsIgnoreCase(CONSOLE_DB_NAME);
+  private Punishment parsePunishment(DbRow row) {
+    String reason = row.getString("reason");
+    String type = row.getString("type");
+    long time = Long.parseLong(row.getString("time"));
+    long expires = Long.parseLong(row.getString("expires"));
+    Instant timeIssued = Instant.ofEpochMilli(time);
+    Duration length = Duration.between(Instant.ofEpochMilli(time), Instant.ofEpochMilli(expires));
+    boolean active = row.get("active");
+    long lastUpdateTime = Long.parseLong(row.getString("last_updated"));
+    Instant lastUpdate = Instant.ofEpochMilli(lastUpdateTime);
+    String service = row.getString("service");
+
+    return Punishment.of(
+        UUIDCodec.decode(row, "id"),
+        UUIDCodec.decode(row, "punished"),
+        parseIssuer(row, "issuer"),
+        reason,
+        timeIssued,
+        length,
+        PunishmentType.valueOf(type.toUpperCase()),
+        active,
+        lastUpdate,
+        parseIssuer(row, "updated_by"),
+        service);
   }
 
-  private Optional<UUID> parseIssuer(String issuer) {
+  private boolean isConsole(Object data) {
+    return data == null || CONSOLE_DB_NAME.equalsIgnoreCase(data.toString());
+  }
+
+  private Optional<UUID> parseIssuer(DbRow row, String column) {
+    Object issuer = row.get(column);
     if (isConsole(issuer)) return Optional.empty();
-    return Optional.of(UUID.fromString(issuer));
+    return Optional.of(UUIDCodec.decode(issuer));
   }
 
-  private String convertIssuer(Optional<UUID> issuer) {
-    return issuer.isPresent() ? issuer.get().toString() : CONSOLE_DB_NAME;
+  // Binary ids have no room for the console name, it is stored as null instead
+  private Object convertIssuer(Optional<UUID> issuer) {
+    if (issuer.isPresent()) return UUIDCodec.encode(issuer.get());
+    return UUIDCodec.isBinary() ? null : CONSOLE_DB_NAME;
   }
 
   public CompletableFuture<Boolean> pardon(UUID id, Optional<UUID> issuer) {
     punishmentCache.invalidate(id);
+    activeIndex.removeBan(id);
     return DB.executeUpdateAsync(
             PARDON_QUERY + MULTI_PARDON_TYPE,
             false,
             Instant.now().toEpochMilli(),
             convertIssuer(issuer),
             true,
-            id.toString(),
+            UUIDCodec.encode(id),
             PunishmentType.BAN.toString(),
             PunishmentType.TEMP_BAN.toString(),
             PunishmentType.NAME_BAN.toString())
-        .thenApplyAsync(result -> result != 0);
+        .thenApplyAsync(
+            result -> {
+              shared.invalidate(id); // Drop the shared history once the row has changed
+              return result != 0;
+            },
+            Community.get().getExecutors().io());
   }
 
   public CompletableFuture<Boolean> unmute(UUID id, Optional<UUID> issuer) {
     punishmentCache.invalidate(id);
+    activeIndex.removeMute(id);
 
     return DB.executeUpdateAsync(
             PARDON_QUERY + SINGLE_PARDON_TYPE,
@@ -176,9 +283,14 @@ public class SQLModerationService extends SQLFeatureBase<Punishment, String>
             Instant.now().toEpochMilli(),
             convertIssuer(issuer),
             true,
-            id.toString(),
+            UUIDCodec.encode(id),
             PunishmentType.MUTE.toString())
-        .thenApplyAsync(result -> result != 0);
+        .thenApplyAsync(
+            result -> {
+              shared.invalidate(id); // Drop the shared history once the row has changed
+              return result != 0;
+            },
+            Community.get().getExecutors().io());
   }
 
   public CompletableFuture<Boolean> isBanned(String id) {
@@ -193,6 +305,44 @@ public class SQLModerationService extends SQLFeatureBase<Punishment, String>
                 }
               }
               return banned;
+            },
+            Community.get().getExecutors().io());
+  }
+
+  /**
+   * Finds the banned alternate accounts of many players with a single query, without loading any
+   * punishment history
+   *
+   * @param playerIds Player UUIDs
+   * @return A map of each player with banned alts to the ids of those alts
+   */
+  public CompletableFuture<Map<UUID, Set<UUID>>> getBannedAlts(Collection<UUID> playerIds) {
+    if (playerIds.isEmpty()) {
+      return CompletableFuture.completedFuture(new HashMap<>());
+    }
+
+    List<Object> params =
+        Lists.newArrayList(
+            true,
+            PunishmentType.BAN.toString(),
+            PunishmentType.TEMP_BAN.toString(),
+            PunishmentType.NAME_BAN.toString(),
+            Instant.now().toEpochMilli());
+    playerIds.forEach(id -> params.add(UUIDCodec.encode(id)));
+
+    return DB.getResultsAsync(
+            SELECT_BANNED_ALTS_QUERY + Query.placeholders(playerIds.size()), params.toArray())
+        .thenApply(
+            rows -> {
+              Map<UUID, Set<UUID>> bannedAlts = new HashMap<>();
+              if (rows != null) {
+                for (DbRow row : rows) {
+                  bannedAlts
+                      .computeIfAbsent(UUIDCodec.decode(row, "player_id"), id -> Sets.newHashSet())
+                      .add(UUIDCodec.decode(row, "alt_id"));
+                }
+              }
+              return bannedAlts;
             });
   }
 
@@ -204,7 +354,8 @@ public class SQLModerationService extends SQLFeatureBase<Punishment, String>
               return punishments.stream()
                   .filter(p -> p.getType() == PunishmentType.MUTE && p.isActive())
                   .findFirst();
-            });
+            },
+            Community.get().getExecutors().io());
   }
 
   public CompletableFuture<List<Punishment>> getRecentPunishments(Duration period) {
@@ -216,39 +367,13 @@ public class SQLModerationService extends SQLFeatureBase<Punishment, String>
 
               if (results != null && !results.isEmpty()) {
                 for (DbRow row : results) {
-                  String id = row.getString("id");
-                  String target = row.getString("punished");
-                  String issuer = row.getString("issuer");
-                  String reason = row.getString("reason");
-                  String type = row.getString("type");
-                  long time = Long.parseLong(row.getString("time"));
-                  long expires = Long.parseLong(row.getString("expires"));
-                  Instant timeIssued = Instant.ofEpochMilli(time);
-                  Duration length =
-                      Duration.between(Instant.ofEpochMilli(time), Instant.ofEpochMilli(expires));
-                  boolean active = row.get("active");
-                  long lastUpdateTime = Long.parseLong(row.getString("last_updated"));
-                  Instant lastUpdate = Instant.ofEpochMilli(lastUpdateTime);
-                  String lastUpdateBy = row.getString("updated_by");
-                  String service = row.getString("service");
-                  punishments.add(
-                      Punishment.of(
-                          UUID.fromString(id),
-                          UUID.fromString(target),
-                          parseIssuer(issuer),
-                          reason,
-                          timeIssued,
-                          length,
-                          PunishmentType.valueOf(type.toUpperCase()),
-                          active,
-                          lastUpdate,
-                          parseIssuer(lastUpdateBy),
-                          service));
+                  punishments.add(parsePunishment(row));
                 }
               }
 
               return punishments;
-            });
+            },
+            Community.get().getExecutors().io());
   }
 
   public void invalidate(UUID playerId) {
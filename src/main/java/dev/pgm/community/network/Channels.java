@@ -15,6 +15,15 @@ public class Channels {
   // PUNISHMENT_UPDATE - Used to alert servers of unmuted or unbanned players
   public static final String PUNISHMENT_UPDATE = formatChannel("punishment_update");
 
+  // CACHE_INVALIDATE - Used to drop local copies of rows changed on another server
+  public static final String CACHE_INVALIDATE = formatChannel("cache_invalidate");
+
+  // PRESENCE - Used to share which players are online on which server
+  public static final String PRESENCE = formatChannel("presence");
+
+  // PATTERN - Matches every channel above, used for the shared subscription
+  public static final String PATTERN = formatChannel("*");
+
   private static final String formatChannel(String name) {
     return "community_" + name;
   }
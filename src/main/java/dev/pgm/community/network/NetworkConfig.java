@@ -1,7 +1,10 @@
 package dev.pgm.community.network;
 
+import static tc.oc.pgm.util.text.TextParser.parseDuration;
+
 import dev.pgm.community.feature.config.FeatureConfigImpl;
 import dev.pgm.community.utils.NetworkUtils;
+import java.time.Duration;
 import java.util.UUID;
 import org.bukkit.configuration.Configuration;
 
@@ -10,6 +13,7 @@ public class NetworkConfig extends FeatureConfigImpl {
   private static final String KEY = "network";
 
   private static final String ID = KEY + ".id";
+  private static final String TYPE = KEY + ".type";
 
   private static final String REDIS = KEY + ".redis";
   private static final String REDIS_HOST = REDIS + ".host";
@@ -17,17 +21,61 @@ public class NetworkConfig extends FeatureConfigImpl {
   private static final String REDIS_PORT = REDIS + ".port";
   private static final String REDIS_SSL = REDIS + ".ssl";
 
+  private static final String PUBLISH = KEY + ".publish";
+  private static final String PUBLISH_MAX_QUEUE = PUBLISH + ".max-queue";
+  private static final String PUBLISH_MAX_BATCH = PUBLISH + ".max-batch";
+
+  private static final String CACHE = KEY + ".cache";
+  private static final String CACHE_ENABLED = CACHE + ".enabled";
+  private static final String CACHE_TTL = CACHE + ".ttl";
+
+  private static final String STREAM = KEY + ".stream";
+  private static final String STREAM_ENABLED = STREAM + ".enabled";
+  private static final String STREAM_MAX_LENGTH = STREAM + ".max-length";
+
+  private static final String METRICS = KEY + ".metrics";
+  private static final String METRICS_HOST = METRICS + ".host";
+  private static final String METRICS_PORT = METRICS + ".port";
+
+  private static final String LOCAL = KEY + ".local";
+  private static final String LOCAL_LATENCY = LOCAL + ".latency";
+  private static final String LOCAL_JITTER = LOCAL + ".jitter";
+  private static final String LOCAL_LOSS = LOCAL + ".loss";
+
+  private static final Duration DEFAULT_CACHE_TTL = Duration.ofHours(1);
+
   private String host;
   private String password;
   private int port;
   private boolean ssl;
 
+  private int publishQueueSize;
+  private int publishBatchSize;
+
+  private boolean cacheEnabled;
+  private Duration cacheTTL;
+
+  private boolean streamEnabled;
+  private int streamMaxLength;
+
+  private String metricsHost;
+  private int metricsPort;
+
+  private long localLatency;
+  private long localJitter;
+  private double localLoss;
+
   private String networkId;
 
   public NetworkConfig(Configuration config) {
     super(KEY, config);
   }
 
+  /** @return Whether servers should use an in-process network instead of Redis */
+  public static boolean isLocal(Configuration config) {
+    return "local".equalsIgnoreCase(config.getString(TYPE, "redis"));
+  }
+
   public String getNetworkId() {
     return NetworkUtils.getServerVar(networkId);
   }
@@ -48,6 +96,57 @@ public class NetworkConfig extends FeatureConfigImpl {
     return ssl;
   }
 
+  public int getPublishQueueSize() {
+    return publishQueueSize;
+  }
+
+  public int getPublishBatchSize() {
+    return publishBatchSize;
+  }
+
+  public boolean isCacheEnabled() {
+    return cacheEnabled;
+  }
+
+  public Duration getCacheTTL() {
+    return cacheTTL;
+  }
+
+  /** @return Whether replayable updates are kept for servers which were offline */
+  public boolean isStreamEnabled() {
+    return streamEnabled;
+  }
+
+  /** @return Number of updates kept in the stream */
+  public int getStreamMaxLength() {
+    return streamMaxLength;
+  }
+
+  /** @return Address the metrics endpoint binds to */
+  public String getMetricsHost() {
+    return metricsHost;
+  }
+
+  /** @return Port of the metrics endpoint, 0 when disabled */
+  public int getMetricsPort() {
+    return metricsPort;
+  }
+
+  /** @return Milliseconds every local delivery is delayed by */
+  public long getLocalLatency() {
+    return localLatency;
+  }
+
+  /** @return Up to how many extra milliseconds a local delivery is delayed by */
+  public long getLocalJitter() {
+    return localJitter;
+  }
+
+  /** @return Chance of a local delivery being lost, from 0 to 1 */
+  public double getLocalLoss() {
+    return localLoss;
+  }
+
   @Override
   public void reload(Configuration config) {
     super.reload(config);
@@ -55,6 +154,20 @@ public class NetworkConfig extends FeatureConfigImpl {
     this.password = config.getString(REDIS_PASSWORD);
     this.port = config.getInt(REDIS_PORT);
     this.ssl = config.getBoolean(REDIS_SSL);
+    this.publishQueueSize = config.getInt(PUBLISH_MAX_QUEUE, 10000);
+    this.publishBatchSize = config.getInt(PUBLISH_MAX_BATCH, 100);
+    this.cacheEnabled = config.getBoolean(CACHE_ENABLED, false);
+    this.cacheTTL = parseDuration(config.getString(CACHE_TTL, "1h"));
+    if (cacheTTL == null || cacheTTL.isNegative() || cacheTTL.isZero()) {
+      cacheTTL = DEFAULT_CACHE_TTL;
+    }
+    this.streamEnabled = config.getBoolean(STREAM_ENABLED, true);
+    this.streamMaxLength = config.getInt(STREAM_MAX_LENGTH, 10000);
+    this.metricsHost = config.getString(METRICS_HOST, "127.0.0.1");
+    this.metricsPort = config.getInt(METRICS_PORT, 0);
+    this.localLatency = config.getLong(LOCAL_LATENCY, 0);
+    this.localJitter = config.getLong(LOCAL_JITTER, 0);
+    this.localLoss = config.getDouble(LOCAL_LOSS, 0);
 
     String netId = config.getString(ID);
     this.networkId = netId != null && !netId.isEmpty() ? netId : UUID.randomUUID().toString();
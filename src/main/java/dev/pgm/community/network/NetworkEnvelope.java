@@ -0,0 +1,124 @@
+package dev.pgm.community.network;
+
+import dev.pgm.community.network.codecs.NetworkCodec;
+import dev.pgm.community.network.codecs.NetworkCodecs;
+import dev.pgm.community.network.codecs.NetworkCodecs.Registration;
+import dev.pgm.community.network.updates.NetworkUpdate;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * NetworkEnvelope - A versioned binary frame around the payload of a network update
+ *
+ * <p>Layout: version (byte), origin network id, type tag (unsigned short), timestamp (long),
+ * sequence (long), then the payload for the rest of the frame. The payload is written by the {@link
+ * NetworkCodec} registered for the channel, so any content survives the trip.
+ */
+public class NetworkEnvelope {
+
+  public static final byte VERSION = 1;
+
+  private final String origin;
+  private final int tag;
+  private final long timestamp;
+  private final long sequence;
+  private final Object payload;
+
+  public NetworkEnvelope(String origin, int tag, long timestamp, long sequence, Object payload) {
+    this.origin = origin;
+    this.tag = tag;
+    this.timestamp = timestamp;
+    this.sequence = sequence;
+    this.payload = payload;
+  }
+
+  /** The network id of the server which sent the update */
+  public String getOrigin() {
+    return origin;
+  }
+
+  public int getTag() {
+    return tag;
+  }
+
+  /** The channel of the payload type */
+  public String getChannel() {
+    return NetworkCodecs.forTag(tag).getChannel();
+  }
+
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  /** Increases by one for every update sent from the origin */
+  public long getSequence() {
+    return sequence;
+  }
+
+  public Object getPayload() {
+    return payload;
+  }
+
+  /**
+   * Frames a network update
+   *
+   * @param origin Network id of this server
+   * @param sequence Sequence number of the update
+   * @param update The update to send
+   * @return The encoded frame
+   * @throws IOException if the channel has no codec or the payload could not be written
+   */
+  public static byte[] encode(String origin, long sequence, NetworkUpdate<?> update)
+      throws IOException {
+    Registration<?> registration = NetworkCodecs.forChannel(update.getChannel());
+    if (registration == null) {
+      throw new IOException("No codec registered for channel " + update.getChannel());
+    }
+
+    ByteArrayOutputStream frame = new ByteArrayOutputStream(256);
+    DataOutputStream out = new DataOutputStream(frame);
+    out.writeByte(VERSION);
+    NetworkCodec.writeString(out, origin);
+    out.writeShort(registration.getTag());
+    out.writeLong(System.currentTimeMillis());
+    out.writeLong(sequence);
+    writePayload(registration, update.getItem(), out);
+    return frame.toByteArray();
+  }
+
+  /**
+   * Reads a frame
+   *
+   * @param frame The encoded frame
+   * @return The decoded envelope
+   * @throws IOException if the frame is malformed, of another version or of an unknown type
+   */
+  public static NetworkEnvelope decode(byte[] frame) throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(frame));
+    byte version = in.readByte();
+    if (version != VERSION) {
+      throw new IOException("Unsupported envelope version " + version);
+    }
+
+    String origin = NetworkCodec.readString(in);
+    int tag = in.readUnsignedShort();
+    long timestamp = in.readLong();
+    long sequence = in.readLong();
+
+    Registration<?> registration = NetworkCodecs.forTag(tag);
+    if (registration == null) {
+      throw new IOException("Unknown payload type " + tag);
+    }
+
+    Object payload = registration.getCodec().decode(in);
+    return new NetworkEnvelope(origin, tag, timestamp, sequence, payload);
+  }
+
+  private static <T> void writePayload(
+      Registration<T> registration, Object item, DataOutputStream out) throws IOException {
+    registration.getCodec().encode(registration.getType().cast(item), out);
+  }
+}
@@ -0,0 +1,28 @@
+package dev.pgm.community.network.cache;
+
+import java.util.UUID;
+
+/** CacheKey - Identifies a cached entity across the network, by entity type and UUID */
+public class CacheKey {
+
+  private final String type;
+  private final UUID id;
+
+  public CacheKey(String type, UUID id) {
+    this.type = type;
+    this.id = id;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public UUID getId() {
+    return id;
+  }
+
+  @Override
+  public String toString() {
+    return type + ":" + id;
+  }
+}
@@ -0,0 +1,70 @@
+package dev.pgm.community.network.cache;
+
+import dev.pgm.community.network.feature.NetworkFeature;
+import dev.pgm.community.network.updates.types.CacheInvalidateUpdate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * InvalidationBus - Tells other servers which cached rows changed, keyed by entity type and UUID
+ *
+ * <p>Services publish after writing a row and subscribe to drop their local copy when another
+ * server wrote it. Repeated invalidations of a key waiting to be sent are coalesced by the
+ * publisher, so a burst of changes to one player costs a single message.
+ */
+public class InvalidationBus {
+
+  private final NetworkFeature network;
+  private final Logger logger;
+  private final Map<String, List<Consumer<UUID>>> listeners;
+
+  public InvalidationBus(NetworkFeature network, Logger logger) {
+    this.network = network;
+    this.logger = logger;
+    this.listeners = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Listens for rows changed by other servers
+   *
+   * @param type Entity type, such as "friendships"
+   * @param listener Called with the UUID of each changed entity
+   */
+  public void subscribe(String type, Consumer<UUID> listener) {
+    listeners.computeIfAbsent(type, key -> new CopyOnWriteArrayList<>()).add(listener);
+  }
+
+  /**
+   * Tells other servers a row changed, call once it has been written
+   *
+   * @param type Entity type
+   * @param id UUID of the changed entity
+   */
+  public void publish(String type, UUID id) {
+    network.sendUpdate(new CacheInvalidateUpdate(new CacheKey(type, id)));
+  }
+
+  /**
+   * Drops the local copies of a row changed by another server
+   *
+   * @param key Key of the changed row
+   */
+  public void onInvalidate(CacheKey key) {
+    List<Consumer<UUID>> subs = listeners.get(key.getType());
+    if (subs == null) return;
+
+    for (Consumer<UUID> listener : subs) {
+      try {
+        listener.accept(key.getId());
+      } catch (RuntimeException e) {
+        logger.log(Level.WARNING, "Failed to invalidate " + key, e);
+      }
+    }
+  }
+}
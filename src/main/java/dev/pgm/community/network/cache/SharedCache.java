@@ -0,0 +1,239 @@
+package dev.pgm.community.network.cache;
+
+import dev.pgm.community.Community;
+import dev.pgm.community.network.codecs.NetworkCodec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import javax.annotation.Nullable;
+
+/**
+ * SharedCache - A second level cache of player data shared by every server on the network
+ *
+ * <p>Sits between a service's local cache and the database. A player moving to another server is
+ * served from here instead of MySQL. When a server changes a value it tells the others to drop
+ * their local copies, which then reload from the shared cache.
+ *
+ * <p>Every call is best effort, an unavailable store is treated as a miss and the caller falls back
+ * to the database.
+ *
+ * @param <V> Value type
+ */
+public class SharedCache<V> {
+
+  // Bump when the encoding of any cached value changes
+  private static final String PREFIX = "community_cache:v1:";
+
+  // Longer than a database read takes, so a fill started before an invalidation is ignored
+  private static final Duration INVALIDATION_HOLD = Duration.ofSeconds(30);
+
+  private final String name;
+  private final NetworkCodec<V> codec;
+  private final SharedCaches caches;
+
+  private final AtomicLong hits;
+  private final AtomicLong misses;
+  private final AtomicLong writes;
+  private final AtomicLong errors;
+
+  SharedCache(String name, NetworkCodec<V> codec, SharedCaches caches) {
+    this.name = name;
+    this.codec = codec;
+    this.caches = caches;
+    this.hits = new AtomicLong();
+    this.misses = new AtomicLong();
+    this.writes = new AtomicLong();
+    this.errors = new AtomicLong();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public boolean isEnabled() {
+    return caches.getStore() != null;
+  }
+
+  /**
+   * Gets a value from the shared cache
+   *
+   * @param id Player UUID
+   * @return A future of the value, null when not cached or the cache is unavailable
+   */
+  public CompletableFuture<V> get(UUID id) {
+    final SharedStore store = caches.getStore();
+    if (store == null) return CompletableFuture.completedFuture(null);
+
+    return CompletableFuture.supplyAsync(
+        () -> {
+          try {
+            V value = decode(store.get(key(id)));
+            (value != null ? hits : misses).incrementAndGet();
+            return value;
+          } catch (IOException | RuntimeException e) {
+            onError("read", e);
+            return null;
+          }
+        },
+        Community.get().getExecutors().io());
+  }
+
+  /**
+   * Gets many values in one round trip
+   *
+   * @param ids Player UUIDs
+   * @return A future of every cached value by player id, uncached players are left out
+   */
+  public CompletableFuture<Map<UUID, V>> getAll(Collection<UUID> ids) {
+    final SharedStore store = caches.getStore();
+    if (store == null || ids.isEmpty()) return CompletableFuture.completedFuture(new HashMap<>());
+
+    final List<UUID> order = new ArrayList<>(ids);
+    return CompletableFuture.supplyAsync(
+        () -> {
+          Map<UUID, V> values = new HashMap<>();
+          try {
+            List<String> keys = new ArrayList<>(order.size());
+            order.forEach(id -> keys.add(key(id)));
+            List<byte[]> raw = store.getAll(keys);
+            for (int i = 0; i < order.size(); i++) {
+              V value = decode(raw.get(i));
+              if (value != null) {
+                values.put(order.get(i), value);
+              }
+            }
+            hits.addAndGet(values.size());
+            misses.addAndGet(order.size() - values.size());
+          } catch (IOException | RuntimeException e) {
+            onError("read", e);
+          }
+          return values;
+        },
+        Community.get().getExecutors().io());
+  }
+
+  /**
+   * Shares a value just loaded from the database, keeping any value another server stored first.
+   * Ignored for a while after the value was invalidated, as it may have been read before the change
+   *
+   * @param id Player UUID
+   * @param value The loaded value
+   */
+  public void fill(UUID id, V value) {
+    write(id, value, true);
+  }
+
+  /**
+   * Shares a changed value, other servers drop their local copies once it is stored
+   *
+   * @param id Player UUID
+   * @param value The new value
+   */
+  public CompletableFuture<Void> update(UUID id, V value) {
+    return write(id, value, false).whenComplete((ok, error) -> broadcast(id));
+  }
+
+  /**
+   * Removes a value which changed in the database, other servers drop their local copies
+   *
+   * @param id Player UUID
+   */
+  public CompletableFuture<Void> invalidate(UUID id) {
+    final SharedStore store = caches.getStore();
+    if (store == null) return CompletableFuture.completedFuture(null);
+
+    return CompletableFuture.runAsync(
+            () -> {
+              try {
+                store.delete(key(id), INVALIDATION_HOLD);
+              } catch (RuntimeException e) {
+                onError("delete", e);
+              }
+            },
+            Community.get().getExecutors().io())
+        .whenComplete((ok, error) -> broadcast(id));
+  }
+
+  /**
+   * Listens for values changed by other servers, so local copies can be dropped
+   *
+   * @param listener Called with the player UUID of each changed value
+   */
+  public void onInvalidate(Consumer<UUID> listener) {
+    caches.getBus().subscribe(name, listener);
+  }
+
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  public long getWriteCount() {
+    return writes.get();
+  }
+
+  public long getErrorCount() {
+    return errors.get();
+  }
+
+  private CompletableFuture<Void> write(UUID id, V value, boolean onlyIfAbsent) {
+    final SharedStore store = caches.getStore();
+    if (store == null || value == null) return CompletableFuture.completedFuture(null);
+
+    return CompletableFuture.runAsync(
+        () -> {
+          try {
+            store.set(key(id), encode(value), onlyIfAbsent);
+            writes.incrementAndGet();
+          } catch (IOException | RuntimeException e) {
+            onError("write", e);
+          }
+        },
+        Community.get().getExecutors().io());
+  }
+
+  private void broadcast(UUID id) {
+    caches.getBus().publish(name, id);
+  }
+
+  private String key(UUID id) {
+    return PREFIX + name + ":" + id;
+  }
+
+  private byte[] encode(V value) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+    codec.encode(value, new DataOutputStream(bytes));
+    return bytes.toByteArray();
+  }
+
+  @Nullable
+  private V decode(@Nullable byte[] raw) throws IOException {
+    if (raw == null) return null;
+    return codec.decode(new DataInputStream(new ByteArrayInputStream(raw)));
+  }
+
+  private void onError(String action, Exception e) {
+    // Log the first failure of a streak only, an outage would otherwise flood the console
+    if (errors.incrementAndGet() % 100 == 1) {
+      caches
+          .getLogger()
+          .log(Level.WARNING, "Shared cache " + name + " could not " + action + " a value", e);
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package dev.pgm.community.network.cache;
+
+import com.google.common.collect.ImmutableList;
+import dev.pgm.community.network.codecs.NetworkCodec;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * SharedCaches - Creates the {@link SharedCache}s of a network
+ *
+ * <p>Without a store every cache is disabled, missing on every read and ignoring writes. Caches may
+ * be created before the network connects, the store is attached once it has.
+ */
+public class SharedCaches {
+
+  private final InvalidationBus bus;
+  private volatile @Nullable SharedStore store;
+  private final Logger logger;
+  private final Map<String, SharedCache<?>> caches;
+
+  public SharedCaches(InvalidationBus bus, @Nullable SharedStore store, Logger logger) {
+    this.bus = bus;
+    this.store = store;
+    this.logger = logger;
+    this.caches = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Creates a named shared cache
+   *
+   * @param name Unique name, also part of every key
+   * @param codec Codec of the cached values
+   * @return The shared cache
+   */
+  public <V> SharedCache<V> create(String name, NetworkCodec<V> codec) {
+    SharedCache<V> cache = new SharedCache<>(name, codec, this);
+    if (caches.putIfAbsent(name, cache) != null) {
+      throw new IllegalArgumentException("Duplicate shared cache: " + name);
+    }
+    return cache;
+  }
+
+  public List<SharedCache<?>> getCaches() {
+    return ImmutableList.copyOf(caches.values());
+  }
+
+  public boolean isEnabled() {
+    return store != null;
+  }
+
+  /** Attaches the store of a connected network, or detaches it with null */
+  public void setStore(@Nullable SharedStore store) {
+    this.store = store;
+  }
+
+  @Nullable
+  SharedStore getStore() {
+    return store;
+  }
+
+  InvalidationBus getBus() {
+    return bus;
+  }
+
+  Logger getLogger() {
+    return logger;
+  }
+}
@@ -0,0 +1,41 @@
+package dev.pgm.community.network.cache;
+
+import java.time.Duration;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * SharedStore - Key value storage reachable from every server, backing the {@link SharedCache}s
+ *
+ * <p>Calls block and may throw if the store is unavailable, they are only made from the I/O
+ * executor.
+ */
+public interface SharedStore {
+
+  /** @return The value, null if missing or deleted */
+  @Nullable
+  byte[] get(String key);
+
+  /** @return Values of the keys in order, null for missing or deleted keys */
+  List<byte[]> getAll(List<String> keys);
+
+  /**
+   * Stores a value until it expires
+   *
+   * @param key The key
+   * @param value The encoded value
+   * @param onlyIfAbsent Whether to keep an existing value instead
+   */
+  void set(String key, byte[] value, boolean onlyIfAbsent);
+
+  /**
+   * Removes a value, and keeps values set only if absent from being stored for a while
+   *
+   * <p>A server which read the database before the change would otherwise store the old value
+   * again, to be served until it expires.
+   *
+   * @param key The key
+   * @param hold How long absent-only sets are ignored, a later plain set still stores its value
+   */
+  void delete(String key, Duration hold);
+}
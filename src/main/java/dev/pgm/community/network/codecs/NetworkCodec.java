@@ -0,0 +1,110 @@
+package dev.pgm.community.network.codecs;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+import javax.annotation.Nullable;
+
+/**
+ * NetworkCodec - Writes and reads the payload of a network update without reflection
+ *
+ * @param <T> Payload type
+ */
+public interface NetworkCodec<T> {
+
+  /** Longest string read from a frame, a longer length means the frame is malformed */
+  int MAX_STRING_BYTES = 1 << 20;
+
+  /** Most elements read into a list from a frame */
+  int MAX_ELEMENTS = 1 << 16;
+
+  void encode(T value, DataOutput out) throws IOException;
+
+  T decode(DataInput in) throws IOException;
+
+  static void writeUUID(DataOutput out, @Nullable UUID id) throws IOException {
+    out.writeBoolean(id != null);
+    if (id != null) {
+      out.writeLong(id.getMostSignificantBits());
+      out.writeLong(id.getLeastSignificantBits());
+    }
+  }
+
+  @Nullable
+  static UUID readUUID(DataInput in) throws IOException {
+    return in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+  }
+
+  /** Writes a length-prefixed UTF-8 string, unlike writeUTF it has no 64KB limit */
+  static void writeString(DataOutput out, @Nullable String value) throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  @Nullable
+  static String readString(DataInput in) throws IOException {
+    int length = in.readInt();
+    if (length == -1) return null;
+    byte[] bytes = new byte[checkLength(in, length, MAX_STRING_BYTES)];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Reads the number of elements of a list, before anything is allocated for them
+   *
+   * @param in The frame
+   * @return The number of elements
+   * @throws IOException if the size is negative, too large or more than the frame can hold
+   */
+  static int readSize(DataInput in) throws IOException {
+    return checkLength(in, in.readInt(), MAX_ELEMENTS);
+  }
+
+  // Every element takes at least a byte, so neither can exceed what is left of the frame
+  static int checkLength(DataInput in, int length, int max) throws IOException {
+    if (length < 0 || length > max) {
+      throw new IOException("Invalid length " + length);
+    }
+    if (in instanceof InputStream && length > ((InputStream) in).available()) {
+      throw new IOException("Length " + length + " exceeds the rest of the frame");
+    }
+    return length;
+  }
+
+  static void writeInstant(DataOutput out, @Nullable Instant instant) throws IOException {
+    out.writeBoolean(instant != null);
+    if (instant != null) {
+      out.writeLong(instant.toEpochMilli());
+    }
+  }
+
+  @Nullable
+  static Instant readInstant(DataInput in) throws IOException {
+    return in.readBoolean() ? Instant.ofEpochMilli(in.readLong()) : null;
+  }
+
+  static <E extends Enum<E>> void writeEnum(DataOutput out, @Nullable E value) throws IOException {
+    writeString(out, value != null ? value.name() : null);
+  }
+
+  @Nullable
+  static <E extends Enum<E>> E readEnum(DataInput in, Class<E> type) throws IOException {
+    String name = readString(in);
+    if (name == null) return null;
+    try {
+      return Enum.valueOf(type, name);
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Unknown " + type.getSimpleName() + " " + name);
+    }
+  }
+}
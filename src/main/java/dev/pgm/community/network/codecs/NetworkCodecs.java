@@ -0,0 +1,100 @@
+package dev.pgm.community.network.codecs;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import dev.pgm.community.assistance.AssistanceRequest;
+import dev.pgm.community.chat.network.NetworkChatBatch;
+import dev.pgm.community.moderation.punishments.NetworkPunishment;
+import dev.pgm.community.network.Channels;
+import dev.pgm.community.network.cache.CacheKey;
+import dev.pgm.community.network.codecs.types.AssistanceCodec;
+import dev.pgm.community.network.codecs.types.CacheKeyCodec;
+import dev.pgm.community.network.codecs.types.ChatCodec;
+import dev.pgm.community.network.codecs.types.PlayerIdCodec;
+import dev.pgm.community.network.codecs.types.PresenceCodec;
+import dev.pgm.community.network.codecs.types.PunishmentCodec;
+import dev.pgm.community.network.presence.PresenceMessage;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+
+/**
+ * NetworkCodecs - Registry of the payload codec used for each channel
+ *
+ * <p>Every channel carries a single payload type, identified in the envelope by a numeric tag. Tags
+ * must never be reused for a different type, since servers may briefly run different versions.
+ */
+public final class NetworkCodecs {
+
+  private static final Map<String, Registration<?>> channels = new ConcurrentHashMap<>();
+  private static final Map<Integer, Registration<?>> tags = new ConcurrentHashMap<>();
+
+  static {
+    register(1, Channels.PUNISHMENTS, NetworkPunishment.class, new PunishmentCodec());
+    register(2, Channels.PUNISHMENT_UPDATE, UUID.class, new PlayerIdCodec());
+    register(3, Channels.ASSISTANCE, AssistanceRequest.class, new AssistanceCodec());
+    // 4 carried single chat messages before they were batched, retired
+    register(5, Channels.CACHE_INVALIDATE, CacheKey.class, new CacheKeyCodec());
+    register(6, Channels.PRESENCE, PresenceMessage.class, new PresenceCodec());
+    register(7, Channels.CHAT, NetworkChatBatch.class, new ChatCodec());
+  }
+
+  private NetworkCodecs() {}
+
+  /**
+   * Registers the codec of a channel
+   *
+   * @param tag Unique tag written to the envelope, 0 to 65535
+   * @param channel Channel name
+   * @param type Payload type
+   * @param codec Payload codec
+   */
+  public static <T> void register(int tag, String channel, Class<T> type, NetworkCodec<T> codec) {
+    checkArgument(tag >= 0 && tag <= 0xFFFF, "Tag out of range: %s", tag);
+    Registration<T> registration = new Registration<>(tag, channel, type, codec);
+    checkArgument(tags.putIfAbsent(tag, registration) == null, "Duplicate tag: %s", tag);
+    checkArgument(
+        channels.putIfAbsent(channel, registration) == null, "Duplicate channel: %s", channel);
+  }
+
+  @Nullable
+  public static Registration<?> forChannel(String channel) {
+    return channels.get(channel);
+  }
+
+  @Nullable
+  public static Registration<?> forTag(int tag) {
+    return tags.get(tag);
+  }
+
+  public static class Registration<T> {
+    private final int tag;
+    private final String channel;
+    private final Class<T> type;
+    private final NetworkCodec<T> codec;
+
+    private Registration(int tag, String channel, Class<T> type, NetworkCodec<T> codec) {
+      this.tag = tag;
+      this.channel = channel;
+      this.type = type;
+      this.codec = codec;
+    }
+
+    public int getTag() {
+      return tag;
+    }
+
+    public String getChannel() {
+      return channel;
+    }
+
+    public Class<T> getType() {
+      return type;
+    }
+
+    public NetworkCodec<T> getCodec() {
+      return codec;
+    }
+  }
+}
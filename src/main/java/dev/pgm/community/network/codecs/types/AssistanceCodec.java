@@ -0,0 +1,42 @@
+package dev.pgm.community.network.codecs.types;
+
+import static dev.pgm.community.network.codecs.NetworkCodec.readEnum;
+import static dev.pgm.community.network.codecs.NetworkCodec.readInstant;
+import static dev.pgm.community.network.codecs.NetworkCodec.readString;
+import static dev.pgm.community.network.codecs.NetworkCodec.readUUID;
+import static dev.pgm.community.network.codecs.NetworkCodec.writeEnum;
+import static dev.pgm.community.network.codecs.NetworkCodec.writeInstant;
+import static dev.pgm.community.network.codecs.NetworkCodec.writeString;
+import static dev.pgm.community.network.codecs.NetworkCodec.writeUUID;
+
+import dev.pgm.community.assistance.AssistanceRequest;
+import dev.pgm.community.assistance.AssistanceRequest.RequestType;
+import dev.pgm.community.network.codecs.NetworkCodec;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/** AssistanceCodec - Codec for reports and help requests */
+public class AssistanceCodec implements NetworkCodec<AssistanceRequest> {
+
+  @Override
+  public void encode(AssistanceRequest value, DataOutput out) throws IOException {
+    writeUUID(out, value.getSenderId());
+    writeUUID(out, value.getTargetId());
+    writeInstant(out, value.getTime());
+    writeString(out, value.getReason());
+    writeString(out, value.getServer());
+    writeEnum(out, value.getType());
+  }
+
+  @Override
+  public AssistanceRequest decode(DataInput in) throws IOException {
+    return new AssistanceRequest(
+        readUUID(in),
+        readUUID(in),
+        readInstant(in),
+        readString(in),
+        readString(in),
+        readEnum(in, RequestType.class));
+  }
+}
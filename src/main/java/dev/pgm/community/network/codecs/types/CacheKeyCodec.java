@@ -0,0 +1,27 @@
+package dev.pgm.community.network.codecs.types;
+
+import static dev.pgm.community.network.codecs.NetworkCodec.readString;
+import static dev.pgm.community.network.codecs.NetworkCodec.readUUID;
+import static dev.pgm.community.network.codecs.NetworkCodec.writeString;
+import static dev.pgm.community.network.codecs.NetworkCodec.writeUUID;
+
+import dev.pgm.community.network.cache.CacheKey;
+import dev.pgm.community.network.codecs.NetworkCodec;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/** CacheKeyCodec - Codec for {@link CacheKey} */
+public class CacheKeyCodec implements NetworkCodec<CacheKey> {
+
+  @Override
+  public void encode(CacheKey value, DataOutput out) throws IOException {
+    writeString(out, value.getType());
+    writeUUID(out, value.getId());
+  }
+
+  @Override
+  public CacheKey decode(DataInput in) throws IOException {
+    return new CacheKey(readString(in), readUUID(in));
+  }
+}
@@ -0,0 +1,48 @@
+package dev.pgm.community.network.codecs.types;
+
+import static dev.pgm.community.network.codecs.NetworkCodec.readEnum;
+import static dev.pgm.community.network.codecs.NetworkCodec.readSize;
+import static dev.pgm.community.network.codecs.NetworkCodec.readString;
+import static dev.pgm.community.network.codecs.NetworkCodec.writeEnum;
+import static dev.pgm.community.network.codecs.NetworkCodec.writeString;
+
+import com.google.common.collect.Lists;
+import dev.pgm.community.chat.network.NetworkChatBatch;
+import dev.pgm.community.chat.network.NetworkChatMessage;
+import dev.pgm.community.network.codecs.NetworkCodec;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+import tc.oc.pgm.util.channels.Channel;
+
+/**
+ * ChatCodec - Codec for {@link NetworkChatBatch}, the server is written once per batch and
+ * components are kept in their json form
+ */
+public class ChatCodec implements NetworkCodec<NetworkChatBatch> {
+
+  @Override
+  public void encode(NetworkChatBatch value, DataOutput out) throws IOException {
+    writeString(out, value.getServer());
+    out.writeInt(value.getMessages().size());
+    for (NetworkChatMessage message : value.getMessages()) {
+      writeEnum(out, message.getChannel());
+      writeString(out, message.getJson());
+    }
+  }
+
+  @Override
+  public NetworkChatBatch decode(DataInput in) throws IOException {
+    String server = readString(in);
+    int size = readSize(in);
+    List<NetworkChatMessage> messages = Lists.newArrayListWithCapacity(size);
+    for (int i = 0; i < size; i++) {
+      Channel channel = readEnum(in, Channel.class);
+      String json = readString(in);
+      if (channel == null || json == null) continue;
+      messages.add(new NetworkChatMessage(json, server, channel));
+    }
+    return new NetworkChatBatch(server, messages);
+  }
+}
@@ -0,0 +1,22 @@
+package dev.pgm.community.network.codecs.types;
+
+import dev.pgm.community.network.codecs.NetworkCodec;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.UUID;
+
+/** PlayerIdCodec - Codec for updates which only carry a player id */
+public class PlayerIdCodec implements NetworkCodec<UUID> {
+
+  @Override
+  public void encode(UUID value, DataOutput out) throws IOException {
+    out.writeLong(value.getMostSignificantBits());
+    out.writeLong(value.getLeastSignificantBits());
+  }
+
+  @Override
+  public UUID decode(DataInput in) throws IOException {
+    return new UUID(in.readLong(), in.readLong());
+  }
+}
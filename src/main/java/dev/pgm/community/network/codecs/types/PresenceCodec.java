@@ -0,0 +1,56 @@
+package dev.pgm.community.network.codecs.types;
+
+import static dev.pgm.community.network.codecs.NetworkCodec.readEnum;
+import static dev.pgm.community.network.codecs.NetworkCodec.readInstant;
+import static dev.pgm.community.network.codecs.NetworkCodec.readSize;
+import static dev.pgm.community.network.codecs.NetworkCodec.readString;
+import static dev.pgm.community.network.codecs.NetworkCodec.readUUID;
+import static dev.pgm.community.network.codecs.NetworkCodec.writeEnum;
+import static dev.pgm.community.network.codecs.NetworkCodec.writeInstant;
+import static dev.pgm.community.network.codecs.NetworkCodec.writeString;
+import static dev.pgm.community.network.codecs.NetworkCodec.writeUUID;
+
+import com.google.common.collect.Lists;
+import dev.pgm.community.network.codecs.NetworkCodec;
+import dev.pgm.community.network.presence.Presence;
+import dev.pgm.community.network.presence.PresenceMessage;
+import dev.pgm.community.network.presence.PresenceMessage.Type;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+/** PresenceCodec - Codec for {@link PresenceMessage}, the server is written once per message */
+public class PresenceCodec implements NetworkCodec<PresenceMessage> {
+
+  @Override
+  public void encode(PresenceMessage value, DataOutput out) throws IOException {
+    writeEnum(out, value.getType());
+    writeString(out, value.getServer());
+    out.writeInt(value.getPresences().size());
+    for (Presence presence : value.getPresences()) {
+      writeUUID(out, presence.getPlayerId());
+      writeUUID(out, presence.getSessionId());
+      writeInstant(out, presence.getSince());
+      out.writeBoolean(presence.isDisguised());
+    }
+  }
+
+  @Override
+  public PresenceMessage decode(DataInput in) throws IOException {
+    Type type = readEnum(in, Type.class);
+    String server = readString(in);
+    if (type == null || server == null) {
+      throw new IOException("Presence message without a type or server");
+    }
+
+    server = server.intern(); // Shared by every presence on the server
+    int size = readSize(in);
+    List<Presence> presences = Lists.newArrayListWithCapacity(size);
+    for (int i = 0; i < size; i++) {
+      presences.add(
+          new Presence(readUUID(in), readUUID(in), server, readInstant(in), in.readBoolean()));
+    }
+    return new PresenceMessage(type, server, presences);
+  }
+}
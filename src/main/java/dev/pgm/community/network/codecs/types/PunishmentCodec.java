@@ -0,0 +1,89 @@
+package dev.pgm.community.network.codecs.types;
+
+import static dev.pgm.community.network.codecs.NetworkCodec.readEnum;
+import static dev.pgm.community.network.codecs.NetworkCodec.readInstant;
+import static dev.pgm.community.network.codecs.NetworkCodec.readString;
+import static dev.pgm.community.network.codecs.NetworkCodec.readUUID;
+import static dev.pgm.community.network.codecs.NetworkCodec.writeEnum;
+import static dev.pgm.community.network.codecs.NetworkCodec.writeInstant;
+import static dev.pgm.community.network.codecs.NetworkCodec.writeString;
+import static dev.pgm.community.network.codecs.NetworkCodec.writeUUID;
+
+import dev.pgm.community.moderation.punishments.NetworkPunishment;
+import dev.pgm.community.moderation.punishments.Punishment;
+import dev.pgm.community.moderation.punishments.PunishmentType;
+import dev.pgm.community.network.codecs.NetworkCodec;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/** PunishmentCodec - Codec for {@link NetworkPunishment}, decoded into the typed punishment */
+public class PunishmentCodec implements NetworkCodec<NetworkPunishment> {
+
+  @Override
+  public void encode(NetworkPunishment value, DataOutput out) throws IOException {
+    writeString(out, value.getServer());
+    writePunishment(out, value.getPunishment());
+  }
+
+  @Override
+  public NetworkPunishment decode(DataInput in) throws IOException {
+    String server = readString(in);
+    return new NetworkPunishment(readPunishment(in), server);
+  }
+
+  public static void writePunishment(DataOutput out, Punishment punishment) throws IOException {
+    writeEnum(out, punishment.getType());
+    writeUUID(out, punishment.getId());
+    writeUUID(out, punishment.getTargetId());
+    writeUUID(out, punishment.getIssuerId().orElse(null));
+    writeString(out, punishment.getReason());
+    writeInstant(out, punishment.getTimeIssued());
+
+    Duration duration = punishment.getDuration();
+    out.writeBoolean(duration != null);
+    if (duration != null) {
+      out.writeLong(duration.toMillis());
+    }
+
+    out.writeBoolean(punishment.isActive());
+    writeInstant(out, punishment.getLastUpdated());
+    writeUUID(out, punishment.getLastUpdatedBy().orElse(null));
+    writeString(out, punishment.getService());
+  }
+
+  public static Punishment readPunishment(DataInput in) throws IOException {
+    PunishmentType type = readEnum(in, PunishmentType.class);
+    UUID id = readUUID(in);
+    UUID target = readUUID(in);
+    Optional<UUID> issuer = Optional.ofNullable(readUUID(in));
+    String reason = readString(in);
+    Instant time = readInstant(in);
+    Duration duration = in.readBoolean() ? Duration.ofMillis(in.readLong()) : null;
+    boolean active = in.readBoolean();
+    Instant lastUpdated = readInstant(in);
+    Optional<UUID> lastUpdatedBy = Optional.ofNullable(readUUID(in));
+    String service = readString(in);
+
+    if (type == null) {
+      throw new IOException("Punishment without a type");
+    }
+
+    return Punishment.of(
+        id,
+        target,
+        issuer,
+        reason,
+        time,
+        duration,
+        type,
+        active,
+        lastUpdated,
+        lastUpdatedBy,
+        service);
+  }
+}
@@ -0,0 +1,31 @@
+package dev.pgm.community.network.codecs.types;
+
+import com.google.common.collect.Lists;
+import dev.pgm.community.moderation.punishments.Punishment;
+import dev.pgm.community.network.codecs.NetworkCodec;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+/** PunishmentListCodec - Codec for the punishment history of a player */
+public class PunishmentListCodec implements NetworkCodec<List<Punishment>> {
+
+  @Override
+  public void encode(List<Punishment> value, DataOutput out) throws IOException {
+    out.writeInt(value.size());
+    for (Punishment punishment : value) {
+      PunishmentCodec.writePunishment(out, punishment);
+    }
+  }
+
+  @Override
+  public List<Punishment> decode(DataInput in) throws IOException {
+    int size = NetworkCodec.readSize(in);
+    List<Punishment> punishments = Lists.newArrayListWithCapacity(size);
+    for (int i = 0; i < size; i++) {
+      punishments.add(PunishmentCodec.readPunishment(in));
+    }
+    return punishments;
+  }
+}
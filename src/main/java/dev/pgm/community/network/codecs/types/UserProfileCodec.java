@@ -0,0 +1,32 @@
+package dev.pgm.community.network.codecs.types;
+
+import static dev.pgm.community.network.codecs.NetworkCodec.readInstant;
+import static dev.pgm.community.network.codecs.NetworkCodec.readString;
+import static dev.pgm.community.network.codecs.NetworkCodec.readUUID;
+import static dev.pgm.community.network.codecs.NetworkCodec.writeInstant;
+import static dev.pgm.community.network.codecs.NetworkCodec.writeString;
+import static dev.pgm.community.network.codecs.NetworkCodec.writeUUID;
+
+import dev.pgm.community.network.codecs.NetworkCodec;
+import dev.pgm.community.users.UserProfile;
+import dev.pgm.community.users.UserProfileImpl;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/** UserProfileCodec - Codec for {@link UserProfile} */
+public class UserProfileCodec implements NetworkCodec<UserProfile> {
+
+  @Override
+  public void encode(UserProfile value, DataOutput out) throws IOException {
+    writeUUID(out, value.getId());
+    writeString(out, value.getUsername());
+    writeInstant(out, value.getFirstLogin());
+    out.writeInt(value.getJoinCount());
+  }
+
+  @Override
+  public UserProfile decode(DataInput in) throws IOException {
+    return new UserProfileImpl(readUUID(in), readString(in), readInstant(in), in.readInt());
+  }
+}
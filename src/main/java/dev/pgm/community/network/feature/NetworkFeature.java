@@ -1,8 +1,13 @@
 package dev.pgm.community.network.feature;
 
 import dev.pgm.community.feature.Feature;
+import dev.pgm.community.network.cache.InvalidationBus;
+import dev.pgm.community.network.cache.SharedCaches;
+import dev.pgm.community.network.metrics.NetworkMetrics;
 import dev.pgm.community.network.subs.NetworkSubscriber;
 import dev.pgm.community.network.updates.NetworkUpdate;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /** NetworkFeature - Feature related to communicating across multiple servers (Bungee) * */
 public interface NetworkFeature extends Feature {
@@ -12,7 +17,7 @@ public interface NetworkFeature extends Feature {
    *
    * @param update The network update
    */
-  void sendUpdate(NetworkUpdate update);
+  void sendUpdate(NetworkUpdate<?> update);
 
   /**
    * Register a new {@link NetworkSubscriber} Will listen to and consume updates from {@link
@@ -20,7 +25,7 @@ public interface NetworkFeature extends Feature {
    *
    * @param sub
    */
-  void registerSubscriber(NetworkSubscriber sub);
+  void registerSubscriber(NetworkSubscriber<?> sub);
 
   /**
    * Get the Network ID The network id is used to identify server where update originated from.
@@ -30,4 +35,47 @@ public interface NetworkFeature extends Feature {
    * @return the network id
    */
   String getNetworkId();
+
+  /**
+   * Get the caches shared with other servers, disabled unless configured
+   *
+   * @return the shared caches
+   */
+  SharedCaches getSharedCaches();
+
+  /**
+   * Get the bus used to tell other servers which cached rows changed
+   *
+   * @return the invalidation bus
+   */
+  InvalidationBus getInvalidations();
+
+  /**
+   * Replay updates published while this server was offline, call once every subscriber has been
+   * registered
+   */
+  void replay();
+
+  /**
+   * Get the outcome of {@link #replay()}
+   *
+   * @return A future completed with the stream offset the replay started after, once every update
+   *     since then has been replayed, or with null if updates may have been missed
+   */
+  CompletableFuture<String> getReplayResult();
+
+  /**
+   * Listen for this server's position in the update stream being saved, called off the main thread
+   * with an offset up to which every update has been applied
+   *
+   * @param listener Called with each saved offset
+   */
+  void onCheckpoint(Consumer<String> listener);
+
+  /**
+   * Get the counters and timings of updates sent and received by this server
+   *
+   * @return the network metrics
+   */
+  NetworkMetrics getMetrics();
 }
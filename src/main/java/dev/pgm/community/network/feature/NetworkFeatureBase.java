@@ -1,12 +1,32 @@
 package dev.pgm.community.network.feature;
 
+import dev.pgm.community.Community;
 import dev.pgm.community.feature.FeatureBase;
 import dev.pgm.community.network.NetworkConfig;
+import dev.pgm.community.network.metrics.MetricsEndpoint;
+import dev.pgm.community.network.metrics.NetworkMetrics;
+import dev.pgm.community.network.stream.EventStream;
+import dev.pgm.community.network.stream.StreamCursor;
+import dev.pgm.community.network.stream.StreamReplayer;
+import dev.pgm.community.network.subs.NetworkDispatcher;
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 import org.bukkit.configuration.Configuration;
 
 public abstract class NetworkFeatureBase extends FeatureBase implements NetworkFeature {
 
+  private NetworkMetrics metrics;
+  private MetricsEndpoint endpoint;
+
+  private final CompletableFuture<String> replayResult = new CompletableFuture<>();
+  private final List<Consumer<String>> checkpointListeners = new CopyOnWriteArrayList<>();
+
   public NetworkFeatureBase(Configuration config, Logger logger, String featureName) {
     super(new NetworkConfig(config), logger, featureName);
     if (getConfig().isEnabled()) {
@@ -18,8 +38,83 @@ public abstract class NetworkFeatureBase extends FeatureBase implements NetworkF
     return (NetworkConfig) getConfig();
   }
 
+  @Override
+  public void enable() {
+    super.enable();
+    if (getNetworkConfig().getMetricsPort() > 0) {
+      endpoint = new MetricsEndpoint(getMetrics(), logger);
+      endpoint.start(getNetworkConfig().getMetricsHost(), getNetworkConfig().getMetricsPort());
+    }
+  }
+
+  @Override
+  public void disable() {
+    super.disable();
+    if (endpoint != null) {
+      endpoint.stop();
+      endpoint = null;
+    }
+  }
+
+  // Created on first use, as subclasses may need it before their constructor has run
+  @Override
+  public NetworkMetrics getMetrics() {
+    if (metrics == null) {
+      metrics = new NetworkMetrics(getNetworkId());
+    }
+    return metrics;
+  }
+
   @Override
   public String getNetworkId() {
     return getNetworkConfig().getNetworkId();
   }
+
+  @Override
+  public CompletableFuture<String> getReplayResult() {
+    return replayResult;
+  }
+
+  @Override
+  public void onCheckpoint(Consumer<String> listener) {
+    checkpointListeners.add(listener);
+  }
+
+  /**
+   * Creates the replayer of an update stream, completing {@link #getReplayResult()}
+   *
+   * @param stream The update stream, or null if there is none
+   * @param dispatcher Dispatcher of this server
+   * @return The replayer to start, or null if there is nothing to replay
+   */
+  @Nullable
+  protected StreamReplayer createReplayer(
+      @Nullable EventStream stream, NetworkDispatcher dispatcher) {
+    if (stream == null) {
+      replayResult.complete(null);
+      return null;
+    }
+    return new StreamReplayer(
+        stream,
+        new StreamCursor(new File(getStreamFolder(), "updates.offset"), logger),
+        dispatcher,
+        logger,
+        replayResult,
+        this::checkpointed);
+  }
+
+  private void checkpointed(String offset) {
+    for (Consumer<String> listener : checkpointListeners) {
+      try {
+        listener.accept(offset);
+      } catch (RuntimeException e) {
+        logger.log(Level.WARNING, "Stream checkpoint listener failed", e);
+      }
+    }
+  }
+
+  /** @return Folder holding event stream files and this server's position in them */
+  protected File getStreamFolder() {
+    return new File(Community.get().getDataFolder(), "streams");
+  }
 }
@@ -0,0 +1,162 @@
+package dev.pgm.community.network.local;
+
+import dev.pgm.community.network.cache.SharedStore;
+import dev.pgm.community.network.subs.NetworkDispatcher;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LocalNetwork - An in-process stand-in for Redis pub/sub, connecting servers in the same JVM
+ *
+ * <p>Every published frame is delivered to each joined server, the sender included, on a single
+ * delivery thread. Delivery can be delayed by a fixed latency plus a random jitter, which also
+ * reorders frames, and each delivery may be lost with the given probability.
+ */
+public class LocalNetwork {
+
+  private final long latencyMillis;
+  private final long jitterMillis;
+  private final double loss;
+
+  private final Set<NetworkDispatcher> members;
+  private final ScheduledExecutorService executor;
+  private final SharedStore store;
+
+  private final AtomicLong published;
+  private final AtomicLong delivered;
+  private final AtomicLong lost;
+  private final AtomicLong pending;
+  private final Queue<CompletableFuture<Void>> idleWaiters;
+
+  public LocalNetwork(long latencyMillis, long jitterMillis, double loss, Duration cacheTTL) {
+    this.latencyMillis = Math.max(0, latencyMillis);
+    this.jitterMillis = Math.max(0, jitterMillis);
+    this.loss = Math.max(0, Math.min(1, loss));
+    this.members = new CopyOnWriteArraySet<>();
+    this.store = new LocalSharedStore(cacheTTL);
+    this.executor =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "Community Local Network");
+              thread.setDaemon(true);
+              return thread;
+            });
+
+    this.published = new AtomicLong();
+    this.delivered = new AtomicLong();
+    this.lost = new AtomicLong();
+    this.pending = new AtomicLong();
+    this.idleWaiters = new ConcurrentLinkedQueue<>();
+  }
+
+  public void join(NetworkDispatcher dispatcher) {
+    members.add(dispatcher);
+  }
+
+  public void leave(NetworkDispatcher dispatcher) {
+    members.remove(dispatcher);
+  }
+
+  /**
+   * Delivers a frame to every joined server
+   *
+   * @param channel Channel the frame is published to
+   * @param frame The encoded envelope
+   */
+  public void publish(String channel, byte[] frame) {
+    if (executor.isShutdown()) return;
+    published.incrementAndGet();
+
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    for (NetworkDispatcher member : members) {
+      if (loss > 0 && random.nextDouble() < loss) {
+        lost.incrementAndGet();
+        continue;
+      }
+
+      long delay = latencyMillis + (jitterMillis > 0 ? random.nextLong(jitterMillis + 1) : 0);
+      pending.incrementAndGet();
+      try {
+        executor.schedule(
+            () -> {
+              try {
+                member.dispatch(channel, frame);
+                delivered.incrementAndGet();
+              } finally {
+                donePending(1);
+              }
+            },
+            delay,
+            TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException e) {
+        donePending(1); // Closed since the check above
+        return;
+      }
+    }
+  }
+
+  /** Storage for shared caches, common to every server of this network */
+  public SharedStore getStore() {
+    return store;
+  }
+
+  public long getPublishedCount() {
+    return published.get();
+  }
+
+  public long getDeliveredCount() {
+    return delivered.get();
+  }
+
+  public long getLostCount() {
+    return lost.get();
+  }
+
+  /** @return Deliveries waiting for their latency to pass */
+  public long getPendingCount() {
+    return pending.get();
+  }
+
+  /**
+   * Waits for the network to deliver everything published so far
+   *
+   * @return A future completed once no delivery is pending, or the network is closed
+   */
+  public CompletableFuture<Void> whenIdle() {
+    CompletableFuture<Void> idle = new CompletableFuture<>();
+    idleWaiters.add(idle);
+    if (pending.get() == 0 || executor.isShutdown()) {
+      completeIdle();
+    }
+    return idle;
+  }
+
+  private void donePending(int count) {
+    if (pending.addAndGet(-count) == 0) {
+      completeIdle();
+    }
+  }
+
+  private void completeIdle() {
+    CompletableFuture<Void> idle;
+    while ((idle = idleWaiters.poll()) != null) {
+      idle.complete(null);
+    }
+  }
+
+  public void close() {
+    donePending(executor.shutdownNow().size()); // Deliveries which never ran
+    members.clear();
+    completeIdle();
+  }
+}
@@ -0,0 +1,70 @@
+package dev.pgm.community.network.local;
+
+import dev.pgm.community.network.cache.SharedStore;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LocalSharedStore - In-memory {@link SharedStore} shared by the servers of a local network
+ *
+ * <p>A deleted key holds an entry without a value until the hold ends.
+ */
+public class LocalSharedStore implements SharedStore {
+
+  private final Map<String, Entry> entries;
+  private final long ttlMillis;
+
+  public LocalSharedStore(Duration ttl) {
+    this.entries = new ConcurrentHashMap<>();
+    this.ttlMillis = ttl.toMillis();
+  }
+
+  @Override
+  public byte[] get(String key) {
+    Entry entry = entries.get(key);
+    if (entry == null) return null;
+    if (entry.expires < System.currentTimeMillis()) {
+      entries.remove(key, entry);
+      return null;
+    }
+    return entry.value; // Null while deleted
+  }
+
+  @Override
+  public List<byte[]> getAll(List<String> keys) {
+    List<byte[]> values = new ArrayList<>(keys.size());
+    for (String key : keys) {
+      values.add(get(key));
+    }
+    return values;
+  }
+
+  @Override
+  public void set(String key, byte[] value, boolean onlyIfAbsent) {
+    Entry entry = new Entry(value, System.currentTimeMillis() + ttlMillis);
+    if (onlyIfAbsent) {
+      get(key); // Clear an expired entry first
+      entries.putIfAbsent(key, entry);
+    } else {
+      entries.put(key, entry);
+    }
+  }
+
+  @Override
+  public void delete(String key, Duration hold) {
+    entries.put(key, new Entry(null, System.currentTimeMillis() + hold.toMillis()));
+  }
+
+  private static class Entry {
+    private final byte[] value;
+    private final long expires;
+
+    private Entry(byte[] value, long expires) {
+      this.value = value;
+      this.expires = expires;
+    }
+  }
+}
@@ -0,0 +1,271 @@
+package dev.pgm.community.network.local;
+
+import com.google.common.collect.Lists;
+import dev.pgm.community.chat.network.NetworkChatBatch;
+import dev.pgm.community.chat.network.NetworkChatMessage;
+import dev.pgm.community.moderation.punishments.NetworkPunishment;
+import dev.pgm.community.moderation.punishments.Punishment;
+import dev.pgm.community.moderation.punishments.PunishmentType;
+import dev.pgm.community.network.Channels;
+import dev.pgm.community.network.NetworkEnvelope;
+import dev.pgm.community.network.cache.CacheKey;
+import dev.pgm.community.network.subs.NetworkSubscriber;
+import dev.pgm.community.network.types.LocalNetworkFeature;
+import dev.pgm.community.network.updates.NetworkUpdate;
+import dev.pgm.community.network.updates.types.CacheInvalidateUpdate;
+import dev.pgm.community.network.updates.types.ChatUpdate;
+import dev.pgm.community.network.updates.types.PunishmentUpdate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import org.bukkit.configuration.MemoryConfiguration;
+import tc.oc.pgm.util.channels.Channel;
+
+/**
+ * LoopbackHarness - Runs several logical servers on a {@link LocalNetwork} to load test updates
+ *
+ * <p>Each scenario publishes a burst of updates and waits for every delivery to land, reporting
+ * throughput, delivery latency and how many updates were lost or arrived out of order. Blocks until
+ * the run is over, so it must not be called from the main thread.
+ */
+public class LoopbackHarness {
+
+  private static final long SETTLE_TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+
+  // Number of players the invalidation storm is spread over, so keys repeat
+  private static final int STORM_KEYS = 10;
+
+  public enum Scenario {
+    // One server broadcasts punishments to all others
+    PUNISHMENTS,
+    // Every server sends chat to every other
+    CHAT,
+    // Every server invalidates the same few cached players
+    INVALIDATIONS
+  }
+
+  private final Logger logger;
+  private final long latencyMillis;
+  private final long jitterMillis;
+  private final double loss;
+
+  public LoopbackHarness(Logger logger, long latencyMillis, long jitterMillis, double loss) {
+    this.logger = logger;
+    this.latencyMillis = latencyMillis;
+    this.jitterMillis = jitterMillis;
+    this.loss = loss;
+  }
+
+  /**
+   * Runs a scenario
+   *
+   * @param scenario The kind of updates to send
+   * @param serverCount Number of logical servers, at least 2
+   * @param updates Updates sent by each sending server
+   * @return The result of the run
+   */
+  public Result run(Scenario scenario, int serverCount, int updates) throws InterruptedException {
+    final int count = Math.max(2, serverCount);
+    final LocalNetwork network =
+        new LocalNetwork(latencyMillis, jitterMillis, loss, Duration.ofMinutes(1));
+    final String channel = getChannel(scenario);
+
+    List<LocalNetworkFeature> servers = Lists.newArrayList();
+    List<Probe> probes = Lists.newArrayList();
+    for (int i = 0; i < count; i++) {
+      LocalNetworkFeature server =
+          new LocalNetworkFeature(
+              new MemoryConfiguration(), logger, network, "loopback-" + (i + 1));
+      Probe probe = new Probe(channel, server.getNetworkId(), logger);
+      server.registerSubscriber(probe);
+      server.connect();
+      servers.add(server);
+      probes.add(probe);
+    }
+
+    final int senders = scenario == Scenario.PUNISHMENTS ? 1 : count;
+    final long start = System.nanoTime();
+    try {
+      for (int n = 0; n < updates; n++) {
+        for (int i = 0; i < senders; i++) {
+          servers.get(i).sendUpdate(createUpdate(scenario, n));
+        }
+      }
+
+      // Wait for every delayed delivery to run, what is still pending counts as lost
+      network.whenIdle().get(latencyMillis + jitterMillis + SETTLE_TIMEOUT, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      logger.warning("Loopback " + scenario + " timed out, undelivered updates count as lost");
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(e); // Never completed exceptionally
+    } finally {
+      network.close();
+    }
+    final long elapsed = System.nanoTime() - start;
+
+    Result result = new Result(scenario, count, (long) updates * senders * (count - 1), elapsed);
+    for (Probe probe : probes) {
+      result.add(probe);
+    }
+    return result;
+  }
+
+  private static String getChannel(Scenario scenario) {
+    switch (scenario) {
+      case PUNISHMENTS:
+        return Channels.PUNISHMENTS;
+      case CHAT:
+        return Channels.CHAT;
+      default:
+        return Channels.CACHE_INVALIDATE;
+    }
+  }
+
+  private static NetworkUpdate<?> createUpdate(Scenario scenario, int n) {
+    switch (scenario) {
+      case PUNISHMENTS:
+        Instant now = Instant.now();
+        Punishment punishment =
+            Punishment.of(
+                UUID.randomUUID(),
+                UUID.randomUUID(),
+                Optional.empty(),
+                "Loopback test " + n,
+                now,
+                null,
+                PunishmentType.WARN,
+                true,
+                now,
+                Optional.empty(),
+                "loopback");
+        return new PunishmentUpdate(new NetworkPunishment(punishment, "loopback"));
+      case CHAT:
+        return new ChatUpdate(
+            new NetworkChatBatch(
+                "loopback",
+                Collections.singletonList(
+                    new NetworkChatMessage(
+                        "{\"text\":\"Loopback: test " + n + "\"}", "loopback", Channel.ADMIN))));
+      default:
+        return new CacheInvalidateUpdate(new CacheKey("loopback", new UUID(0, n % STORM_KEYS)));
+    }
+  }
+
+  /** Counts what one server received */
+  private static class Probe extends NetworkSubscriber<Object> {
+
+    private final AtomicLong received;
+    private final AtomicLong reordered;
+    private final AtomicLong totalLatencyMillis;
+    private final AtomicLong maxLatencyMillis;
+    private final Map<String, Long> lastSequence;
+
+    private Probe(String channel, String networkId, Logger logger) {
+      super(channel, networkId, logger);
+      this.received = new AtomicLong();
+      this.reordered = new AtomicLong();
+      this.totalLatencyMillis = new AtomicLong();
+      this.maxLatencyMillis = new AtomicLong();
+      this.lastSequence = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void onMessage(NetworkEnvelope envelope) {
+      if (getNetworkId().equalsIgnoreCase(envelope.getOrigin())) return;
+
+      long latency = Math.max(0, System.currentTimeMillis() - envelope.getTimestamp());
+      totalLatencyMillis.addAndGet(latency);
+      maxLatencyMillis.accumulateAndGet(latency, Math::max);
+
+      Long last = lastSequence.put(envelope.getOrigin(), envelope.getSequence());
+      if (last != null && last > envelope.getSequence()) {
+        reordered.incrementAndGet();
+      }
+      received.incrementAndGet();
+    }
+
+    @Override
+    public void onReceiveUpdate(Object data) {}
+  }
+
+  /** Totals of a harness run */
+  public static class Result {
+
+    private final Scenario scenario;
+    private final int servers;
+    private final long expected;
+    private final long elapsedNanos;
+
+    private long delivered;
+    private long reordered;
+    private long totalLatencyMillis;
+    private long maxLatencyMillis;
+
+    private Result(Scenario scenario, int servers, long expected, long elapsedNanos) {
+      this.scenario = scenario;
+      this.servers = servers;
+      this.expected = expected;
+      this.elapsedNanos = elapsedNanos;
+    }
+
+    private void add(Probe probe) {
+      delivered += probe.received.get();
+      reordered += probe.reordered.get();
+      totalLatencyMillis += probe.totalLatencyMillis.get();
+      maxLatencyMillis = Math.max(maxLatencyMillis, probe.maxLatencyMillis.get());
+    }
+
+    public Scenario getScenario() {
+      return scenario;
+    }
+
+    public int getServers() {
+      return servers;
+    }
+
+    /** @return Deliveries expected, each update reaches every server but its sender */
+    public long getExpected() {
+      return expected;
+    }
+
+    public long getDelivered() {
+      return delivered;
+    }
+
+    public long getLost() {
+      return Math.max(0, expected - delivered);
+    }
+
+    /** @return Deliveries which arrived after a later update from the same server */
+    public long getReordered() {
+      return reordered;
+    }
+
+    public long getElapsedMillis() {
+      return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /** @return Deliveries per second */
+    public double getThroughput() {
+      return elapsedNanos == 0 ? 0 : delivered / (elapsedNanos / 1_000_000_000d);
+    }
+
+    public double getAverageLatencyMillis() {
+      return delivered == 0 ? 0 : totalLatencyMillis / (double) delivered;
+    }
+
+    public long getMaxLatencyMillis() {
+      return maxLatencyMillis;
+    }
+  }
+}
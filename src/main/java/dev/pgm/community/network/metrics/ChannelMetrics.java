@@ -0,0 +1,100 @@
+package dev.pgm.community.network.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** ChannelMetrics - Traffic and timings of the updates on a single channel */
+public class ChannelMetrics {
+
+  private final String channel;
+
+  private final RateMeter published;
+  private final AtomicLong publishedBytes;
+  private final RateMeter received;
+  private final AtomicLong receivedBytes;
+  private final AtomicLong malformed;
+  private final AtomicLong handlerErrors;
+
+  private final Histogram decode;
+  private final Histogram latency;
+  private final Map<String, Histogram> handlers;
+
+  public ChannelMetrics(String channel) {
+    this.channel = channel;
+    this.published = new RateMeter();
+    this.publishedBytes = new AtomicLong();
+    this.received = new RateMeter();
+    this.receivedBytes = new AtomicLong();
+    this.malformed = new AtomicLong();
+    this.handlerErrors = new AtomicLong();
+    this.decode = new Histogram();
+    this.latency = new Histogram();
+    this.handlers = new ConcurrentHashMap<>();
+  }
+
+  public String getChannel() {
+    return channel;
+  }
+
+  void onPublish(int bytes) {
+    published.mark(1);
+    publishedBytes.addAndGet(bytes);
+  }
+
+  void onReceive(int bytes) {
+    received.mark(1);
+    receivedBytes.addAndGet(bytes);
+  }
+
+  void onMalformed() {
+    malformed.incrementAndGet();
+  }
+
+  void onHandlerError() {
+    handlerErrors.incrementAndGet();
+  }
+
+  public RateMeter getPublished() {
+    return published;
+  }
+
+  public long getPublishedBytes() {
+    return publishedBytes.get();
+  }
+
+  public RateMeter getReceived() {
+    return received;
+  }
+
+  public long getReceivedBytes() {
+    return receivedBytes.get();
+  }
+
+  public long getMalformedCount() {
+    return malformed.get();
+  }
+
+  public long getHandlerErrorCount() {
+    return handlerErrors.get();
+  }
+
+  /** @return Time taken to decode each received update */
+  public Histogram getDecode() {
+    return decode;
+  }
+
+  /** @return Time from an update being sent to it being received, by the sender's clock */
+  public Histogram getLatency() {
+    return latency;
+  }
+
+  /** @return Time each subscriber took to handle an update, by subscriber name */
+  public Map<String, Histogram> getHandlers() {
+    return handlers;
+  }
+
+  Histogram getHandler(String subscriber) {
+    return handlers.computeIfAbsent(subscriber, name -> new Histogram());
+  }
+}
@@ -0,0 +1,106 @@
+package dev.pgm.community.network.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram - Counts durations into fixed buckets, without locking
+ *
+ * <p>Each bucket bound is four times the last, from 1µs to about 17s, with one more bucket for
+ * anything slower. Percentiles are read as the upper bound of the bucket they fall in.
+ */
+public class Histogram {
+
+  private static final long[] BOUNDS_NANOS = new long[13];
+
+  static {
+    long bound = TimeUnit.MICROSECONDS.toNanos(1);
+    for (int i = 0; i < BOUNDS_NANOS.length; i++) {
+      BOUNDS_NANOS[i] = bound;
+      bound *= 4;
+    }
+  }
+
+  private final AtomicLongArray buckets;
+  private final AtomicLong count;
+  private final AtomicLong totalNanos;
+  private final AtomicLong maxNanos;
+
+  public Histogram() {
+    this.buckets = new AtomicLongArray(BOUNDS_NANOS.length + 1);
+    this.count = new AtomicLong();
+    this.totalNanos = new AtomicLong();
+    this.maxNanos = new AtomicLong();
+  }
+
+  public void record(long nanos) {
+    final long value = Math.max(0, nanos);
+    int bucket = 0;
+    while (bucket < BOUNDS_NANOS.length && value > BOUNDS_NANOS[bucket]) {
+      bucket++;
+    }
+    buckets.incrementAndGet(bucket);
+    count.incrementAndGet();
+    totalNanos.addAndGet(value);
+    maxNanos.accumulateAndGet(value, Math::max);
+  }
+
+  public void recordMillis(long millis) {
+    record(TimeUnit.MILLISECONDS.toNanos(millis));
+  }
+
+  public long getCount() {
+    return count.get();
+  }
+
+  public double getTotalSeconds() {
+    return totalNanos.get() / 1_000_000_000d;
+  }
+
+  public double getAverageMillis() {
+    long total = count.get();
+    return total == 0 ? 0 : totalNanos.get() / (double) total / 1_000_000;
+  }
+
+  public double getMaxMillis() {
+    return maxNanos.get() / 1_000_000d;
+  }
+
+  /**
+   * Estimates a percentile
+   *
+   * @param percentile From 0 to 1
+   * @return Upper bound of the bucket holding the percentile, or the max if above every bound
+   */
+  public double getPercentileMillis(double percentile) {
+    long total = count.get();
+    if (total == 0) return 0;
+
+    long rank = (long) Math.ceil(total * Math.max(0, Math.min(1, percentile)));
+    long seen = 0;
+    for (int i = 0; i < BOUNDS_NANOS.length; i++) {
+      seen += buckets.get(i);
+      if (seen >= rank) return Math.min(BOUNDS_NANOS[i], maxNanos.get()) / 1_000_000d;
+    }
+    return getMaxMillis();
+  }
+
+  /** @return Number of bounded buckets, the overflow bucket is not included */
+  public static int getBucketCount() {
+    return BOUNDS_NANOS.length;
+  }
+
+  public static double getBoundSeconds(int bucket) {
+    return BOUNDS_NANOS[bucket] / 1_000_000_000d;
+  }
+
+  /** @return Values up to and including the bound of a bucket */
+  public long getCumulativeCount(int bucket) {
+    long seen = 0;
+    for (int i = 0; i <= bucket; i++) {
+      seen += buckets.get(i);
+    }
+    return seen;
+  }
+}
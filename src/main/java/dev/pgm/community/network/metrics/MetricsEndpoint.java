@@ -0,0 +1,91 @@
+package dev.pgm.community.network.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * MetricsEndpoint - Serves {@link NetworkMetrics} over HTTP at /metrics, for Prometheus to scrape
+ *
+ * <p>Requests are answered by a single daemon thread, away from the server and network threads.
+ */
+public class MetricsEndpoint {
+
+  private static final String PATH = "/metrics";
+  private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private final NetworkMetrics metrics;
+  private final Logger logger;
+
+  private HttpServer server;
+  private ExecutorService executor;
+
+  public MetricsEndpoint(NetworkMetrics metrics, Logger logger) {
+    this.metrics = metrics;
+    this.logger = logger;
+  }
+
+  /**
+   * Starts listening
+   *
+   * @param host Address to bind to
+   * @param port Port to listen on
+   */
+  public void start(String host, int port) {
+    if (server != null) return;
+    try {
+      server = HttpServer.create(new InetSocketAddress(host, port), 0);
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Could not serve network metrics on " + host + ":" + port, e);
+      return;
+    }
+
+    executor =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "Community Metrics Endpoint");
+              thread.setDaemon(true);
+              return thread;
+            });
+    server.setExecutor(executor);
+    server.createContext(PATH, this::handle);
+    server.start();
+    logger.info("Serving network metrics on " + host + ":" + port + PATH);
+  }
+
+  public void stop() {
+    if (server != null) {
+      server.stop(0);
+      server = null;
+    }
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try {
+      if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+
+      byte[] body = metrics.toText().getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+}
@@ -0,0 +1,210 @@
+package dev.pgm.community.network.metrics;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NetworkMetrics - Counters and histograms of the updates sent and received by this server
+ *
+ * <p>Kept per channel, and end-to-end latency also per sending server so a lagging server stands
+ * out. Latency uses the timestamp written by the sender, so it includes any clock drift between
+ * servers. Servers not heard from in a while are forgotten, and past a limit new servers are
+ * counted together as "other", so restarts under new ids do not grow the metrics without end. Can
+ * be written in the Prometheus text format for scraping.
+ */
+public class NetworkMetrics {
+
+  private static final String PREFIX = "community_network_";
+
+  private static final int MAX_ORIGINS = 64;
+  private static final long ORIGIN_EXPIRY = TimeUnit.MINUTES.toMillis(10);
+  private static final String OTHER_ORIGIN = "other";
+
+  private final String networkId;
+  private final Map<String, ChannelMetrics> channels;
+  private final Map<String, Origin> origins;
+
+  public NetworkMetrics(String networkId) {
+    this.networkId = networkId;
+    this.channels = new ConcurrentHashMap<>();
+    this.origins = new ConcurrentHashMap<>();
+  }
+
+  public ChannelMetrics getChannel(String channel) {
+    return channels.computeIfAbsent(channel, ChannelMetrics::new);
+  }
+
+  /** @return Metrics of every channel used so far, sorted by name */
+  public Map<String, ChannelMetrics> getChannels() {
+    return new TreeMap<>(channels);
+  }
+
+  /** @return End-to-end latency of updates from each other server, sorted by network id */
+  public Map<String, Histogram> getOrigins() {
+    pruneOrigins();
+    Map<String, Histogram> sorted = new TreeMap<>();
+    origins.forEach((id, origin) -> sorted.put(id, origin.latency));
+    return sorted;
+  }
+
+  public void onPublish(String channel, int bytes) {
+    getChannel(channel).onPublish(bytes);
+  }
+
+  public void onReceive(String channel, int bytes) {
+    getChannel(channel).onReceive(bytes);
+  }
+
+  public void onDecode(String channel, long nanos) {
+    getChannel(channel).getDecode().record(nanos);
+  }
+
+  public void onMalformed(String channel) {
+    getChannel(channel).onMalformed();
+  }
+
+  /**
+   * Records an update arriving, updates sent by this server are not counted
+   *
+   * @param channel Channel of the update
+   * @param origin Network id of the sender
+   * @param timestamp When the update was sent, by the sender's clock
+   */
+  public void onDelivered(String channel, String origin, long timestamp) {
+    if (networkId.equalsIgnoreCase(origin)) return;
+    long latency = System.currentTimeMillis() - timestamp;
+    getChannel(channel).getLatency().recordMillis(latency);
+    getOrigin(origin).recordMillis(latency);
+  }
+
+  private Histogram getOrigin(String id) {
+    Origin origin = origins.get(id);
+    if (origin == null) {
+      if (origins.size() >= MAX_ORIGINS) {
+        pruneOrigins();
+      }
+      origin =
+          origins.size() < MAX_ORIGINS
+              ? origins.computeIfAbsent(id, key -> new Origin())
+              : origins.computeIfAbsent(OTHER_ORIGIN, key -> new Origin());
+    }
+    origin.lastSeen = System.currentTimeMillis();
+    return origin.latency;
+  }
+
+  private void pruneOrigins() {
+    final long expired = System.currentTimeMillis() - ORIGIN_EXPIRY;
+    origins.values().removeIf(origin -> origin.lastSeen < expired);
+  }
+
+  public void onHandled(String channel, String subscriber, long nanos) {
+    getChannel(channel).getHandler(subscriber).record(nanos);
+  }
+
+  public void onHandlerError(String channel) {
+    getChannel(channel).onHandlerError();
+  }
+
+  /** @return Every metric in the Prometheus text exposition format */
+  public String toText() {
+    StringBuilder out = new StringBuilder(4096);
+    Map<String, ChannelMetrics> sorted = getChannels();
+
+    type(out, "published_total", "counter", "Updates published");
+    for (ChannelMetrics metrics : sorted.values()) {
+      sample(out, "published_total", channel(metrics), metrics.getPublished().getTotal());
+    }
+    type(out, "published_bytes_total", "counter", "Bytes of updates published");
+    for (ChannelMetrics metrics : sorted.values()) {
+      sample(out, "published_bytes_total", channel(metrics), metrics.getPublishedBytes());
+    }
+    type(out, "received_total", "counter", "Updates received");
+    for (ChannelMetrics metrics : sorted.values()) {
+      sample(out, "received_total", channel(metrics), metrics.getReceived().getTotal());
+    }
+    type(out, "received_bytes_total", "counter", "Bytes of updates received");
+    for (ChannelMetrics metrics : sorted.values()) {
+      sample(out, "received_bytes_total", channel(metrics), metrics.getReceivedBytes());
+    }
+    type(out, "malformed_total", "counter", "Updates which could not be decoded");
+    for (ChannelMetrics metrics : sorted.values()) {
+      sample(out, "malformed_total", channel(metrics), metrics.getMalformedCount());
+    }
+    type(out, "handler_errors_total", "counter", "Updates a subscriber failed to handle");
+    for (ChannelMetrics metrics : sorted.values()) {
+      sample(out, "handler_errors_total", channel(metrics), metrics.getHandlerErrorCount());
+    }
+
+    type(out, "decode_seconds", "histogram", "Time to decode an update");
+    for (ChannelMetrics metrics : sorted.values()) {
+      histogram(out, "decode_seconds", channel(metrics), metrics.getDecode());
+    }
+    type(out, "handler_seconds", "histogram", "Time for a subscriber to handle an update");
+    for (ChannelMetrics metrics : sorted.values()) {
+      for (Map.Entry<String, Histogram> handler : new TreeMap<>(metrics.getHandlers()).entrySet()) {
+        histogram(
+            out,
+            "handler_seconds",
+            channel(metrics) + ",subscriber=\"" + escape(handler.getKey()) + "\"",
+            handler.getValue());
+      }
+    }
+    type(out, "latency_seconds", "histogram", "Time from an update being sent to being received");
+    for (ChannelMetrics metrics : sorted.values()) {
+      histogram(out, "latency_seconds", channel(metrics), metrics.getLatency());
+    }
+    type(out, "origin_latency_seconds", "histogram", "Latency of updates by sending server");
+    for (Map.Entry<String, Histogram> origin : getOrigins().entrySet()) {
+      histogram(
+          out,
+          "origin_latency_seconds",
+          "origin=\"" + escape(origin.getKey()) + "\"",
+          origin.getValue());
+    }
+    return out.toString();
+  }
+
+  private static String channel(ChannelMetrics metrics) {
+    return "channel=\"" + escape(metrics.getChannel()) + "\"";
+  }
+
+  private static void type(StringBuilder out, String name, String type, String help) {
+    out.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+    out.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+  }
+
+  private static void sample(StringBuilder out, String name, String labels, Object value) {
+    out.append(PREFIX).append(name).append('{').append(labels).append("} ").append(value);
+    out.append('\n');
+  }
+
+  private static void histogram(
+      StringBuilder out, String name, String labels, Histogram histogram) {
+    for (int i = 0; i < Histogram.getBucketCount(); i++) {
+      sample(
+          out,
+          name + "_bucket",
+          labels + ",le=\"" + format(Histogram.getBoundSeconds(i)) + "\"",
+          histogram.getCumulativeCount(i));
+    }
+    sample(out, name + "_bucket", labels + ",le=\"+Inf\"", histogram.getCount());
+    sample(out, name + "_sum", labels, format(histogram.getTotalSeconds()));
+    sample(out, name + "_count", labels, histogram.getCount());
+  }
+
+  private static String format(double value) {
+    return String.format(Locale.ROOT, "%.6g", value);
+  }
+
+  private static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+
+  private static class Origin {
+    private final Histogram latency = new Histogram();
+    private volatile long lastSeen = System.currentTimeMillis();
+  }
+}
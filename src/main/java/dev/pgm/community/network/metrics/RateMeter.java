@@ -0,0 +1,56 @@
+package dev.pgm.community.network.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * RateMeter - Counts events in one-second slots, to give a rate over the last minute
+ *
+ * <p>A slot is reset the first time it is used in a new second. Events counted while another thread
+ * resets the slot may be lost, which is fine for a rate.
+ */
+public class RateMeter {
+
+  private static final int WINDOW_SECONDS = 60;
+
+  private final AtomicLongArray counts;
+  private final AtomicLongArray stamps;
+  private final AtomicLong total;
+
+  public RateMeter() {
+    this.counts = new AtomicLongArray(WINDOW_SECONDS);
+    this.stamps = new AtomicLongArray(WINDOW_SECONDS);
+    this.total = new AtomicLong();
+  }
+
+  public void mark(long amount) {
+    final long now = currentSecond();
+    final int slot = (int) (now % WINDOW_SECONDS);
+    long stamp = stamps.get(slot);
+    if (stamp != now && stamps.compareAndSet(slot, stamp, now)) {
+      counts.set(slot, 0);
+    }
+    counts.addAndGet(slot, amount);
+    total.addAndGet(amount);
+  }
+
+  public long getTotal() {
+    return total.get();
+  }
+
+  /** @return Average events per second over the last minute */
+  public double getRate() {
+    final long now = currentSecond();
+    long sum = 0;
+    for (int i = 0; i < WINDOW_SECONDS; i++) {
+      if (now - stamps.get(i) < WINDOW_SECONDS) {
+        sum += counts.get(i);
+      }
+    }
+    return sum / (double) WINDOW_SECONDS;
+  }
+
+  private static long currentSecond() {
+    return System.currentTimeMillis() / 1000;
+  }
+}
@@ -0,0 +1,57 @@
+package dev.pgm.community.network.presence;
+
+import dev.pgm.community.sessions.Session;
+import java.time.Instant;
+import java.util.UUID;
+
+/** Presence - A player online somewhere on the network, and since when */
+public class Presence {
+
+  private final UUID playerId;
+  private final UUID sessionId;
+  private final String server;
+  private final Instant since;
+  private final boolean disguised;
+
+  public Presence(UUID playerId, UUID sessionId, String server, Instant since, boolean disguised) {
+    this.playerId = playerId;
+    this.sessionId = sessionId;
+    this.server = server;
+    this.since = since;
+    this.disguised = disguised;
+  }
+
+  public static Presence of(Session session) {
+    return new Presence(
+        session.getPlayerId(),
+        session.getSessionId(),
+        session.getServerName(),
+        session.getStartDate(),
+        session.isDisguised());
+  }
+
+  public UUID getPlayerId() {
+    return playerId;
+  }
+
+  public UUID getSessionId() {
+    return sessionId;
+  }
+
+  public String getServer() {
+    return server;
+  }
+
+  public Instant getSince() {
+    return since;
+  }
+
+  public boolean isDisguised() {
+    return disguised;
+  }
+
+  /** @return The ongoing session this presence stands for */
+  public Session toSession() {
+    return new Session(sessionId, playerId, disguised, server, since, null);
+  }
+}
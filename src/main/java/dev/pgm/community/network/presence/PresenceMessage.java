@@ -0,0 +1,40 @@
+package dev.pgm.community.network.presence;
+
+import java.util.List;
+
+/** PresenceMessage - A change to, or the full list of, the players online on one server */
+public class PresenceMessage {
+
+  public enum Type {
+    // Players joined the server
+    JOIN,
+    // Players left the server
+    QUIT,
+    // Every player on the server, replacing what was known
+    SNAPSHOT,
+    // A snapshot from a server which just started, others reply with their own
+    SYNC
+  }
+
+  private final Type type;
+  private final String server;
+  private final List<Presence> presences;
+
+  public PresenceMessage(Type type, String server, List<Presence> presences) {
+    this.type = type;
+    this.server = server;
+    this.presences = presences;
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  public String getServer() {
+    return server;
+  }
+
+  public List<Presence> getPresences() {
+    return presences;
+  }
+}
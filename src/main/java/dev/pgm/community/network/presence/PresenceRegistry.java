@@ -0,0 +1,256 @@
+package dev.pgm.community.network.presence;
+
+import dev.pgm.community.Community;
+import dev.pgm.community.network.feature.NetworkFeature;
+import dev.pgm.community.network.presence.PresenceMessage.Type;
+import dev.pgm.community.network.subs.types.PresenceSubscriber;
+import dev.pgm.community.network.updates.types.PresenceUpdate;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * PresenceRegistry - Which player is online on which server, kept in memory on every server
+ *
+ * <p>Servers send a delta when a player joins or quits, and every {@link #SNAPSHOT_INTERVAL} a
+ * snapshot of all their players which replaces what others knew. Snapshots repair lost deltas and
+ * double as heartbeats, players of a server which stops sending them expire after {@link
+ * #SERVER_TIMEOUT}. Lookups only read the map, so they never wait on the database or network.
+ */
+public class PresenceRegistry {
+
+  private static final Duration SNAPSHOT_INTERVAL = Duration.ofSeconds(30);
+  private static final Duration SERVER_TIMEOUT = SNAPSHOT_INTERVAL.multipliedBy(3);
+
+  private final NetworkFeature network;
+  private final Logger logger;
+  private final String server;
+
+  private final Map<UUID, Presence> presences;
+  private final Map<String, Long> lastHeard;
+  private final List<Consumer<UUID>> listeners;
+
+  private BukkitTask task;
+
+  public PresenceRegistry(NetworkFeature network, Logger logger) {
+    this.network = network;
+    this.logger = logger;
+    this.server = Community.get().getServerId();
+    this.presences = new ConcurrentHashMap<>();
+    this.lastHeard = new ConcurrentHashMap<>();
+    this.listeners = new CopyOnWriteArrayList<>();
+  }
+
+  /** Subscribes to other servers and asks them for their players */
+  public void start() {
+    if (task != null) return;
+    network.registerSubscriber(new PresenceSubscriber(this, network.getNetworkId(), logger));
+    send(Type.SYNC, getLocal());
+
+    long ticks = SNAPSHOT_INTERVAL.getSeconds() * 20;
+    this.task =
+        Community.get()
+            .getServer()
+            .getScheduler()
+            .runTaskTimerAsynchronously(Community.get(), this::tick, ticks, ticks);
+  }
+
+  /** Stops sending snapshots and tells other servers this one has no players left */
+  public void stop() {
+    if (task != null) {
+      task.cancel();
+      task = null;
+    }
+    send(Type.SNAPSHOT, Collections.emptyList());
+  }
+
+  /**
+   * Listens for players joining or leaving other servers
+   *
+   * @param listener Called with the UUID of each player whose presence changed
+   */
+  public void onChange(Consumer<UUID> listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Gets where a player is online
+   *
+   * @param playerId The player UUID
+   * @return The presence of the player, empty if offline everywhere
+   */
+  public Optional<Presence> get(UUID playerId) {
+    return Optional.ofNullable(presences.get(playerId));
+  }
+
+  public boolean isOnline(UUID playerId) {
+    return presences.containsKey(playerId);
+  }
+
+  /** @return The players online on a server */
+  public List<Presence> getPlayers(String server) {
+    return presences.values().stream()
+        .filter(presence -> presence.getServer().equalsIgnoreCase(server))
+        .collect(Collectors.toList());
+  }
+
+  /** @return Servers heard from recently, including this one */
+  public Set<String> getServers() {
+    Set<String> servers =
+        presences.values().stream().map(Presence::getServer).collect(Collectors.toSet());
+    servers.addAll(lastHeard.keySet());
+    servers.add(server);
+    return servers;
+  }
+
+  public int size() {
+    return presences.size();
+  }
+
+  /**
+   * Records a player joining this server
+   *
+   * @param presence The new presence
+   */
+  public void join(Presence presence) {
+    presences.put(presence.getPlayerId(), presence);
+    send(Type.JOIN, Collections.singletonList(presence));
+  }
+
+  /**
+   * Records a player leaving this server
+   *
+   * @param playerId The player UUID
+   * @param sessionId The session which ended, a newer session of the player is kept
+   */
+  public void quit(UUID playerId, UUID sessionId) {
+    Presence presence = presences.get(playerId);
+    if (presence == null || !presence.getSessionId().equals(sessionId)) return;
+    if (presences.remove(playerId, presence)) {
+      send(Type.QUIT, Collections.singletonList(presence));
+    }
+  }
+
+  /** Records every player leaving this server, such as when it restarts */
+  public void quitAll() {
+    presences.values().removeIf(this::isLocal);
+    send(Type.SNAPSHOT, Collections.emptyList());
+  }
+
+  /**
+   * Applies a message from another server
+   *
+   * @param message The presence message
+   */
+  public void receive(PresenceMessage message) {
+    final String origin = message.getServer();
+    lastHeard.put(origin, System.currentTimeMillis());
+
+    switch (message.getType()) {
+      case JOIN:
+        for (Presence presence : message.getPresences()) {
+          merge(presence);
+        }
+        break;
+      case QUIT:
+        for (Presence presence : message.getPresences()) {
+          remove(presence);
+        }
+        break;
+      case SYNC:
+        replace(origin, message.getPresences());
+        send(Type.SNAPSHOT, getLocal());
+        break;
+      case SNAPSHOT:
+        replace(origin, message.getPresences());
+        break;
+    }
+  }
+
+  private void tick() {
+    try {
+      send(Type.SNAPSHOT, getLocal());
+
+      long expiry = System.currentTimeMillis() - SERVER_TIMEOUT.toMillis();
+      for (Map.Entry<String, Long> entry : lastHeard.entrySet()) {
+        if (entry.getValue() < expiry && lastHeard.remove(entry.getKey(), entry.getValue())) {
+          replace(entry.getKey(), Collections.emptyList());
+        }
+      }
+    } catch (RuntimeException e) {
+      logger.log(Level.WARNING, "Could not refresh player presence", e);
+    }
+  }
+
+  // Keeps whichever session started last, a player switching servers may join before quitting
+  private void merge(Presence presence) {
+    Presence kept =
+        presences.merge(
+            presence.getPlayerId(),
+            presence,
+            (current, next) -> next.getSince().isBefore(current.getSince()) ? current : next);
+    if (kept == presence) {
+      notifyChange(presence.getPlayerId());
+    }
+  }
+
+  private void remove(Presence presence) {
+    Presence current = presences.get(presence.getPlayerId());
+    if (current != null
+        && current.getSessionId().equals(presence.getSessionId())
+        && presences.remove(presence.getPlayerId(), current)) {
+      notifyChange(presence.getPlayerId());
+    }
+  }
+
+  // Replaces every presence of a server with those in its snapshot
+  private void replace(String origin, List<Presence> snapshot) {
+    Set<UUID> listed = snapshot.stream().map(Presence::getPlayerId).collect(Collectors.toSet());
+    for (Presence presence : presences.values()) {
+      if (presence.getServer().equalsIgnoreCase(origin)
+          && !listed.contains(presence.getPlayerId())) {
+        remove(presence);
+      }
+    }
+    for (Presence presence : snapshot) {
+      Presence current = presences.get(presence.getPlayerId());
+      if (current == null || !current.getSessionId().equals(presence.getSessionId())) {
+        merge(presence);
+      }
+    }
+  }
+
+  private List<Presence> getLocal() {
+    return presences.values().stream().filter(this::isLocal).collect(Collectors.toList());
+  }
+
+  /** @return Whether the presence is on this server */
+  public boolean isLocal(Presence presence) {
+    return presence.getServer().equalsIgnoreCase(server);
+  }
+
+  private void send(Type type, List<Presence> players) {
+    network.sendUpdate(new PresenceUpdate(new PresenceMessage(type, server, players)));
+  }
+
+  private void notifyChange(UUID playerId) {
+    for (Consumer<UUID> listener : listeners) {
+      try {
+        listener.accept(playerId);
+      } catch (RuntimeException e) {
+        logger.log(Level.WARNING, "Presence listener failed for " + playerId, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package dev.pgm.community.network.stream;
+
+import java.io.IOException;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * EventStream - A bounded log of replayable network updates, shared by every server
+ *
+ * <p>Servers append updates as they publish them, and read back those published while they were
+ * offline. Only the latest entries are kept, older ones are trimmed as new ones arrive.
+ */
+public interface EventStream {
+
+  /**
+   * Appends an update to the end of the stream
+   *
+   * @param frame The encoded envelope
+   * @throws IOException if the stream could not be written
+   */
+  void append(byte[] frame) throws IOException;
+
+  /**
+   * Reads records in order, starting after an offset
+   *
+   * @param after Offset of the last record already read, or null to read from the start
+   * @param count Maximum number of records to read
+   * @return Up to count records, empty once the end is reached
+   * @throws IOException if the stream could not be read
+   */
+  List<StreamRecord> read(@Nullable String after, int count) throws IOException;
+
+  /**
+   * Gets the offset of the newest record
+   *
+   * @return The latest offset, or null if the stream is empty
+   * @throws IOException if the stream could not be read
+   */
+  @Nullable
+  String getTail() throws IOException;
+
+  /**
+   * Checks that no record after an offset has been trimmed yet
+   *
+   * @param after Offset of the last record already read
+   * @return true if every record after the offset can still be read
+   * @throws IOException if the stream could not be read
+   */
+  boolean covers(String after) throws IOException;
+}
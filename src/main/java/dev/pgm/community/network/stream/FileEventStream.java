@@ -0,0 +1,152 @@
+package dev.pgm.community.network.stream;
+
+import com.google.common.collect.Lists;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * FileEventStream - An {@link EventStream} in a local file, for servers without Redis
+ *
+ * <p>Records are appended as offset, length and frame, and the latest are also kept in memory for
+ * reads. The file is rewritten with only the latest records once it holds twice the limit. Only one
+ * process may write to the file.
+ */
+public class FileEventStream implements EventStream {
+
+  private final File file;
+  private final int maxLength;
+  private final Deque<Entry> entries;
+
+  private long lastOffset;
+  private int written; // Records in the file, including trimmed ones
+
+  public FileEventStream(File file, int maxLength) throws IOException {
+    this.file = file;
+    this.maxLength = Math.max(1, maxLength);
+    this.entries = new ArrayDeque<>();
+    load();
+  }
+
+  @Override
+  public synchronized void append(byte[] frame) throws IOException {
+    Entry entry = new Entry(++lastOffset, frame);
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)))) {
+      write(out, entry);
+    }
+    written++;
+    add(entry);
+
+    if (written >= maxLength * 2) {
+      compact();
+    }
+  }
+
+  @Override
+  public synchronized List<StreamRecord> read(@Nullable String after, int count) {
+    final long start = after == null ? 0 : parse(after);
+    List<StreamRecord> records = Lists.newArrayList();
+    for (Entry entry : entries) {
+      if (records.size() >= count) break;
+      if (entry.offset > start) {
+        records.add(new StreamRecord(Long.toString(entry.offset), entry.frame));
+      }
+    }
+    return records;
+  }
+
+  @Override
+  public synchronized String getTail() {
+    return entries.isEmpty() ? null : Long.toString(entries.getLast().offset);
+  }
+
+  // Offsets are consecutive, so nothing is missing unless the next one was trimmed
+  @Override
+  public synchronized boolean covers(String after) {
+    final long offset = parse(after);
+    if (entries.isEmpty()) return offset == lastOffset;
+    return offset >= entries.getFirst().offset - 1 && offset <= lastOffset;
+  }
+
+  private void load() throws IOException {
+    if (!file.exists()) {
+      file.getParentFile().mkdirs();
+      return;
+    }
+
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      while (true) {
+        Entry entry;
+        try {
+          long offset = in.readLong();
+          byte[] frame = new byte[in.readInt()];
+          in.readFully(frame);
+          entry = new Entry(offset, frame);
+        } catch (EOFException e) {
+          break; // End of the file, or a record cut short by a crash
+        }
+        lastOffset = Math.max(lastOffset, entry.offset);
+        written++;
+        add(entry);
+      }
+    }
+    compact(); // Drops a partial record and anything trimmed
+  }
+
+  private void add(Entry entry) {
+    entries.addLast(entry);
+    while (entries.size() > maxLength) {
+      entries.removeFirst();
+    }
+  }
+
+  private void compact() throws IOException {
+    File temp = new File(file.getPath() + ".tmp");
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+      for (Entry entry : entries) {
+        write(out, entry);
+      }
+    }
+    Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    written = entries.size();
+  }
+
+  private static void write(DataOutputStream out, Entry entry) throws IOException {
+    out.writeLong(entry.offset);
+    out.writeInt(entry.frame.length);
+    out.write(entry.frame);
+  }
+
+  private static long parse(String offset) {
+    try {
+      return Long.parseLong(offset);
+    } catch (NumberFormatException e) {
+      return 0; // Offset of another stream type, read everything
+    }
+  }
+
+  private static class Entry {
+    private final long offset;
+    private final byte[] frame;
+
+    private Entry(long offset, byte[] frame) {
+      this.offset = offset;
+      this.frame = frame;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package dev.pgm.community.network.stream;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/** StreamCursor - The offset of the last stream record applied by this server, kept on disk */
+public class StreamCursor {
+
+  private final File file;
+  private final Logger logger;
+  private volatile String offset;
+
+  public StreamCursor(File file, Logger logger) {
+    this.file = file;
+    this.logger = logger;
+    this.offset = load();
+  }
+
+  @Nullable
+  public String getOffset() {
+    return offset;
+  }
+
+  /**
+   * Records an offset as applied, written through to disk
+   *
+   * @param offset The offset of the last applied record
+   */
+  public void save(@Nullable String offset) {
+    if (offset == null || offset.equals(this.offset)) return;
+    this.offset = offset;
+
+    try {
+      file.getParentFile().mkdirs();
+      // Replace atomically, so a crash never leaves a truncated offset behind
+      File temp = new File(file.getPath() + ".tmp");
+      Files.write(temp.toPath(), offset.getBytes(StandardCharsets.UTF_8));
+      Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Could not save stream offset to " + file, e);
+    }
+  }
+
+  private String load() {
+    if (!file.exists()) return null;
+    try {
+      String value = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim();
+      return value.isEmpty() ? null : value;
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Could not read stream offset from " + file, e);
+      return null;
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package dev.pgm.community.network.stream;
+
+/** StreamRecord - An encoded update read back from an {@link EventStream} */
+public class StreamRecord {
+
+  private final String offset;
+  private final byte[] frame;
+
+  public StreamRecord(String offset, byte[] frame) {
+    this.offset = offset;
+    this.frame = frame;
+  }
+
+  /** @return Position of the record, later records have greater offsets */
+  public String getOffset() {
+    return offset;
+  }
+
+  /** @return The encoded {@link dev.pgm.community.network.NetworkEnvelope} */
+  public byte[] getFrame() {
+    return frame;
+  }
+}
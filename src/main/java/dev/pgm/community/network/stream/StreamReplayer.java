@@ -0,0 +1,159 @@
+package dev.pgm.community.network.stream;
+
+import dev.pgm.community.Community;
+import dev.pgm.community.network.subs.NetworkDispatcher;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * StreamReplayer - Catches a server up on the updates published while it was offline
+ *
+ * <p>On startup, every record after the saved cursor is passed to the subscribers' replay handlers.
+ * While running, updates arrive live, so the cursor is moved to the tail of the stream once a
+ * {@link #CHECKPOINT_INTERVAL} has passed since it was read. After a crash, at most the last two
+ * intervals are replayed again, which replay handlers must tolerate.
+ *
+ * <p>The cursor only moves once the startup replay has finished, so a replay cut short resumes
+ * where it stopped. If records after the cursor were trimmed, the rest is still replayed but the
+ * result tells listeners that updates were missed.
+ */
+public class StreamReplayer {
+
+  private static final int PAGE_SIZE = 500;
+  private static final Duration CHECKPOINT_INTERVAL = Duration.ofMinutes(1);
+
+  private final EventStream stream;
+  private final StreamCursor cursor;
+  private final NetworkDispatcher dispatcher;
+  private final Logger logger;
+  private final CompletableFuture<String> result;
+  private final Consumer<String> checkpoints;
+
+  private volatile boolean replayed;
+  private volatile String pendingTail;
+  private BukkitTask task;
+
+  /**
+   * Creates a replayer, call {@link #start()} once every subscriber has been registered
+   *
+   * @param stream The shared update stream
+   * @param cursor This server's position in the stream
+   * @param dispatcher Dispatcher passing records to replay handlers
+   * @param logger Logger
+   * @param result Completed with the offset replay started after, or null if updates were missed
+   * @param checkpoints Called with each offset saved after the replay, every update up to it has
+   *     been applied
+   */
+  public StreamReplayer(
+      EventStream stream,
+      StreamCursor cursor,
+      NetworkDispatcher dispatcher,
+      Logger logger,
+      CompletableFuture<String> result,
+      Consumer<String> checkpoints) {
+    this.stream = stream;
+    this.cursor = cursor;
+    this.dispatcher = dispatcher;
+    this.logger = logger;
+    this.result = result;
+    this.checkpoints = checkpoints;
+  }
+
+  /** Replays missed updates off the main thread, then starts checkpointing */
+  public void start() {
+    Community.get().getExecutors().io().execute(this::replay);
+
+    long ticks = CHECKPOINT_INTERVAL.getSeconds() * 20;
+    this.task =
+        Community.get()
+            .getServer()
+            .getScheduler()
+            .runTaskTimerAsynchronously(Community.get(), this::checkpoint, ticks, ticks);
+  }
+
+  /** Stops checkpointing, moving the cursor to the tail as every update so far was received */
+  public void stop() {
+    if (task != null) {
+      task.cancel();
+      task = null;
+    }
+    result.complete(null); // Stopped before the replay finished
+    if (!replayed) return;
+    try {
+      save(stream.getTail());
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Could not save the position in the update stream", e);
+    }
+  }
+
+  private void replay() {
+    try {
+      final String start = cursor.getOffset();
+      if (start == null) {
+        // First start, the database is the source of truth for everything before now
+        cursor.save(stream.getTail());
+        finish(null, null);
+        return;
+      }
+
+      final boolean covered = stream.covers(start);
+      if (!covered) {
+        logger.warning("Updates after this server's position in the stream were already trimmed");
+      }
+
+      String offset = start;
+      int count = 0;
+      List<StreamRecord> page;
+      do {
+        page = stream.read(offset, PAGE_SIZE);
+        for (StreamRecord record : page) {
+          dispatcher.replay(record.getFrame());
+          offset = record.getOffset();
+          count++;
+        }
+        cursor.save(offset);
+      } while (page.size() == PAGE_SIZE);
+
+      if (count > 0) {
+        logger.info("Replayed " + count + " network updates missed while offline");
+      }
+      finish(covered ? start : null, offset);
+    } catch (IOException | RuntimeException e) {
+      // The cursor stays where the replay stopped, so the next start picks it up again
+      logger.log(Level.WARNING, "Could not replay missed network updates", e);
+      result.complete(null);
+    }
+  }
+
+  private void finish(@Nullable String start, @Nullable String offset) {
+    replayed = true;
+    result.complete(start);
+    if (offset != null) {
+      checkpoints.accept(offset);
+    }
+  }
+
+  // Saves the tail read one interval ago, every update up to it has had time to arrive live
+  private void checkpoint() {
+    if (!replayed) return;
+    try {
+      save(pendingTail);
+      pendingTail = stream.getTail();
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Could not read the tail of the update stream", e);
+    }
+  }
+
+  private void save(String offset) {
+    if (offset == null) return;
+    cursor.save(offset);
+    checkpoints.accept(offset);
+  }
+}
@@ -0,0 +1,105 @@
+package dev.pgm.community.network.subs;
+
+import dev.pgm.community.network.NetworkEnvelope;
+import dev.pgm.community.network.metrics.NetworkMetrics;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * NetworkDispatcher - Routes messages from a shared subscription to the subscribers of each channel
+ *
+ * <p>Subscribers may register at any time, lookups never lock so dispatching is not held up by
+ * registration. Each message is decoded once, no matter how many subscribers receive it. Traffic,
+ * decode and handler times are recorded to the {@link NetworkMetrics}.
+ */
+public class NetworkDispatcher {
+
+  private final Map<String, List<NetworkSubscriber<?>>> routes;
+  private final Logger logger;
+  private final NetworkMetrics metrics;
+
+  public NetworkDispatcher(Logger logger, NetworkMetrics metrics) {
+    this.routes = new ConcurrentHashMap<>();
+    this.logger = logger;
+    this.metrics = metrics;
+  }
+
+  public void register(NetworkSubscriber<?> sub) {
+    routes.computeIfAbsent(sub.getChannel(), channel -> new CopyOnWriteArrayList<>()).add(sub);
+  }
+
+  /**
+   * Passes a message to every subscriber of its channel, a failing subscriber does not affect
+   * others
+   *
+   * @param channel Channel the message was published to
+   * @param message The encoded {@link NetworkEnvelope}
+   */
+  public void dispatch(String channel, byte[] message) {
+    List<NetworkSubscriber<?>> subs = routes.get(channel);
+    if (subs == null) return;
+    metrics.onReceive(channel, message.length);
+
+    final long start = System.nanoTime();
+    NetworkEnvelope envelope = decode(channel, message);
+    if (envelope == null) {
+      metrics.onMalformed(channel);
+      return;
+    }
+    metrics.onDecode(channel, System.nanoTime() - start);
+
+    if (!channel.equals(envelope.getChannel())) {
+      metrics.onMalformed(channel);
+      logger.warning("Dropped network update of " + envelope.getChannel() + " sent on " + channel);
+      return;
+    }
+    metrics.onDelivered(channel, envelope.getOrigin(), envelope.getTimestamp());
+
+    for (NetworkSubscriber<?> sub : subs) {
+      final long handled = System.nanoTime();
+      try {
+        sub.onMessage(envelope);
+      } catch (RuntimeException e) {
+        metrics.onHandlerError(channel);
+        logger.log(Level.WARNING, "Failed to handle network update on " + channel, e);
+      } finally {
+        metrics.onHandled(channel, sub.getClass().getSimpleName(), System.nanoTime() - handled);
+      }
+    }
+  }
+
+  /**
+   * Passes an update read back from an event stream to every subscriber of its channel
+   *
+   * @param message The encoded {@link NetworkEnvelope}
+   */
+  public void replay(byte[] message) {
+    NetworkEnvelope envelope = decode("stream", message);
+    if (envelope == null) return;
+
+    List<NetworkSubscriber<?>> subs = routes.get(envelope.getChannel());
+    if (subs == null) return;
+
+    for (NetworkSubscriber<?> sub : subs) {
+      try {
+        sub.onReplay(envelope);
+      } catch (RuntimeException e) {
+        logger.log(Level.WARNING, "Failed to replay network update on " + envelope.getChannel(), e);
+      }
+    }
+  }
+
+  private NetworkEnvelope decode(String channel, byte[] message) {
+    try {
+      return NetworkEnvelope.decode(message);
+    } catch (IOException | RuntimeException e) {
+      logger.warning("Dropped malformed network update on " + channel + ": " + e.getMessage());
+      return null;
+    }
+  }
+}
@@ -1,21 +1,23 @@
 package dev.pgm.community.network.subs;
 
-import com.google.gson.Gson;
+import dev.pgm.community.network.NetworkEnvelope;
 import java.util.logging.Logger;
-import redis.clients.jedis.JedisPubSub;
 
-public abstract class NetworkSubscriber extends JedisPubSub {
+/**
+ * NetworkSubscriber - Consumes updates published to a single channel
+ *
+ * @param <T> Item type of the channel
+ */
+public abstract class NetworkSubscriber<T> {
 
   private String channel;
   private String networkId;
   protected Logger logger;
-  protected Gson gson;
 
   public NetworkSubscriber(String channel, String networkId, Logger logger) {
     this.channel = channel;
     this.networkId = networkId;
     this.logger = logger;
-    this.gson = new Gson();
   }
 
   public String getNetworkId() {
@@ -26,20 +28,27 @@ public abstract class NetworkSubscriber extends JedisPubSub {
     return channel;
   }
 
-  public abstract void onReceiveUpdate(String data);
-
-  @Override
-  public void onMessage(String channel, String msg) {
-    if (channel.equalsIgnoreCase(getChannel())) {
-      // Data format -> 'networkId;message'
-      String[] parts = msg.split(";");
-      if (parts.length == 2) {
-        String id = parts[0];
-        String data = parts[1];
-        if (!getNetworkId().equalsIgnoreCase(id)) {
-          this.onReceiveUpdate(data);
-        }
-      }
+  public abstract void onReceiveUpdate(T data);
+
+  /**
+   * Called by the {@link NetworkDispatcher} for every update published to this channel
+   *
+   * @param envelope The decoded update, its payload type is the one registered for the channel
+   */
+  @SuppressWarnings("unchecked")
+  public void onMessage(NetworkEnvelope envelope) {
+    if (!getNetworkId().equalsIgnoreCase(envelope.getOrigin())) {
+      this.onReceiveUpdate((T) envelope.getPayload());
     }
   }
+
+  /**
+   * Called for updates published while this server was offline, read back from the event stream
+   *
+   * <p>Updates sent by this server are included, as its own state was lost too. Nothing is replayed
+   * unless overridden.
+   *
+   * @param envelope The decoded update
+   */
+  public void onReplay(NetworkEnvelope envelope) {}
 }
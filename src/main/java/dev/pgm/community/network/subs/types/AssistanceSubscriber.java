@@ -7,7 +7,7 @@ import dev.pgm.community.network.subs.NetworkSubscriber;
 import java.util.logging.Logger;
 
 /** AssistanceSubscriber - Listens for {@link AssistanceRequest} */
-public class AssistanceSubscriber extends NetworkSubscriber {
+public class AssistanceSubscriber extends NetworkSubscriber<AssistanceRequest> {
 
   private AssistanceFeature assist;
 
@@ -17,10 +17,7 @@ public class AssistanceSubscriber extends NetworkSubscriber {
   }
 
   @Override
-  public void onReceiveUpdate(String data) {
-    AssistanceRequest request = gson.fromJson(data, AssistanceRequest.class);
-    if (request != null) {
-      assist.recieveUpdate(request);
-    }
+  public void onReceiveUpdate(AssistanceRequest request) {
+    assist.recieveUpdate(request);
   }
 }
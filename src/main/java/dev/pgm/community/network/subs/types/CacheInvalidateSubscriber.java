@@ -0,0 +1,23 @@
+package dev.pgm.community.network.subs.types;
+
+import dev.pgm.community.network.Channels;
+import dev.pgm.community.network.cache.CacheKey;
+import dev.pgm.community.network.cache.InvalidationBus;
+import dev.pgm.community.network.subs.NetworkSubscriber;
+import java.util.logging.Logger;
+
+/** CacheInvalidateSubscriber - Passes invalidations from other servers to the local bus */
+public class CacheInvalidateSubscriber extends NetworkSubscriber<CacheKey> {
+
+  private final InvalidationBus bus;
+
+  public CacheInvalidateSubscriber(InvalidationBus bus, String networkId, Logger logger) {
+    super(Channels.CACHE_INVALIDATE, networkId, logger);
+    this.bus = bus;
+  }
+
+  @Override
+  public void onReceiveUpdate(CacheKey key) {
+    bus.onInvalidate(key);
+  }
+}
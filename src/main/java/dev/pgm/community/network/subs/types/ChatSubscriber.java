@@ -1,13 +1,13 @@
 package dev.pgm.community.network.subs.types;
 
+import dev.pgm.community.chat.network.NetworkChatBatch;
 import dev.pgm.community.chat.network.NetworkChatFeature;
-import dev.pgm.community.chat.network.NetworkChatMessage;
 import dev.pgm.community.network.Channels;
 import dev.pgm.community.network.subs.NetworkSubscriber;
 import java.util.logging.Logger;
 
-/** ChatSubscriber - Listens for {@link NetworkChatMessage} */
-public class ChatSubscriber extends NetworkSubscriber {
+/** ChatSubscriber - Listens for {@link NetworkChatBatch} */
+public class ChatSubscriber extends NetworkSubscriber<NetworkChatBatch> {
 
   private NetworkChatFeature chat;
 
@@ -17,10 +17,7 @@ public class ChatSubscriber extends NetworkSubscriber {
   }
 
   @Override
-  public void onReceiveUpdate(String data) {
-    NetworkChatMessage message = gson.fromJson(data, NetworkChatMessage.class);
-    if (message != null) {
-      chat.recieveUpdate(message);
-    }
+  public void onReceiveUpdate(NetworkChatBatch batch) {
+    chat.recieveUpdate(batch);
   }
 }
@@ -0,0 +1,23 @@
+package dev.pgm.community.network.subs.types;
+
+import dev.pgm.community.network.Channels;
+import dev.pgm.community.network.presence.PresenceMessage;
+import dev.pgm.community.network.presence.PresenceRegistry;
+import dev.pgm.community.network.subs.NetworkSubscriber;
+import java.util.logging.Logger;
+
+/** PresenceSubscriber - Applies the presence changes of other servers */
+public class PresenceSubscriber extends NetworkSubscriber<PresenceMessage> {
+
+  private final PresenceRegistry registry;
+
+  public PresenceSubscriber(PresenceRegistry registry, String networkId, Logger logger) {
+    super(Channels.PRESENCE, networkId, logger);
+    this.registry = registry;
+  }
+
+  @Override
+  public void onReceiveUpdate(PresenceMessage message) {
+    registry.receive(message);
+  }
+}
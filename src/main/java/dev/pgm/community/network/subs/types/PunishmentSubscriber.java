@@ -3,11 +3,12 @@ package dev.pgm.community.network.subs.types;
 import dev.pgm.community.moderation.feature.ModerationFeature;
 import dev.pgm.community.moderation.punishments.NetworkPunishment;
 import dev.pgm.community.network.Channels;
+import dev.pgm.community.network.NetworkEnvelope;
 import dev.pgm.community.network.subs.NetworkSubscriber;
 import java.util.logging.Logger;
 
 /** PunishmentSubscriber - Listens for {@link NetworkPunishment} */
-public class PunishmentSubscriber extends NetworkSubscriber {
+public class PunishmentSubscriber extends NetworkSubscriber<NetworkPunishment> {
 
   private ModerationFeature moderation;
 
@@ -17,10 +18,12 @@ public class PunishmentSubscriber extends NetworkSubscriber {
   }
 
   @Override
-  public void onReceiveUpdate(String data) {
-    NetworkPunishment punishment = gson.fromJson(data, NetworkPunishment.class);
-    if (punishment != null) {
-      moderation.recieveUpdate(punishment);
-    }
+  public void onReceiveUpdate(NetworkPunishment punishment) {
+    moderation.recieveUpdate(punishment);
+  }
+
+  @Override
+  public void onReplay(NetworkEnvelope envelope) {
+    moderation.replayUpdate((NetworkPunishment) envelope.getPayload());
   }
 }
@@ -2,12 +2,13 @@ package dev.pgm.community.network.subs.types;
 
 import dev.pgm.community.moderation.feature.ModerationFeature;
 import dev.pgm.community.network.Channels;
+import dev.pgm.community.network.NetworkEnvelope;
 import dev.pgm.community.network.subs.NetworkSubscriber;
 import java.util.UUID;
 import java.util.logging.Logger;
 
 /** RefreshPunishmentSubscriber - Invalidates punishment cache for unbans/unmutes */
-public class RefreshPunishmentSubscriber extends NetworkSubscriber {
+public class RefreshPunishmentSubscriber extends NetworkSubscriber<UUID> {
 
   private ModerationFeature moderation;
 
@@ -18,15 +19,13 @@ public class RefreshPunishmentSubscriber extends NetworkSubscriber {
   }
 
   @Override
-  public void onReceiveUpdate(String data) {
-    try {
-      UUID playerId = UUID.fromString(data);
-      moderation.recieveRefresh(playerId);
-      logger.info(String.format("Refreshed punishment data for %s", data));
-    } catch (IllegalArgumentException e) {
-      logger.warning(
-          String.format(
-              "Invalid UUID (%s) recieved for message channel (%s)", Channels.PUNISHMENTS, data));
-    }
+  public void onReceiveUpdate(UUID playerId) {
+    moderation.recieveRefresh(playerId);
+    logger.info(String.format("Refreshed punishment data for %s", playerId));
+  }
+
+  @Override
+  public void onReplay(NetworkEnvelope envelope) {
+    moderation.recieveRefresh((UUID) envelope.getPayload());
   }
 }
@@ -0,0 +1,215 @@
+package dev.pgm.community.network.types;
+
+import dev.pgm.community.network.NetworkEnvelope;
+import dev.pgm.community.network.cache.InvalidationBus;
+import dev.pgm.community.network.cache.SharedCaches;
+import dev.pgm.community.network.feature.NetworkFeatureBase;
+import dev.pgm.community.network.local.LocalNetwork;
+import dev.pgm.community.network.stream.EventStream;
+import dev.pgm.community.network.stream.FileEventStream;
+import dev.pgm.community.network.stream.StreamReplayer;
+import dev.pgm.community.network.subs.NetworkDispatcher;
+import dev.pgm.community.network.subs.NetworkSubscriber;
+import dev.pgm.community.network.subs.types.CacheInvalidateSubscriber;
+import dev.pgm.community.network.updates.NetworkUpdate;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import org.bukkit.configuration.Configuration;
+
+/**
+ * LocalNetworkFeature - NetworkFeature over a {@link LocalNetwork}, for testing without Redis
+ *
+ * <p>Updates are framed exactly as they are for Redis, so codecs and subscribers are exercised the
+ * same way. Replayable updates are appended to the stream file by a dedicated writer thread, in the
+ * order they were sent, so the sender never waits on the disk.
+ */
+public class LocalNetworkFeature extends NetworkFeatureBase {
+
+  private LocalNetwork network;
+  private boolean ownsNetwork;
+  private @Nullable String networkId;
+
+  private final NetworkDispatcher dispatcher;
+  private final InvalidationBus invalidations;
+  private final SharedCaches sharedCaches;
+
+  private @Nullable EventStream stream;
+  private @Nullable ExecutorService streamWriter;
+  private StreamReplayer replayer;
+
+  private AtomicLong sequence;
+  private boolean connected;
+  private boolean subscribed;
+
+  /** Creates a server on its own local network, configured by the network config section */
+  public LocalNetworkFeature(Configuration config, Logger logger) {
+    super(config, logger, "Network (Local)");
+    this.dispatcher = new NetworkDispatcher(logger, getMetrics());
+    this.invalidations = new InvalidationBus(this, logger);
+    this.network =
+        new LocalNetwork(
+            getNetworkConfig().getLocalLatency(),
+            getNetworkConfig().getLocalJitter(),
+            getNetworkConfig().getLocalLoss(),
+            getNetworkConfig().getCacheTTL());
+    this.ownsNetwork = true;
+    this.sharedCaches = createSharedCaches();
+    if (getNetworkConfig().isStreamEnabled()) {
+      try {
+        this.stream =
+            new FileEventStream(
+                new File(getStreamFolder(), "updates.log"),
+                getNetworkConfig().getStreamMaxLength());
+      } catch (IOException e) {
+        logger.log(Level.WARNING, "Could not open the local update stream", e);
+      }
+    }
+    if (isEnabled()) {
+      connect();
+    }
+  }
+
+  /**
+   * Creates one of several servers sharing a local network, call {@link #connect()} to join it
+   *
+   * @param config Plugin config
+   * @param logger Logger
+   * @param network The shared local network
+   * @param networkId Network id of this server
+   */
+  public LocalNetworkFeature(
+      Configuration config, Logger logger, LocalNetwork network, String networkId) {
+    super(config, logger, "Network (Local)");
+    this.dispatcher = new NetworkDispatcher(logger, getMetrics());
+    this.invalidations = new InvalidationBus(this, logger);
+    this.network = network;
+    this.networkId = networkId;
+    this.sharedCaches = createSharedCaches();
+  }
+
+  private SharedCaches createSharedCaches() {
+    return new SharedCaches(
+        invalidations, getNetworkConfig().isCacheEnabled() ? network.getStore() : null, logger);
+  }
+
+  // Subscribers may register before or after joining the network
+  public void registerSubscriber(NetworkSubscriber<?> sub) {
+    dispatcher.register(sub);
+  }
+
+  @Override
+  public void enable() {
+    super.enable();
+    // Null while the constructor has not run yet, it connects afterwards
+    if (network != null) {
+      connect();
+    }
+  }
+
+  /** Joins the local network, without registering listeners like {@link #enable()} */
+  public void connect() {
+    if (connected) return;
+    setEnabled(true);
+    if (sequence == null) {
+      sequence = new AtomicLong();
+    }
+    if (!subscribed) {
+      registerSubscriber(new CacheInvalidateSubscriber(invalidations, getNetworkId(), logger));
+      subscribed = true;
+    }
+    if (stream != null && (streamWriter == null || streamWriter.isShutdown())) {
+      streamWriter =
+          Executors.newSingleThreadExecutor(
+              runnable -> {
+                Thread thread = new Thread(runnable, "Community Local Stream");
+                thread.setDaemon(true);
+                return thread;
+              });
+    }
+    network.join(dispatcher);
+    connected = true;
+  }
+
+  @Override
+  public void replay() {
+    if (replayer != null) return;
+    replayer = createReplayer(connected ? stream : null, dispatcher);
+    if (replayer != null) {
+      replayer.start();
+    }
+  }
+
+  @Override
+  public void disable() {
+    super.disable();
+    if (replayer != null) {
+      replayer.stop();
+      replayer = null;
+    }
+    connected = false;
+    // Finish the appends already queued
+    if (streamWriter != null) {
+      streamWriter.shutdown();
+      try {
+        streamWriter.awaitTermination(2, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    if (network != null) {
+      network.leave(dispatcher);
+      if (ownsNetwork) {
+        network.close();
+      }
+    }
+  }
+
+  public LocalNetwork getNetwork() {
+    return network;
+  }
+
+  @Override
+  public String getNetworkId() {
+    return networkId != null ? networkId : super.getNetworkId();
+  }
+
+  @Override
+  public void sendUpdate(NetworkUpdate<?> update) {
+    if (!connected) return;
+    try {
+      byte[] frame = NetworkEnvelope.encode(getNetworkId(), sequence.incrementAndGet(), update);
+      network.publish(update.getChannel(), frame);
+      getMetrics().onPublish(update.getChannel(), frame.length);
+      if (streamWriter != null && update.isReplayable()) {
+        streamWriter.execute(() -> append(frame));
+      }
+    } catch (IOException | RuntimeException e) {
+      logger.log(Level.WARNING, "Could not send update for " + update.getChannel(), e);
+    }
+  }
+
+  private void append(byte[] frame) {
+    try {
+      stream.append(frame);
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Could not append an update to the local stream", e);
+    }
+  }
+
+  @Override
+  public SharedCaches getSharedCaches() {
+    return sharedCaches;
+  }
+
+  @Override
+  public InvalidationBus getInvalidations() {
+    return invalidations;
+  }
+}
@@ -0,0 +1,120 @@
+package dev.pgm.community.network.types;
+
+import com.google.common.collect.Lists;
+import dev.pgm.community.network.stream.EventStream;
+import dev.pgm.community.network.stream.StreamRecord;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.PipelineBase;
+import redis.clients.jedis.StreamEntry;
+import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * RedisEventStream - An {@link EventStream} backed by a Redis stream
+ *
+ * <p>Offsets are the ids Redis assigns to each entry. The stream is capped with an approximate
+ * MAXLEN, which lets Redis trim whole nodes at once.
+ */
+public class RedisEventStream implements EventStream {
+
+  private static final String FRAME = "frame";
+
+  private final JedisPool pool;
+  private final String key;
+  private final int maxLength;
+
+  public RedisEventStream(JedisPool pool, String name, int maxLength) {
+    this.pool = pool;
+    this.key = "community_stream:" + name;
+    this.maxLength = Math.max(1, maxLength);
+  }
+
+  @Override
+  public void append(byte[] frame) throws IOException {
+    try (Jedis jedis = pool.getResource()) {
+      jedis.xadd(key, StreamEntryID.NEW_ENTRY, toFields(frame), maxLength, true);
+    } catch (JedisException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * Appends an update as part of a pipeline, so it costs no extra round trip
+   *
+   * @param pipeline The pipeline publishing the update
+   * @param frame The encoded envelope
+   */
+  public void append(PipelineBase pipeline, byte[] frame) {
+    pipeline.xadd(key, StreamEntryID.NEW_ENTRY, toFields(frame), maxLength, true);
+  }
+
+  @Override
+  public List<StreamRecord> read(@Nullable String after, int count) throws IOException {
+    try (Jedis jedis = pool.getResource()) {
+      List<StreamEntry> entries = jedis.xrange(key, next(after), null, count);
+      List<StreamRecord> records = Lists.newArrayListWithCapacity(entries.size());
+      for (StreamEntry entry : entries) {
+        String frame = entry.getFields().get(FRAME);
+        if (frame == null) continue;
+        records.add(new StreamRecord(entry.getID().toString(), Base64.getDecoder().decode(frame)));
+      }
+      return records;
+    } catch (JedisException | IllegalArgumentException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  public String getTail() throws IOException {
+    try (Jedis jedis = pool.getResource()) {
+      List<StreamEntry> entries = jedis.xrevrange(key, null, null, 1);
+      return entries.isEmpty() ? null : entries.get(0).getID().toString();
+    } catch (JedisException e) {
+      throw new IOException(e);
+    }
+  }
+
+  // Ids are not consecutive, so the offset itself must still be held. Trimming whole nodes keeps
+  // more than the limit, which makes this rarely report a gap that is not there.
+  @Override
+  public boolean covers(String after) throws IOException {
+    final StreamEntryID offset;
+    try {
+      offset = new StreamEntryID(after);
+    } catch (RuntimeException e) {
+      return false; // Offset of another stream type
+    }
+
+    try (Jedis jedis = pool.getResource()) {
+      List<StreamEntry> entries = jedis.xrange(key, null, null, 1);
+      if (entries.isEmpty()) return false; // Deleted since the offset was read
+      StreamEntryID head = entries.get(0).getID();
+      return offset.getTime() > head.getTime()
+          || (offset.getTime() == head.getTime() && offset.getSequence() >= head.getSequence());
+    } catch (JedisException e) {
+      throw new IOException(e);
+    }
+  }
+
+  private static Map<String, String> toFields(byte[] frame) {
+    return Collections.singletonMap(FRAME, Base64.getEncoder().encodeToString(frame));
+  }
+
+  // XRANGE is inclusive, so start just past the last id read
+  private static StreamEntryID next(@Nullable String after) {
+    if (after == null) return null;
+    try {
+      StreamEntryID id = new StreamEntryID(after);
+      return new StreamEntryID(id.getTime(), id.getSequence() + 1);
+    } catch (RuntimeException e) {
+      return null; // Offset of another stream type, read everything
+    }
+  }
+}
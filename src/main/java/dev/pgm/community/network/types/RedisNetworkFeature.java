@@ -1,11 +1,13 @@
 package dev.pgm.community.network.types;
 
-import com.google.common.collect.Sets;
-import dev.pgm.community.Community;
+import dev.pgm.community.network.cache.InvalidationBus;
+import dev.pgm.community.network.cache.SharedCaches;
 import dev.pgm.community.network.feature.NetworkFeatureBase;
+import dev.pgm.community.network.stream.StreamReplayer;
+import dev.pgm.community.network.subs.NetworkDispatcher;
 import dev.pgm.community.network.subs.NetworkSubscriber;
+import dev.pgm.community.network.subs.types.CacheInvalidateSubscriber;
 import dev.pgm.community.network.updates.NetworkUpdate;
-import java.util.Set;
 import java.util.logging.Logger;
 import org.bukkit.configuration.Configuration;
 import redis.clients.jedis.Jedis;
@@ -19,20 +21,46 @@ public class RedisNetworkFeature extends NetworkFeatureBase {
 
   private JedisPool pool;
 
-  private Set<NetworkSubscriber> subscribers;
+  private final NetworkDispatcher dispatcher;
+
+  private RedisSubscription subscription;
+
+  private RedisPublisher publisher;
+
+  private RedisEventStream stream;
+
+  private StreamReplayer replayer;
+
+  private final InvalidationBus invalidations;
+
+  private final SharedCaches sharedCaches;
 
   public RedisNetworkFeature(Configuration config, Logger logger) {
     super(config, logger, "Network (Redis)");
-    this.subscribers = Sets.newHashSet();
+    this.dispatcher = new NetworkDispatcher(logger, getMetrics());
+    this.invalidations = new InvalidationBus(this, logger);
+    this.sharedCaches = new SharedCaches(invalidations, null, logger);
+    registerSubscriber(new CacheInvalidateSubscriber(invalidations, getNetworkId(), logger));
+    if (isEnabled()) {
+      connect();
+    }
   }
 
-  public void registerSubscriber(NetworkSubscriber sub) {
-    this.subscribers.add(sub);
+  // Subscribers may register before or after the subscription has started
+  public void registerSubscriber(NetworkSubscriber<?> sub) {
+    dispatcher.register(sub);
   }
 
   @Override
   public void enable() {
     super.enable();
+    // Null while the constructor has not run yet, it connects afterwards
+    if (dispatcher != null) {
+      connect();
+    }
+  }
+
+  private void connect() {
     this.pool =
         new JedisPool(
             new JedisPoolConfig(),
@@ -44,13 +72,75 @@ public class RedisNetworkFeature extends NetworkFeatureBase {
 
     testConnection();
 
-    // Delay subscriber so all features can register
-    Community.get().getServer().getScheduler().runTaskLater(Community.get(), this::subscribe, 20l);
+    // Pool is closed if the connection test failed
+    if (!pool.isClosed()) {
+      this.subscription = new RedisSubscription(pool, dispatcher, logger);
+      this.subscription.start();
+      if (getNetworkConfig().isStreamEnabled()) {
+        this.stream =
+            new RedisEventStream(pool, "updates", getNetworkConfig().getStreamMaxLength());
+      }
+      this.publisher =
+          new RedisPublisher(
+              pool,
+              stream,
+              getNetworkId(),
+              getMetrics(),
+              logger,
+              getNetworkConfig().getPublishQueueSize(),
+              getNetworkConfig().getPublishBatchSize());
+      this.publisher.start();
+
+      if (getNetworkConfig().isCacheEnabled()) {
+        sharedCaches.setStore(new RedisSharedStore(pool, getNetworkConfig().getCacheTTL()));
+      }
+    }
+  }
+
+  @Override
+  public SharedCaches getSharedCaches() {
+    return sharedCaches;
+  }
+
+  @Override
+  public InvalidationBus getInvalidations() {
+    return invalidations;
+  }
+
+  @Override
+  public void replay() {
+    if (replayer != null) return;
+    replayer = createReplayer(stream, dispatcher);
+    if (replayer != null) {
+      replayer.start();
+    }
+  }
+
+  /** @return The outbound publisher, null if not connected */
+  public RedisPublisher getPublisher() {
+    return publisher;
   }
 
   @Override
   public void disable() {
     super.disable();
+    if (replayer != null) {
+      replayer.stop();
+      replayer = null;
+    }
+    if (subscription != null) {
+      subscription.stop();
+      subscription = null;
+    }
+    // Flush pending updates before the pool goes away
+    if (publisher != null) {
+      publisher.stop();
+      publisher = null;
+    }
+    // Null while the constructor has not run yet
+    if (sharedCaches != null) {
+      sharedCaches.setStore(null);
+    }
     if (pool != null && !pool.isClosed()) {
       pool.close();
     }
@@ -67,39 +157,9 @@ public class RedisNetworkFeature extends NetworkFeatureBase {
     }
   }
 
-  private void subscribe() {
-    subscribers.forEach(this::asyncSubscribe);
-  }
-
-  private void asyncSubscribe(NetworkSubscriber sub) {
-    Community.get()
-        .getServer()
-        .getScheduler()
-        .runTaskAsynchronously(
-            Community.get(),
-            () -> {
-              try (Jedis jedi = pool.getResource()) {
-                jedi.subscribe(sub, sub.getChannel());
-              }
-            });
-  }
-
   @Override
-  public void sendUpdate(NetworkUpdate update) {
-    if (!isEnabled()) return;
-    Community.get()
-        .getServer()
-        .getScheduler()
-        .runTaskAsynchronously(
-            Community.get(),
-            () -> {
-              if (pool != null) {
-                try (Jedis jedi = pool.getResource()) {
-                  jedi.publish(
-                      update.getChannel(),
-                      String.format("%s;%s", getNetworkConfig().getNetworkId(), update.getData()));
-                }
-              }
-            });
+  public void sendUpdate(NetworkUpdate<?> update) {
+    if (!isEnabled() || publisher == null) return;
+    publisher.publish(update);
   }
 }
@@ -0,0 +1,308 @@
+package dev.pgm.community.network.types;
+
+import com.google.common.collect.ImmutableSet;
+import dev.pgm.community.network.Channels;
+import dev.pgm.community.network.NetworkEnvelope;
+import dev.pgm.community.network.metrics.NetworkMetrics;
+import dev.pgm.community.network.updates.NetworkUpdate;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * RedisPublisher - Sends network updates from one dedicated thread, pipelining each batch
+ *
+ * <p>Updates wait in a queue and are drained together, so a burst of updates costs one round trip
+ * instead of one task and connection each. Updates with a coalesce key replace a pending update
+ * with the same key, and new updates are dropped once the queue holds its limit. Punishments do not
+ * count towards the limit and are never dropped, so a chat flood can not hold them back. Replayable
+ * updates are also appended to the event stream within the same pipeline.
+ */
+public class RedisPublisher implements Runnable {
+
+  private static final long MAX_BACKOFF = TimeUnit.SECONDS.toMillis(5);
+
+  // Channels always queued, whatever the limit
+  private static final Set<String> RESERVED =
+      ImmutableSet.of(Channels.PUNISHMENTS, Channels.PUNISHMENT_UPDATE);
+
+  private final JedisPool pool;
+  private final @Nullable RedisEventStream stream;
+  private final String networkId;
+  private final NetworkMetrics metrics;
+  private final Logger logger;
+  private final int maxBatch;
+  private final int maxQueue;
+
+  private final BlockingQueue<Pending> queue;
+  private final AtomicInteger limited; // Queued updates which count towards the limit
+  private final Map<String, Pending> coalescing; // Guarded by itself
+  private final AtomicLong sequence;
+  private volatile boolean running;
+  private Thread thread;
+
+  private final AtomicLong published;
+  private final AtomicLong batches;
+  private final AtomicLong coalesced;
+  private final AtomicLong dropped;
+  private final AtomicLong failures;
+  private final AtomicLong totalLatencyNanos;
+  private volatile long maxLatencyNanos;
+
+  public RedisPublisher(
+      JedisPool pool,
+      @Nullable RedisEventStream stream,
+      String networkId,
+      NetworkMetrics metrics,
+      Logger logger,
+      int maxQueue,
+      int maxBatch) {
+    this.pool = pool;
+    this.stream = stream;
+    this.networkId = networkId;
+    this.metrics = metrics;
+    this.logger = logger;
+    this.maxBatch = Math.max(1, maxBatch);
+    this.maxQueue = Math.max(1, maxQueue);
+    this.queue = new LinkedBlockingQueue<>();
+    this.limited = new AtomicInteger();
+    this.coalescing = new HashMap<>();
+    this.sequence = new AtomicLong();
+
+    this.published = new AtomicLong();
+    this.batches = new AtomicLong();
+    this.coalesced = new AtomicLong();
+    this.dropped = new AtomicLong();
+    this.failures = new AtomicLong();
+    this.totalLatencyNanos = new AtomicLong();
+  }
+
+  public void start() {
+    if (running) return;
+    running = true;
+    thread = new Thread(this, "Community Redis Publisher");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /** Stops the sender thread, giving it a moment to send what is left in the queue */
+  public void stop() {
+    running = false;
+    if (thread == null) return;
+    thread.interrupt();
+    try {
+      thread.join(TimeUnit.SECONDS.toMillis(2));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Queues an update to be published
+   *
+   * @param update The network update
+   */
+  public void publish(NetworkUpdate<?> update) {
+    if (!running) return;
+
+    final String key =
+        update.getCoalesceKey() != null
+            ? update.getChannel() + ":" + update.getCoalesceKey()
+            : null;
+    final boolean reserved = RESERVED.contains(update.getChannel());
+
+    // Queued and registered together, so the sender never sees one without the other
+    synchronized (coalescing) {
+      if (key != null) {
+        Pending existing = coalescing.get(key);
+        if (existing != null && existing.replace(update)) {
+          coalesced.incrementAndGet();
+          return;
+        }
+      }
+
+      if (!reserved && limited.incrementAndGet() > maxQueue) {
+        limited.decrementAndGet();
+        if (dropped.incrementAndGet() % 100 == 1) {
+          logger.warning("- REDIS: Publish queue is full, dropped " + dropped.get() + " updates");
+        }
+        return;
+      }
+
+      Pending pending = new Pending(update, key, reserved);
+      queue.add(pending);
+      if (key != null) {
+        coalescing.put(key, pending);
+      }
+    }
+  }
+
+  @Override
+  public void run() {
+    long backoff = 0;
+    List<Pending> batch = new ArrayList<>(maxBatch);
+    while (running || !queue.isEmpty()) {
+      try {
+        if (backoff > 0) {
+          Thread.sleep(backoff);
+        }
+        if (batch.isEmpty()) {
+          Pending first = running ? queue.take() : queue.poll();
+          if (first == null) break;
+          batch.add(first);
+          queue.drainTo(batch, maxBatch - 1);
+          for (Pending pending : batch) {
+            if (!pending.reserved) limited.decrementAndGet();
+          }
+        }
+      } catch (InterruptedException e) {
+        if (!running) continue; // Send what is left before exiting
+        break;
+      }
+
+      try {
+        send(batch);
+        batch.clear();
+        backoff = 0;
+      } catch (JedisException e) {
+        // Keep the batch and try again once the connection is back
+        backoff = Math.min(MAX_BACKOFF, Math.max(100, backoff * 2));
+        logger.warning("- REDIS: Failed to publish " + batch.size() + " updates, retrying");
+        if (!running) {
+          failures.addAndGet(batch.size());
+          break;
+        }
+      } catch (RuntimeException e) {
+        // Not a connection problem, retrying would fail the same way
+        failures.addAndGet(batch.size());
+        logger.log(Level.SEVERE, "- REDIS: Dropped " + batch.size() + " updates", e);
+        batch.clear();
+        backoff = 0;
+      }
+    }
+  }
+
+  private void send(List<Pending> batch) {
+    List<Pending> sent = new ArrayList<>(batch.size());
+    try (Jedis jedis = pool.getResource()) {
+      Pipeline pipeline = jedis.pipelined();
+      for (Pending pending : batch) {
+        NetworkUpdate<?> update;
+        synchronized (coalescing) {
+          update = pending.take();
+          if (pending.key != null) {
+            coalescing.remove(pending.key, pending);
+          }
+        }
+        byte[] frame = encode(update);
+        if (frame == null) continue;
+        pipeline.publish(update.getChannel().getBytes(StandardCharsets.UTF_8), frame);
+        if (stream != null && update.isReplayable()) {
+          stream.append(pipeline, frame);
+        }
+        pending.size = frame.length;
+        sent.add(pending);
+      }
+      pipeline.sync();
+    }
+
+    final long now = System.nanoTime();
+    for (Pending pending : sent) {
+      long latency = now - pending.queued;
+      totalLatencyNanos.addAndGet(latency);
+      if (latency > maxLatencyNanos) maxLatencyNanos = latency;
+      metrics.onPublish(pending.update.getChannel(), pending.size);
+    }
+    published.addAndGet(sent.size());
+    batches.incrementAndGet();
+  }
+
+  private byte[] encode(NetworkUpdate<?> update) {
+    try {
+      return NetworkEnvelope.encode(networkId, sequence.incrementAndGet(), update);
+    } catch (IOException | RuntimeException e) {
+      failures.incrementAndGet();
+      logger.log(Level.WARNING, "Could not encode update for " + update.getChannel(), e);
+      return null;
+    }
+  }
+
+  public int getQueueSize() {
+    return queue.size();
+  }
+
+  public long getPublishedCount() {
+    return published.get();
+  }
+
+  /** @return Pipelined round trips to Redis */
+  public long getBatchCount() {
+    return batches.get();
+  }
+
+  public long getCoalescedCount() {
+    return coalesced.get();
+  }
+
+  public long getDroppedCount() {
+    return dropped.get();
+  }
+
+  public long getFailedCount() {
+    return failures.get();
+  }
+
+  /** @return Average time from an update being queued to Redis accepting it */
+  public double getAverageLatencyMillis() {
+    long count = published.get();
+    return count == 0 ? 0 : totalLatencyNanos.get() / (double) count / 1_000_000;
+  }
+
+  public long getMaxLatencyMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos);
+  }
+
+  private static class Pending {
+    private final String key;
+    private final boolean reserved;
+    private final long queued;
+    private NetworkUpdate<?> update;
+    private boolean taken;
+    private int size; // Bytes of the frame once encoded
+
+    private Pending(NetworkUpdate<?> update, String key, boolean reserved) {
+      this.update = update;
+      this.key = key;
+      this.reserved = reserved;
+      this.queued = System.nanoTime();
+    }
+
+    // Replaces the update unless it is already being sent
+    private synchronized boolean replace(NetworkUpdate<?> update) {
+      if (taken) return false;
+      this.update = update;
+      return true;
+    }
+
+    private synchronized NetworkUpdate<?> take() {
+      taken = true;
+      return update;
+    }
+  }
+}
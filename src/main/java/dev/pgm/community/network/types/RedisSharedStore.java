@@ -0,0 +1,74 @@
+package dev.pgm.community.network.types;
+
+import dev.pgm.community.network.cache.SharedStore;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.params.SetParams;
+
+/**
+ * RedisSharedStore - {@link SharedStore} of expiring Redis keys
+ *
+ * <p>A deleted key holds an empty value until the hold ends, encoded values are never empty.
+ */
+public class RedisSharedStore implements SharedStore {
+
+  private static final byte[] TOMBSTONE = new byte[0];
+
+  private final JedisPool pool;
+  private final int ttlSeconds;
+
+  public RedisSharedStore(JedisPool pool, Duration ttl) {
+    this.pool = pool;
+    this.ttlSeconds = (int) Math.max(1, ttl.getSeconds());
+  }
+
+  @Override
+  public byte[] get(String key) {
+    try (Jedis jedis = pool.getResource()) {
+      return value(jedis.get(bytes(key)));
+    }
+  }
+
+  @Override
+  public List<byte[]> getAll(List<String> keys) {
+    byte[][] raw = new byte[keys.size()][];
+    for (int i = 0; i < raw.length; i++) {
+      raw[i] = bytes(keys.get(i));
+    }
+    try (Jedis jedis = pool.getResource()) {
+      List<byte[]> values = new ArrayList<>(jedis.mget(raw));
+      values.replaceAll(RedisSharedStore::value);
+      return values;
+    }
+  }
+
+  @Override
+  public void set(String key, byte[] value, boolean onlyIfAbsent) {
+    SetParams params = SetParams.setParams().ex(ttlSeconds);
+    if (onlyIfAbsent) {
+      params.nx();
+    }
+    try (Jedis jedis = pool.getResource()) {
+      jedis.set(bytes(key), value, params);
+    }
+  }
+
+  @Override
+  public void delete(String key, Duration hold) {
+    try (Jedis jedis = pool.getResource()) {
+      jedis.set(bytes(key), TOMBSTONE, SetParams.setParams().px(Math.max(1, hold.toMillis())));
+    }
+  }
+
+  private static byte[] value(byte[] raw) {
+    return raw == null || raw.length == 0 ? null : raw;
+  }
+
+  private static byte[] bytes(String key) {
+    return key.getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,98 @@
+package dev.pgm.community.network.types;
+
+import dev.pgm.community.network.Channels;
+import dev.pgm.community.network.subs.NetworkDispatcher;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import redis.clients.jedis.BinaryJedisPubSub;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * RedisSubscription - A single pattern subscription to every Community channel
+ *
+ * <p>Runs on one dedicated thread with one pooled connection, handing messages to a {@link
+ * NetworkDispatcher}. A lost connection, or any other failure, is re-established with exponential
+ * backoff, so the thread only ends when stopped.
+ */
+public class RedisSubscription extends BinaryJedisPubSub implements Runnable {
+
+  private static final long MIN_BACKOFF = TimeUnit.SECONDS.toMillis(1);
+  private static final long MAX_BACKOFF = TimeUnit.SECONDS.toMillis(60);
+
+  private static final byte[] PATTERN = Channels.PATTERN.getBytes(StandardCharsets.UTF_8);
+
+  private final JedisPool pool;
+  private final NetworkDispatcher dispatcher;
+  private final Logger logger;
+
+  private volatile boolean running;
+  private volatile long backoff;
+  private Thread thread;
+
+  public RedisSubscription(JedisPool pool, NetworkDispatcher dispatcher, Logger logger) {
+    this.pool = pool;
+    this.dispatcher = dispatcher;
+    this.logger = logger;
+    this.backoff = MIN_BACKOFF;
+  }
+
+  public void start() {
+    if (running) return;
+    running = true;
+    thread = new Thread(this, "Community Redis Subscriber");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  public void stop() {
+    running = false;
+    if (isSubscribed()) {
+      try {
+        punsubscribe();
+      } catch (JedisException e) {
+        // Connection already lost, the thread will exit on its own
+      }
+    }
+    if (thread != null) {
+      thread.interrupt();
+    }
+  }
+
+  @Override
+  public void run() {
+    while (running) {
+      try (Jedis jedis = pool.getResource()) {
+        jedis.psubscribe(this, PATTERN); // Blocks until unsubscribed or disconnected
+      } catch (JedisException e) {
+        if (!running) break;
+        logger.warning("- REDIS: Subscription lost (" + e.getMessage() + ")");
+      } catch (RuntimeException e) {
+        if (!running) break;
+        logger.log(Level.SEVERE, "- REDIS: Subscription failed", e);
+      }
+      if (!running) break;
+
+      logger.info("- REDIS: Resubscribing in " + backoff + "ms");
+      try {
+        Thread.sleep(backoff);
+      } catch (InterruptedException e) {
+        break;
+      }
+      backoff = Math.min(MAX_BACKOFF, backoff * 2);
+    }
+  }
+
+  @Override
+  public void onPSubscribe(byte[] pattern, int subscribedChannels) {
+    backoff = MIN_BACKOFF;
+  }
+
+  @Override
+  public void onPMessage(byte[] pattern, byte[] channel, byte[] message) {
+    dispatcher.dispatch(new String(channel, StandardCharsets.UTF_8), message);
+  }
+}
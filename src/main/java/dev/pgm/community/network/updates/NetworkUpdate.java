@@ -1,8 +1,32 @@
 package dev.pgm.community.network.updates;
 
-public interface NetworkUpdate {
+/**
+ * NetworkUpdate - An item sent to other servers on a channel
+ *
+ * @param <T> Item type, must match the codec registered for the channel
+ */
+public interface NetworkUpdate<T> {
 
   String getChannel();
 
-  String getData();
+  T getItem();
+
+  /**
+   * Updates sharing a coalesce key on the same channel replace each other while waiting to be sent
+   *
+   * @return A key identifying what this update is about, or null to always send it
+   */
+  default String getCoalesceKey() {
+    return null;
+  }
+
+  /**
+   * Replayable updates are also written to the event stream, so servers which were offline can
+   * apply them once back
+   *
+   * @return Whether the update should be replayed
+   */
+  default boolean isReplayable() {
+    return false;
+  }
 }
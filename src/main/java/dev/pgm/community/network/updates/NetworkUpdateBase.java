@@ -1,17 +1,13 @@
 package dev.pgm.community.network.updates;
 
-import com.google.gson.Gson;
-
-public abstract class NetworkUpdateBase<T> implements NetworkUpdate {
+public abstract class NetworkUpdateBase<T> implements NetworkUpdate<T> {
 
   private T item;
   private String channel;
-  private Gson gson;
 
   public NetworkUpdateBase(T item, String channel) {
     this.item = item;
     this.channel = channel;
-    this.gson = new Gson();
   }
 
   @Override
@@ -20,7 +16,7 @@ public abstract class NetworkUpdateBase<T> implements NetworkUpdate {
   }
 
   @Override
-  public String getData() {
-    return gson.toJson(item);
+  public T getItem() {
+    return item;
   }
 }
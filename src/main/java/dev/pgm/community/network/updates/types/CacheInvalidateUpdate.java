@@ -0,0 +1,18 @@
+package dev.pgm.community.network.updates.types;
+
+import dev.pgm.community.network.Channels;
+import dev.pgm.community.network.cache.CacheKey;
+import dev.pgm.community.network.updates.NetworkUpdateBase;
+
+/** CacheInvalidateUpdate - Called when a server changes a cached row */
+public class CacheInvalidateUpdate extends NetworkUpdateBase<CacheKey> {
+
+  public CacheInvalidateUpdate(CacheKey key) {
+    super(key, Channels.CACHE_INVALIDATE);
+  }
+
+  @Override
+  public String getCoalesceKey() {
+    return getItem().toString();
+  }
+}
@@ -1,13 +1,13 @@
 package dev.pgm.community.network.updates.types;
 
-import dev.pgm.community.chat.network.NetworkChatMessage;
+import dev.pgm.community.chat.network.NetworkChatBatch;
 import dev.pgm.community.network.Channels;
 import dev.pgm.community.network.updates.NetworkUpdateBase;
 
-/** ChatUpdate - Relay chat across the network. See {@link MatchPlayerChatEvent} */
-public class ChatUpdate extends NetworkUpdateBase<NetworkChatMessage> {
+/** ChatUpdate - Relay chat across the network. See {@link NetworkChatBatch} */
+public class ChatUpdate extends NetworkUpdateBase<NetworkChatBatch> {
 
-  public ChatUpdate(NetworkChatMessage message) {
-    super(message, Channels.CHAT);
+  public ChatUpdate(NetworkChatBatch batch) {
+    super(batch, Channels.CHAT);
   }
 }
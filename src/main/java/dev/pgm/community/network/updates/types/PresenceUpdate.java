@@ -0,0 +1,19 @@
+package dev.pgm.community.network.updates.types;
+
+import dev.pgm.community.network.Channels;
+import dev.pgm.community.network.presence.PresenceMessage;
+import dev.pgm.community.network.updates.NetworkUpdateBase;
+
+/** PresenceUpdate - Called when players join or quit, and periodically with every player */
+public class PresenceUpdate extends NetworkUpdateBase<PresenceMessage> {
+
+  public PresenceUpdate(PresenceMessage message) {
+    super(message, Channels.PRESENCE);
+  }
+
+  // A newer snapshot replaces one still waiting to be sent
+  @Override
+  public String getCoalesceKey() {
+    return getItem().getType() == PresenceMessage.Type.SNAPSHOT ? getItem().getServer() : null;
+  }
+}
@@ -10,4 +10,9 @@ public class PunishmentUpdate extends NetworkUpdateBase<NetworkPunishment> {
   public PunishmentUpdate(NetworkPunishment punishment) {
     super(punishment, Channels.PUNISHMENTS);
   }
+
+  @Override
+  public boolean isReplayable() {
+    return true;
+  }
 }
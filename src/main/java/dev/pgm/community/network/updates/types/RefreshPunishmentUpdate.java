@@ -1,25 +1,24 @@
 package dev.pgm.community.network.updates.types;
 
 import dev.pgm.community.network.Channels;
-import dev.pgm.community.network.updates.NetworkUpdate;
+import dev.pgm.community.network.updates.NetworkUpdateBase;
 import java.util.UUID;
 
 /** RefreshPunishmentUpdate - Called on ban pardon or unmute */
-public class RefreshPunishmentUpdate implements NetworkUpdate {
-
-  private final UUID playerId;
+public class RefreshPunishmentUpdate extends NetworkUpdateBase<UUID> {
 
   public RefreshPunishmentUpdate(UUID playerId) {
-    this.playerId = playerId;
+    super(playerId, Channels.PUNISHMENT_UPDATE);
   }
 
+  // Only the latest refresh for a player matters
   @Override
-  public String getChannel() {
-    return Channels.PUNISHMENT_UPDATE;
+  public String getCoalesceKey() {
+    return getItem().toString();
   }
 
   @Override
-  public String getData() {
-    return playerId.toString();
+  public boolean isReplayable() {
+    return true;
   }
 }
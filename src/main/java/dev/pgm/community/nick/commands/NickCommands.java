@@ -65,11 +65,13 @@ public class NickCommands extends CommunityCommand {
                           name -> {
                             sendNickStatus(viewer, viewer.getPlayer(), uuid.get(), name);
                             return;
-                          });
+                          },
+                          Community.get().getExecutors().cpu());
                 } else {
                   viewer.sendWarning(formatNotFoundComponent(target));
                 }
-              });
+              },
+              Community.get().getExecutors().cpu());
     } else {
       if (!viewer.isPlayer()) return;
 
@@ -151,7 +153,8 @@ public class NickCommands extends CommunityCommand {
                     TextFormatter.horizontalLineHeading(
                         viewer.getSender(), buttons.build(), NamedTextColor.DARK_AQUA, 250));
               }
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 
   @CommandMethod("confirm <name>")
@@ -172,7 +175,8 @@ public class NickCommands extends CommunityCommand {
                 return;
               }
               setOwnNick(viewer, sender, name);
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 
   @CommandMethod("skin <name>")
@@ -198,17 +202,18 @@ public class NickCommands extends CommunityCommand {
                 return;
               }
               // Run sync
-              Bukkit.getScheduler()
-                  .runTask(
-                      Community.get(),
-                      () -> nicks.getSkinManager().setSkin(viewer.getPlayer(), skin));
+              Community.get()
+                  .getExecutors()
+                  .sync()
+                  .execute(() -> nicks.getSkinManager().setSkin(viewer.getPlayer(), skin));
               viewer.sendMessage(
                   text()
                       .append(text("You have set your custom skin to "))
                       .append(text(name, NamedTextColor.AQUA))
                       .color(NamedTextColor.GRAY)
                       .build());
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 
   // /nick set [name]
@@ -259,7 +264,8 @@ public class NickCommands extends CommunityCommand {
                         .append(text(nick, NamedTextColor.AQUA))
                         .build());
               }
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 
   @CommandMethod("setother <target> <nick>")
@@ -295,7 +301,8 @@ public class NickCommands extends CommunityCommand {
                                                       TextDecoration.BOLD))
                                               .color(NamedTextColor.GRAY)
                                               .build());
-                                    });
+                                    },
+                                    Community.get().getExecutors().cpu());
                           } else {
                             viewer.sendWarning(
                                 text()
@@ -303,12 +310,14 @@ public class NickCommands extends CommunityCommand {
                                     .append(text(target.getIdentifier(), NamedTextColor.AQUA))
                                     .build());
                           }
-                        });
+                        },
+                        Community.get().getExecutors().cpu());
 
               } else {
                 viewer.sendWarning(formatNotFoundComponent(target.getIdentifier()));
               }
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 
   @CommandMethod("clear [target]")
@@ -341,12 +350,15 @@ public class NickCommands extends CommunityCommand {
                                               .color(NamedTextColor.RED)
                                               .build();
                                       viewer.sendWarning(success ? setName : noName);
-                                    });
-                          });
+                                    },
+                                    Community.get().getExecutors().cpu());
+                          },
+                          Community.get().getExecutors().cpu());
                 } else {
                   viewer.sendWarning(formatNotFoundComponent(target.getIdentifier()));
                 }
-              });
+              },
+              Community.get().getExecutors().cpu());
       return;
     }
 
@@ -361,7 +373,8 @@ public class NickCommands extends CommunityCommand {
                   text(
                       success ? "You have reset your nickname" : "You do not have a nickname set",
                       success ? NamedTextColor.GRAY : NamedTextColor.RED));
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 
   @CommandMethod("toggle")
@@ -380,7 +393,8 @@ public class NickCommands extends CommunityCommand {
                                 : text("disabled", NamedTextColor.RED))
                         .append(text(" your nickname."))
                         .color(NamedTextColor.GRAY)
-                        .build()));
+                        .build()),
+            Community.get().getExecutors().cpu());
   }
 
   @ProxiedBy("nicks")
@@ -496,7 +510,8 @@ public class NickCommands extends CommunityCommand {
                       text("Your nickname will be removed once you logout", NamedTextColor.RED));
                 }
               }
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 
   private Component createTextButton(
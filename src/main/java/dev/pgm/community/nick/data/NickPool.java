@@ -0,0 +1,257 @@
+package dev.pgm.community.nick.data;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import dev.pgm.community.Community;
+import dev.pgm.community.utils.WebUtils;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * NickPool - Random nicknames ready to be offered, kept on disk between restarts
+ *
+ * <p>Names are taken from memory, so offering a selection never waits on the web. The pool is
+ * refilled in the background every {@link #REFILL_INTERVAL_TICKS}, with at most {@link
+ * #MAX_CONCURRENT_FETCHES} requests at once, and new names are checked against used nicknames in a
+ * single query. While the pool is empty, names bundled with the plugin are offered instead. They
+ * are checked the same way, a few at a time on each refill, and each checked name is handed out
+ * only once.
+ */
+public class NickPool {
+
+  private static final Pattern VALID_NAME = Pattern.compile("^[a-zA-Z0-9_]{3,16}$");
+
+  private static final int TARGET_SIZE = 128;
+  private static final int MAX_FETCHES = 16;
+  private static final int MAX_CONCURRENT_FETCHES = 4;
+  private static final int SPARE_SIZE = 32;
+  private static final long REFILL_INTERVAL_TICKS = 20 * 30;
+
+  private static final String SEED_RESOURCE = "nicknames.txt";
+
+  private final File file;
+  private final Logger logger;
+  private final Function<Collection<String>, CompletableFuture<Set<String>>> availability;
+
+  // Lowercase name -> name, in the order they were added
+  private final Map<String, String> names;
+  private final List<String> seeds;
+  private final List<String> spare; // Bundled names checked as unused, guarded by names
+
+  private final Semaphore fetches;
+  private final AtomicBoolean refilling;
+  private volatile boolean loaded;
+
+  private BukkitTask task;
+
+  /**
+   * @param file The file the pool is kept in
+   * @param logger The logger
+   * @param availability Gives which of the names are not used as a nickname yet
+   */
+  public NickPool(
+      File file,
+      Logger logger,
+      Function<Collection<String>, CompletableFuture<Set<String>>> availability) {
+    this.file = file;
+    this.logger = logger;
+    this.availability = availability;
+    this.names = Maps.newLinkedHashMap();
+    this.seeds = loadSeeds();
+    this.spare = Lists.newArrayList();
+    this.fetches = new Semaphore(MAX_CONCURRENT_FETCHES);
+    this.refilling = new AtomicBoolean();
+  }
+
+  public void start() {
+    if (task != null) return;
+    this.task =
+        Community.get()
+            .getServer()
+            .getScheduler()
+            .runTaskTimerAsynchronously(Community.get(), this::refill, 20L, REFILL_INTERVAL_TICKS);
+  }
+
+  public void stop() {
+    if (task != null) {
+      task.cancel();
+      task = null;
+    }
+    save();
+  }
+
+  /**
+   * Takes names out of the pool, so they are not offered to anyone else
+   *
+   * @param count The number of names wanted
+   * @return Up to count names, topped up with bundled names when the pool runs low
+   */
+  public List<String> take(int count) {
+    List<String> taken = Lists.newArrayList();
+    synchronized (names) {
+      Iterator<String> iterator = names.values().iterator();
+      while (taken.size() < count && iterator.hasNext()) {
+        taken.add(iterator.next());
+        iterator.remove();
+      }
+      while (taken.size() < count && !spare.isEmpty()) {
+        taken.add(spare.remove(spare.size() - 1));
+      }
+    }
+    return taken;
+  }
+
+  public int size() {
+    synchronized (names) {
+      return names.size();
+    }
+  }
+
+  private void refill() {
+    if (!refilling.compareAndSet(false, true)) return;
+    try {
+      if (!loaded) {
+        List<String> stored = load();
+        if (stored != null) {
+          add(stored.isEmpty() ? seeds : stored);
+          loaded = true; // Only now may the file be overwritten
+        }
+      }
+      refillSpare();
+
+      int missing = Math.min(TARGET_SIZE - size(), MAX_FETCHES);
+      if (missing <= 0) return;
+
+      List<CompletableFuture<String>> requests = Lists.newArrayList();
+      for (int i = 0; i < missing; i++) {
+        fetches.acquireUninterruptibly();
+        requests.add(WebUtils.getRandomName().whenComplete((name, error) -> fetches.release()));
+      }
+      CompletableFuture.allOf(requests.toArray(new CompletableFuture[0]))
+          .exceptionally(e -> null)
+          .join();
+
+      add(
+          requests.stream()
+              .filter(request -> !request.isCompletedExceptionally())
+              .map(CompletableFuture::join)
+              .collect(Collectors.toList()));
+      save();
+    } catch (RuntimeException e) {
+      logger.log(Level.WARNING, "Could not refill the nickname pool", e);
+    } finally {
+      refilling.set(false);
+    }
+  }
+
+  // Adds the valid, unused names among the candidates
+  private void add(Collection<String> candidates) {
+    List<String> fresh;
+    synchronized (names) {
+      fresh =
+          candidates.stream()
+              .filter(name -> name != null && VALID_NAME.matcher(name).matches())
+              .filter(name -> !names.containsKey(name.toLowerCase()))
+              .distinct()
+              .collect(Collectors.toList());
+    }
+    if (fresh.isEmpty()) return;
+
+    Set<String> available = availability.apply(fresh).join();
+    synchronized (names) {
+      for (String name : fresh) {
+        if (available.contains(name)) {
+          names.putIfAbsent(name.toLowerCase(), name);
+        }
+      }
+    }
+  }
+
+  // Checks a random sample of bundled names, so there is always something unused to offer
+  private void refillSpare() {
+    List<String> candidates = Lists.newArrayList(seeds);
+    synchronized (names) {
+      if (spare.size() >= SPARE_SIZE) return;
+      candidates.removeIf(name -> spare.contains(name) || names.containsKey(name.toLowerCase()));
+    }
+    if (candidates.isEmpty()) return;
+
+    Collections.shuffle(candidates);
+    candidates = candidates.subList(0, Math.min(SPARE_SIZE, candidates.size()));
+    Set<String> available = availability.apply(candidates).join();
+    synchronized (names) {
+      for (String name : candidates) {
+        if (spare.size() >= SPARE_SIZE) break;
+        if (available.contains(name) && !spare.contains(name)) {
+          spare.add(name);
+        }
+      }
+    }
+  }
+
+  /** @return The names kept on disk, or null if they could not be read */
+  private List<String> load() {
+    if (!file.exists()) return Collections.emptyList();
+    try {
+      return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Could not read nickname pool from " + file, e);
+      return null;
+    }
+  }
+
+  private void save() {
+    if (!loaded) return; // Never overwrite names which were not read yet
+    List<String> lines;
+    synchronized (names) {
+      lines = Lists.newArrayList(names.values());
+    }
+
+    try {
+      file.getParentFile().mkdirs();
+      File temp = new File(file.getPath() + ".tmp");
+      Files.write(temp.toPath(), lines, StandardCharsets.UTF_8);
+      Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Could not save nickname pool to " + file, e);
+    }
+  }
+
+  private List<String> loadSeeds() {
+    InputStream stream = Community.get().getResource(SEED_RESOURCE);
+    if (stream == null) return Collections.emptyList();
+
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+      return reader
+          .lines()
+          .map(String::trim)
+          .filter(name -> VALID_NAME.matcher(name).matches())
+          .collect(Collectors.toList());
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Could not read bundled nicknames", e);
+      return Collections.emptyList();
+    }
+  }
+}
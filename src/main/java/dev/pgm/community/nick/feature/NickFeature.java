@@ -4,6 +4,8 @@ import dev.pgm.community.feature.Feature;
 import dev.pgm.community.nick.Nick;
 import dev.pgm.community.nick.data.NickSelection;
 import dev.pgm.community.nick.skin.SkinManager;
+import java.util.Collection;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import org.bukkit.entity.Player;
@@ -20,6 +22,9 @@ public interface NickFeature extends Feature {
 
   CompletableFuture<Boolean> isNameAvailable(String nickName); // RETURNS TRUE IF NAME IS NOT TAKEN
 
+  CompletableFuture<Set<String>> getAvailableNames(
+      Collection<String> names); // Names not yet used as a nickname, checked all at once
+
   boolean isNicked(UUID playerId); // Whether the given playerID is online & had a nickname
 
   String getOnlineNick(UUID playerId); // Get the nickname of an online player
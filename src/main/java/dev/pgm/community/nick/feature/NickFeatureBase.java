@@ -12,10 +12,11 @@ import dev.pgm.community.CommunityPermissions;
 import dev.pgm.community.feature.FeatureBase;
 import dev.pgm.community.nick.Nick;
 import dev.pgm.community.nick.NickConfig;
+import dev.pgm.community.nick.data.NickPool;
 import dev.pgm.community.nick.data.NickSelection;
 import dev.pgm.community.nick.skin.SkinManager;
 import dev.pgm.community.utils.PGMUtils;
-import dev.pgm.community.utils.WebUtils;
+import java.io.File;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -48,6 +49,7 @@ public abstract class NickFeatureBase extends FeatureBase implements NickFeature
   private final Cache<UUID, String> loginSubdomains;
   private final List<UUID> autoNicked;
   private final SkinManager skins;
+  private final NickPool pool;
 
   private Cache<UUID, NickSelection> nickChoices;
 
@@ -57,7 +59,12 @@ public abstract class NickFeatureBase extends FeatureBase implements NickFeature
     this.loginSubdomains =
         CacheBuilder.newBuilder().expireAfterAccess(30, TimeUnit.SECONDS).build();
     this.autoNicked = Lists.newArrayList();
-    this.skins = new SkinManager();
+    this.skins = new SkinManager(logger);
+    this.pool =
+        new NickPool(
+            new File(Community.get().getDataFolder(), "nicknames.txt"),
+            logger,
+            this::getAvailableNames);
 
     this.nickChoices = CacheBuilder.newBuilder().expireAfterWrite(1, TimeUnit.HOURS).build();
 
@@ -79,6 +86,14 @@ public abstract class NickFeatureBase extends FeatureBase implements NickFeature
   public void enable() {
     super.enable();
     integrate();
+    pool.start();
+  }
+
+  @Override
+  public void disable() {
+    super.disable();
+    pool.stop();
+    skins.disable();
   }
 
   private void integrate() {
@@ -123,13 +138,9 @@ public abstract class NickFeatureBase extends FeatureBase implements NickFeature
     if (cached != null && !cached.canRefresh()) {
       return CompletableFuture.completedFuture(cached);
     }
-    return WebUtils.getRandomNameList(16)
-        .thenApplyAsync(
-            names -> {
-              NickSelection selection = new NickSelection(names);
-              nickChoices.put(playerId, selection);
-              return selection;
-            });
+    NickSelection selection = new NickSelection(pool.take(16));
+    nickChoices.put(playerId, selection);
+    return CompletableFuture.completedFuture(selection);
   }
 
   @EventHandler(priority = EventPriority.MONITOR)
@@ -174,29 +185,29 @@ public abstract class NickFeatureBase extends FeatureBase implements NickFeature
                     sendLoginNotification(player, nick.getName(), false);
                   } else {
                     // Auto apply a random name if none set
-                    WebUtils.getRandomName()
+                    String name = pool.take(1).stream().findFirst().orElse(null);
+                    if (name == null) return;
+                    this.setNick(player.getUniqueId(), name)
                         .thenAcceptAsync(
-                            name -> {
-                              this.setNick(player.getUniqueId(), name)
-                                  .thenAcceptAsync(
-                                      success -> {
-                                        if (success) {
-                                          nickedPlayers.put(player.getUniqueId(), nick.getName());
-                                          Audience.get(player)
-                                              .sendWarning(
-                                                  text(
-                                                      "You had no nickname, so a random one has been assigned",
-                                                      NamedTextColor.GREEN));
-                                          sendLoginNotification(player, nick.getName(), true);
-                                        }
-                                      });
-                            });
+                            success -> {
+                              if (success) {
+                                nickedPlayers.put(player.getUniqueId(), name);
+                                Audience.get(player)
+                                    .sendWarning(
+                                        text(
+                                            "You had no nickname, so a random one has been assigned",
+                                            NamedTextColor.GREEN));
+                                sendLoginNotification(player, name, true);
+                              }
+                            },
+                            Community.get().getExecutors().cpu());
                   }
 
                 } else {
                   nickedPlayers.remove(player.getUniqueId());
                 }
-              });
+              },
+              Community.get().getExecutors().cpu());
     }
 
     // Nickname notification
@@ -1,13 +1,18 @@
 package dev.pgm.community.nick.feature.types;
 
+import dev.pgm.community.Community;
 import dev.pgm.community.CommunityPermissions;
+import dev.pgm.community.network.feature.NetworkFeature;
 import dev.pgm.community.nick.Nick;
 import dev.pgm.community.nick.feature.NickFeatureBase;
 import dev.pgm.community.nick.services.SQLNickService;
 import dev.pgm.community.users.feature.UsersFeature;
+import java.util.Collection;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.Configuration;
 
@@ -16,10 +21,11 @@ public class SQLNickFeature extends NickFeatureBase {
   private final SQLNickService service;
   private final UsersFeature users;
 
-  public SQLNickFeature(Configuration config, Logger logger, UsersFeature users) {
+  public SQLNickFeature(
+      Configuration config, Logger logger, UsersFeature users, NetworkFeature network) {
     super(config, logger, "Nicknames (SQL)");
     this.users = users;
-    this.service = new SQLNickService(getNickConfig());
+    this.service = new SQLNickService(getNickConfig(), network.getInvalidations());
   }
 
   @Override
@@ -49,9 +55,11 @@ public class SQLNickFeature extends NickFeatureBase {
                           nick.setName(nickName);
                           service.update(nick);
                         }
-                      });
+                      },
+                      Community.get().getExecutors().cpu());
               return true;
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 
   @Override
@@ -63,17 +71,30 @@ public class SQLNickFeature extends NickFeatureBase {
               nick.clear();
               service.update(nick);
               return true;
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 
   @Override
   public CompletableFuture<Boolean> isNameAvailable(String nickName) {
     return service
         .isNameAvailable(nickName)
-        .thenApplyAsync(
-            available -> {
-              return available && users.getStoredProfile(nickName).join() == null;
-            });
+        .thenCompose(
+            available ->
+                available
+                    ? users.getStoredProfile(nickName).thenApply(profile -> profile == null)
+                    : CompletableFuture.completedFuture(false));
+  }
+
+  @Override
+  public CompletableFuture<Set<String>> getAvailableNames(Collection<String> names) {
+    return service
+        .getTakenNames(names)
+        .thenApply(
+            taken ->
+                names.stream()
+                    .filter(name -> !taken.contains(name.toLowerCase()))
+                    .collect(Collectors.toSet()));
   }
 
   @Override
@@ -86,6 +107,7 @@ public class SQLNickFeature extends NickFeatureBase {
               nick.setEnabled(!nick.isEnabled());
               service.update(nick);
               return nick.isEnabled();
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 }
@@ -1,10 +1,14 @@
 package dev.pgm.community.nick.services;
 
+import dev.pgm.community.database.UUIDCodec;
+
 public interface NickQuery {
 
   static final String TABLE_NAME = "nicknames";
   static final String TABLE_FIELDS =
-      "(playerId VARCHAR(36) PRIMARY KEY, nickname VARCHAR(16), date LONG, enabled BOOL)";
+      "(playerId "
+          + UUIDCodec.columnType()
+          + " PRIMARY KEY, nickname VARCHAR(16), date LONG, enabled BOOL)";
 
   static final String INSERT_NICKNAME_QUERY =
       "INSERT INTO " + TABLE_NAME + "(playerId, nickname, date, enabled) VALUES (?,?,?,?)";
@@ -15,6 +19,17 @@ public interface NickQuery {
   static final String UPDATE_NICKNAME_QUERY =
       "UPDATE " + TABLE_NAME + " set nickname = ?, enabled = ?, date = ? where playerId = ?";
 
+  // Case-insensitive through the column collation, so the nickname index can be used
   static final String SELECT_NICKNAME_BY_NAME_QUERY =
+      "SELECT * from " + TABLE_NAME + " where nickname = ?";
+  // Until the collation is migrated
+  static final String SELECT_NICKNAME_BY_LOWER_NAME_QUERY =
       "SELECT * from " + TABLE_NAME + " where LOWER(nickname) = LOWER(?)";
+
+  // Completed with Query.placeholders for the number of names
+  static final String SELECT_TAKEN_NICKNAMES_QUERY =
+      "SELECT nickname from " + TABLE_NAME + " where nickname IN ";
+  // Until the collation is migrated, names must be lowercase
+  static final String SELECT_TAKEN_LOWER_NICKNAMES_QUERY =
+      "SELECT nickname from " + TABLE_NAME + " where LOWER(nickname) IN ";
 }
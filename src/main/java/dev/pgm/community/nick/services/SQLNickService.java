@@ -1,34 +1,39 @@
 package dev.pgm.community.nick.services;
 
 import co.aikar.idb.DB;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import co.aikar.idb.DbRow;
+import com.google.common.collect.Sets;
+import dev.pgm.community.Community;
+import dev.pgm.community.database.Migrations;
+import dev.pgm.community.database.Query;
+import dev.pgm.community.database.UUIDCodec;
+import dev.pgm.community.feature.FeatureCache;
 import dev.pgm.community.feature.SQLFeatureBase;
+import dev.pgm.community.network.cache.InvalidationBus;
 import dev.pgm.community.nick.Nick;
 import dev.pgm.community.nick.NickConfig;
 import dev.pgm.community.nick.NickImpl;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 public class SQLNickService extends SQLFeatureBase<Nick, String> implements NickQuery {
 
-  private LoadingCache<UUID, NickInfo> nickCache;
+  private static final String INVALIDATION_TYPE = "nicknames";
 
-  public SQLNickService(NickConfig config) {
+  private FeatureCache<UUID, NickInfo> nickCache;
+  private final InvalidationBus invalidations;
+
+  public SQLNickService(NickConfig config, InvalidationBus invalidations) {
     super(TABLE_NAME, TABLE_FIELDS);
+    this.invalidations = invalidations;
 
-    this.nickCache =
-        CacheBuilder.newBuilder()
-            .build(
-                new CacheLoader<UUID, NickInfo>() {
-                  @Override
-                  public NickInfo load(UUID key) throws Exception {
-                    return new NickInfo(key);
-                  }
-                });
+    this.nickCache = FeatureCache.<NickInfo>players("nicknames").build(NickInfo::new);
+    invalidations.subscribe(INVALIDATION_TYPE, nickCache::invalidate);
   }
 
   @Override
@@ -39,11 +44,12 @@ public class SQLNickService extends SQLFeatureBase<Nick, String> implements Nick
     }
 
     DB.executeUpdateAsync(
-        INSERT_NICKNAME_QUERY,
-        nick.getPlayerId().toString(),
-        nick.getName(),
-        nick.getDateSet().toEpochMilli(),
-        nick.isEnabled());
+            INSERT_NICKNAME_QUERY,
+            UUIDCodec.encode(nick.getPlayerId()),
+            nick.getName(),
+            nick.getDateSet().toEpochMilli(),
+            nick.isEnabled())
+        .thenRun(() -> invalidations.publish(INVALIDATION_TYPE, nick.getPlayerId()));
   }
 
   @Override
@@ -59,7 +65,7 @@ public class SQLNickService extends SQLFeatureBase<Nick, String> implements Nick
     if (nick.isLoaded()) {
       return CompletableFuture.completedFuture(nick.getNick());
     } else {
-      return DB.getFirstRowAsync(SELECT_NICKNAME_BY_ID_QUERY, playerId.toString())
+      return DB.getFirstRowAsync(SELECT_NICKNAME_BY_ID_QUERY, UUIDCodec.encode(playerId))
           .thenApplyAsync(
               row -> {
                 if (row != null) {
@@ -70,7 +76,8 @@ public class SQLNickService extends SQLFeatureBase<Nick, String> implements Nick
                 }
                 nick.setLoaded(true);
                 return nick.getNick();
-              });
+              },
+              Community.get().getExecutors().io());
     }
   }
 
@@ -80,26 +87,72 @@ public class SQLNickService extends SQLFeatureBase<Nick, String> implements Nick
             nick.getName(),
             nick.isEnabled(),
             nick.getDateSet().toEpochMilli(),
-            nick.getPlayerId().toString())
-        .thenApplyAsync(result -> result != 0);
+            UUIDCodec.encode(nick.getPlayerId()))
+        .thenApplyAsync(
+            result -> {
+              invalidations.publish(INVALIDATION_TYPE, nick.getPlayerId());
+              return result != 0;
+            },
+            Community.get().getExecutors().io());
   }
 
   public CompletableFuture<Boolean> isNameAvailable(String name) {
-    return queryByName(name).thenApplyAsync(results -> results == null);
+    return queryByName(name)
+        .thenApplyAsync(results -> results == null, Community.get().getExecutors().io());
+  }
+
+  /**
+   * Checks many names at once, in a single query
+   *
+   * @param names The names to check
+   * @return The lowercase names already used as a nickname
+   */
+  public CompletableFuture<Set<String>> getTakenNames(Collection<String> names) {
+    if (names.isEmpty()) {
+      return CompletableFuture.completedFuture(Sets.newHashSet());
+    }
+    boolean migrated = isCaseInsensitive();
+    return DB.getResultsAsync(
+            (migrated ? SELECT_TAKEN_NICKNAMES_QUERY : SELECT_TAKEN_LOWER_NICKNAMES_QUERY)
+                + Query.placeholders(names.size()),
+            migrated
+                ? names.toArray()
+                : names.stream().map(name -> name.toLowerCase(Locale.ROOT)).toArray())
+        .thenApplyAsync(
+            rows -> {
+              Set<String> taken = Sets.newHashSet();
+              if (rows != null) {
+                for (DbRow row : rows) {
+                  taken.add(row.getString("nickname").toLowerCase());
+                }
+              }
+              return taken;
+            },
+            Community.get().getExecutors().io());
+  }
+
+  // The nickname index is only case-insensitive once migrated
+  private boolean isCaseInsensitive() {
+    return Community.get().getDatabase().isMigrated(Migrations.CASE_INSENSITIVE_NAMES);
   }
 
   public CompletableFuture<Nick> queryByName(String name) {
-    return DB.getFirstRowAsync(SELECT_NICKNAME_BY_NAME_QUERY, name)
+    return DB.getFirstRowAsync(
+            isCaseInsensitive()
+                ? SELECT_NICKNAME_BY_NAME_QUERY
+                : SELECT_NICKNAME_BY_LOWER_NAME_QUERY,
+            name)
         .thenApplyAsync(
             row -> {
               if (row == null) return null;
 
-              UUID playerId = UUID.fromString(row.getString("playerId"));
+              UUID playerId = UUIDCodec.decode(row, "playerId");
               String nickName = row.getString("nickname");
               Instant date = Instant.ofEpochMilli(Long.parseLong(row.getString("date")));
               boolean enabled = row.get("enabled");
               return new NickImpl(playerId, nickName, date, enabled);
-            });
+            },
+            Community.get().getExecutors().io());
   }
 
   private class NickInfo {
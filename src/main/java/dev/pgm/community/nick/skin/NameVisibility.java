@@ -0,0 +1,267 @@
+package dev.pgm.community.nick.skin;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import dev.pgm.community.Community;
+import dev.pgm.community.CommunityPermissions;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import org.bukkit.Bukkit;
+import org.bukkit.Skin;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+import tc.oc.pgm.api.PGM;
+import tc.oc.pgm.api.integration.Integration;
+import tc.oc.pgm.api.player.MatchPlayer;
+
+/**
+ * NameVisibility - Which name and skin each viewer sees for every nicked player
+ *
+ * <p>Remembers the view sent for each pair of player and viewer, and only re-evaluates pairs whose
+ * inputs changed: a nick or skin, a friendship, a party, or the viewer's permission. A pair is only
+ * sent to the client when its view differs from the one already sent, and pairs of un-nicked
+ * players with nothing sent are never evaluated. Queued pairs are spread over ticks, at most {@link
+ * #PAIRS_PER_TICK} each. Must be used from the main thread.
+ */
+public class NameVisibility {
+
+  private static final int PAIRS_PER_TICK = 200;
+  private static final long PERMISSION_CHECK_TICKS = 100;
+
+  private final Function<Player, Skin> skins;
+
+  // Player -> viewer -> fake view sent, pairs showing the real name are absent
+  private final Map<UUID, Map<UUID, View>> applied;
+  private final Map<UUID, Boolean> canSeeNicks;
+  private final Set<Pair> queue;
+
+  private BukkitTask task;
+  private BukkitTask permissionTask;
+
+  public NameVisibility(Function<Player, Skin> skins) {
+    this.skins = skins;
+    this.applied = Maps.newHashMap();
+    this.canSeeNicks = Maps.newHashMap();
+    this.queue = Sets.newLinkedHashSet();
+  }
+
+  public void start() {
+    if (task != null) return;
+    this.task =
+        Community.get().getServer().getScheduler().runTaskTimer(Community.get(), this::tick, 1, 1);
+    this.permissionTask =
+        Community.get()
+            .getServer()
+            .getScheduler()
+            .runTaskTimer(
+                Community.get(),
+                this::checkPermissions,
+                PERMISSION_CHECK_TICKS,
+                PERMISSION_CHECK_TICKS);
+  }
+
+  /** Stops re-evaluating views, pairs still queued are dropped */
+  public void stop() {
+    if (task != null) {
+      task.cancel();
+      task = null;
+    }
+    if (permissionTask != null) {
+      permissionTask.cancel();
+      permissionTask = null;
+    }
+    queue.clear();
+  }
+
+  /**
+   * Sets up the views of a player who just joined, right away so no real name is shown
+   *
+   * @param player The joining player
+   */
+  public void join(Player player) {
+    canSeeNicks.put(player.getUniqueId(), player.hasPermission(CommunityPermissions.NICKNAME_VIEW));
+
+    // As a viewer, only nicked players need a fake name
+    for (Player other : Bukkit.getOnlinePlayers()) {
+      if (other != player && isNicked(other)) {
+        refresh(other, player);
+      }
+    }
+    // As a player, only if nicked
+    if (isNicked(player)) {
+      for (Player viewer : Bukkit.getOnlinePlayers()) {
+        refresh(player, viewer);
+      }
+    }
+  }
+
+  /** Forgets a player who left, both as a player and as a viewer */
+  public void quit(UUID playerId) {
+    applied.remove(playerId);
+    canSeeNicks.remove(playerId);
+    for (Map<UUID, View> views : applied.values()) {
+      views.remove(playerId);
+    }
+    queue.removeIf(pair -> pair.player.equals(playerId) || pair.viewer.equals(playerId));
+  }
+
+  /**
+   * Queues every view of a player whose nick, skin, friends or party changed
+   *
+   * @param player The changed player
+   */
+  public void invalidatePlayer(Player player) {
+    Map<UUID, View> views = applied.get(player.getUniqueId());
+    if (!isNicked(player) && (views == null || views.isEmpty())) return;
+
+    for (Player viewer : Bukkit.getOnlinePlayers()) {
+      queue.add(new Pair(player.getUniqueId(), viewer.getUniqueId()));
+    }
+  }
+
+  /**
+   * Queues every nicked player as seen by a viewer whose friends or permissions changed
+   *
+   * @param viewer The changed viewer
+   */
+  public void invalidateViewer(Player viewer) {
+    for (Player player : Bukkit.getOnlinePlayers()) {
+      Map<UUID, View> views = applied.get(player.getUniqueId());
+      if (isNicked(player) || (views != null && views.containsKey(viewer.getUniqueId()))) {
+        queue.add(new Pair(player.getUniqueId(), viewer.getUniqueId()));
+      }
+    }
+  }
+
+  /** @return Pairs waiting to be re-evaluated */
+  public int getQueueSize() {
+    return queue.size();
+  }
+
+  private void tick() {
+    Iterator<Pair> iterator = queue.iterator();
+    for (int i = 0; i < PAIRS_PER_TICK && iterator.hasNext(); i++) {
+      Pair pair = iterator.next();
+      iterator.remove();
+
+      Player player = Bukkit.getPlayer(pair.player);
+      Player viewer = Bukkit.getPlayer(pair.viewer);
+      if (player != null && viewer != null) {
+        refresh(player, viewer);
+      }
+    }
+  }
+
+  // Permissions have no change event, so compare them every few seconds
+  private void checkPermissions() {
+    for (Player viewer : Bukkit.getOnlinePlayers()) {
+      boolean canSee = viewer.hasPermission(CommunityPermissions.NICKNAME_VIEW);
+      Boolean previous = canSeeNicks.put(viewer.getUniqueId(), canSee);
+      if (previous != null && previous != canSee) {
+        invalidateViewer(viewer);
+      }
+    }
+  }
+
+  private void refresh(Player player, Player viewer) {
+    View desired = getView(player, viewer);
+    Map<UUID, View> views = applied.get(player.getUniqueId());
+    View current = views == null ? null : views.get(viewer.getUniqueId());
+    if (Objects.equals(desired, current)) return; // Already sent
+
+    if (desired == null) {
+      player.setFakeDisplayName(viewer, null);
+      player.setFakeNameAndSkin(viewer, null, null);
+      views.remove(viewer.getUniqueId());
+      return;
+    }
+
+    if (current == null || !desired.displayName.equals(current.displayName)) {
+      player.setFakeDisplayName(viewer, desired.displayName);
+    }
+    if (current == null
+        || !desired.nick.equals(current.nick)
+        || !Objects.equals(desired.skin, current.skin)) {
+      player.setFakeNameAndSkin(viewer, desired.nick, desired.skin);
+    }
+    applied
+        .computeIfAbsent(player.getUniqueId(), id -> Maps.newHashMap())
+        .put(viewer.getUniqueId(), desired);
+  }
+
+  /** @return The fake view of a player, or null if the viewer should see the real name */
+  private View getView(Player player, Player viewer) {
+    String nick = Integration.getNick(player);
+    if (nick == null
+        || player == viewer
+        || canSeeNicks.getOrDefault(viewer.getUniqueId(), false)
+        || Integration.isFriend(player, viewer)) {
+      return null;
+    }
+
+    MatchPlayer matchPlayer = PGM.get().getMatchManager().getPlayer(player);
+    String displayName =
+        matchPlayer == null
+            ? nick
+            : PGM.get()
+                .getNameDecorationRegistry()
+                .getDecoratedName(player, matchPlayer.getParty().getColor());
+    return new View(nick, displayName, skins.apply(player));
+  }
+
+  private static boolean isNicked(Player player) {
+    return Integration.getNick(player) != null;
+  }
+
+  private static class View {
+    private final String nick;
+    private final String displayName;
+    private final Skin skin;
+
+    private View(String nick, String displayName, Skin skin) {
+      this.nick = nick;
+      this.displayName = displayName;
+      this.skin = skin;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof View)) return false;
+      View other = (View) obj;
+      return nick.equals(other.nick)
+          && displayName.equals(other.displayName)
+          && Objects.equals(skin, other.skin);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(nick, displayName, skin);
+    }
+  }
+
+  private static class Pair {
+    private final UUID player;
+    private final UUID viewer;
+
+    private Pair(UUID player, UUID viewer) {
+      this.player = player;
+      this.viewer = viewer;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Pair)) return false;
+      Pair other = (Pair) obj;
+      return player.equals(other.player) && viewer.equals(other.viewer);
+    }
+
+    @Override
+    public int hashCode() {
+      return player.hashCode() * 31 + viewer.hashCode();
+    }
+  }
+}
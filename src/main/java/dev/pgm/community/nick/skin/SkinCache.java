@@ -2,20 +2,19 @@ package dev.pgm.community.nick.skin;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Multiset;
 import dev.pgm.community.Community;
-import dev.pgm.community.CommunityPermissions;
-import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 import org.bukkit.Bukkit;
 import org.bukkit.Skin;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
@@ -24,29 +23,52 @@ import tc.oc.pgm.api.Permissions;
 import tc.oc.pgm.api.event.NameDecorationChangeEvent;
 import tc.oc.pgm.api.integration.Integration;
 import tc.oc.pgm.api.player.MatchPlayer;
+import tc.oc.pgm.events.PlayerPartyChangeEvent;
 
 public class SkinCache implements Listener {
 
-  private final Cache<UUID, Skin> offlineSkins =
-      CacheBuilder.newBuilder().maximumSize(500).expireAfterWrite(6, TimeUnit.HOURS).build();
-  private final Random random = new Random();
+  private static final int OFFLINE_CUSTOM_SKINS = 200;
 
+  private final SkinStore store;
+  // Hashes of skins worn by online players, not given out as random skins
+  private final Map<UUID, String> onlineSkins = Maps.newHashMap();
+  private final Multiset<String> onlineHashes = HashMultiset.create();
+
+  // Custom skin set by an online player, kept out of the store of random skins
   private final Map<UUID, Skin> customSkins = Maps.newHashMap();
+  // Custom skins of players who quit, restored if they rejoin before being evicted
+  private final Cache<UUID, Skin> offlineCustomSkins =
+      CacheBuilder.newBuilder()
+          .maximumSize(OFFLINE_CUSTOM_SKINS)
+          .expireAfterAccess(6, TimeUnit.HOURS)
+          .build();
+  // Random skin picked for a nick, kept so every viewer sees the same one
+  private final Map<UUID, Skin> nickSkins = Maps.newHashMap();
+
+  private final NameVisibility visibility;
+
+  public SkinCache(SkinStore store) {
+    this.store = store;
+    this.visibility = new NameVisibility(this::getSkin);
+    this.visibility.start();
+  }
+
+  public void disable() {
+    HandlerList.unregisterAll(this);
+    visibility.stop();
+  }
 
-  // TODO: NEEDS WORK! Backup skins when 0 are online, prevent duplicates, etc
   private Skin getRandomSkin() {
-    if (offlineSkins.size() == 0) {
-      return Skin.EMPTY; // TODO: Warning, this may be bad for 1.16 clients...
-    }
-    List<Skin> skins = offlineSkins.asMap().values().stream().collect(Collectors.toList());
-    return skins.get(random.nextInt(skins.size()));
+    Skin skin = store.random(onlineHashes::contains);
+    return skin == null ? Skin.EMPTY : skin; // TODO: Warning, this may be bad for 1.16 clients...
   }
 
   private Skin getSkin(Player player) {
-    if (customSkins.containsKey(player.getUniqueId())) {
-      return customSkins.get(player.getUniqueId());
+    Skin custom = customSkins.get(player.getUniqueId());
+    if (custom != null) {
+      return custom;
     }
-    return getRandomSkin();
+    return nickSkins.computeIfAbsent(player.getUniqueId(), id -> getRandomSkin());
   }
 
   private boolean canUseSkin(Player player) {
@@ -57,88 +79,89 @@ public class SkinCache implements Listener {
   @EventHandler
   public void onPlayerQuit(PlayerQuitEvent event) {
     Player player = event.getPlayer();
+    nickSkins.remove(player.getUniqueId());
+    Skin custom = customSkins.remove(player.getUniqueId());
+    if (custom != null) {
+      offlineCustomSkins.put(player.getUniqueId(), custom);
+    }
+    visibility.quit(player.getUniqueId());
+    String hash = onlineSkins.remove(player.getUniqueId());
+    if (hash != null) {
+      onlineHashes.remove(hash);
+    }
     if (canUseSkin(player)) {
-      offlineSkins.put(player.getUniqueId(), player.getSkin());
+      store.add(player.getSkin());
     }
   }
 
   @EventHandler(priority = EventPriority.LOW)
   public void onPlayerJoin(PlayerJoinEvent event) {
-    offlineSkins.invalidate(event.getPlayer().getUniqueId());
+    UUID playerId = event.getPlayer().getUniqueId();
+    Skin custom = offlineCustomSkins.getIfPresent(playerId);
+    if (custom != null) {
+      offlineCustomSkins.invalidate(playerId);
+      customSkins.put(playerId, custom);
+    }
+
+    String hash = SkinStore.hash(event.getPlayer().getSkin());
+    if (hash != null) {
+      onlineSkins.put(event.getPlayer().getUniqueId(), hash);
+      onlineHashes.add(hash);
+    }
   }
 
   @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
   public void refreshNamesOnLogin(PlayerJoinEvent event) {
-    refreshPlayer(event.getPlayer());
-  }
-
-  // SPORTPAPER STUFF - TODO: Add alternative method and check if server is running SportPaper to
-  // enable
-
-  private void refreshAllViewers(Player player) {
-    Bukkit.getOnlinePlayers().forEach(viewer -> refreshFakeName(player, viewer));
-  }
-
-  private void refreshPlayer(Player player) {
+    final Player player = event.getPlayer();
     final MatchPlayer matchPlayer = PGM.get().getMatchManager().getPlayer(player);
     if (matchPlayer == null) return;
 
-    // Update displayname
-    player.setDisplayName(
-        PGM.get()
-            .getNameDecorationRegistry()
-            .getDecoratedName(player, matchPlayer.getParty().getColor()));
-
-    // for all other online players, refresh their views
-    refreshAllViewers(player);
-
-    // Refresh the view of the player
-    refreshSelfView(player);
-
-    // Reset visibility
+    updateDisplayName(player, matchPlayer);
+    visibility.join(player);
     matchPlayer.resetVisibility();
   }
 
-  private void refreshSelfView(Player viewer) {
-    Bukkit.getOnlinePlayers().forEach(other -> refreshFakeName(other, viewer));
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onNameDecorationChange(NameDecorationChangeEvent event) {
+    Player player = Bukkit.getPlayer(event.getUUID());
+    if (player != null) {
+      visibility.invalidatePlayer(player);
+    }
   }
 
-  // TODO: Figure out how to use without SPORTPAPER API
-  private void refreshFakeName(Player player, Player viewer) {
-    boolean nicked = Integration.getNick(player) != null;
-    boolean areFriends = Integration.isFriend(player, viewer);
-    boolean canOverride = viewer.hasPermission(CommunityPermissions.NICKNAME_VIEW);
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onPartyChange(PlayerPartyChangeEvent event) {
+    visibility.invalidatePlayer(event.getPlayer().getBukkit());
+  }
 
-    boolean canSeeRealName = (canOverride || player == viewer || areFriends);
+  // SPORTPAPER STUFF - TODO: Add alternative method and check if server is running SportPaper to
+  // enable
 
-    if (nicked && !canSeeRealName) {
-      String nick = Integration.getNick(player);
-      MatchPlayer matchPlayer = PGM.get().getMatchManager().getPlayer(player);
-      String displayName =
-          PGM.get()
-              .getNameDecorationRegistry()
-              .getDecoratedName(player, matchPlayer.getParty().getColor());
-      player.setFakeDisplayName(viewer, displayName);
-      player.setFakeNameAndSkin(viewer, nick, getSkin(player));
-    } else {
-      player.setFakeDisplayName(viewer, null);
-      player.setFakeNameAndSkin(viewer, null, null);
-    }
+  private void updateDisplayName(Player player, MatchPlayer matchPlayer) {
+    player.setDisplayName(
+        PGM.get()
+            .getNameDecorationRegistry()
+            .getDecoratedName(player, matchPlayer.getParty().getColor()));
   }
 
   public void onSkinRefresh(Player player, Skin skin) {
     if (skin == null) {
       customSkins.remove(player.getUniqueId());
+      offlineCustomSkins.invalidate(player.getUniqueId());
     }
+    nickSkins.remove(player.getUniqueId());
 
     if (Integration.getNick(player) != null) {
       if (skin != null) {
-        // Store custom skin for persistence
         customSkins.put(player.getUniqueId(), skin);
       }
 
       // Refresh skin for everyone online
-      refreshPlayer(player);
+      MatchPlayer matchPlayer = PGM.get().getMatchManager().getPlayer(player);
+      if (matchPlayer != null) {
+        updateDisplayName(player, matchPlayer);
+      }
+      visibility.invalidatePlayer(player);
     }
 
     // Let PGM know to refresh tab entry
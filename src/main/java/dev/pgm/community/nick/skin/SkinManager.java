@@ -1,19 +1,39 @@
 package dev.pgm.community.nick.skin;
 
 import dev.pgm.community.Community;
+import java.io.File;
+import java.util.logging.Logger;
 import org.bukkit.Skin;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
 
 public class SkinManager {
 
+  private static final long SAVE_INTERVAL_TICKS = 20 * 60 * 5;
+
   private SkinCache cache;
+  private SkinStore store;
+  private BukkitTask saveTask;
 
-  public SkinManager() {
-    this.cache = new SkinCache();
+  public SkinManager(Logger logger) {
+    this.store = new SkinStore(new File(Community.get().getDataFolder(), "skins.txt"), logger);
+    this.cache = new SkinCache(store);
     Community.get().registerListener(cache);
+    this.saveTask =
+        Community.get()
+            .getServer()
+            .getScheduler()
+            .runTaskTimerAsynchronously(
+                Community.get(), store::save, SAVE_INTERVAL_TICKS, SAVE_INTERVAL_TICKS);
   }
 
   public void setSkin(Player player, Skin skin) {
     cache.onSkinRefresh(player, skin);
   }
+
+  public void disable() {
+    saveTask.cancel();
+    cache.disable();
+    store.save();
+  }
 }
@@ -0,0 +1,168 @@
+package dev.pgm.community.nick.skin;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.hash.Hashing;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import org.bukkit.Skin;
+
+/**
+ * SkinStore - Skins of past players to disguise nicked players with, kept on disk between restarts
+ *
+ * <p>Skins are keyed by the hash of their texture, so a skin worn by many players is only kept
+ * once. A reservoir sample of at most {@link #CAPACITY} skins is kept, every skin seen having the
+ * same chance to be in it, so a random skin is picked in constant time.
+ */
+public class SkinStore {
+
+  private static final int CAPACITY = 1000;
+  private static final int PICK_ATTEMPTS = 5;
+
+  private final File file;
+  private final Logger logger;
+  private final Random random;
+
+  private final List<StoredSkin> reservoir;
+  private final Map<String, Integer> indexes; // Hash -> position in the reservoir
+  // Skins added to the sample so far. Only hashes still in the sample are known, so a texture
+  // evicted earlier counts again if it returns. This is an upper bound on distinct textures, and
+  // only makes later skins slightly less likely to replace one.
+  private long seen;
+  private boolean dirty;
+
+  public SkinStore(File file, Logger logger) {
+    this.file = file;
+    this.logger = logger;
+    this.random = new Random();
+    this.reservoir = Lists.newArrayList();
+    this.indexes = Maps.newHashMap();
+    load();
+  }
+
+  /** @return The hash a skin is stored under, or null for an empty skin */
+  @Nullable
+  public static String hash(Skin skin) {
+    if (skin == null || skin.getData() == null) return null;
+    return Hashing.sha1().hashString(skin.getData(), StandardCharsets.UTF_8).toString();
+  }
+
+  /**
+   * Adds a skin, unless the same texture is already stored
+   *
+   * @param skin The skin
+   * @return The hash of the skin, or null if it was empty or unsigned
+   */
+  @Nullable
+  public synchronized String add(Skin skin) {
+    String hash = hash(skin);
+    if (hash == null || skin.getSignature() == null) return null;
+
+    if (indexes.containsKey(hash)) return hash;
+
+    // Algorithm R: the n-th skin replaces a random one with a chance of CAPACITY / n
+    seen++;
+    if (reservoir.size() < CAPACITY) {
+      indexes.put(hash, reservoir.size());
+      reservoir.add(new StoredSkin(hash, skin));
+    } else {
+      long slot = (long) (random.nextDouble() * seen);
+      if (slot < CAPACITY) {
+        indexes.remove(reservoir.get((int) slot).hash);
+        indexes.put(hash, (int) slot);
+        reservoir.set((int) slot, new StoredSkin(hash, skin));
+      }
+    }
+    dirty = true;
+    return hash;
+  }
+
+  /**
+   * Picks a random skin
+   *
+   * @param excluded Hashes which should not be picked, such as skins of online players
+   * @return A random skin, or null if none are stored
+   */
+  @Nullable
+  public synchronized Skin random(Predicate<String> excluded) {
+    if (reservoir.isEmpty()) return null;
+
+    StoredSkin picked = null;
+    for (int i = 0; i < PICK_ATTEMPTS; i++) {
+      picked = reservoir.get(random.nextInt(reservoir.size()));
+      if (!excluded.test(picked.hash)) break;
+    }
+    return picked.skin;
+  }
+
+  public synchronized int size() {
+    return reservoir.size();
+  }
+
+  /** Writes the sample to disk, if it changed since last saved */
+  public void save() {
+    List<String> lines;
+    synchronized (this) {
+      if (!dirty) return;
+      dirty = false;
+
+      lines = Lists.newArrayListWithCapacity(reservoir.size() + 1);
+      lines.add(Long.toString(seen));
+      for (StoredSkin stored : reservoir) {
+        lines.add(stored.skin.getData() + " " + stored.skin.getSignature());
+      }
+    }
+
+    try {
+      file.getParentFile().mkdirs();
+      File temp = new File(file.getPath() + ".tmp");
+      Files.write(temp.toPath(), lines, StandardCharsets.UTF_8);
+      Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Could not save skins to " + file, e);
+    }
+  }
+
+  // First line is the number of skins seen, then one "data signature" line per skin
+  private void load() {
+    if (!file.exists()) return;
+    try {
+      List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+      if (lines.isEmpty()) return;
+
+      for (String line : lines.subList(1, lines.size())) {
+        String[] parts = line.split(" ");
+        if (parts.length != 2) continue;
+        Skin skin = new Skin(parts[0], parts[1]);
+        String hash = hash(skin);
+        if (reservoir.size() < CAPACITY && !indexes.containsKey(hash)) {
+          indexes.put(hash, reservoir.size());
+          reservoir.add(new StoredSkin(hash, skin));
+        }
+      }
+      this.seen = Math.max(Long.parseLong(lines.get(0).trim()), reservoir.size());
+    } catch (IOException | NumberFormatException e) {
+      logger.log(Level.WARNING, "Could not read skins from " + file, e);
+    }
+  }
+
+  private static class StoredSkin {
+    private final String hash;
+    private final Skin skin;
+
+    private StoredSkin(String hash, Skin skin) {
+      this.hash = hash;
+      this.skin = skin;
+    }
+  }
+}
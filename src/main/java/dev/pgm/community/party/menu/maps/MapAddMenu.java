@@ -1,43 +1,34 @@
 package dev.pgm.community.party.menu.maps;
 
-import static net.kyori.adventure.text.Component.text;
 import static tc.oc.pgm.util.bukkit.BukkitUtils.colorize;
 
-import com.google.common.collect.Lists;
-import com.google.common.collect.Sets;
+import dev.pgm.community.menu.MapIconCatalog;
+import dev.pgm.community.menu.MapIconCatalog.MapIcon;
 import dev.pgm.community.party.feature.MapPartyFeature;
 import dev.pgm.community.party.menu.MapPartyMenu;
 import fr.minuskube.inv.ClickableItem;
 import fr.minuskube.inv.content.InventoryContents;
-import fr.minuskube.inv.content.Pagination;
 import fr.minuskube.inv.content.SlotIterator;
-import java.util.Collection;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
-import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.Bukkit;
 import org.bukkit.DyeColor;
 import org.bukkit.Material;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemFlag;
-import tc.oc.pgm.api.PGM;
-import tc.oc.pgm.api.map.MapInfo;
 import tc.oc.pgm.api.map.MapTag;
 import tc.oc.pgm.util.inventory.ItemBuilder;
-import tc.oc.pgm.util.text.TextFormatter;
 import tc.oc.pgm.util.text.TextTranslations;
 
-// TODO: needs further speed optimizations
 public class MapAddMenu extends MapPartyMenu {
 
   private static final String TITLE = "&6&lAdd Map";
   private static final int ROWS = 6;
   private static final boolean HOST_ONLY = true;
+  private static final int MAPS_PER_PAGE = 36;
 
-  private List<MapInfo> maps;
+  private MapIconCatalog catalog;
   private List<MapTag> tags;
 
   private int filterIndex = 0;
@@ -47,14 +38,8 @@ public class MapAddMenu extends MapPartyMenu {
   public MapAddMenu(MapPartyFeature feature, Player viewer) {
     super(feature, TITLE, ROWS, HOST_ONLY, viewer);
 
-    this.maps = Lists.newArrayList(PGM.get().getMapLibrary().getMaps());
-    this.tags = Lists.newArrayList();
-
-    Set<MapTag> tags = Sets.newHashSet();
-    for (MapInfo map : maps) {
-      tags.addAll(map.getTags());
-    }
-    this.tags.addAll(tags);
+    this.catalog = MapIconCatalog.get();
+    this.tags = catalog.getTags();
 
     open();
   }
@@ -70,27 +55,27 @@ public class MapAddMenu extends MapPartyMenu {
     contents.set(0, 2, getAllIcon());
     contents.set(0, 4, getFilterIcon());
 
-    List<ClickableItem> mapItems = getFilteredMapItems();
-
-    Pagination page = contents.pagination();
-    page.setItems(mapItems.toArray(new ClickableItem[mapItems.size()]));
-    page.setItemsPerPage(36);
+    BitSet filtered = getFilteredMaps();
+    int total = filtered.cardinality();
+    int page = contents.pagination().getPage();
 
-    page.addToIterator(contents.newIterator(SlotIterator.Type.HORIZONTAL, 1, 0));
+    SlotIterator slots = contents.newIterator(SlotIterator.Type.HORIZONTAL, 1, 0);
+    catalog.forEachOnPage(
+        filtered, page, MAPS_PER_PAGE, icon -> slots.set(getMapIcon(icon)).next());
 
     // No results
-    if (mapItems.isEmpty()) {
+    if (total == 0) {
       contents.set(2, 4, getNoMapsIcon());
     }
 
     // Previous
-    if (!page.isFirst()) {
-      contents.set(5, 1, getPrevPageItem(player, page.getPage() - 1));
+    if (page > 0) {
+      contents.set(5, 1, getPrevPageItem(player, page - 1));
     }
 
     // Next
-    if (!page.isLast()) {
-      contents.set(5, 7, getNextPageItem(player, page.getPage() + 1));
+    if ((page + 1) * MAPS_PER_PAGE < total) {
+      contents.set(5, 7, getNextPageItem(player, page + 1));
     }
 
     // Return to party menu
@@ -131,12 +116,15 @@ public class MapAddMenu extends MapPartyMenu {
 
     return ClickableItem.of(
         new ItemBuilder()
-            .material(getMapTagMaterial(getFilterTag()))
+            .material(MapIconCatalog.getTagMaterial(getFilterTag()))
             .name(TextTranslations.translateLegacy(getFilterTag().getName(), getViewer()))
             .lore(
                 colorize("&7Filter: &b" + (filterIndex + 1) + " &7/&3 " + tags.size()),
                 colorize(
-                    "&7Total Maps: &a" + getFilteredMapItems().size() + " &7/&2 " + maps.size()))
+                    "&7Total Maps: &a"
+                        + getFilteredMaps().cardinality()
+                        + " &7/&2 "
+                        + catalog.size()))
             .enchant(Enchantment.LUCK, 1)
             .flags(ItemFlag.values())
             .build(),
@@ -177,53 +165,16 @@ public class MapAddMenu extends MapPartyMenu {
     }
   }
 
-  private List<ClickableItem> getMapItems(List<MapInfo> maps) {
-    return maps.stream().map(this::getMapIcon).collect(Collectors.toList());
-  }
-
-  private List<ClickableItem> getFilteredMapItems() {
-    return getMapItems(
-        maps.stream()
-            .filter(
-                map -> {
-                  if (viewAll) return true;
-
-                  Collection<MapTag> tags = map.getTags();
-                  return tags != null && tags.contains(getFilterTag());
-                })
-            .collect(Collectors.toList()));
+  private BitSet getFilteredMaps() {
+    return viewAll ? catalog.all() : catalog.withTag(getFilterTag());
   }
 
-  private ClickableItem getMapIcon(MapInfo map) {
-    boolean isAdded = getFeature().getParty().isMapAdded(map);
-
-    Material icon =
-        map.getTags().isEmpty()
-                || !map.getTags().stream().filter(t -> t.isGamemode()).findAny().isPresent()
-            ? Material.MAP
-            : getMapTagMaterial(
-                map.getTags().stream().filter(tag -> tag.isGamemode()).findAny().get());
-
-    ItemBuilder builder =
-        new ItemBuilder()
-            .material(icon)
-            .name(colorize("&6" + map.getName()))
-            .lore(
-                colorize(
-                    "&7Max Players: &e" + map.getMaxPlayers().stream().reduce(0, Integer::sum)),
-                colorize(
-                    "&7Tags: " + TextTranslations.translateLegacy(renderMapTags(map), getViewer())),
-                colorize(isAdded ? "&cAlready added" : "&aClick to add map")) // TODO:
-            .flags(ItemFlag.values());
-
-    if (isAdded) {
-      builder.enchant(Enchantment.LUCK, 1);
-    }
-
+  private ClickableItem getMapIcon(MapIcon icon) {
+    boolean isAdded = getFeature().getParty().isMapAdded(icon.getMap());
     return ClickableItem.of(
-        builder.build(),
+        isAdded ? icon.getItem("&cAlready added", true) : icon.getItem("&aClick to add map", false),
         c -> {
-          Bukkit.dispatchCommand(getViewer(), "event addmap " + map.getName());
+          Bukkit.dispatchCommand(getViewer(), "event addmap " + icon.getMap().getName());
         });
   }
 
@@ -237,59 +188,4 @@ public class MapAddMenu extends MapPartyMenu {
             .flags(ItemFlag.values())
             .build());
   }
-
-  private Component renderMapTags(MapInfo map) {
-    return TextFormatter.list(
-        map.getTags().stream()
-            .map(tag -> text(tag.getId(), NamedTextColor.DARK_AQUA))
-            .collect(Collectors.toList()),
-        NamedTextColor.GRAY);
-  }
-
-  private Material getMapTagMaterial(MapTag mapTag) {
-    switch (mapTag.getId()) {
-      case "2teams":
-        return Material.LEATHER;
-      case "ffa":
-        return Material.DIAMOND_SWORD;
-      case "border":
-        return Material.IRON_BARDING;
-      case "wool":
-        return Material.WOOL;
-      case "controlpoint":
-        return Material.BEACON;
-      case "flag":
-        return Material.BANNER;
-      case "classes":
-        return Material.FISHING_ROD;
-      case "deathmatch":
-        return Material.STONE_SWORD;
-      case "monument":
-        return Material.DIAMOND_PICKAXE;
-      case "4teams":
-        return Material.TRAP_DOOR;
-      case "timelimit":
-        return Material.WATCH;
-      case "autotnt":
-        return Material.TNT;
-      case "core":
-        return Material.OBSIDIAN;
-      case "blitz":
-        return Material.EGG;
-      case "scorebox":
-        return Material.WEB;
-      case "6teams":
-        return Material.BED;
-      case "rage":
-        return Material.BOW;
-      case "3teams":
-        return Material.WORKBENCH;
-      case "terrain":
-        return Material.GRASS;
-      case "8teams":
-        return Material.INK_SACK;
-      default:
-        return Material.MAP;
-    }
-  }
 }
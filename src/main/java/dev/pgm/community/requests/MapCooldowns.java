@@ -0,0 +1,96 @@
+package dev.pgm.community.requests;
+
+import com.google.common.collect.Maps;
+import dev.pgm.community.menu.MapIconCatalog;
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import tc.oc.pgm.api.map.MapInfo;
+
+/**
+ * MapCooldowns - The maps on cooldown, also kept as a bitset over {@link MapIconCatalog} numbers
+ *
+ * <p>The bitset is updated as cooldowns start, and as they expire, in order of expiry, so a query
+ * only touches the cooldowns which ended since the last one. It is only rebuilt when the catalog
+ * is.
+ */
+public class MapCooldowns {
+
+  private final Map<MapInfo, MapCooldown> cooldowns;
+  private final PriorityQueue<Expiry> expiries;
+
+  private MapIconCatalog catalog;
+  private BitSet active;
+
+  public MapCooldowns() {
+    this.cooldowns = Maps.newHashMap();
+    this.expiries = new PriorityQueue<>(Comparator.comparing(expiry -> expiry.time));
+    this.active = new BitSet();
+  }
+
+  /** @return Every cooldown by map, expired ones are removed on the next query */
+  public Map<MapInfo, MapCooldown> asMap() {
+    return cooldowns;
+  }
+
+  /**
+   * Starts a cooldown, unless the map is already on one
+   *
+   * @param map The map
+   * @param cooldown The cooldown
+   */
+  public void start(MapInfo map, MapCooldown cooldown) {
+    expire();
+    if (cooldowns.putIfAbsent(map, cooldown) != null) return;
+    expiries.add(new Expiry(map, cooldown, Instant.now().plus(cooldown.getTimeRemaining())));
+    int index = catalog == null ? -1 : catalog.indexOf(map);
+    if (index >= 0) {
+      active.set(index);
+    }
+  }
+
+  public boolean isActive(MapInfo map) {
+    expire();
+    return cooldowns.containsKey(map);
+  }
+
+  /**
+   * Gets the maps on cooldown
+   *
+   * @param catalog The catalog the bitset numbers maps by
+   * @return The maps on cooldown, must not be modified
+   */
+  public BitSet getActive(MapIconCatalog catalog) {
+    expire();
+    if (this.catalog != catalog) {
+      this.catalog = catalog;
+      this.active = catalog.of(cooldowns.keySet());
+    }
+    return active;
+  }
+
+  private void expire() {
+    Instant now = Instant.now();
+    while (!expiries.isEmpty() && !expiries.peek().time.isAfter(now)) {
+      Expiry expiry = expiries.poll();
+      int index = catalog == null ? -1 : catalog.indexOf(expiry.map);
+      if (cooldowns.remove(expiry.map, expiry.cooldown) && index >= 0) {
+        active.clear(index);
+      }
+    }
+  }
+
+  private static class Expiry {
+    private final MapInfo map;
+    private final MapCooldown cooldown;
+    private final Instant time;
+
+    private Expiry(MapInfo map, MapCooldown cooldown, Instant time) {
+      this.map = map;
+      this.cooldown = cooldown;
+      this.time = time;
+    }
+  }
+}
@@ -6,7 +6,6 @@ import static net.kyori.adventure.text.Component.translatable;
 import static tc.oc.pgm.util.player.PlayerComponent.player;
 import static tc.oc.pgm.util.text.TemporalComponent.duration;
 
-import com.google.common.collect.Sets;
 import dev.pgm.community.Community;
 import dev.pgm.community.CommunityCommand;
 import dev.pgm.community.requests.RequestConfig;
@@ -17,12 +16,10 @@ import dev.pgm.community.requests.feature.RequestFeature;
 import dev.pgm.community.utils.BroadcastUtils;
 import dev.pgm.community.utils.CommandAudience;
 import dev.pgm.community.utils.MessageUtils;
-import dev.pgm.community.utils.PGMUtils;
 import dev.pgm.community.utils.PaginatedComponentResults;
 import dev.pgm.community.utils.VisibilityUtils;
+import java.util.List;
 import java.util.Queue;
-import java.util.Set;
-import java.util.stream.Collectors;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.event.ClickEvent;
@@ -32,9 +29,7 @@ import net.kyori.adventure.text.format.TextDecoration;
 import net.md_5.bungee.api.ChatColor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
-import tc.oc.pgm.api.PGM;
 import tc.oc.pgm.api.map.MapInfo;
-import tc.oc.pgm.api.map.Phase;
 import tc.oc.pgm.lib.cloud.commandframework.annotations.Argument;
 import tc.oc.pgm.lib.cloud.commandframework.annotations.CommandDescription;
 import tc.oc.pgm.lib.cloud.commandframework.annotations.CommandMethod;
@@ -189,7 +184,8 @@ public class SponsorCommands extends CommunityCommand {
               audience.sendMessage(buttons);
 
               audience.sendMessage(footer);
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 
   @CommandMethod("request <map>")
@@ -217,12 +213,7 @@ public class SponsorCommands extends CommunityCommand {
   @CommandDescription("View a list of maps which can be sponsored")
   public void viewMapList(
       CommandAudience audience, @Argument(value = "page", defaultValue = "1") int page) {
-    Set<MapInfo> maps =
-        Sets.newHashSet(PGM.get().getMapLibrary().getMaps()).stream()
-            .filter(PGMUtils::isMapSizeAllowed)
-            .filter(m -> m.getPhase() != Phase.DEVELOPMENT)
-            .filter(m -> !requests.hasMapCooldown(m))
-            .collect(Collectors.toSet());
+    List<MapInfo> maps = requests.getAvailableSponsorMaps();
 
     int resultsPerPage = 8;
     int pages = (maps.size() + resultsPerPage - 1) / resultsPerPage;
@@ -46,18 +46,25 @@ public class TokenCommands extends CommunityCommand {
           .thenAcceptAsync(
               uuid -> {
                 if (uuid.isPresent()) {
-                  RequestProfile profile = requests.getRequestProfile(uuid.get()).join();
-                  if (profile == null) {
-                    audience.sendWarning(formatNotFoundComponent(target.getIdentifier()));
-                    return;
-                  }
-
-                  Component name = users.renderUsername(uuid, NameStyle.FANCY).join();
-                  sendTokenBalanceMessage(audience.getAudience(), name, profile.getSponsorTokens());
+                  requests
+                      .getRequestProfile(uuid.get())
+                      .thenAcceptBothAsync(
+                          users.renderUsername(uuid, NameStyle.FANCY),
+                          (profile, name) -> {
+                            if (profile == null) {
+                              audience.sendWarning(formatNotFoundComponent(target.getIdentifier()));
+                              return;
+                            }
+
+                            sendTokenBalanceMessage(
+                                audience.getAudience(), name, profile.getSponsorTokens());
+                          },
+                          Community.get().getExecutors().cpu());
                 } else {
                   audience.sendWarning(formatNotFoundComponent(target.getIdentifier()));
                 }
-              });
+              },
+              Community.get().getExecutors().cpu());
     } else if (audience.isPlayer()) {
       Player player = audience.getPlayer();
       requests
@@ -67,7 +74,8 @@ public class TokenCommands extends CommunityCommand {
                 int tokens = profile.getSponsorTokens();
                 sendTokenBalanceMessage(audience.getAudience(), null, tokens);
                 sendRefreshDuration(audience.getAudience(), player, profile);
-              });
+              },
+              Community.get().getExecutors().cpu());
     } else {
       audience.sendWarning(text("Please provide a username to check the token balance of"));
     }
@@ -83,27 +91,37 @@ public class TokenCommands extends CommunityCommand {
     getTarget(target.getIdentifier(), users)
         .thenAcceptAsync(
             targetId -> {
-              if (targetId.isPresent()) {
-                RequestProfile profile = requests.getRequestProfile(targetId.get()).join();
-                if (profile != null) {
-                  int total = profile.award(amount);
-                  requests.update(profile);
-                  audience.sendMessage(
-                      text()
-                          .append(MessageUtils.TOKEN)
-                          .append(space())
-                          .append(
-                              users.renderUsername(profile.getPlayerId(), NameStyle.FANCY).join())
-                          .append(text(" now has "))
-                          .append(text(total, NamedTextColor.YELLOW, TextDecoration.BOLD))
-                          .append(text(" sponsor token" + (total != 1 ? "s" : "")))
-                          .color(NamedTextColor.GRAY)
-                          .build());
-                  return;
-                }
+              if (!targetId.isPresent()) {
+                audience.sendWarning(formatNotFoundComponent(target.getIdentifier()));
+                return;
               }
-              audience.sendWarning(formatNotFoundComponent(target.getIdentifier()));
-            });
+
+              requests
+                  .getRequestProfile(targetId.get())
+                  .thenAcceptBothAsync(
+                      users.renderUsername(targetId, NameStyle.FANCY),
+                      (profile, name) -> {
+                        if (profile == null) {
+                          audience.sendWarning(formatNotFoundComponent(target.getIdentifier()));
+                          return;
+                        }
+
+                        int total = profile.award(amount);
+                        requests.update(profile);
+                        audience.sendMessage(
+                            text()
+                                .append(MessageUtils.TOKEN)
+                                .append(space())
+                                .append(name)
+                                .append(text(" now has "))
+                                .append(text(total, NamedTextColor.YELLOW, TextDecoration.BOLD))
+                                .append(text(" sponsor token" + (total != 1 ? "s" : "")))
+                                .color(NamedTextColor.GRAY)
+                                .build());
+                      },
+                      Community.get().getExecutors().cpu());
+            },
+            Community.get().getExecutors().cpu());
   }
 
   private void sendTokenBalanceMessage(Audience viewer, Component name, int tokens) {
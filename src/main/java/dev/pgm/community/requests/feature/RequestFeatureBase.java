@@ -21,8 +21,10 @@ import com.google.common.collect.Maps;
 import dev.pgm.community.Community;
 import dev.pgm.community.CommunityPermissions;
 import dev.pgm.community.feature.FeatureBase;
+import dev.pgm.community.menu.MapIconCatalog;
 import dev.pgm.community.party.MapParty;
 import dev.pgm.community.requests.MapCooldown;
+import dev.pgm.community.requests.MapCooldowns;
 import dev.pgm.community.requests.RequestConfig;
 import dev.pgm.community.requests.RequestProfile;
 import dev.pgm.community.requests.SponsorRequest;
@@ -34,6 +36,7 @@ import dev.pgm.community.utils.Sounds;
 import dev.pgm.community.utils.VisibilityUtils;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -80,7 +83,7 @@ public abstract class RequestFeatureBase extends FeatureBase implements RequestF
 
   private Cache<UUID, Instant> cooldown;
 
-  private Map<MapInfo, MapCooldown> mapCooldown;
+  private MapCooldowns mapCooldown;
 
   private LinkedList<SponsorRequest> sponsors;
 
@@ -95,7 +98,7 @@ public abstract class RequestFeatureBase extends FeatureBase implements RequestF
         CacheBuilder.newBuilder()
             .expireAfterWrite(config.getCooldown().getSeconds(), TimeUnit.SECONDS)
             .build();
-    this.mapCooldown = Maps.newHashMap();
+    this.mapCooldown = new MapCooldowns();
     this.sponsors = Lists.newLinkedList();
     this.currentSponsor = null;
     this.bookCreator = new SponsorVotingBookCreator(this);
@@ -118,11 +121,11 @@ public abstract class RequestFeatureBase extends FeatureBase implements RequestF
 
   @Override
   public List<MapInfo> getAvailableSponsorMaps() {
-    return Lists.newArrayList(PGM.get().getMapLibrary().getMaps()).stream()
-        .filter(PGMUtils::isMapSizeAllowed)
-        .filter(m -> m.getPhase() != Phase.DEVELOPMENT)
-        .filter(m -> !hasMapCooldown(m))
-        .collect(Collectors.toList());
+    MapIconCatalog catalog = MapIconCatalog.get();
+    BitSet available = catalog.withSize(PGMUtils.getAllowedMapSize());
+    available.andNot(catalog.inPhase(Phase.DEVELOPMENT));
+    available.andNot(mapCooldown.getActive(catalog));
+    return catalog.getMaps(available);
   }
 
   @Override
@@ -176,7 +179,8 @@ public abstract class RequestFeatureBase extends FeatureBase implements RequestF
                       event.getPlayer(), refresh, daily, profile.getSponsorTokens());
                 }
               }
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 
   @EventHandler
@@ -210,7 +214,8 @@ public abstract class RequestFeatureBase extends FeatureBase implements RequestF
                   // Update RequestProfile with sponsor map info
                   profile.sponsor(nextRequest.getMap());
                   update(profile);
-                });
+                },
+                Community.get().getExecutors().cpu());
 
         // Alert online player if their sponsor request has been processed
         Player requester = Bukkit.getPlayer(nextRequest.getPlayerId());
@@ -258,7 +263,8 @@ public abstract class RequestFeatureBase extends FeatureBase implements RequestF
                                 TextDecoration.BOLD)));
                     viewer.playSound(Sounds.GET_TOKENS);
                   }
-                });
+                },
+                Community.get().getExecutors().cpu());
       }
     }
   }
@@ -342,7 +348,8 @@ public abstract class RequestFeatureBase extends FeatureBase implements RequestF
             profile -> {
               profile.request(map);
               update(profile);
-            });
+            },
+            Community.get().getExecutors().cpu());
 
     // Alert the staff
     alertStaff(player, map, false);
@@ -407,7 +414,7 @@ public abstract class RequestFeatureBase extends FeatureBase implements RequestF
 
     // Check if map has a cooldown
     if (hasMapCooldown(map)) {
-      MapCooldown cooldown = mapCooldown.get(map);
+      MapCooldown cooldown = mapCooldown.asMap().get(map);
       viewer.sendWarning(
           text()
               .append(text("This map can be sponsored in ", NamedTextColor.RED))
@@ -485,7 +492,8 @@ public abstract class RequestFeatureBase extends FeatureBase implements RequestF
                 viewer.sendMessage(
                     text("Request will be added to the next map vote", NamedTextColor.GRAY));
               }
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 
   @Override
@@ -541,20 +549,12 @@ public abstract class RequestFeatureBase extends FeatureBase implements RequestF
 
   @Override
   public boolean hasMapCooldown(MapInfo map) {
-    MapCooldown cooldown = mapCooldown.get(map);
-    if (cooldown == null) return false;
-
-    if (cooldown.hasExpired()) {
-      mapCooldown.remove(map);
-      return false;
-    }
-
-    return true;
+    return mapCooldown.isActive(map);
   }
 
   @Override
   public Map<MapInfo, MapCooldown> getMapCooldowns() {
-    return mapCooldown;
+    return mapCooldown.asMap();
   }
 
   private Component getCooldownMessage(Instant lastRequest, Duration cooldownTime) {
@@ -699,7 +699,7 @@ public abstract class RequestFeatureBase extends FeatureBase implements RequestF
   }
 
   private void startNewMapCooldown(MapInfo map, Duration matchLength) {
-    this.mapCooldown.putIfAbsent(
+    this.mapCooldown.start(
         map,
         new MapCooldown(
             Instant.now(), matchLength.multipliedBy(getRequestConfig().getMapCooldownMultiply())));
@@ -1,5 +1,6 @@
 package dev.pgm.community.requests.feature.types;
 
+import dev.pgm.community.network.feature.NetworkFeature;
 import dev.pgm.community.requests.RequestConfig;
 import dev.pgm.community.requests.RequestProfile;
 import dev.pgm.community.requests.feature.RequestFeatureBase;
@@ -15,9 +16,10 @@ public class SQLRequestFeature extends RequestFeatureBase {
 
   private SQLRequestService service;
 
-  public SQLRequestFeature(Configuration config, Logger logger, UsersFeature users) {
+  public SQLRequestFeature(
+      Configuration config, Logger logger, UsersFeature users, NetworkFeature network) {
     super(new RequestConfig(config), logger, "Requests (SQL)", users);
-    this.service = new SQLRequestService();
+    this.service = new SQLRequestService(network.getInvalidations());
   }
 
   @Override
@@ -1,7 +1,6 @@
 package dev.pgm.community.requests.menu;
 
-import static tc.oc.pgm.util.bukkit.BukkitUtils.colorize;
-
+import dev.pgm.community.menu.MapIconCatalog.MapIcon;
 import dev.pgm.community.menu.MapSelectionMenu;
 import fr.minuskube.inv.ClickableItem;
 import fr.minuskube.inv.SmartInventory;
@@ -11,10 +10,8 @@ import org.bukkit.DyeColor;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemFlag;
-import org.bukkit.inventory.ItemStack;
 import tc.oc.pgm.api.map.MapInfo;
 import tc.oc.pgm.util.inventory.ItemBuilder;
-import tc.oc.pgm.util.text.TextTranslations;
 
 public class SponsorMenu extends MapSelectionMenu {
 
@@ -47,25 +44,12 @@ public class SponsorMenu extends MapSelectionMenu {
   }
 
   @Override
-  public ClickableItem getMapIcon(MapInfo map) {
+  public ClickableItem getMapIcon(MapIcon icon) {
     return ClickableItem.of(
-        getMapItem(map),
+        icon.getItem("&7Click to select", false),
         c -> {
-          Bukkit.dispatchCommand(getViewer(), "sponsor request " + map.getName());
+          Bukkit.dispatchCommand(getViewer(), "sponsor request " + icon.getMap().getName());
           getViewer().closeInventory();
         });
   }
-
-  private ItemStack getMapItem(MapInfo map) {
-    return new ItemBuilder()
-        .material(getMapMaterial(map))
-        .name(colorize("&6" + map.getName()))
-        .lore(
-            colorize("&7Max Players: &e" + map.getMaxPlayers().stream().reduce(0, Integer::sum)),
-            colorize(
-                "&7Tags: " + TextTranslations.translateLegacy(renderMapTags(map), getViewer())),
-            colorize("&7Click to select"))
-        .flags(ItemFlag.values())
-        .build();
-  }
 }
@@ -1,9 +1,13 @@
 package dev.pgm.community.requests.services;
 
+import dev.pgm.community.database.UUIDCodec;
+
 public interface RequestQuery {
 
   static final String TABLE_FIELDS =
-      "(id VARCHAR(36) PRIMARY KEY, last_request_time LONG, last_request_map VARCHAR(255), last_sponsor_time LONG, last_sponsor_map VARCHAR(255), tokens INT, last_token_refresh LONG)";
+      "(id "
+          + UUIDCodec.columnType()
+          + " PRIMARY KEY, last_request_time LONG, last_request_map VARCHAR(255), last_sponsor_time LONG, last_sponsor_map VARCHAR(255), tokens INT, last_token_refresh LONG)";
   static final String TABLE_NAME = "requests";
 
   static final String INSERT_REQUESTS_QUERY =
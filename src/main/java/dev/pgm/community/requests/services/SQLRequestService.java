@@ -1,11 +1,13 @@
 package dev.pgm.community.requests.services;
 
 import co.aikar.idb.DB;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Lists;
+import dev.pgm.community.Community;
+import dev.pgm.community.database.UUIDCodec;
+import dev.pgm.community.database.WriteBehindQueue;
+import dev.pgm.community.feature.FeatureCache;
 import dev.pgm.community.feature.SQLFeatureBase;
+import dev.pgm.community.network.cache.InvalidationBus;
 import dev.pgm.community.requests.RequestProfile;
 import java.time.Instant;
 import java.util.List;
@@ -16,20 +18,20 @@ import javax.annotation.Nullable;
 public class SQLRequestService extends SQLFeatureBase<RequestProfile, String>
     implements RequestQuery {
 
-  private LoadingCache<UUID, UserRequestData> profileCache;
+  private static final String INVALIDATION_TYPE = "requests";
 
-  public SQLRequestService() {
+  private FeatureCache<UUID, UserRequestData> profileCache;
+  private final WriteBehindQueue writes;
+  private final InvalidationBus invalidations;
+
+  public SQLRequestService(InvalidationBus invalidations) {
     super(TABLE_NAME, TABLE_FIELDS);
+    this.writes = Community.get().getDatabase().getWriteQueue();
+    this.invalidations = invalidations;
 
     this.profileCache =
-        CacheBuilder.newBuilder()
-            .build(
-                new CacheLoader<UUID, UserRequestData>() {
-                  @Override
-                  public UserRequestData load(UUID key) throws Exception {
-                    return new UserRequestData(key);
-                  }
-                });
+        FeatureCache.<UserRequestData>players("requests").build(UserRequestData::new);
+    invalidations.subscribe(INVALIDATION_TYPE, profileCache::invalidate);
   }
 
   public CompletableFuture<RequestProfile> login(UUID playerId) {
@@ -42,13 +44,14 @@ public class SQLRequestService extends SQLFeatureBase<RequestProfile, String>
                 return reqProfile;
               }
               return profile;
-            });
+            },
+            Community.get().getExecutors().io());
   }
 
   @Nullable
   public RequestProfile getCached(UUID playerId) {
-    UserRequestData data = profileCache.getUnchecked(playerId);
-    if (data.getProfile() != null) {
+    UserRequestData data = profileCache.getIfPresent(playerId);
+    if (data != null && data.getProfile() != null) {
       return data.getProfile();
     }
     return null;
@@ -57,27 +60,31 @@ public class SQLRequestService extends SQLFeatureBase<RequestProfile, String>
   @Override
   public void save(RequestProfile profile) {
     DB.executeUpdateAsync(
-        INSERT_REQUESTS_QUERY,
-        profile.getPlayerId().toString(),
-        convertTime(profile.getLastRequestTime()),
-        profile.getLastRequestMap(),
-        convertTime(profile.getLastSponsorTime()),
-        profile.getLastSponsorMap(),
-        profile.getSponsorTokens(),
-        convertTime(profile.getLastTokenRefreshTime()));
+            INSERT_REQUESTS_QUERY,
+            UUIDCodec.encode(profile.getPlayerId()),
+            convertTime(profile.getLastRequestTime()),
+            profile.getLastRequestMap(),
+            convertTime(profile.getLastSponsorTime()),
+            profile.getLastSponsorMap(),
+            profile.getSponsorTokens(),
+            convertTime(profile.getLastTokenRefreshTime()))
+        .thenRun(() -> invalidations.publish(INVALIDATION_TYPE, profile.getPlayerId()));
     profileCache.invalidate(profile.getPlayerId());
   }
 
   public void update(RequestProfile profile) {
-    DB.executeUpdateAsync(
-        UPDATE_REQUEST_QUERY,
-        convertTime(profile.getLastRequestTime()),
-        profile.getLastRequestMap(),
-        convertTime(profile.getLastSponsorTime()),
-        profile.getLastSponsorMap(),
-        profile.getSponsorTokens(),
-        convertTime(profile.getLastTokenRefreshTime()),
-        profile.getPlayerId().toString());
+    writes
+        .enqueue(
+            TABLE_NAME,
+            UPDATE_REQUEST_QUERY,
+            convertTime(profile.getLastRequestTime()),
+            profile.getLastRequestMap(),
+            convertTime(profile.getLastSponsorTime()),
+            profile.getLastSponsorMap(),
+            profile.getSponsorTokens(),
+            convertTime(profile.getLastTokenRefreshTime()),
+            UUIDCodec.encode(profile.getPlayerId()))
+        .thenRun(() -> invalidations.publish(INVALIDATION_TYPE, profile.getPlayerId()));
   }
 
   @Override
@@ -93,11 +100,11 @@ public class SQLRequestService extends SQLFeatureBase<RequestProfile, String>
     if (profile.isLoaded() && profile.getProfile() != null) {
       return CompletableFuture.completedFuture(profile.getProfile());
     } else {
-      return DB.getFirstRowAsync(SELECT_REQUEST_QUERY, playerId.toString())
+      return DB.getFirstRowAsync(SELECT_REQUEST_QUERY, UUIDCodec.encode(playerId))
           .thenApplyAsync(
               result -> {
                 if (result != null) {
-                  final UUID id = UUID.fromString(result.getString("id"));
+                  final UUID id = UUIDCodec.decode(result, "id");
                   final long lastRequest = Long.parseLong(result.getString("last_request_time"));
                   final String lastRequestMap = result.getString("last_request_map");
                   final long lastSponsor = Long.parseLong(result.getString("last_sponsor_time"));
@@ -124,7 +131,8 @@ public class SQLRequestService extends SQLFeatureBase<RequestProfile, String>
                 }
                 profile.setLoaded(true);
                 return profile.getProfile();
-              });
+              },
+              Community.get().getExecutors().io());
     }
   }
 
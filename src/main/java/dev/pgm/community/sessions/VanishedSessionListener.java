@@ -1,5 +1,6 @@
 package dev.pgm.community.sessions;
 
+import dev.pgm.community.Community;
 import dev.pgm.community.sessions.feature.SessionFeature;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -25,6 +26,7 @@ public class VanishedSessionListener implements Listener {
             session -> {
               sessions.endSession(session);
               sessions.startSession(player);
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 }
@@ -45,7 +45,8 @@ public abstract class SessionFeatureBase extends FeatureBase implements SessionF
     if (vanishedSessionListener != null) HandlerList.unregisterAll(vanishedSessionListener);
 
     for (Player player : Bukkit.getOnlinePlayers())
-      getLatestSession(player.getUniqueId(), false).thenAcceptAsync(this::endSession);
+      getLatestSession(player.getUniqueId(), false)
+          .thenAcceptAsync(this::endSession, Community.get().getExecutors().cpu());
   }
 
   @EventHandler(priority = EventPriority.LOWEST)
@@ -62,7 +63,8 @@ public abstract class SessionFeatureBase extends FeatureBase implements SessionF
   @EventHandler(priority = EventPriority.HIGHEST)
   public void onQuitHighest(PlayerQuitEvent event) {
     if (!serverRestarting)
-      getLatestSession(event.getPlayer().getUniqueId(), false).thenAcceptAsync(this::endSession);
+      getLatestSession(event.getPlayer().getUniqueId(), false)
+          .thenAcceptAsync(this::endSession, Community.get().getExecutors().cpu());
   }
 
   @Override
@@ -1,5 +1,8 @@
 package dev.pgm.community.sessions.feature.types;
 
+import dev.pgm.community.network.feature.NetworkFeature;
+import dev.pgm.community.network.presence.Presence;
+import dev.pgm.community.network.presence.PresenceRegistry;
 import dev.pgm.community.sessions.Session;
 import dev.pgm.community.sessions.SessionQuery;
 import dev.pgm.community.sessions.feature.SessionFeatureBase;
@@ -7,6 +10,7 @@ import dev.pgm.community.sessions.services.SQLSessionService;
 import dev.pgm.community.users.feature.UsersFeature;
 import dev.pgm.community.utils.VisibilityUtils;
 import java.time.Instant;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
@@ -15,14 +19,33 @@ import org.bukkit.entity.Player;
 public class SQLSessionFeature extends SessionFeatureBase {
 
   private final SQLSessionService service;
+  private final PresenceRegistry presence;
 
-  public SQLSessionFeature(UsersFeature users, Logger logger) {
+  public SQLSessionFeature(UsersFeature users, NetworkFeature network, Logger logger) {
     super(users, logger, "Sessions (SQL)");
     this.service = new SQLSessionService();
+    this.presence = new PresenceRegistry(network, logger);
+
+    // Sessions cached for a player are stale once they join or leave another server
+    presence.onChange(service::invalidate);
+    if (isEnabled()) {
+      presence.start();
+    }
+  }
+
+  public PresenceRegistry getPresence() {
+    return presence;
   }
 
   @Override
   public CompletableFuture<Session> getLatestSession(UUID playerId, boolean ignoreDisguised) {
+    // Players online on another server are answered from the registry, without a query
+    Optional<Presence> online = presence.get(playerId);
+    if (online.isPresent()
+        && !presence.isLocal(online.get())
+        && !(ignoreDisguised && online.get().isDisguised())) {
+      return CompletableFuture.completedFuture(online.get().toSession());
+    }
     return service.query(new SessionQuery(playerId, ignoreDisguised));
   }
 
@@ -30,6 +53,7 @@ public class SQLSessionFeature extends SessionFeatureBase {
   public Session startSession(Player player) {
     Session session = new Session(player.getUniqueId(), VisibilityUtils.isDisguised(player));
     service.save(session);
+    presence.join(Presence.of(session));
 
     return session;
   }
@@ -38,10 +62,18 @@ public class SQLSessionFeature extends SessionFeatureBase {
   public void endSession(Session session) {
     session.setEndDate(Instant.now());
     service.updateSessionEndTime(session);
+    presence.quit(session.getPlayerId(), session.getSessionId());
   }
 
   @Override
   public void endOngoingSessions() {
     service.endOngoingSessions();
+    presence.quitAll();
+  }
+
+  @Override
+  public void disable() {
+    super.disable();
+    presence.stop();
   }
 }
@@ -1,10 +1,10 @@
 package dev.pgm.community.sessions.services;
 
 import co.aikar.idb.DB;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import dev.pgm.community.Community;
+import dev.pgm.community.database.UUIDCodec;
+import dev.pgm.community.database.WriteBehindQueue;
+import dev.pgm.community.feature.FeatureCache;
 import dev.pgm.community.feature.SQLFeatureBase;
 import dev.pgm.community.sessions.Session;
 import dev.pgm.community.sessions.SessionQuery;
@@ -12,24 +12,20 @@ import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import javax.annotation.Nonnull;
 
 public class SQLSessionService extends SQLFeatureBase<Session, SessionQuery>
     implements SessionDataQuery {
 
-  private final LoadingCache<SessionQuery, SessionData> sessionCache;
+  private final FeatureCache<SessionQuery, SessionData> sessionCache;
+  private final WriteBehindQueue writes;
 
   public SQLSessionService() {
     super(TABLE_NAME, TABLE_FIELDS);
+    this.writes = Community.get().getDatabase().getWriteQueue();
     this.sessionCache =
-        CacheBuilder.newBuilder()
-            .build(
-                new CacheLoader<SessionQuery, SessionData>() {
-                  @Override
-                  public SessionData load(@Nonnull SessionQuery key) {
-                    return new SessionData(key.getPlayerId(), key.ignoreDisguised());
-                  }
-                });
+        FeatureCache.<SessionQuery, SessionData>builder("sessions")
+            .owner(SessionQuery::getPlayerId)
+            .build(key -> new SessionData(key.getPlayerId(), key.ignoreDisguised()));
   }
 
   @Override
@@ -40,25 +36,38 @@ public class SQLSessionService extends SQLFeatureBase<Session, SessionQuery>
     query = sessionCache.getUnchecked(new SessionQuery(session.getPlayerId(), true));
     query.invalidate();
 
-    DB.executeUpdateAsync(
+    writes.enqueue(
+        TABLE_NAME,
         INSERT_SESSION_QUERY,
-        session.getSessionId().toString(),
-        session.getPlayerId().toString(),
+        UUIDCodec.encode(session.getSessionId()),
+        UUIDCodec.encode(session.getPlayerId()),
         session.isDisguised(),
         session.getServerName(),
         session.getStartDate().toEpochMilli(),
         session.getEndDate() == null ? null : session.getEndDate().toEpochMilli());
   }
 
+  /**
+   * Drops the cached sessions of a player, such as when they joined another server
+   *
+   * @param playerId The player UUID
+   */
+  public void invalidate(UUID playerId) {
+    sessionCache.invalidate(new SessionQuery(playerId, false));
+    sessionCache.invalidate(new SessionQuery(playerId, true));
+  }
+
   public void updateSessionEndTime(Session session) {
-    DB.executeUpdateAsync(
+    writes.enqueue(
+        TABLE_NAME,
         UPDATE_SESSION_ENDTIME_QUERY,
         session.getEndDate() == null ? null : session.getEndDate().toEpochMilli(),
-        session.getSessionId().toString());
+        UUIDCodec.encode(session.getSessionId()));
   }
 
   public void endOngoingSessions() {
-    DB.executeUpdateAsync(
+    writes.enqueue(
+        TABLE_NAME,
         UPDATE_ONGOING_SESSION_ENDING_QUERY,
         Instant.now().toEpochMilli(),
         Community.get().getServerId());
@@ -78,13 +87,10 @@ public class SQLSessionService extends SQLFeatureBase<Session, SessionQuery>
     } else {
       return DB.getFirstRowAsync(
               target.ignoreDisguised() ? SELECT_DISGUISED_SESSION_QUERY : SELECT_SESSION_QUERY,
-              target.getPlayerId().toString())
+              UUIDCodec.encode(target.getPlayerId()))
           .thenApplyAsync(
               result -> {
                 if (result != null) {
-                  String id = result.getString("id");
-
-                  String player = result.getString("player");
                   boolean disguised = result.get("disguised");
 
                   String server = result.getString("server");
@@ -94,15 +100,16 @@ public class SQLSessionService extends SQLFeatureBase<Session, SessionQuery>
 
                   data.setSession(
                       new Session(
-                          UUID.fromString(id),
-                          UUID.fromString(player),
+                          UUIDCodec.decode(result, "id"),
+                          UUIDCodec.decode(result, "player"),
                           disguised,
                           server,
                           Instant.ofEpochMilli((Long) startTime),
                           endTime == null ? null : Instant.ofEpochMilli((Long) endTime)));
                 }
                 return data.getSession();
-              });
+              },
+              Community.get().getExecutors().io());
     }
   }
 
@@ -1,10 +1,16 @@
 package dev.pgm.community.sessions.services;
 
+import dev.pgm.community.database.UUIDCodec;
+
 public interface SessionDataQuery {
 
   static final String TABLE_NAME = "sessions";
   static final String TABLE_FIELDS =
-      "(id VARCHAR(36) PRIMARY KEY, player VARCHAR(36), disguised BOOL, server VARCHAR(32), start_time BIGINT, end_time BIGINT)";
+      "(id "
+          + UUIDCodec.columnType()
+          + " PRIMARY KEY, player "
+          + UUIDCodec.columnType()
+          + ", disguised BOOL, server VARCHAR(32), start_time BIGINT, end_time BIGINT)";
 
   static final String INSERT_SESSION_QUERY =
       "INSERT INTO "
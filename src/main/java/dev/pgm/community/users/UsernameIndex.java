@@ -0,0 +1,69 @@
+package dev.pgm.community.users;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+
+/**
+ * UsernameIndex - A bidirectional index of player ids and case-insensitive usernames
+ *
+ * <p>Lookups are lock-free, while updates are synchronized so both directions always change
+ * together. A name is only ever mapped to the last player seen using it.
+ */
+public class UsernameIndex {
+
+  private final Map<UUID, String> names;
+  private final Map<String, UUID> ids;
+
+  public UsernameIndex() {
+    this.names = new ConcurrentHashMap<>();
+    this.ids = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Gets the last known username of a player
+   *
+   * @param playerId Player UUID
+   * @return The username with its original case, or null if unknown
+   */
+  @Nullable
+  public String getName(UUID playerId) {
+    return names.get(playerId);
+  }
+
+  /**
+   * Gets the player currently using a username
+   *
+   * @param name Username, case-insensitive
+   * @return The player UUID or null if unknown
+   */
+  @Nullable
+  public UUID getId(String name) {
+    return ids.get(normalize(name));
+  }
+
+  /**
+   * Sets the username of a player, replacing their previous name and releasing this name from any
+   * player who used it before
+   *
+   * @param playerId Player UUID
+   * @param name Current username
+   */
+  public synchronized void put(UUID playerId, String name) {
+    String key = normalize(name);
+    String previous = names.put(playerId, name);
+    if (previous != null) {
+      String previousKey = normalize(previous);
+      if (!previousKey.equals(key)) {
+        ids.remove(previousKey, playerId);
+      }
+    }
+    ids.put(key, playerId);
+  }
+
+  private static String normalize(String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+}
@@ -25,7 +25,10 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -131,85 +134,114 @@ public class UserInfoCommands extends CommunityCommand {
                 return;
               }
 
-              Set<UUID> alts = users.getAlternateAccounts(profile.getId()).join();
+              users
+                  .getAlternateAccounts(profile.getId())
+                  .thenCompose(
+                      alts -> {
+                        Set<UUID> ids = Sets.newHashSet(alts);
+                        ids.add(profile.getId());
+                        // Both lookups share a single query for unknown names
+                        CompletableFuture<Map<UUID, Component>> names =
+                            users.renderUsernames(ids, NameStyle.COLOR);
+                        CompletableFuture<Map<UUID, Component>> fancyNames =
+                            users.renderUsernames(alts, NameStyle.FANCY);
+                        CompletableFuture<Map<UUID, Set<UUID>>> bannedAlts =
+                            moderation.getBannedAlts(Collections.singleton(profile.getId()));
+                        return CompletableFuture.allOf(names, fancyNames, bannedAlts)
+                            .thenRunAsync(
+                                () ->
+                                    sendAlts(
+                                        audience,
+                                        profile.getId(),
+                                        alts,
+                                        bannedAlts
+                                            .join()
+                                            .getOrDefault(profile.getId(), Collections.emptySet()),
+                                        names.join(),
+                                        fancyNames.join()),
+                                Community.get().getExecutors().cpu());
+                      });
+            },
+            Community.get().getExecutors().cpu());
+  }
 
-              Component targetPlayer =
-                  users.renderUsername(profile.getId(), NameStyle.COLOR).join();
-              if (alts.isEmpty()) {
-                audience.sendWarning(
-                    translatable("moderation.alts.noAlts", NamedTextColor.GRAY, targetPlayer));
-                return;
-              }
+  private void sendAlts(
+      CommandAudience audience,
+      UUID targetId,
+      Set<UUID> alts,
+      Set<UUID> bannedAlts,
+      Map<UUID, Component> names,
+      Map<UUID, Component> fancyNames) {
+    Component targetPlayer = names.get(targetId);
+    if (alts.isEmpty()) {
+      audience.sendWarning(
+          translatable("moderation.alts.noAlts", NamedTextColor.GRAY, targetPlayer));
+      return;
+    }
 
-              Set<Component> altNames =
-                  alts.stream()
-                      .map(
-                          altId -> {
-                            Component name = users.renderUsername(altId, NameStyle.COLOR).join();
-
-                            return text()
-                                .append(name)
-                                .clickEvent(ClickEvent.runCommand("/l " + altId.toString()))
-                                .hoverEvent(
-                                    HoverEvent.showText(
-                                        text(
-                                                "Click to view punishment history of ",
-                                                NamedTextColor.GRAY)
-                                            .append(name)))
-                                .build();
-                          })
-                      .collect(Collectors.toSet());
-
-              Component numberOfAlts =
-                  text(alts.size(), NamedTextColor.YELLOW, TextDecoration.BOLD);
-
-              Component altNameList =
-                  text()
-                      .append(targetPlayer)
-                      .append(text(" has "))
-                      .append(numberOfAlts)
-                      .append(text(" known alternate account"))
-                      .append(text(alts.size() != 1 ? "s" : ""))
-                      .append(text(": "))
-                      .append(TextFormatter.list(altNames, NamedTextColor.GRAY))
-                      .color(NamedTextColor.GRAY)
+    Set<Component> altNames =
+        alts.stream()
+            .map(
+                altId -> {
+                  Component name = names.get(altId);
+
+                  return text()
+                      .append(name)
+                      .clickEvent(ClickEvent.runCommand("/l " + altId.toString()))
+                      .hoverEvent(
+                          HoverEvent.showText(
+                              text("Click to view punishment history of ", NamedTextColor.GRAY)
+                                  .append(name)))
                       .build();
+                })
+            .collect(Collectors.toSet());
+
+    Component numberOfAlts = text(alts.size(), NamedTextColor.YELLOW, TextDecoration.BOLD);
 
-              List<Component> altsWithBans =
-                  alts.stream()
-                      .filter(altId -> moderation.isBanned(altId.toString()).join())
-                      .map(
-                          altId -> {
-                            Component name = users.renderUsername(altId, NameStyle.FANCY).join();
-
-                            return text()
-                                .append(name)
-                                .clickEvent(ClickEvent.runCommand("/l " + altId))
-                                .hoverEvent(
-                                    HoverEvent.showText(
-                                        text(
-                                                "Click to view punishment history of ",
-                                                NamedTextColor.GRAY)
-                                            .append(name)))
-                                .build();
-                          })
-                      .collect(Collectors.toList());
-
-              Component numberOfBannedAlts =
-                  text(altsWithBans.size(), NamedTextColor.YELLOW, TextDecoration.BOLD);
-
-              Component altBans =
-                  text()
-                      .append(numberOfBannedAlts)
-                      .append(text(" of these accounts are currently banned: "))
-                      .append(TextFormatter.list(altsWithBans, NamedTextColor.GRAY))
-                      .color(NamedTextColor.GRAY)
+    Component altNameList =
+        text()
+            .append(targetPlayer)
+            .append(text(" has "))
+            .append(numberOfAlts)
+            .append(text(" known alternate account"))
+            .append(text(alts.size() != 1 ? "s" : ""))
+            .append(text(": "))
+            .append(TextFormatter.list(altNames, NamedTextColor.GRAY))
+            .color(NamedTextColor.GRAY)
+            .build();
+
+    List<Component> altsWithBans =
+        bannedAlts.stream()
+            .filter(alts::contains)
+            .map(
+                altId -> {
+                  Component name = fancyNames.get(altId);
+
+                  return text()
+                      .append(name)
+                      .clickEvent(ClickEvent.runCommand("/l " + altId))
+                      .hoverEvent(
+                          HoverEvent.showText(
+                              text("Click to view punishment history of ", NamedTextColor.GRAY)
+                                  .append(name)))
                       .build();
-              audience.sendMessage(altNameList);
-              if (altsWithBans.size() > 0) {
-                audience.sendMessage(altBans);
-              }
-            });
+                })
+            .collect(Collectors.toList());
+
+    Component numberOfBannedAlts =
+        text(altsWithBans.size(), NamedTextColor.YELLOW, TextDecoration.BOLD);
+
+    Component altBans =
+        text()
+            .append(numberOfBannedAlts)
+            .append(text(" of these accounts are currently banned: "))
+            .append(TextFormatter.list(altsWithBans, NamedTextColor.GRAY))
+            .color(NamedTextColor.GRAY)
+            .build();
+    audience.sendMessage(altNameList);
+    if (altsWithBans.size() > 0) {
+      audience.sendMessage(altBans);
+    }
   }
 
   @CommandMethod("profile|user <target> [all]")
@@ -287,7 +319,8 @@ public class UserInfoCommands extends CommunityCommand {
                                     .color(NamedTextColor.GRAY)
                                     .build()));
                       }
-                    });
+                    },
+                    Community.get().getExecutors().cpu());
 
             users
                 .getKnownIPs(profile.getId())
@@ -330,7 +363,8 @@ public class UserInfoCommands extends CommunityCommand {
                                   .build());
                         }
                       }
-                    });
+                    },
+                    Community.get().getExecutors().cpu());
           }
         });
   }
@@ -358,7 +392,7 @@ public class UserInfoCommands extends CommunityCommand {
   }
 
   private void showOnlineAlts(CommandAudience audience, int page) {
-    Set<Component> altAccounts = Sets.newHashSet();
+    Map<Player, Set<UUID>> altAccounts = new LinkedHashMap<>();
     Set<UUID> accountedFor = Sets.newHashSet();
 
     for (Player player : Bukkit.getOnlinePlayers()) {
@@ -367,7 +401,7 @@ public class UserInfoCommands extends CommunityCommand {
       if (alts.isEmpty() || accountedFor.contains(player.getUniqueId())) {
         continue;
       } else {
-        altAccounts.add(formatAltAccountList(player, alts));
+        altAccounts.put(player, alts);
         accountedFor.add(player.getUniqueId());
         accountedFor.addAll(alts);
       }
@@ -377,26 +411,49 @@ public class UserInfoCommands extends CommunityCommand {
   }
 
   private void showBannedAlts(CommandAudience audience, int page) {
-    CompletableFuture.runAsync(
-        () -> {
-          Set<Component> altAccounts = Sets.newHashSet();
-          Set<UUID> accountedFor = Sets.newHashSet();
-
-          for (Player player : Bukkit.getOnlinePlayers()) {
-            Set<UUID> bannedAlts =
-                users.getAlternateAccounts(player.getUniqueId()).join().stream()
-                    .filter(altId -> moderation.isBanned(altId.toString()).join())
-                    .collect(Collectors.toSet());
-
-            if (!bannedAlts.isEmpty() && !accountedFor.contains(player.getUniqueId())) {
-              altAccounts.add(formatAltAccountList(player, bannedAlts));
-              accountedFor.add(player.getUniqueId());
-              accountedFor.addAll(bannedAlts);
-            }
-          }
+    List<Player> online = Lists.newArrayList(Bukkit.getOnlinePlayers());
+    Set<UUID> onlineIds = online.stream().map(Player::getUniqueId).collect(Collectors.toSet());
 
-          sendAltList(audience, page, altAccounts, true);
-        });
+    // One query for the banned alts of everyone online
+    moderation
+        .getBannedAlts(onlineIds)
+        .thenAcceptAsync(
+            bannedAlts -> {
+              Map<Player, Set<UUID>> altAccounts = new LinkedHashMap<>();
+              Set<UUID> accountedFor = Sets.newHashSet();
+
+              for (Player player : online) {
+                Set<UUID> alts = bannedAlts.get(player.getUniqueId());
+
+                if (alts != null && !accountedFor.contains(player.getUniqueId())) {
+                  altAccounts.put(player, alts);
+                  accountedFor.add(player.getUniqueId());
+                  accountedFor.addAll(alts);
+                }
+              }
+
+              sendAltList(audience, page, altAccounts, true);
+            },
+            Community.get().getExecutors().cpu());
+  }
+
+  private void sendAltList(
+      CommandAudience audience, int page, Map<Player, Set<UUID>> alts, boolean banned) {
+    Set<UUID> ids = Sets.newHashSet();
+    alts.values().forEach(ids::addAll);
+
+    // Render every listed alt together, rather than one lookup per name
+    users
+        .renderUsernames(ids, NameStyle.FANCY)
+        .thenAcceptAsync(
+            names -> {
+              Set<Component> altAccounts = Sets.newHashSet();
+              alts.forEach(
+                  (player, playerAlts) ->
+                      altAccounts.add(formatAltAccountList(player, playerAlts, names)));
+              sendAltList(audience, page, altAccounts, banned);
+            },
+            Community.get().getExecutors().cpu());
   }
 
   private void sendAltList(
@@ -443,13 +500,12 @@ public class UserInfoCommands extends CommunityCommand {
     }.display(audience.getAudience(), altAccounts, page);
   }
 
-  private Component formatAltAccountList(Player target, Set<UUID> alts) {
+  private Component formatAltAccountList(
+      Player target, Set<UUID> alts, Map<UUID, Component> renderedNames) {
     Component names =
         Component.join(
             text(", ", NamedTextColor.GRAY),
-            alts.stream()
-                .map(pl -> users.renderUsername(pl, NameStyle.FANCY).join())
-                .collect(Collectors.toSet()));
+            alts.stream().map(renderedNames::get).collect(Collectors.toSet()));
     Component size = text(Integer.toString(alts.size()), NamedTextColor.YELLOW);
 
     return text("[", NamedTextColor.GOLD)
@@ -2,10 +2,15 @@ package dev.pgm.community.users.feature;
 
 import static tc.oc.pgm.util.player.PlayerComponent.player;
 
+import dev.pgm.community.Community;
 import dev.pgm.community.feature.Feature;
+import dev.pgm.community.sessions.Session;
 import dev.pgm.community.users.UserProfile;
 import dev.pgm.community.users.UserProfileWithSessionCallback;
 import dev.pgm.community.users.services.AddressHistoryService.LatestAddressInfo;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -37,7 +42,30 @@ public interface UsersFeature extends Feature {
   default CompletableFuture<Component> renderUsername(Optional<UUID> userId, NameStyle style) {
     if (!userId.isPresent()) return CompletableFuture.completedFuture(PlayerComponent.CONSOLE);
     return getStoredUsername(userId.get())
-        .thenApplyAsync(name -> player(Bukkit.getPlayer(userId.get()), name, style));
+        .thenApplyAsync(
+            name -> player(Bukkit.getPlayer(userId.get()), name, style),
+            Community.get().getExecutors().cpu());
+  }
+
+  /**
+   * Render many player names at once, unknown names are looked up together in a single query
+   *
+   * @param userIds UUIDs of players to render
+   * @param style Style to render names with
+   * @return A map of every provided UUID to its rendered name component
+   */
+  default CompletableFuture<Map<UUID, Component>> renderUsernames(
+      Collection<UUID> userIds, NameStyle style) {
+    return getStoredUsernames(userIds)
+        .thenApplyAsync(
+            names -> {
+              Map<UUID, Component> rendered = new HashMap<>();
+              for (UUID id : userIds) {
+                rendered.put(id, player(Bukkit.getPlayer(id), names.get(id), style));
+              }
+              return rendered;
+            },
+            Community.get().getExecutors().cpu());
   }
 
   /**
@@ -69,6 +97,16 @@ public interface UsersFeature extends Feature {
    */
   CompletableFuture<String> getStoredUsername(UUID id);
 
+  /**
+   * Queries database for the usernames of many players at once
+   *
+   * <p>Only names which are not already cached are queried
+   *
+   * @param ids Player UUIDs
+   * @return A map of each found player UUID to their stored username
+   */
+  CompletableFuture<Map<UUID, String>> getStoredUsernames(Collection<UUID> ids);
+
   /**
    * Queries database for a matching UUID
    *
@@ -154,13 +192,13 @@ public interface UsersFeature extends Feature {
       String target, boolean ignoreDisguised, UserProfileWithSessionCallback callback) {
     CompletableFuture<UserProfile> profileFuture = getStoredProfile(target);
     profileFuture.thenAcceptBothAsync(
-        profileFuture.thenApplyAsync(
-            profile -> {
-              if (profile == null) return null;
-
-              return profile.getLatestSession(ignoreDisguised).join();
-            }),
-        (profile, session) -> callback.run(profile, session));
+        profileFuture.thenCompose(
+            profile ->
+                profile == null
+                    ? CompletableFuture.<Session>completedFuture(null)
+                    : profile.getLatestSession(ignoreDisguised)),
+        (profile, session) -> callback.run(profile, session),
+        Community.get().getExecutors().cpu());
   }
 
   /**
@@ -175,12 +213,12 @@ public interface UsersFeature extends Feature {
       UUID id, boolean ignoreDisguised, UserProfileWithSessionCallback callback) {
     CompletableFuture<UserProfile> profileFuture = getStoredProfile(id);
     profileFuture.thenAcceptBothAsync(
-        profileFuture.thenApplyAsync(
-            profile -> {
-              if (profile == null) return null;
-
-              return profile.getLatestSession(ignoreDisguised).join();
-            }),
-        (profile, session) -> callback.run(profile, session));
+        profileFuture.thenCompose(
+            profile ->
+                profile == null
+                    ? CompletableFuture.<Session>completedFuture(null)
+                    : profile.getLatestSession(ignoreDisguised)),
+        (profile, session) -> callback.run(profile, session),
+        Community.get().getExecutors().cpu());
   }
 }
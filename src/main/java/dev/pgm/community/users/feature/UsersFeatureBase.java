@@ -5,6 +5,7 @@ import com.google.common.cache.CacheBuilder;
 import dev.pgm.community.Community;
 import dev.pgm.community.feature.FeatureBase;
 import dev.pgm.community.users.UserProfile;
+import dev.pgm.community.users.UsernameIndex;
 import dev.pgm.community.users.UsersConfig;
 import dev.pgm.community.users.listeners.UserProfileLoginListener;
 import java.util.Optional;
@@ -14,13 +15,13 @@ import javax.annotation.Nullable;
 
 public abstract class UsersFeatureBase extends FeatureBase implements UsersFeature {
 
-  protected final Cache<UUID, String> names;
+  protected final UsernameIndex names;
   protected final Cache<UUID, UserProfile> profiles;
 
   public UsersFeatureBase(UsersConfig config, Logger logger, String featureName) {
     super(config, logger, featureName);
     this.profiles = CacheBuilder.newBuilder().build();
-    this.names = CacheBuilder.newBuilder().build();
+    this.names = new UsernameIndex();
 
     // Auto register username change listener
     Community.get().registerListener(new UserProfileLoginListener(this));
@@ -32,15 +33,12 @@ public abstract class UsersFeatureBase extends FeatureBase implements UsersFeatu
 
   @Override
   public @Nullable String getUsername(UUID id) {
-    return names.getIfPresent(id);
+    return names.getName(id);
   }
 
   @Override
   public Optional<UUID> getId(String username) {
-    return names.asMap().entrySet().stream()
-        .filter(e -> e.getValue().equalsIgnoreCase(username))
-        .map(e -> e.getKey())
-        .findAny();
+    return Optional.ofNullable(names.getId(username));
   }
 
   @Override
@@ -7,6 +7,9 @@ import dev.pgm.community.users.UsersConfig;
 import dev.pgm.community.users.feature.UsersFeatureBase;
 import dev.pgm.community.users.services.AddressHistoryService.LatestAddressInfo;
 import dev.pgm.community.utils.NameUtils;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -28,6 +31,18 @@ public class NoDBUsersFeature extends UsersFeatureBase {
     return CompletableFuture.completedFuture(getUsername(id));
   }
 
+  @Override
+  public CompletableFuture<Map<UUID, String>> getStoredUsernames(Collection<UUID> ids) {
+    Map<UUID, String> usernames = new HashMap<>();
+    for (UUID id : ids) {
+      String name = getUsername(id);
+      if (name != null) {
+        usernames.put(id, name);
+      }
+    }
+    return CompletableFuture.completedFuture(usernames);
+  }
+
   @Override
   public CompletableFuture<Optional<UUID>> getStoredId(String name) {
     return CompletableFuture.completedFuture(getId(name));
@@ -2,6 +2,9 @@ package dev.pgm.community.users.feature.types;
 
 import dev.pgm.community.Community;
 import dev.pgm.community.events.UserProfileLoadEvent;
+import dev.pgm.community.network.cache.SharedCache;
+import dev.pgm.community.network.codecs.types.UserProfileCodec;
+import dev.pgm.community.network.feature.NetworkFeature;
 import dev.pgm.community.users.UserProfile;
 import dev.pgm.community.users.UserProfileImpl;
 import dev.pgm.community.users.UsersConfig;
@@ -9,6 +12,8 @@ import dev.pgm.community.users.feature.UsersFeatureBase;
 import dev.pgm.community.users.services.AddressHistoryService;
 import dev.pgm.community.users.services.AddressHistoryService.LatestAddressInfo;
 import dev.pgm.community.users.services.SQLUserService;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -24,9 +29,12 @@ public class SQLUsersFeature extends UsersFeatureBase {
   private SQLUserService service;
   private AddressHistoryService addresses;
 
-  public SQLUsersFeature(Configuration config, Logger logger) {
+  public SQLUsersFeature(Configuration config, Logger logger, NetworkFeature network) {
     super(new UsersConfig(config), logger, "Users (SQL)");
-    this.service = new SQLUserService();
+    SharedCache<UserProfile> shared =
+        network.getSharedCaches().create("users", new UserProfileCodec());
+    shared.onInvalidate(profiles::invalidate);
+    this.service = new SQLUserService(names, shared);
     this.addresses = new AddressHistoryService();
   }
 
@@ -47,7 +55,8 @@ public class SQLUsersFeature extends UsersFeatureBase {
                   profiles.put(id, profile); // Cache profile
                 }
                 return profile;
-              });
+              },
+              Community.get().getExecutors().cpu());
     }
     return CompletableFuture.completedFuture(cached);
   }
@@ -65,12 +74,18 @@ public class SQLUsersFeature extends UsersFeatureBase {
                   this.setName(id, profile.getUsername());
                 }
                 return profile.getUsername();
-              });
+              },
+              Community.get().getExecutors().cpu());
     }
 
     return CompletableFuture.completedFuture(cached);
   }
 
+  @Override
+  public CompletableFuture<Map<UUID, String>> getStoredUsernames(Collection<UUID> ids) {
+    return service.queryUsernames(ids);
+  }
+
   @Override
   public CompletableFuture<Optional<UUID>> getStoredId(String username) {
     Optional<UUID> cached = super.getId(username);
@@ -85,7 +100,8 @@ public class SQLUsersFeature extends UsersFeatureBase {
                   id = profile.getId();
                 }
                 return Optional.ofNullable(id);
-              });
+              },
+              Community.get().getExecutors().cpu());
     }
 
     return CompletableFuture.completedFuture(cached);
@@ -118,18 +134,15 @@ public class SQLUsersFeature extends UsersFeatureBase {
         player.getUniqueId()); // Removed cached profile upon every login, so we get up to date info
     service
         .login(id, name, address)
-        .thenAcceptAsync(
+        .thenApply(
             profile -> {
               profiles.put(id, profile);
-
-              // Call profile load event
-              Community.get()
-                  .getServer()
-                  .getScheduler()
-                  .runTask(
-                      Community.get(),
-                      () -> Bukkit.getPluginManager().callEvent(new UserProfileLoadEvent(profile)));
-            }); // Login save
+              return profile;
+            })
+        // Call profile load event
+        .thenAcceptAsync(
+            profile -> Bukkit.getPluginManager().callEvent(new UserProfileLoadEvent(profile)),
+            Community.get().getExecutors().sync()); // Login save
     addresses.trackIp(id, address); // Track IP
   }
 
@@ -143,7 +156,8 @@ public class SQLUsersFeature extends UsersFeatureBase {
                 service.save(up);
                 setName(id, username);
               }
-            });
+            },
+            Community.get().getExecutors().cpu());
   }
 
   @Override
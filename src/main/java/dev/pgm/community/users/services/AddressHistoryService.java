@@ -2,13 +2,21 @@ package dev.pgm.community.users.services;
 
 import co.aikar.idb.DB;
 import co.aikar.idb.DbRow;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
+import dev.pgm.community.Community;
 import dev.pgm.community.database.Query;
+import dev.pgm.community.database.UUIDCodec;
+import dev.pgm.community.database.WriteBehindQueue;
+import dev.pgm.community.feature.FeatureCache;
+import dev.pgm.community.utils.SingleFlight;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -16,51 +24,36 @@ import java.util.stream.Collectors;
 
 public class AddressHistoryService implements AddressQuery {
 
-  private LoadingCache<UUID, AddressHistory> historyCache;
+  private FeatureCache<UUID, AddressHistory> historyCache;
 
-  private LoadingCache<UUID, LatestAddressInfo> latestCache;
+  private FeatureCache<UUID, LatestAddressInfo> latestCache;
 
-  private LoadingCache<String, ResolvedIP> resolvedIPCache;
+  private FeatureCache<String, ResolvedIP> resolvedIPCache;
 
-  private LoadingCache<String, IpAlts> altsCache;
+  private FeatureCache<String, IpAlts> altsCache;
+
+  private final WriteBehindQueue writes;
+
+  private final SingleFlight<String, String> addressLoads;
+
+  private final SingleFlight<String, IpAlts> altLoads;
 
   public AddressHistoryService() {
     this.historyCache =
-        CacheBuilder.newBuilder()
-            .build(
-                new CacheLoader<UUID, AddressHistory>() {
-                  @Override
-                  public AddressHistory load(UUID key) throws Exception {
-                    return new AddressHistory(key);
-                  }
-                });
+        FeatureCache.<AddressHistory>players("address-history")
+            .weigher(history -> 1 + history.getAddresses().size())
+            .build(AddressHistory::new);
     this.latestCache =
-        CacheBuilder.newBuilder()
-            .build(
-                new CacheLoader<UUID, LatestAddressInfo>() {
-                  @Override
-                  public LatestAddressInfo load(UUID key) throws Exception {
-                    return new LatestAddressInfo(key);
-                  }
-                });
+        FeatureCache.<LatestAddressInfo>players("latest-address").build(LatestAddressInfo::new);
     this.resolvedIPCache =
-        CacheBuilder.newBuilder()
-            .build(
-                new CacheLoader<String, ResolvedIP>() {
-                  @Override
-                  public ResolvedIP load(String key) throws Exception {
-                    return new ResolvedIP(key);
-                  }
-                });
+        FeatureCache.<String, ResolvedIP>builder("resolved-address").build(ResolvedIP::new);
     this.altsCache =
-        CacheBuilder.newBuilder()
-            .build(
-                new CacheLoader<String, IpAlts>() {
-                  @Override
-                  public IpAlts load(String key) throws Exception {
-                    return new IpAlts(key);
-                  }
-                });
+        FeatureCache.<String, IpAlts>builder("address-alts")
+            .weigher(alts -> 1 + alts.getPlayerIds().size())
+            .build(IpAlts::new);
+    this.addressLoads = new SingleFlight<>();
+    this.writes = Community.get().getDatabase().getWriteQueue();
+    this.altLoads = new SingleFlight<>();
 
     DB.executeUpdateAsync(Query.createTable(IP_TABLE_NAME, IP_TABLE_FIELDS));
     DB.executeUpdateAsync(Query.createTable(IP_USER_TABLE_NAME, IP_USER_TABLE_FIELDS));
@@ -70,36 +63,56 @@ public class AddressHistoryService implements AddressQuery {
   public void trackIp(UUID id, String address) {
     historyCache.invalidate(id);
 
-    DB.executeUpdateAsync(
-        INSERT_LATEST_IP_QUERY, id.toString(), address, Instant.now().toEpochMilli());
+    final Instant now = Instant.now();
+    writes.enqueue(
+        LATEST_IP_TABLE_NAME,
+        INSERT_LATEST_IP_QUERY,
+        UUIDCodec.encode(id),
+        address,
+        now.toEpochMilli());
+
+    // The queued write is not visible to queries yet, keep a loaded entry current
+    LatestAddressInfo latest = latestCache.getIfPresent(id);
+    if (latest != null && latest.isLoaded()) {
+      latest.setAddress(address);
+      latest.setDate(now);
+    }
 
     DB.getFirstRowAsync(SELECT_IP_QUERY, address)
-        .thenAcceptAsync(
+        .thenApply(
             result -> {
-              final UUID randomId = UUID.randomUUID();
-              String ipId = randomId.toString();
-
-              if (result == null) {
-                // Track a new ip-id
-                DB.executeUpdateAsync(INSERT_IP_QUERY, address, UUID.randomUUID().toString());
-              } else {
-                ipId = result.getString(IP_ID_FIELD);
+              if (result != null) {
+                return decodeIpId(result);
               }
 
-              // Update alts for an already cached IP
-              IpAlts alts = altsCache.getUnchecked(ipId);
-              if (alts.isLoaded()) {
-                alts.getPlayerIds().add(id.toString());
-              }
-
-              Set<String> known = getKnownIps(id).join();
-              if (known == null
-                  || known.isEmpty()
-                  || !known.stream().anyMatch(ip -> ip.equalsIgnoreCase(address))) {
-                // Add user to known ip-id list
-                DB.executeUpdateAsync(INSERT_IP_USER_QUERY, id.toString(), ipId);
-              }
-            });
+              // Track a new ip-id
+              String ipId = UUID.randomUUID().toString();
+              DB.executeUpdateAsync(INSERT_IP_QUERY, address, encodeIpId(ipId));
+              return ipId;
+            })
+        .thenCompose(
+            ipId ->
+                getIpIds(id)
+                    .thenAccept(
+                        history -> {
+                          resolvedIPCache.getUnchecked(ipId).setAddress(address);
+
+                          // Update alts for an already cached IP
+                          IpAlts alts = altsCache.getIfPresent(ipId);
+                          if (alts != null && alts.isLoaded()) {
+                            alts.getPlayerIds().add(id.toString());
+                          }
+
+                          if (!history.getAddresses().contains(ipId)) {
+                            // Add user to known ip-id list
+                            writes.enqueue(
+                                IP_USER_TABLE_NAME,
+                                INSERT_IP_USER_QUERY,
+                                UUIDCodec.encode(id),
+                                encodeIpId(ipId));
+                            history.addAddress(ipId);
+                          }
+                        }));
   }
 
   public CompletableFuture<LatestAddressInfo> getLatestAddressInfo(UUID playerId) {
@@ -107,7 +120,7 @@ public class AddressHistoryService implements AddressQuery {
     if (info.isLoaded()) {
       return CompletableFuture.completedFuture(info);
     } else {
-      return DB.getFirstRowAsync(SELECT_LATEST_IP_QUERY, playerId.toString())
+      return DB.getFirstRowAsync(SELECT_LATEST_IP_QUERY, UUIDCodec.encode(playerId))
           .thenApplyAsync(
               result -> {
                 if (result != null) {
@@ -118,7 +131,8 @@ public class AddressHistoryService implements AddressQuery {
                 }
                 info.setLoaded(true);
                 return info;
-              });
+              },
+              Community.get().getExecutors().io());
     }
   }
 
@@ -128,73 +142,151 @@ public class AddressHistoryService implements AddressQuery {
     if (history.isLoaded()) {
       return CompletableFuture.completedFuture(history);
     } else {
-      return DB.getResultsAsync(SELECT_IP_HISTORY_QUERY, playerId.toString())
+      return DB.getResultsAsync(SELECT_IP_HISTORY_QUERY, UUIDCodec.encode(playerId))
           .thenApplyAsync(
               results -> {
                 if (results != null && !results.isEmpty()) {
                   for (DbRow row : results) {
-                    String ipId = row.getString("ip_id");
-                    history.addAddress(ipId);
+                    history.addAddress(decodeIpId(row));
                   }
                 }
                 history.setLoaded(true);
+                historyCache.replace(playerId, history); // Re-weigh loaded history
                 return history;
-              });
+              },
+              Community.get().getExecutors().io());
     }
   }
 
   public CompletableFuture<Set<String>> getKnownIps(UUID playerId) {
     return getIpIds(playerId)
-        .thenApplyAsync(
-            addressHistory -> {
-              if (addressHistory.getAddresses().isEmpty()) {
-                return Sets.newHashSet();
-              }
-              Set<String> ips = Sets.newHashSet();
-              for (String ipId : addressHistory.getAddresses()) {
-                ResolvedIP ip = resolvedIPCache.getUnchecked(ipId);
-                if (!ip.isLoaded()) {
-                  DbRow row = DB.getFirstRowAsync(SELECT_IP_ID_QUERY, ipId).join();
-                  if (row != null) {
-                    String resolved = row.getString(IP_ADDRESS_FIELD);
-                    ip.setAddress(resolved);
-                  }
+        .thenCompose(history -> resolveAddresses(ImmutableSet.copyOf(history.getAddresses())))
+        .thenApply(
+            addresses ->
+                addresses.values().stream().filter(Objects::nonNull).collect(Collectors.toSet()));
+  }
+
+  public CompletableFuture<Set<UUID>> getAlternateAccounts(UUID playerId) {
+    return getIpIds(playerId)
+        .thenCompose(history -> resolveAlts(ImmutableSet.copyOf(history.getAddresses())))
+        .thenApply(
+            alts ->
+                alts.stream()
+                    .flatMap(addressAlts -> addressAlts.getPlayerIds().stream())
+                    .map(UUID::fromString)
+                    .filter(id -> !playerId.equals(id))
+                    .collect(Collectors.toSet()));
+  }
+
+  // Resolves ip-ids to addresses, loading every uncached ip-id in a single query
+  private CompletableFuture<Map<String, String>> resolveAddresses(Set<String> ipIds) {
+    Map<String, String> addresses = new HashMap<>();
+    Set<String> missing = Sets.newHashSet();
+    for (String ipId : ipIds) {
+      ResolvedIP ip = resolvedIPCache.getUnchecked(ipId);
+      if (ip.isLoaded()) {
+        addresses.put(ipId, ip.getAddress());
+      } else {
+        missing.add(ipId);
+      }
+    }
+
+    if (missing.isEmpty()) {
+      return CompletableFuture.completedFuture(addresses);
+    }
+
+    return addressLoads
+        .getAll(missing, this::loadAddresses)
+        .thenApply(
+            loaded -> {
+              addresses.putAll(loaded);
+              return addresses;
+            });
+  }
+
+  private CompletableFuture<Map<String, String>> loadAddresses(Set<String> ipIds) {
+    return DB.getResultsAsync(
+            SELECT_IP_IDS_QUERY + Query.placeholders(ipIds.size()), encodeIpIds(ipIds))
+        .thenApply(
+            rows -> {
+              Map<String, String> addresses = new HashMap<>();
+              if (rows != null) {
+                for (DbRow row : rows) {
+                  addresses.put(decodeIpId(row), row.getString(IP_ADDRESS_FIELD));
                 }
-                ips.add(ip.getAddress());
               }
-              return ips;
+              for (String ipId : ipIds) {
+                resolvedIPCache.getUnchecked(ipId).setAddress(addresses.get(ipId));
+              }
+              return addresses;
             });
   }
 
-  public CompletableFuture<Set<UUID>> getAlternateAccounts(UUID playerId) {
-    return getIpIds(playerId)
-        .thenApplyAsync(
-            history -> {
-              Set<UUID> ids = Sets.newHashSet();
-
-              for (String address : history.getAddresses()) {
-                IpAlts addressAlts = altsCache.getUnchecked(address);
-
-                if (!addressAlts.isLoaded()) {
-                  List<DbRow> rows = DB.getResultsAsync(SELECT_ALTS_QUERY, address).join();
-                  if (rows != null && !rows.isEmpty()) {
-                    for (DbRow row : rows) {
-                      String userId = row.getString(USER_ID_FIELD);
-                      addressAlts.getPlayerIds().add(userId);
-                    }
+  // Resolves the accounts of each ip-id, loading every uncached ip-id in a single query
+  private CompletableFuture<Collection<IpAlts>> resolveAlts(Set<String> ipIds) {
+    List<IpAlts> alts = new ArrayList<>();
+    Set<String> missing = Sets.newHashSet();
+    for (String ipId : ipIds) {
+      IpAlts addressAlts = altsCache.getUnchecked(ipId);
+      if (addressAlts.isLoaded()) {
+        alts.add(addressAlts);
+      } else {
+        missing.add(ipId);
+      }
+    }
+
+    if (missing.isEmpty()) {
+      return CompletableFuture.completedFuture(alts);
+    }
+
+    return altLoads
+        .getAll(missing, this::loadAlts)
+        .thenApply(
+            loaded -> {
+              alts.addAll(loaded.values());
+              return alts;
+            });
+  }
+
+  private CompletableFuture<Map<String, IpAlts>> loadAlts(Set<String> ipIds) {
+    return DB.getResultsAsync(
+            SELECT_ALTS_QUERY + Query.placeholders(ipIds.size()), encodeIpIds(ipIds))
+        .thenApply(
+            rows -> {
+              Map<String, IpAlts> alts = new HashMap<>();
+              for (String ipId : ipIds) {
+                alts.put(ipId, altsCache.getUnchecked(ipId));
+              }
+              if (rows != null) {
+                for (DbRow row : rows) {
+                  IpAlts addressAlts = alts.get(decodeIpId(row));
+                  if (addressAlts != null) {
+                    addressAlts.getPlayerIds().add(UUIDCodec.decode(row, USER_ID_FIELD).toString());
                   }
-                  addressAlts.setLoaded(true);
                 }
-                ids.addAll(
-                    addressAlts.getPlayerIds().stream()
-                        .map(UUID::fromString)
-                        .filter(id -> !playerId.equals(id))
-                        .collect(Collectors.toSet()));
               }
-              return ids;
+              alts.forEach(
+                  (ipId, addressAlts) -> {
+                    addressAlts.setLoaded(true);
+                    altsCache.replace(ipId, addressAlts); // Re-weigh loaded alts
+                  });
+              return alts;
             });
   }
 
+  // Ip-ids are kept as strings in memory, but stored like any other id
+  private static Object encodeIpId(String ipId) {
+    return UUIDCodec.encode(UUID.fromString(ipId));
+  }
+
+  private static Object[] encodeIpIds(Set<String> ipIds) {
+    return ipIds.stream().map(AddressHistoryService::encodeIpId).toArray();
+  }
+
+  private static String decodeIpId(DbRow row) {
+    return UUIDCodec.decode(row, IP_ID_FIELD).toString();
+  }
+
   private class IpAlts {
     private String ipId;
     private Set<String> playerIds;
@@ -202,7 +294,7 @@ public class AddressHistoryService implements AddressQuery {
 
     public IpAlts(String ipId) {
       this.ipId = ipId;
-      this.playerIds = Sets.newHashSet();
+      this.playerIds = Sets.newConcurrentHashSet();
       this.loaded = false;
     }
 
@@ -261,7 +353,7 @@ public class AddressHistoryService implements AddressQuery {
 
     public AddressHistory(UUID playerId) {
       this.playerId = playerId;
-      this.addressesIds = Sets.newHashSet();
+      this.addressesIds = Sets.newConcurrentHashSet();
       this.loaded = false;
     }
 
@@ -1,5 +1,7 @@
 package dev.pgm.community.users.services;
 
+import dev.pgm.community.database.UUIDCodec;
+
 public interface AddressQuery {
 
   static final String IP_ADDRESS_FIELD = "address";
@@ -8,17 +10,23 @@ public interface AddressQuery {
   static final String DATE_FIELD = "last_time";
 
   static final String IP_TABLE_FIELDS =
-      String.format("(%s VARCHAR(15), %s VARCHAR(36))", IP_ADDRESS_FIELD, IP_ID_FIELD);
+      String.format(
+          "(%s VARCHAR(15), %s " + UUIDCodec.columnType() + ")", IP_ADDRESS_FIELD, IP_ID_FIELD);
   static final String IP_TABLE_NAME = "addresses";
 
   static final String IP_USER_TABLE_FIELDS =
-      String.format("(%s VARCHAR(36), %s VARCHAR(36))", USER_ID_FIELD, IP_ID_FIELD);
+      String.format(
+          "(%s " + UUIDCodec.columnType() + ", %s " + UUIDCodec.columnType() + ")",
+          USER_ID_FIELD,
+          IP_ID_FIELD);
   static final String IP_USER_TABLE_NAME = "ip_history";
 
   static final String LATEST_IP_TABLE_FIELDS =
       String.format(
-          "(%s VARCHAR(36) PRIMARY KEY, %s VARCHAR(15), %s LONG)",
-          USER_ID_FIELD, IP_ADDRESS_FIELD, DATE_FIELD);
+          "(%s " + UUIDCodec.columnType() + " PRIMARY KEY, %s VARCHAR(15), %s LONG)",
+          USER_ID_FIELD,
+          IP_ADDRESS_FIELD,
+          DATE_FIELD);
   static final String LATEST_IP_TABLE_NAME = "latest_ip";
 
   static final String INSERT_LATEST_IP_QUERY =
@@ -60,9 +68,26 @@ public interface AddressQuery {
   static final String SELECT_IP_HISTORY_QUERY =
       "SELECT ip_id FROM " + IP_USER_TABLE_NAME + " WHERE user_id = ?";
 
-  static final String SELECT_IP_ID_QUERY =
-      "SELECT " + IP_ADDRESS_FIELD + " FROM " + IP_TABLE_NAME + " WHERE " + IP_ID_FIELD + " = ?";
+  // Batched lookups, completed with Query.placeholders(count)
+  static final String SELECT_IP_IDS_QUERY =
+      "SELECT "
+          + IP_ID_FIELD
+          + ", "
+          + IP_ADDRESS_FIELD
+          + " FROM "
+          + IP_TABLE_NAME
+          + " WHERE "
+          + IP_ID_FIELD
+          + " IN ";
 
   static final String SELECT_ALTS_QUERY =
-      "SELECT " + USER_ID_FIELD + " FROM " + IP_USER_TABLE_NAME + " WHERE " + IP_ID_FIELD + " = ?";
+      "SELECT "
+          + IP_ID_FIELD
+          + ", "
+          + USER_ID_FIELD
+          + " FROM "
+          + IP_USER_TABLE_NAME
+          + " WHERE "
+          + IP_ID_FIELD
+          + " IN ";
 }
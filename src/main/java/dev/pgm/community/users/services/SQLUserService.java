@@ -1,45 +1,58 @@
 package dev.pgm.community.users.services;
 
 import co.aikar.idb.DB;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import co.aikar.idb.DbRow;
+import dev.pgm.community.Community;
+import dev.pgm.community.database.Migrations;
+import dev.pgm.community.database.Query;
+import dev.pgm.community.database.UUIDCodec;
+import dev.pgm.community.database.WriteBehindQueue;
+import dev.pgm.community.feature.FeatureCache;
 import dev.pgm.community.feature.SQLFeatureBase;
+import dev.pgm.community.network.cache.SharedCache;
 import dev.pgm.community.users.UserProfile;
 import dev.pgm.community.users.UserProfileImpl;
+import dev.pgm.community.users.UsernameIndex;
 import dev.pgm.community.utils.NameUtils;
+import dev.pgm.community.utils.SingleFlight;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 public class SQLUserService extends SQLFeatureBase<UserProfile, String> implements UserQuery {
 
-  private LoadingCache<UUID, UserData> profileCache;
+  private FeatureCache<UUID, UserData> profileCache;
+  private final WriteBehindQueue writes;
+  private final UsernameIndex names;
+  private final SingleFlight<UUID, String> usernameLoads;
+  private final SharedCache<UserProfile> shared;
 
-  public SQLUserService() {
+  public SQLUserService(UsernameIndex names, SharedCache<UserProfile> shared) {
     super(TABLE_NAME, TABLE_FIELDS);
+    this.writes = Community.get().getDatabase().getWriteQueue();
+    this.names = names;
+    this.usernameLoads = new SingleFlight<>();
+    this.shared = shared;
 
-    this.profileCache =
-        CacheBuilder.newBuilder()
-            .build(
-                new CacheLoader<UUID, UserData>() {
-                  @Override
-                  public UserData load(UUID key) throws Exception {
-                    return new UserData(key);
-                  }
-                });
+    this.profileCache = FeatureCache.<UserData>players("users").build(UserData::new);
+    shared.onInvalidate(profileCache::invalidate); // Changed on another server
   }
 
   @Override
   public void save(UserProfile profile) {
     DB.executeUpdateAsync(
-        INSERT_USER_QUERY,
-        profile.getId().toString(),
-        profile.getUsername(),
-        profile.getFirstLogin().toEpochMilli(),
-        profile.getJoinCount());
+            INSERT_USER_QUERY,
+            UUIDCodec.encode(profile.getId()),
+            profile.getUsername(),
+            profile.getFirstLogin().toEpochMilli(),
+            profile.getJoinCount())
+        .thenRun(() -> shared.update(profile.getId(), profile)); // Once others can load it
     profileCache.invalidate(profile.getId());
   }
 
@@ -50,52 +63,170 @@ public class SQLUserService extends SQLFeatureBase<UserProfile, String> implemen
 
   @Override
   public CompletableFuture<UserProfile> query(String target) {
+    final boolean byName = NameUtils.isMinecraftName(target);
+    UUID id;
     UserData data = null;
 
-    // If Username, search through looking for existing usernames in profiles
-    if (NameUtils.isMinecraftName(target)) {
-      Optional<UserData> uQuery =
-          profileCache.asMap().values().stream()
-              .filter(u -> u.getUsername() != null)
-              .filter(u -> u.getUsername().equalsIgnoreCase(target))
-              .findAny();
+    // If Username, resolve the id through the name index
+    if (byName) {
+      id = names.getId(target);
+      UserData cached = id != null ? profileCache.getIfPresent(id) : null;
       // If profile is cached with matching username
-      if (uQuery.isPresent()) {
-        data = uQuery.get();
+      if (cached != null
+          && cached.getUsername() != null
+          && cached.getUsername().equalsIgnoreCase(target)) {
+        data = cached;
       }
     } else {
-      data = profileCache.getUnchecked(UUID.fromString(target));
+      id = UUID.fromString(target);
+      data = profileCache.getUnchecked(id);
     }
 
     if (data != null && data.isLoaded()) {
       return CompletableFuture.completedFuture(data.getProfile());
     }
 
-    return DB.getFirstRowAsync(data == null ? USERNAME_QUERY : PLAYERID_QUERY, target)
+    if (id == null) {
+      return loadProfile(usernameQuery(), target);
+    }
+
+    // Another server may have loaded the profile already
+    final UUID playerId = id;
+    return shared
+        .get(playerId)
+        .thenCompose(
+            profile -> {
+              if (profile != null && (!byName || target.equalsIgnoreCase(profile.getUsername()))) {
+                cacheProfile(profile);
+                return CompletableFuture.completedFuture(profile);
+              }
+              return byName
+                  ? loadProfile(usernameQuery(), target)
+                  : loadProfile(PLAYERID_QUERY, UUIDCodec.encode(playerId));
+            });
+  }
+
+  // The name index is only case-insensitive once migrated
+  private String usernameQuery() {
+    return Community.get().getDatabase().isMigrated(Migrations.CASE_INSENSITIVE_NAMES)
+        ? USERNAME_QUERY
+        : USERNAME_LOWER_QUERY;
+  }
+
+  private CompletableFuture<UserProfile> loadProfile(String query, Object param) {
+    return DB.getFirstRowAsync(query, param)
         .thenApplyAsync(
             result -> {
               if (result != null) {
-                final UUID id = UUID.fromString(result.getString("id"));
+                final UUID id = UUIDCodec.decode(result, "id");
                 final String username = result.getString("name");
                 final long firstJoin = Long.parseLong(result.getString("first_join"));
                 final int joinCount = result.getInt("join_count");
 
-                UserData loadedData = new UserData(id);
-                loadedData.setProfile(
-                    new UserProfileImpl(id, username, Instant.ofEpochMilli(firstJoin), joinCount));
-                profileCache.put(id, loadedData);
-                return loadedData.getProfile();
+                UserProfile profile =
+                    new UserProfileImpl(id, username, Instant.ofEpochMilli(firstJoin), joinCount);
+                cacheProfile(profile);
+                shared.fill(id, profile);
+                return profile;
               }
               return null;
+            },
+            Community.get().getExecutors().io());
+  }
+
+  private void cacheProfile(UserProfile profile) {
+    UserData loadedData = new UserData(profile.getId());
+    loadedData.setProfile(profile);
+    profileCache.put(profile.getId(), loadedData);
+    names.put(profile.getId(), profile.getUsername());
+  }
+
+  /**
+   * Looks up the usernames of many players, names not already indexed are queried together
+   *
+   * @param ids Player UUIDs
+   * @return A future of each known player id to their username, unknown players are left out
+   */
+  public CompletableFuture<Map<UUID, String>> queryUsernames(Collection<UUID> ids) {
+    Map<UUID, String> usernames = new HashMap<>();
+    Set<UUID> missing = new HashSet<>();
+    for (UUID id : ids) {
+      String name = names.getName(id);
+      if (name != null) {
+        usernames.put(id, name);
+      } else {
+        missing.add(id);
+      }
+    }
+
+    if (missing.isEmpty()) {
+      return CompletableFuture.completedFuture(usernames);
+    }
+
+    return usernameLoads
+        .getAll(missing, this::loadUsernames)
+        .thenApply(
+            loaded -> {
+              loaded.forEach(
+                  (id, name) -> {
+                    if (name != null) {
+                      usernames.put(id, name);
+                    }
+                  });
+              return usernames;
+            });
+  }
+
+  // Names of shared profiles are used first, the rest are queried together
+  private CompletableFuture<Map<UUID, String>> loadUsernames(Set<UUID> ids) {
+    return shared
+        .getAll(ids)
+        .thenCompose(
+            profiles -> {
+              Map<UUID, String> loaded = new HashMap<>();
+              Set<UUID> missing = new HashSet<>(ids);
+              profiles.forEach(
+                  (id, profile) -> {
+                    if (profile.getUsername() != null) {
+                      names.put(id, profile.getUsername());
+                      loaded.put(id, profile.getUsername());
+                      missing.remove(id);
+                    }
+                  });
+
+              if (missing.isEmpty()) {
+                return CompletableFuture.completedFuture(loaded);
+              }
+
+              return DB.getResultsAsync(
+                      USERNAMES_QUERY + Query.placeholders(missing.size()),
+                      missing.stream().map(UUIDCodec::encode).toArray())
+                  .thenApply(
+                      rows -> {
+                        if (rows != null) {
+                          for (DbRow row : rows) {
+                            UUID id = UUIDCodec.decode(row, "id");
+                            String name = row.getString("name");
+                            if (name != null) {
+                              names.put(id, name);
+                              loaded.put(id, name);
+                            }
+                          }
+                        }
+                        return loaded;
+                      });
             });
   }
 
   private void update(UserProfile profile) {
-    DB.executeUpdateAsync(
-        UPDATE_USER_QUERY,
-        profile.getUsername(),
-        profile.getJoinCount(),
-        profile.getId().toString());
+    writes
+        .enqueue(
+            TABLE_NAME,
+            UPDATE_USER_QUERY,
+            profile.getUsername(),
+            profile.getJoinCount(),
+            UUIDCodec.encode(profile.getId()))
+        .thenRun(() -> shared.update(profile.getId(), profile)); // Once the row is written
   }
 
   // Increase join count, set last login, check for username change
@@ -103,6 +234,7 @@ public class SQLUserService extends SQLFeatureBase<UserProfile, String> implemen
     return query(id.toString())
         .thenApplyAsync(
             profile -> {
+              names.put(id, username);
               if (profile == null) {
                 // No profile? Save a new one
                 profile = new UserProfileImpl(id, username);
@@ -114,7 +246,8 @@ public class SQLUserService extends SQLFeatureBase<UserProfile, String> implemen
                 update(profile);
               }
               return profile;
-            });
+            },
+            Community.get().getExecutors().io());
   }
 
   private class UserData {
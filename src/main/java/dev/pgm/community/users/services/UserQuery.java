@@ -1,18 +1,28 @@
 package dev.pgm.community.users.services;
 
+import dev.pgm.community.database.UUIDCodec;
+
 public interface UserQuery {
 
   static final String TABLE_FIELDS =
-      "(id VARCHAR(36) PRIMARY KEY, name VARCHAR(16), first_join LONG, join_count INT)";
+      "(id "
+          + UUIDCodec.columnType()
+          + " PRIMARY KEY, name VARCHAR(16), first_join LONG, join_count INT)";
   static final String TABLE_NAME = "users";
 
   static final String INSERT_USER_QUERY =
       "INSERT INTO " + TABLE_NAME + "(id, name, first_join, join_count) VALUES (?,?,?,?)";
 
-  static final String USERNAME_QUERY =
+  // Case-insensitive through the column collation, so the name index can be used
+  static final String USERNAME_QUERY = "SELECT * from " + TABLE_NAME + " WHERE name = ? LIMIT 1";
+  // Until the collation is migrated
+  static final String USERNAME_LOWER_QUERY =
       "SELECT * from " + TABLE_NAME + " WHERE LOWER(name) = LOWER(?) LIMIT 1";
   static final String PLAYERID_QUERY = "SELECT * from " + TABLE_NAME + " WHERE id = ? LIMIT 1";
 
+  // Completed with Query.placeholders for the number of ids
+  static final String USERNAMES_QUERY = "SELECT id, name from " + TABLE_NAME + " WHERE id IN ";
+
   static final String UPDATE_USER_QUERY =
       "UPDATE " + TABLE_NAME + " SET name = ?, join_count = ? WHERE id = ? ";
 }
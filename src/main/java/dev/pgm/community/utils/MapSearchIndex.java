@@ -0,0 +1,161 @@
+package dev.pgm.community.utils;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import dev.pgm.community.menu.MapIconCatalog;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import tc.oc.pgm.api.PGM;
+import tc.oc.pgm.api.map.MapInfo;
+
+/**
+ * MapSearchIndex - Finds maps by name without scanning the map library
+ *
+ * <p>Names are normalized to lowercase letters and digits, and every word start of a name is kept
+ * as a key in one sorted array, a flattened prefix trie: a prefix is found with a binary search and
+ * its matches are the keys right after it. Results are bitsets over {@link MapIconCatalog} numbers,
+ * so they combine with its tag, size and phase filters. Rebuilt with the catalog.
+ */
+public class MapSearchIndex {
+
+  private static MapSearchIndex index;
+
+  /** @return The index of the current map library */
+  public static MapSearchIndex get() {
+    MapIconCatalog catalog = MapIconCatalog.get();
+    if (index == null || index.catalog != catalog) {
+      index = new MapSearchIndex(catalog);
+    }
+    return index;
+  }
+
+  /** @return The name reduced to lowercase letters and digits */
+  public static String normalize(String name) {
+    StringBuilder normalized = new StringBuilder(name.length());
+    for (int i = 0; i < name.length(); i++) {
+      char c = Character.toLowerCase(name.charAt(i));
+      if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+        normalized.append(c);
+      }
+    }
+    return normalized.toString();
+  }
+
+  private final MapIconCatalog catalog;
+  private final Map<String, Integer> byName;
+
+  // Sorted keys and the map number each one belongs to
+  private final String[] keys;
+  private final int[] maps;
+
+  private MapSearchIndex(MapIconCatalog catalog) {
+    this.catalog = catalog;
+    this.byName = Maps.newHashMapWithExpectedSize(catalog.size());
+
+    List<Key> entries = Lists.newArrayList();
+    for (int i = 0; i < catalog.size(); i++) {
+      String name = catalog.getMap(i).getName();
+      byName.putIfAbsent(normalize(name), i);
+
+      // Every word start, so "Race for Victory" is found by "race", "for" and "vic"
+      boolean wordStart = true;
+      for (int c = 0; c < name.length(); c++) {
+        boolean letter = Character.isLetterOrDigit(name.charAt(c));
+        if (letter && wordStart) {
+          String key = normalize(name.substring(c));
+          if (!key.isEmpty()) {
+            entries.add(new Key(key, i));
+          }
+        }
+        wordStart = !letter;
+      }
+    }
+    entries.sort(Comparator.comparing(key -> key.key));
+
+    this.keys = new String[entries.size()];
+    this.maps = new int[entries.size()];
+    for (int i = 0; i < entries.size(); i++) {
+      keys[i] = entries.get(i).key;
+      maps[i] = entries.get(i).map;
+    }
+  }
+
+  /**
+   * Finds the map a player meant
+   *
+   * @param input A full map name, or the start of a name or of one of its words
+   * @return The map with that exact name, else the only map matching the start, else the map found
+   *     by the PGM library, which also handles names without letters or digits
+   */
+  @Nullable
+  public MapInfo find(String input) {
+    String name = input.replace(PGMUtils.SPACE, " ");
+    String query = normalize(name);
+    if (!query.isEmpty()) {
+      Integer exact = byName.get(query);
+      if (exact != null) return catalog.getMap(exact);
+
+      BitSet matches = search(query);
+      if (matches.cardinality() == 1) return catalog.getMap(matches.nextSetBit(0));
+    }
+    return PGM.get().getMapLibrary().getMap(name);
+  }
+
+  /**
+   * Finds maps with a name or word starting with the query
+   *
+   * @param query The text typed, any case or spacing
+   * @return A new filter with the matching maps, every map if the query is empty
+   */
+  public BitSet search(String query) {
+    String prefix = normalize(query.replace(PGMUtils.SPACE, " "));
+    if (prefix.isEmpty()) return catalog.all();
+
+    BitSet matches = new BitSet(catalog.size());
+    for (int i = lowerBound(prefix); i < keys.length && keys[i].startsWith(prefix); i++) {
+      matches.set(maps[i]);
+    }
+    return matches;
+  }
+
+  /**
+   * Completes a map name
+   *
+   * @param input The text typed so far
+   * @param limit The most names to return
+   * @return Names of matching maps in name order, spaces replaced so each is a single argument
+   */
+  public List<String> complete(String input, int limit) {
+    BitSet matches = search(input);
+    List<String> names = Lists.newArrayListWithCapacity(Math.min(limit, matches.cardinality()));
+    for (int i = matches.nextSetBit(0);
+        i >= 0 && names.size() < limit;
+        i = matches.nextSetBit(i + 1)) {
+      names.add(catalog.getMap(i).getName().replace(" ", PGMUtils.SPACE));
+    }
+    return names;
+  }
+
+  private int lowerBound(String prefix) {
+    int found = Arrays.binarySearch(keys, prefix);
+    if (found < 0) return -found - 1;
+    while (found > 0 && keys[found - 1].equals(prefix)) {
+      found--;
+    }
+    return found;
+  }
+
+  private static class Key {
+    private final String key;
+    private final int map;
+
+    private Key(String key, int map) {
+      this.key = key;
+      this.map = map;
+    }
+  }
+}
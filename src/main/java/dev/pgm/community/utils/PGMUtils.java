@@ -1,6 +1,7 @@
 package dev.pgm.community.utils;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Range;
 import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
@@ -77,27 +78,31 @@ public class PGMUtils {
   }
 
   public static boolean isMapSizeAllowed(MapInfo map) {
+    return getAllowedMapSize().contains(map.getMaxPlayers().stream().reduce(0, Integer::sum));
+  }
+
+  /** @return The max players a map may have to suit the players online */
+  public static Range<Integer> getAllowedMapSize() {
     if (isPGMEnabled()) {
       Match match = getMatch();
       int participants = match.getParticipants().size();
       int observers = match.getObservers().size();
       int total = participants + (observers / 4);
 
-      int max = map.getMaxPlayers().stream().reduce(0, Integer::sum);
       int lowerBound = participants;
       int upperBound = total + (int) (total * 0.35);
 
-      return max >= lowerBound && max <= upperBound;
+      return Range.closed(lowerBound, upperBound);
     }
 
-    return true;
+    return Range.all();
   }
 
   public static MapInfo parseMapText(String input) throws TextException {
     if (input.contains(PGMUtils.SPACE)) {
       input = input.replaceAll(PGMUtils.SPACE, " ");
     }
-    MapInfo map = PGM.get().getMapLibrary().getMap(input);
+    MapInfo map = MapSearchIndex.get().find(input);
 
     if (map == null) {
       throw TextException.exception(
@@ -0,0 +1,87 @@
+package dev.pgm.community.utils;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * SingleFlight - Coalesces concurrent loads of the same keys into a single batched load
+ *
+ * <p>Keys already being loaded are joined, all remaining keys are loaded together in one call.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public class SingleFlight<K, V> {
+
+  private final Map<K, CompletableFuture<V>> inFlight;
+
+  public SingleFlight() {
+    this.inFlight = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Loads the given keys, sharing any load already in flight
+   *
+   * @param keys Keys to load
+   * @param loader Batch loader for keys not in flight, missing keys resolve to null
+   * @return A future of every requested key to its value
+   */
+  public CompletableFuture<Map<K, V>> getAll(
+      Collection<K> keys, Function<Set<K>, CompletableFuture<Map<K, V>>> loader) {
+    Map<K, CompletableFuture<V>> futures = new HashMap<>();
+    Map<K, CompletableFuture<V>> owned = new HashMap<>();
+
+    for (K key : keys) {
+      if (futures.containsKey(key)) continue;
+      CompletableFuture<V> created = new CompletableFuture<>();
+      CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+      if (existing != null) {
+        futures.put(key, existing);
+      } else {
+        futures.put(key, created);
+        owned.put(key, created);
+      }
+    }
+
+    if (!owned.isEmpty()) {
+      CompletableFuture<Map<K, V>> load;
+      try {
+        load = loader.apply(ImmutableSet.copyOf(owned.keySet()));
+      } catch (RuntimeException e) {
+        load = new CompletableFuture<>();
+        load.completeExceptionally(e);
+      }
+
+      load.whenComplete(
+          (values, error) ->
+              owned.forEach(
+                  (key, future) -> {
+                    inFlight.remove(key, future);
+                    if (error != null) {
+                      future.completeExceptionally(error);
+                    } else {
+                      future.complete(values != null ? values.get(key) : null);
+                    }
+                  }));
+    }
+
+    return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0]))
+        .thenApply(
+            v -> {
+              Map<K, V> results = new HashMap<>();
+              futures.forEach((key, future) -> results.put(key, future.join()));
+              return results;
+            });
+  }
+
+  /** The number of keys currently being loaded */
+  public int size() {
+    return inFlight.size();
+  }
+}
@@ -26,23 +26,11 @@ public class WebUtils {
   private static final String RANDOM_NAME_API = "https://api.gamertag.dev/random";
   private static final String USERNAME_API = "https://api.ashcon.app/mojang/v2/user/";
 
-  /** Fetch a list of random minecraft usernames */
-  public static CompletableFuture<List<String>> getRandomNameList(int size) {
-    return CompletableFuture.supplyAsync(
-        () -> {
-          List<String> names = Lists.newArrayList();
-          for (int i = 0; i < size; i++) {
-            names.add(getRandomName().join());
-          }
-          return names;
-        });
-  }
-
-  /** Fetch a random minecraft username */
+  /** Fetch a random minecraft username, or null if the request failed */
   public static CompletableFuture<String> getRandomName() {
     return CompletableFuture.supplyAsync(
         () -> {
-          String response = "ERROR_404";
+          String response = null;
           HttpURLConnection url;
           try {
             url = (HttpURLConnection) new URL(RANDOM_NAME_API).openConnection();
@@ -56,14 +44,16 @@ public class WebUtils {
             try (final BufferedReader br =
                 new BufferedReader(
                     new InputStreamReader(url.getInputStream(), StandardCharsets.UTF_8))) {
-              response = br.readLine().trim();
+              String line = br.readLine();
+              response = line == null ? null : line.trim();
             }
           } catch (IOException e) {
-            e.printStackTrace();
+            Community.log("%s", e.getMessage());
           }
 
           return response;
-        });
+        },
+        Community.get().getExecutors().io());
   }
 
   public static CompletableFuture<Skin> getSkin(String input) {
@@ -77,11 +67,13 @@ public class WebUtils {
               String data = texture.get("raw").getAsJsonObject().get("value").getAsString();
               String sign = texture.get("raw").getAsJsonObject().get("signature").getAsString();
               return new Skin(data, sign);
-            });
+            },
+            Community.get().getExecutors().io());
   }
 
   public static CompletableFuture<UsernameHistory> getUsernameHistory(String input) {
-    return getProfile(input).thenApplyAsync(UsernameHistory::of);
+    return getProfile(input)
+        .thenApplyAsync(UsernameHistory::of, Community.get().getExecutors().io());
   }
 
   public static class UsernameHistory {
@@ -178,6 +170,7 @@ public class WebUtils {
             Community.log("%s", e.getMessage());
           }
           return obj;
-        });
+        },
+        Community.get().getExecutors().io());
   }
 }